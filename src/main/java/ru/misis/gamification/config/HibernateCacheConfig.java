@@ -0,0 +1,63 @@
+package ru.misis.gamification.config;
+
+import org.ehcache.config.CacheConfiguration;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Кэш второго уровня Hibernate для справочных сущностей: курсов, групп и типов событий
+ * <p>
+ * Регионы создаются здесь с ограничением по количеству записей и временем жизни из настроек
+ * {@code gamification.features.second-level-cache}. Включение кэша и фабрика регионов задаются
+ * в {@code spring.jpa.properties.hibernate.cache}.
+ * </p>
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    /**
+     * Регионы сущностей и их естественных идентификаторов
+     */
+    public static final List<String> REGIONS = List.of(
+            "course", "course-natural-id",
+            "group", "group-natural-id",
+            "event-type", "event-type-natural-id");
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            @Value("${gamification.features.second-level-cache.max-entries:10000}") long maxEntries,
+            @Value("${gamification.features.second-level-cache.ttl:PT1H}") Duration ttl) {
+        CacheConfiguration<Object, Object> regionConfig = CacheConfigurationBuilder
+                .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(maxEntries))
+                .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(ttl))
+                .build();
+
+        ConfigurationBuilder configuration = ConfigurationBuilder.newConfigurationBuilder();
+        for (String region : REGIONS) {
+            configuration = configuration.withCache(region, regionConfig);
+        }
+
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(
+                EhcacheCachingProvider.class.getName());
+        return provider.getCacheManager(URI.create("gamification-hibernate-cache"), configuration.build());
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+}
@@ -40,18 +40,22 @@ public class SecurityConfig {
                         // Эндпоинт приёма событий от LMS
                         // TODO: дополнительная проверка подписи
                         .requestMatchers("/api/v1/event").permitAll()
+                        .requestMatchers("/api/v1/events/**").permitAll()
 
                         // --- API для аутентифицированных пользователей (STUDENT, TEACHER, METHODIST, ADMIN) ---
                         // Получение данных пользователя (с проверкой владельца в самом контроллере через @PreAuthorize)
                         .requestMatchers("/api/v1/users/*").hasAnyRole("STUDENT", "TEACHER", "METHODIST", "ADMIN")
                         .requestMatchers("/api/v1/leaderboard/users/*/courses").hasAnyRole("STUDENT", "TEACHER", "METHODIST", "ADMIN")
                         .requestMatchers("/api/v1/leaderboard/course/*/user/*").hasAnyRole("STUDENT", "TEACHER", "METHODIST", "ADMIN")
+                        .requestMatchers("/api/v1/leaderboard/course/*/user/*/around", "/api/v1/leaderboard/course/*/user/*/percentile",
+                                "/api/v1/leaderboard/course/*/user/*/period/*").hasAnyRole("STUDENT", "TEACHER", "METHODIST", "ADMIN")
+                        .requestMatchers("/api/v1/leaderboard/global", "/api/v1/leaderboard/global/user/*").hasAnyRole("STUDENT", "TEACHER", "METHODIST", "ADMIN")
 
                         // Студенческие эндпоинты /me (только владелец данных, проверка через @PreAuthorize)
                         .requestMatchers("/api/v1/me/**").hasAnyRole("STUDENT", "TEACHER", "METHODIST", "ADMIN")
 
                         // --- Преподавательские эндпоинты (если будут реализованы) ---
-                        .requestMatchers("/api/v1/course/*/leaderboard").hasAnyRole("TEACHER", "METHODIST", "ADMIN")
+                        .requestMatchers("/api/v1/course/*/leaderboard", "/api/v1/course/*/leaderboard/ranks").hasAnyRole("TEACHER", "METHODIST", "ADMIN")
                         .requestMatchers("/api/v1/course/*/students/*").hasAnyRole("TEACHER", "METHODIST", "ADMIN")
                         .requestMatchers("/api/v1/course/*/manual-points").hasAnyRole("TEACHER", "METHODIST", "ADMIN")
 
@@ -0,0 +1,51 @@
+package ru.misis.gamification.controller.admin;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.misis.gamification.dto.admin.response.EventImportResultDto;
+import ru.misis.gamification.service.application.ingestion.LmsEventImportApplicationService;
+
+import java.io.InputStream;
+
+@PreAuthorize("hasRole('ADMIN')")
+@Slf4j
+@RestController
+@RequestMapping("/api/admin/import")
+@RequiredArgsConstructor
+@Tag(name = "Admin - Импорт", description = "Загрузка истории событий LMS")
+public class EventImportAdminController {
+
+    /**
+     * Фасадный сервис импорта истории событий LMS
+     */
+    private final LmsEventImportApplicationService importApplicationService;
+
+    @Operation(
+            summary = "Импортировать историю событий LMS",
+            description = "Принимает NDJSON: одно событие LMS на строку в формате запроса /api/v1/event " +
+                    "с необязательным полем occurredAt. Файл читается потоково и начисляется пачками " +
+                    "с проверкой дубликатов и дневных лимитов. Повторная загрузка того же файла безопасна"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Импорт выполнен или остановлен ошибкой (см. completed)",
+                    content = @Content(schema = @Schema(implementation = EventImportResultDto.class))),
+            @ApiResponse(responseCode = "401", description = "Не авторизован. Отсутствует заголовок X-User-Id."),
+            @ApiResponse(responseCode = "403", description = "Доступ запрещён. Недостаточно прав.")
+    })
+    @PostMapping(value = "/events", consumes = {"application/x-ndjson", "application/jsonl", "text/plain"})
+    public ResponseEntity<EventImportResultDto> importEvents(InputStream ndjson) {
+        log.info("Получен запрос на импорт истории событий LMS");
+        return ResponseEntity.ok(importApplicationService.importEvents(ndjson));
+    }
+}
@@ -0,0 +1,92 @@
+package ru.misis.gamification.controller.admin;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.misis.gamification.dto.admin.response.LevelRecalculationJobDto;
+import ru.misis.gamification.service.application.user.LevelRecalculationApplicationService;
+
+import java.util.UUID;
+
+@PreAuthorize("hasRole('ADMIN')")
+@Slf4j
+@RestController
+@RequestMapping("/api/admin/levels/recalculation")
+@RequiredArgsConstructor
+@Tag(name = "Admin - Уровни", description = "Пересчёт уровней пользователей после смены формулы")
+public class LevelRecalculationAdminController {
+
+    /**
+     * Фасадный сервис пересчёта уровней
+     */
+    private final LevelRecalculationApplicationService recalculationService;
+
+    @Operation(
+            summary = "Запустить пересчёт уровней",
+            description = "Запускает фоновый пересчёт сохранённых уровней всех пользователей по действующей формуле. " +
+                    "Записываются только изменившиеся уровни; скорость ограничена, при очереди начислений " +
+                    "пересчёт приостанавливается. Если пересчёт уже выполняется, возвращается его состояние"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Пересчёт запущен или уже выполняется",
+                    content = @Content(schema = @Schema(implementation = LevelRecalculationJobDto.class))),
+            @ApiResponse(responseCode = "401", description = "Не авторизован. Отсутствует заголовок X-User-Id."),
+            @ApiResponse(responseCode = "403", description = "Доступ запрещён. Недостаточно прав.")
+    })
+    @PostMapping
+    public ResponseEntity<LevelRecalculationJobDto> start() {
+        log.info("Получен запрос на пересчёт уровней");
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(recalculationService.start());
+    }
+
+    @Operation(summary = "Получить состояние последнего пересчёта уровней")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Состояние пересчёта",
+                    content = @Content(schema = @Schema(implementation = LevelRecalculationJobDto.class))),
+            @ApiResponse(responseCode = "404", description = "Пересчёт не запускался")
+    })
+    @GetMapping
+    public ResponseEntity<LevelRecalculationJobDto> getLatest() {
+        return ResponseEntity.ok(recalculationService.getLatest());
+    }
+
+    @Operation(summary = "Получить состояние пересчёта уровней")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Состояние пересчёта",
+                    content = @Content(schema = @Schema(implementation = LevelRecalculationJobDto.class))),
+            @ApiResponse(responseCode = "404", description = "Задача не найдена")
+    })
+    @GetMapping("/{jobUuid}")
+    public ResponseEntity<LevelRecalculationJobDto> getJob(
+            @Parameter(description = "UUID задачи пересчёта") @PathVariable UUID jobUuid) {
+        return ResponseEntity.ok(recalculationService.getJob(jobUuid));
+    }
+
+    @Operation(summary = "Отменить пересчёт уровней",
+            description = "Пересчёт останавливается после текущей страницы, записанные уровни сохраняются")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Состояние пересчёта после отмены",
+                    content = @Content(schema = @Schema(implementation = LevelRecalculationJobDto.class))),
+            @ApiResponse(responseCode = "404", description = "Задача не найдена")
+    })
+    @PostMapping("/{jobUuid}/cancel")
+    public ResponseEntity<LevelRecalculationJobDto> cancel(
+            @Parameter(description = "UUID задачи пересчёта") @PathVariable UUID jobUuid) {
+        log.info("Получен запрос на отмену пересчёта уровней: uuid={}", jobUuid);
+        return ResponseEntity.ok(recalculationService.cancel(jobUuid));
+    }
+}
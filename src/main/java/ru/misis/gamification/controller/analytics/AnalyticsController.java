@@ -59,6 +59,8 @@ public class AnalyticsController {
                     Возвращает пагинированный лидерборд студентов курса.
                     Если передан groupId — показывает лидерборд только внутри указанной группы.
                     Если groupId не указан — показывает общий лидерборд по всему курсу.
+                    Для глубоких страниц передайте cursor из nextCursor предыдущего ответа: страница
+                    находится по индексу без OFFSET, page игнорируется, итоги (totalElements, totalPages) не считаются.
                     """
     )
     @ApiResponses({
@@ -67,7 +69,7 @@ public class AnalyticsController {
                             schema = @Schema(implementation = GroupLeaderboardPageDto.class))
 
             ),
-            @ApiResponse(responseCode = "400", description = "Некорректные параметры запроса (например, page < 0 или size > 100)"),
+            @ApiResponse(responseCode = "400", description = "Некорректные параметры запроса (например, page < 0, size > 100 или некорректный cursor)"),
             @ApiResponse(responseCode = "401", description = "Не авторизован. Отсутствует заголовок X-User-Id."),
             @ApiResponse(responseCode = "403", description = "Доступ запрещён. Недостаточно прав."),
             @ApiResponse(responseCode = "404", description = "Курс или группа не найдены")
@@ -92,12 +94,18 @@ public class AnalyticsController {
             @Min(value = 1, message = "{size.positive}")
             @Max(value = MAX_PAGE_SIZE, message = "{size.too-large}")
             @Parameter(description = "Размер страницы (макс " + MAX_PAGE_SIZE + ")", example = "50")
-            int size
+            int size,
+
+            @RequestParam(required = false)
+            @Parameter(description = "Курсор следующей страницы (nextCursor из предыдущего ответа)")
+            String cursor
     ) {
-        log.debug("Запрос лидерборда: courseId={}, groupId={}, page={}, size={}",
-                courseId, groupId, page, size);
+        log.debug("Запрос лидерборда: courseId={}, groupId={}, page={}, size={}, cursor={}",
+                courseId, groupId, page, size, cursor);
 
-        LeaderboardPageView view = leaderboardApplicationService.getGroupLeaderboard(courseId, groupId, page, size);
+        LeaderboardPageView view = cursor != null
+                ? leaderboardApplicationService.getGroupLeaderboardAfter(courseId, groupId, cursor, size)
+                : leaderboardApplicationService.getGroupLeaderboard(courseId, groupId, page, size);
         GroupLeaderboardPageDto dto = leaderboardMapper.toGroupLeaderboardPageDto(view);
 
         return ResponseEntity.ok(dto);
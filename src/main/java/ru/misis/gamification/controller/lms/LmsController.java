@@ -7,24 +7,35 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import ru.misis.gamification.dto.lms.request.LmsEventRequestDto;
 import ru.misis.gamification.dto.lms.response.LmsEventResponseDto;
+import ru.misis.gamification.dto.lms.response.LmsEventStatusResponseDto;
 import ru.misis.gamification.service.application.awarding.LmsEventProcessorApplicationService;
+import ru.misis.gamification.service.application.ingestion.LmsEventIngestionApplicationService;
+
+import java.util.List;
 
 /**
  * Контроллер для приема событий от LMS
  */
 @RestController
-@RequestMapping("/api/v1/event")
+@RequestMapping("/api/v1")
 @RequiredArgsConstructor
 @Slf4j
+@Validated
 @Tag(name = "LMS Events", description = "Приём и обработка событий от LMS-платформы")
 public class LmsController {
 
@@ -33,14 +44,22 @@ public class LmsController {
      */
     private final LmsEventProcessorApplicationService lmsEventProcessor;
 
-    @PostMapping
+    /**
+     * Фасадный сервис асинхронного приёма событий из LMS
+     */
+    private final LmsEventIngestionApplicationService lmsEventIngestion;
+
+    @PostMapping("/event")
     @Operation(
             summary = "Обработать событие от LMS",
-            description = "Принимает событие (например, выполнение задания) и начисляет очки пользователю"
+            description = "Принимает событие (например, выполнение задания) и начисляет очки пользователю. " +
+                    "В асинхронном режиме событие ставится в очередь и подтверждается статусом accepted"
     )
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Событие успешно обработано",
                     content = @Content(schema = @Schema(implementation = LmsEventResponseDto.class))),
+            @ApiResponse(responseCode = "202", description = "Событие принято в очередь (асинхронный режим)",
+                    content = @Content(schema = @Schema(implementation = LmsEventResponseDto.class))),
             @ApiResponse(responseCode = "400", description = "Некорректные данные события"),
             @ApiResponse(responseCode = "409", description = "Событие уже было обработано (дубликат)"),
             @ApiResponse(responseCode = "500", description = "Внутренняя ошибка сервера")
@@ -49,9 +68,51 @@ public class LmsController {
         log.info("Получен запрос от LMS: userId={}, eventId={}, eventType={}",
                 lmsEventRequestDto.getUserId(), lmsEventRequestDto.getEventId(), lmsEventRequestDto.getEventType());
 
+        if (lmsEventIngestion.isAsyncEnabled()) {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(lmsEventIngestion.accept(lmsEventRequestDto));
+        }
+
         LmsEventResponseDto response = lmsEventProcessor.process(lmsEventRequestDto);
 
         log.debug("Ответ для LMS сформирован: status={}", response.getStatus());
         return ResponseEntity.ok(response);
     }
+
+    @PostMapping("/events/batch")
+    @Operation(
+            summary = "Обработать пакет событий от LMS",
+            description = "Принимает до 1000 событий и начисляет очки одним проходом. " +
+                    "Ответ содержит результат по каждому событию в порядке запроса"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Пакет обработан, статусы — по каждому событию"),
+            @ApiResponse(responseCode = "400", description = "Пустой, слишком большой или некорректный пакет"),
+            @ApiResponse(responseCode = "500", description = "Внутренняя ошибка сервера")
+    })
+    public ResponseEntity<List<LmsEventResponseDto>> processUserEventsBatch(
+            @RequestBody
+            @NotEmpty(message = "{lms.events.required}")
+            @Size(max = 1000, message = "{lms.events.size}")
+            List<@Valid LmsEventRequestDto> lmsEventRequestDtos) {
+        log.info("Получен пакет событий от LMS: size={}", lmsEventRequestDtos.size());
+
+        List<LmsEventResponseDto> responses = lmsEventProcessor.processBatch(lmsEventRequestDtos);
+
+        log.debug("Ответ для LMS на пакет сформирован: size={}", responses.size());
+        return ResponseEntity.ok(responses);
+    }
+
+    @GetMapping("/events/{eventId}/status")
+    @Operation(
+            summary = "Получить состояние обработки события",
+            description = "Возвращает состояние события, принятого в асинхронном режиме"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Состояние события",
+                    content = @Content(schema = @Schema(implementation = LmsEventStatusResponseDto.class))),
+            @ApiResponse(responseCode = "404", description = "Событие не поступало в очередь")
+    })
+    public ResponseEntity<LmsEventStatusResponseDto> getEventStatus(@PathVariable String eventId) {
+        return ResponseEntity.ok(lmsEventIngestion.getStatus(eventId));
+    }
 }
@@ -0,0 +1,94 @@
+package ru.misis.gamification.controller.teacher;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import ru.misis.gamification.dto.analytics.CourseRanksDto;
+import ru.misis.gamification.mapper.LeaderboardMapper;
+import ru.misis.gamification.model.CourseRanksView;
+import ru.misis.gamification.service.application.leaderboard.LeaderboardApplicationService;
+
+import java.util.List;
+
+/**
+ * REST-контроллер лидербордов для панели преподавателя
+ * <p>
+ * Доступен ролям TEACHER, METHODIST и ADMIN. Все идентификаторы (курса, группы, студентов) — внешние строки из LMS.
+ * </p>
+ */
+@Tag(name = "Teacher — Лидерборды курса")
+@RestController
+@RequestMapping("/api/v1/course")
+@RequiredArgsConstructor
+@Validated
+@Slf4j
+public class TeacherLeaderboardController {
+
+    /**
+     * Фасадный сервис управления лидербордом
+     */
+    private final LeaderboardApplicationService leaderboardApplicationService;
+
+    /**
+     * Маппер лидербордов
+     */
+    private final LeaderboardMapper leaderboardMapper;
+
+    @Operation(
+            summary = "Ранги группы студентов в лидерборде курса",
+            description = """
+                    Принимает до 500 идентификаторов студентов и возвращает их ранги и очки в лидерборде курса
+                    (или группы — groupId) одним проходом, без отдельного запроса на каждого студента.
+                    Ранг — плотный: одинаковые очки — одинаковое место. Не найденные и не зачисленные
+                    студенты перечисляются в missingUserIds.
+                    """
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Успешно получены ранги",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = CourseRanksDto.class))),
+            @ApiResponse(responseCode = "400", description = "Пустой или слишком большой список студентов"),
+            @ApiResponse(responseCode = "401", description = "Не авторизован. Отсутствует заголовок X-User-Id."),
+            @ApiResponse(responseCode = "403", description = "Доступ запрещён. Недостаточно прав."),
+            @ApiResponse(responseCode = "404", description = "Курс или группа не найдены")
+    })
+    @PostMapping("/{courseId}/leaderboard/ranks")
+    public ResponseEntity<CourseRanksDto> getRanks(
+            @PathVariable @NotBlank(message = "{course.id.required}")
+            @Parameter(description = "Идентификатор курса из LMS", example = "MATH-101")
+            String courseId,
+
+            @RequestParam(required = false)
+            @Parameter(description = "Идентификатор группы (опционально, если не указан — весь курс)", example = "M-21-2")
+            String groupId,
+
+            @RequestBody
+            @NotEmpty(message = "{leaderboard.users.required}")
+            @Size(max = 500, message = "{leaderboard.users.size}")
+            List<String> userIds) {
+
+        log.debug("REST ранги студентов: courseId={}, groupId={}, users={}", courseId, groupId, userIds.size());
+
+        CourseRanksView view = leaderboardApplicationService.getRanks(courseId, groupId, userIds);
+
+        return ResponseEntity.ok(leaderboardMapper.toCourseRanksDto(view));
+    }
+}
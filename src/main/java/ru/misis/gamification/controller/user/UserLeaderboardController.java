@@ -11,6 +11,7 @@ import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -20,11 +21,24 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import ru.misis.gamification.dto.analytics.CoursePercentileDto;
+import ru.misis.gamification.dto.analytics.GlobalLeaderboardPageDto;
+import ru.misis.gamification.dto.analytics.GlobalRankDto;
+import ru.misis.gamification.dto.analytics.GroupLeaderboardPageDto;
+import ru.misis.gamification.dto.analytics.LeaderboardWindowDto;
 import ru.misis.gamification.dto.analytics.UserCourseGroupLeaderboardDto;
+import ru.misis.gamification.entity.LeaderboardPeriod;
 import ru.misis.gamification.mapper.LeaderboardMapper;
+import ru.misis.gamification.model.CoursePercentileView;
+import ru.misis.gamification.model.GlobalLeaderboardPageView;
+import ru.misis.gamification.model.GlobalRankView;
+import ru.misis.gamification.model.LeaderboardPageView;
+import ru.misis.gamification.model.LeaderboardWindowView;
 import ru.misis.gamification.model.UserCourseGroupLeaderboardView;
 import ru.misis.gamification.service.application.leaderboard.LeaderboardApplicationService;
 
+import java.time.LocalDate;
+
 /**
  * REST-контроллер для получения персонализированного лидерборда студента.
  * <p>
@@ -51,6 +65,8 @@ public class UserLeaderboardController {
 
     private static final int DEFAULT_PAGE_SIZE = 50;
     private static final int MAX_PAGE_SIZE = 100;
+    private static final int DEFAULT_RADIUS = 5;
+    private static final int MAX_RADIUS = 50;
 
     @Operation(
             summary = "Персонализированный лидерборд по курсу (и опционально группе)",
@@ -58,13 +74,15 @@ public class UserLeaderboardController {
                      Возвращает пагинированный топ участников курса (все группы или конкретную группу) +
                      обязательные данные о текущем студенте: место, очки, уровень.
                      groupId — опциональный параметр.
+                     Для глубоких страниц передайте cursor из nextCursor предыдущего ответа: страница
+                     находится по индексу без OFFSET, page игнорируется, итоги (totalElements, totalPages) не считаются.
                     """
     )
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Успешно получен лидерборд",
                     content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
                             schema = @Schema(implementation = UserCourseGroupLeaderboardDto.class))),
-            @ApiResponse(responseCode = "400", description = "Некорректные параметры запроса (page < 0, size > 100 и т.п.)"),
+            @ApiResponse(responseCode = "400", description = "Некорректные параметры запроса (page < 0, size > 100, некорректный cursor и т.п.)"),
             @ApiResponse(responseCode = "401", description = "Не авторизован. Отсутствует заголовок X-User-Id."),
             @ApiResponse(responseCode = "403", description = "Доступ запрещён. Недостаточно прав."),
             @ApiResponse(responseCode = "404", description = "Курс, группа или пользователь не найдены")
@@ -93,15 +111,236 @@ public class UserLeaderboardController {
             @Min(value = 1, message = "{size.positive}")
             @Max(value = MAX_PAGE_SIZE, message = "{size.too-large}")
             @Parameter(description = "Размер страницы (макс " + MAX_PAGE_SIZE + ")", example = "50")
-            int size) {
+            int size,
+
+            @RequestParam(required = false)
+            @Parameter(description = "Курсор следующей страницы (nextCursor из предыдущего ответа)")
+            String cursor) {
 
-        log.debug("REST лидерборд: userId={}, courseId={}, groupId={}, page={}, size={}",
-                userId, courseId, groupId, page, size);
+        log.debug("REST лидерборд: userId={}, courseId={}, groupId={}, page={}, size={}, cursor={}",
+                userId, courseId, groupId, page, size, cursor);
 
-        UserCourseGroupLeaderboardView view = leaderboardService.getCourseLeaderboardForUser(
-                courseId, groupId, page, size, userId);
+        UserCourseGroupLeaderboardView view = cursor != null
+                ? leaderboardService.getCourseLeaderboardForUserAfter(courseId, groupId, cursor, size, userId)
+                : leaderboardService.getCourseLeaderboardForUser(courseId, groupId, page, size, userId);
         UserCourseGroupLeaderboardDto lb = applicationModelMapper.toUserCourseGroupLeaderboardDto(view);
 
         return ResponseEntity.ok(lb);
     }
+
+    @Operation(
+            summary = "Окно лидерборда вокруг студента",
+            description = """
+                     Возвращает до radius участников выше и ниже текущего студента по курсу
+                     (или группе — groupId) и его собственную строку. Соседи находятся поиском
+                     по индексу от позиции студента, поэтому стоимость не зависит от его места.
+                     Ранг — плотный: одинаковые очки — одинаковое место.
+                    """
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Успешно получено окно лидерборда",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = LeaderboardWindowDto.class))),
+            @ApiResponse(responseCode = "400", description = "Некорректные параметры запроса (radius < 1 или > 50)"),
+            @ApiResponse(responseCode = "401", description = "Не авторизован. Отсутствует заголовок X-User-Id."),
+            @ApiResponse(responseCode = "403", description = "Доступ запрещён. Недостаточно прав."),
+            @ApiResponse(responseCode = "404", description = "Курс или группа не найдены")
+    })
+    @PreAuthorize("#userId == authentication.principal.userId")
+    @GetMapping("/course/{courseId}/user/{userId}/around")
+    public ResponseEntity<LeaderboardWindowDto> getLeaderboardAroundUser(
+            @PathVariable @NotBlank(message = "{course.id.required}")
+            @Parameter(description = "Идентификатор курса из LMS", example = "MATH-101")
+            String courseId,
+
+            @PathVariable @NotBlank(message = "{user.id.required}")
+            @Parameter(description = "Идентификатор пользователя из LMS", example = "student007")
+            String userId,
+
+            @RequestParam(required = false)
+            @Parameter(description = "Идентификатор группы (опционально, если не указан — весь курс)", example = "M-21-2")
+            String groupId,
+
+            @RequestParam(defaultValue = "" + DEFAULT_RADIUS)
+            @Min(value = 1, message = "{leaderboard.radius.range}")
+            @Max(value = MAX_RADIUS, message = "{leaderboard.radius.range}")
+            @Parameter(description = "Количество соседей выше и ниже (макс " + MAX_RADIUS + ")", example = "5")
+            int radius) {
+
+        log.debug("REST окно лидерборда: userId={}, courseId={}, groupId={}, radius={}",
+                userId, courseId, groupId, radius);
+
+        LeaderboardWindowView view = leaderboardService.getLeaderboardAroundUser(courseId, groupId, radius, userId);
+
+        return ResponseEntity.ok(applicationModelMapper.toLeaderboardWindowDto(view));
+    }
+
+    @Operation(
+            summary = "Лидерборд курса за неделю или месяц для студента",
+            description = """
+                     Возвращает страницу лидерборда по очкам, заработанным на курсе (или в группе — groupId)
+                     за неделю (WEEK, с понедельника) или месяц (MONTH). Доступен только студенту, зачисленному
+                     на курс, и только для себя. По умолчанию — текущий период;
+                     прошлый период выбирается любым его днём в date.
+                     Для глубоких страниц передайте cursor из nextCursor предыдущего ответа: страница
+                     находится по индексу без OFFSET, page игнорируется, итоги (totalElements, totalPages) не считаются.
+                    """
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Успешно получен лидерборд",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = GroupLeaderboardPageDto.class))),
+            @ApiResponse(responseCode = "400", description = "Некорректные параметры запроса (неизвестный период, некорректная дата, size > 100, некорректный cursor)"),
+            @ApiResponse(responseCode = "401", description = "Не авторизован. Отсутствует заголовок X-User-Id."),
+            @ApiResponse(responseCode = "403", description = "Доступ запрещён. Недостаточно прав."),
+            @ApiResponse(responseCode = "404", description = "Курс, группа или пользователь не найдены, либо пользователь не зачислен на курс")
+    })
+    @PreAuthorize("#userId == authentication.principal.userId")
+    @GetMapping("/course/{courseId}/user/{userId}/period/{period}")
+    public ResponseEntity<GroupLeaderboardPageDto> getPeriodLeaderboard(
+            @PathVariable @NotBlank(message = "{course.id.required}")
+            @Parameter(description = "Идентификатор курса из LMS", example = "MATH-101")
+            String courseId,
+
+            @PathVariable @NotBlank(message = "{user.id.required}")
+            @Parameter(description = "Идентификатор пользователя из LMS", example = "student007")
+            String userId,
+
+            @PathVariable
+            @Parameter(description = "Период лидерборда", example = "WEEK")
+            LeaderboardPeriod period,
+
+            @RequestParam(required = false)
+            @Parameter(description = "Идентификатор группы (опционально, если не указан — весь курс)", example = "M-21-2")
+            String groupId,
+
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            @Parameter(description = "Любой день периода (по умолчанию — сегодня)", example = "2025-03-12")
+            LocalDate date,
+
+            @RequestParam(defaultValue = "0")
+            @Min(value = 0, message = "{page.non-negative}")
+            @Parameter(description = "Номер страницы (0-based)", example = "0")
+            int page,
+
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE)
+            @Min(value = 1, message = "{size.positive}")
+            @Max(value = MAX_PAGE_SIZE, message = "{size.too-large}")
+            @Parameter(description = "Размер страницы (макс " + MAX_PAGE_SIZE + ")", example = "50")
+            int size,
+
+            @RequestParam(required = false)
+            @Parameter(description = "Курсор следующей страницы (nextCursor из предыдущего ответа)")
+            String cursor) {
+
+        log.debug("REST лидерборд за период: userId={}, courseId={}, period={}, date={}, groupId={}, page={}, size={}, cursor={}",
+                userId, courseId, period, date, groupId, page, size, cursor);
+
+        LeaderboardPageView view = cursor != null
+                ? leaderboardService.getPeriodLeaderboardAfter(courseId, groupId, period, date, cursor, size, userId)
+                : leaderboardService.getPeriodLeaderboard(courseId, groupId, period, date, page, size, userId);
+
+        return ResponseEntity.ok(applicationModelMapper.toGroupLeaderboardPageDto(view));
+    }
+
+    @Operation(
+            summary = "Глобальный лидерборд по общим очкам",
+            description = """
+                     Возвращает страницу лидерборда всех студентов по общим очкам (по всем курсам).
+                     Первая страница — без cursor, следующие — с cursor из nextCursor предыдущего ответа:
+                     страница находится по индексу без OFFSET. Ранг строки плотный (одинаковые очки — одинаковое
+                     место), как в глобальном ранге студента.
+                    """
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Успешно получена страница",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = GlobalLeaderboardPageDto.class))),
+            @ApiResponse(responseCode = "400", description = "Некорректные параметры запроса (size > 100, некорректный cursor)"),
+            @ApiResponse(responseCode = "401", description = "Не авторизован. Отсутствует заголовок X-User-Id.")
+    })
+    @GetMapping("/global")
+    public ResponseEntity<GlobalLeaderboardPageDto> getGlobalLeaderboard(
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE)
+            @Min(value = 1, message = "{size.positive}")
+            @Max(value = MAX_PAGE_SIZE, message = "{size.too-large}")
+            @Parameter(description = "Размер страницы (макс " + MAX_PAGE_SIZE + ")", example = "100")
+            int size,
+
+            @RequestParam(required = false)
+            @Parameter(description = "Курсор следующей страницы (nextCursor из предыдущего ответа)")
+            String cursor) {
+
+        log.debug("REST глобальный лидерборд: size={}, cursor={}", size, cursor);
+
+        GlobalLeaderboardPageView view = leaderboardService.getGlobalLeaderboard(cursor, size);
+
+        return ResponseEntity.ok(applicationModelMapper.toGlobalLeaderboardPageDto(view));
+    }
+
+    @Operation(
+            summary = "Глобальный ранг студента",
+            description = """
+                     Возвращает место студента среди всех пользователей по общим очкам.
+                     Ранг — плотный: одинаковые очки — одинаковое место.
+                    """
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Успешно получен ранг",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = GlobalRankDto.class))),
+            @ApiResponse(responseCode = "401", description = "Не авторизован. Отсутствует заголовок X-User-Id."),
+            @ApiResponse(responseCode = "403", description = "Доступ запрещён. Недостаточно прав."),
+            @ApiResponse(responseCode = "404", description = "Пользователь не найден")
+    })
+    @PreAuthorize("#userId == authentication.principal.userId")
+    @GetMapping("/global/user/{userId}")
+    public ResponseEntity<GlobalRankDto> getGlobalRank(
+            @PathVariable @NotBlank(message = "{user.id.required}")
+            @Parameter(description = "Идентификатор пользователя из LMS", example = "student007")
+            String userId) {
+
+        log.debug("REST глобальный ранг: userId={}", userId);
+
+        GlobalRankView view = leaderboardService.getGlobalRank(userId);
+
+        return ResponseEntity.ok(applicationModelMapper.toGlobalRankDto(view));
+    }
+
+    @Operation(
+            summary = "Место студента на курсе в процентах",
+            description = """
+                     Возвращает место студента на курсе и его долю от числа студентов («топ 3%»).
+                     Место — количество студентов с большим количеством очков + 1.
+                     На больших курсах место может быть оценено по гистограмме очков (approximate = true):
+                     неточность — только среди студентов с очками в пределах заданной относительной
+                     погрешности от очков студента. Начало лидерборда всегда считается точно.
+                    """
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Успешно получено место",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = CoursePercentileDto.class))),
+            @ApiResponse(responseCode = "401", description = "Не авторизован. Отсутствует заголовок X-User-Id."),
+            @ApiResponse(responseCode = "403", description = "Доступ запрещён. Недостаточно прав."),
+            @ApiResponse(responseCode = "404", description = "Курс или пользователь не найдены")
+    })
+    @PreAuthorize("#userId == authentication.principal.userId")
+    @GetMapping("/course/{courseId}/user/{userId}/percentile")
+    public ResponseEntity<CoursePercentileDto> getCoursePercentile(
+            @PathVariable @NotBlank(message = "{course.id.required}")
+            @Parameter(description = "Идентификатор курса из LMS", example = "MATH-101")
+            String courseId,
+
+            @PathVariable @NotBlank(message = "{user.id.required}")
+            @Parameter(description = "Идентификатор пользователя из LMS", example = "student007")
+            String userId) {
+
+        log.debug("REST место на курсе в процентах: userId={}, courseId={}", userId, courseId);
+
+        CoursePercentileView view = leaderboardService.getCoursePercentile(courseId, userId);
+
+        return ResponseEntity.ok(applicationModelMapper.toCoursePercentileDto(view));
+    }
 }
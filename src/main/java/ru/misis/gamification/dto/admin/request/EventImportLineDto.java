@@ -0,0 +1,57 @@
+package ru.misis.gamification.dto.admin.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO строки импорта истории событий LMS
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Строка NDJSON-файла импорта истории событий LMS")
+public class EventImportLineDto {
+
+    /**
+     * Идентификатор пользователя из LMS
+     */
+    @Schema(description = "Идентификатор пользователя из LMS", example = "user-12345")
+    private String userId;
+
+    /**
+     * Идентификатор события из LMS
+     */
+    @Schema(description = "Уникальный идентификатор события из LMS (защита от дублей)", example = "event-uuid-001")
+    private String eventId;
+
+    /**
+     * Код типа события
+     */
+    @Schema(description = "Код типа события (должен существовать в системе)", example = "quiz")
+    private String eventType;
+
+    /**
+     * Идентификатор курса из LMS
+     */
+    @Schema(description = "Внешний идентификатор курса из LMS", example = "MATH101")
+    private String courseId;
+
+    /**
+     * Идентификатор группы из LMS
+     */
+    @Schema(description = "Внешний идентификатор группы/потока из LMS", example = "1-A")
+    private String groupId;
+
+    /**
+     * Время события в LMS
+     */
+    @Schema(description = "Время события в LMS: транзакция датируется этим временем, дневной лимит считается " +
+            "за этот день. По умолчанию — время импорта", example = "2025-09-15T10:30:00", nullable = true)
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,88 @@
+package ru.misis.gamification.dto.admin.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO итогов импорта истории событий LMS
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Итоги импорта истории событий LMS из NDJSON")
+public class EventImportResultDto {
+
+    /**
+     * Флаг завершения импорта до конца файла
+     */
+    @Schema(description = "Файл обработан до конца. false — импорт остановлен ошибкой, " +
+            "его можно повторить тем же файлом: уже начисленные события будут пропущены как дубликаты",
+            example = "true")
+    private boolean completed;
+
+    /**
+     * Прочитано непустых строк
+     */
+    @Schema(description = "Прочитано непустых строк", example = "1000000")
+    private long lines;
+
+    /**
+     * Начислено событий
+     */
+    @Schema(description = "Начислено событий", example = "985000")
+    private long awarded;
+
+    /**
+     * Пропущено дубликатов
+     */
+    @Schema(description = "Пропущено событий, обработанных ранее", example = "10000")
+    private long duplicates;
+
+    /**
+     * Отклонено событий
+     */
+    @Schema(description = "Отклонено событий (неизвестный тип, пользователь, курс, дневной лимит)", example = "4900")
+    private long rejected;
+
+    /**
+     * Некорректных строк
+     */
+    @Schema(description = "Строк с некорректным JSON или без обязательных полей", example = "100")
+    private long malformed;
+
+    /**
+     * Начислено очков
+     */
+    @Schema(description = "Всего начислено очков", example = "49250000")
+    private long pointsAwarded;
+
+    /**
+     * Длительность импорта
+     */
+    @Schema(description = "Длительность импорта, мс", example = "180000")
+    private long durationMs;
+
+    /**
+     * Скорость обработки
+     */
+    @Schema(description = "Обработано строк в секунду", example = "5555.6")
+    private double eventsPerSecond;
+
+    /**
+     * Причина остановки импорта
+     */
+    @Schema(description = "Причина остановки импорта (при completed = false)", nullable = true)
+    private String message;
+
+    /**
+     * Первые ошибки по строкам
+     */
+    @Schema(description = "Первые ошибки по строкам: номер строки, eventId и причина")
+    private List<String> errors;
+}
@@ -0,0 +1,89 @@
+package ru.misis.gamification.dto.admin.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.misis.gamification.entity.LevelRecalculationJobStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * DTO задачи пересчёта уровней
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Состояние задачи пересчёта уровней пользователей")
+public class LevelRecalculationJobDto {
+
+    /**
+     * Идентификатор задачи
+     */
+    @Schema(description = "Идентификатор задачи", example = "3f2a9c4e-8b1d-4c6f-9a2e-7d5b0e1f4a3c")
+    private UUID uuid;
+
+    /**
+     * Статус задачи
+     */
+    @Schema(description = "Статус задачи", example = "RUNNING")
+    private LevelRecalculationJobStatus status;
+
+    /**
+     * Формула уровней
+     */
+    @Schema(description = "Формула уровней, по которой выполняется пересчёт", example = "TRIANGULAR(base=500)")
+    private String formula;
+
+    /**
+     * Пользователей на момент запуска
+     */
+    @Schema(description = "Пользователей на момент запуска", example = "1000000")
+    private long totalUsers;
+
+    /**
+     * Обработано пользователей
+     */
+    @Schema(description = "Обработано пользователей", example = "250000")
+    private long processed;
+
+    /**
+     * Пользователей с изменённым уровнем
+     */
+    @Schema(description = "Пользователей, у которых изменился уровень", example = "12000")
+    private long changed;
+
+    /**
+     * Процент выполнения
+     */
+    @Schema(description = "Процент выполнения (оценка: пользователи, созданные после запуска, тоже обрабатываются)",
+            example = "25.0")
+    private double percent;
+
+    /**
+     * Текст ошибки
+     */
+    @Schema(description = "Текст ошибки (для FAILED)", nullable = true)
+    private String lastError;
+
+    /**
+     * Время запуска
+     */
+    @Schema(description = "Время запуска", example = "2025-11-10T14:30:00")
+    private LocalDateTime startedAt;
+
+    /**
+     * Время последней отметки
+     */
+    @Schema(description = "Время последней отметки выполняющего экземпляра", example = "2025-11-10T14:35:00")
+    private LocalDateTime heartbeatAt;
+
+    /**
+     * Время завершения
+     */
+    @Schema(description = "Время завершения", nullable = true)
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,56 @@
+package ru.misis.gamification.dto.analytics;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * DTO места пользователя на курсе в процентах от числа студентов
+ */
+@Data
+@Builder
+@Schema(description = "Место студента на курсе в процентах от числа студентов")
+public class CoursePercentileDto {
+
+    /**
+     * Идентификатор пользователя из LMS
+     */
+    @Schema(description = "Идентификатор пользователя из LMS")
+    private String userId;
+
+    /**
+     * Идентификатор курса из LMS
+     */
+    @Schema(description = "Идентификатор курса из LMS")
+    private String courseId;
+
+    /**
+     * Количество очков на курсе
+     */
+    @Schema(description = "Количество очков на курсе")
+    private Integer pointsInCourse;
+
+    /**
+     * Место на курсе
+     */
+    @Schema(description = "Место: количество студентов с большим количеством очков + 1")
+    private Long rank;
+
+    /**
+     * Количество студентов на курсе
+     */
+    @Schema(description = "Количество студентов на курсе")
+    private Long enrollments;
+
+    /**
+     * Место в процентах
+     */
+    @Schema(description = "Место в процентах от числа студентов, округлённое вверх до сотых («топ 3%»)", example = "3.0")
+    private Double topPercent;
+
+    /**
+     * Признак приближённого места
+     */
+    @Schema(description = "Место оценено по гистограмме очков курса, а не посчитано точно")
+    private Boolean approximate;
+}
@@ -0,0 +1,28 @@
+package ru.misis.gamification.dto.analytics;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * DTO рангов нескольких студентов в лидерборде курса или группы
+ */
+@Data
+@Builder
+@Schema(description = "Ранги и очки группы студентов в лидерборде курса или группы")
+public class CourseRanksDto {
+
+    /**
+     * Строки лидерборда найденных студентов (отсортированы по убыванию очков)
+     */
+    @Schema(description = "Строки лидерборда найденных студентов по убыванию очков; rank — плотный ранг")
+    private List<LeaderboardEntryDto> entries;
+
+    /**
+     * Студенты, которые не найдены или не зачислены на курс (в группу)
+     */
+    @Schema(description = "Запрошенные студенты, которые не найдены или не зачислены на курс (в группу)")
+    private List<String> missingUserIds;
+}
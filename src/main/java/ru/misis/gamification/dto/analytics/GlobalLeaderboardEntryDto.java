@@ -0,0 +1,46 @@
+package ru.misis.gamification.dto.analytics;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.UUID;
+
+/**
+ * Элемент глобального лидерборда
+ */
+@Data
+@Builder
+@Schema(description = "Элемент глобального лидерборда")
+public class GlobalLeaderboardEntryDto {
+
+    /**
+     * UUID пользователя
+     */
+    @Schema(description = "Внутренний UUID пользователя")
+    private UUID userUuid;
+
+    /**
+     * Идентификатор пользователя из LMS
+     */
+    @Schema(description = "Идентификатор пользователя из LMS")
+    private String userId;
+
+    /**
+     * Общее количество очков
+     */
+    @Schema(description = "Общее количество очков по всем курсам")
+    private Integer totalPoints;
+
+    /**
+     * Уровень пользователя
+     */
+    @Schema(description = "Уровень пользователя")
+    private Integer level;
+
+    /**
+     * Плотный ранг в глобальном лидерборде
+     */
+    @Schema(description = "Плотный ранг в глобальном лидерборде (1 = лидер, одинаковые очки — одинаковое место)")
+    private Long rank;
+}
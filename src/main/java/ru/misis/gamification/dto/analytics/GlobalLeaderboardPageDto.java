@@ -0,0 +1,40 @@
+package ru.misis.gamification.dto.analytics;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * DTO страницы глобального лидерборда
+ */
+@Data
+@Builder
+@Schema(description = "Страница глобального лидерборда")
+public class GlobalLeaderboardPageDto {
+
+    /**
+     * Список участников лидерборда
+     */
+    @Schema(description = "Список участников лидерборда")
+    private List<GlobalLeaderboardEntryDto> content;
+
+    /**
+     * Размер страницы
+     */
+    @Schema(description = "Размер страницы")
+    private int pageSize;
+
+    /**
+     * Флаг следующей страницы
+     */
+    @Schema(description = "Есть ли следующая страница")
+    private boolean hasNext;
+
+    /**
+     * Курсор следующей страницы
+     */
+    @Schema(description = "Курсор следующей страницы (передать в параметре cursor); null, если страница последняя")
+    private String nextCursor;
+}
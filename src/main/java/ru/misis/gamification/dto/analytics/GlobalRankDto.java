@@ -0,0 +1,44 @@
+package ru.misis.gamification.dto.analytics;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * DTO глобального ранга пользователя
+ */
+@Data
+@Builder
+@Schema(description = "Глобальный ранг пользователя среди всех студентов")
+public class GlobalRankDto {
+
+    /**
+     * Идентификатор пользователя из LMS
+     */
+    @Schema(description = "Идентификатор пользователя из LMS")
+    private String userId;
+
+    /**
+     * Общее количество очков
+     */
+    @Schema(description = "Общее количество очков по всем курсам")
+    private Integer totalPoints;
+
+    /**
+     * Уровень пользователя
+     */
+    @Schema(description = "Уровень пользователя")
+    private Integer level;
+
+    /**
+     * Глобальный ранг
+     */
+    @Schema(description = "Плотный ранг среди всех пользователей (одинаковые очки — одинаковый ранг)")
+    private Long rank;
+
+    /**
+     * Количество пользователей
+     */
+    @Schema(description = "Количество пользователей")
+    private Long totalUsers;
+}
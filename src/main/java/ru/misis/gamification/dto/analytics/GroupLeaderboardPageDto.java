@@ -21,10 +21,10 @@ public class GroupLeaderboardPageDto {
     private List<LeaderboardEntryDto> content;
 
     /**
-     * Номер текущей страницы (0-based)
+     * Номер текущей страницы (0-based), null при чтении по курсору
      */
-    @Schema(description = "Номер текущей страницы (0-based)")
-    private int pageNumber;
+    @Schema(description = "Номер текущей страницы (0-based), null при чтении по курсору")
+    private Integer pageNumber;
 
     /**
      * Размер страницы
@@ -35,14 +35,14 @@ public class GroupLeaderboardPageDto {
     /**
      * Общее количество элементов
      */
-    @Schema(description = "Общее количество элементов")
-    private long totalElements;
+    @Schema(description = "Общее количество элементов, null при чтении по курсору")
+    private Long totalElements;
 
     /**
      * Общее количество страниц
      */
-    @Schema(description = "Общее количество страниц")
-    private int totalPages;
+    @Schema(description = "Общее количество страниц, null при чтении по курсору")
+    private Integer totalPages;
 
     /**
      * Флаг следующей страницы
@@ -55,4 +55,10 @@ public class GroupLeaderboardPageDto {
      */
     @Schema(description = "Есть ли предыдущая страница")
     private boolean hasPrevious;
+
+    /**
+     * Курсор следующей страницы
+     */
+    @Schema(description = "Курсор следующей страницы (передать в параметре cursor); null, если страница последняя")
+    private String nextCursor;
 }
\ No newline at end of file
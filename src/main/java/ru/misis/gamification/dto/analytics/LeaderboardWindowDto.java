@@ -0,0 +1,37 @@
+package ru.misis.gamification.dto.analytics;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * DTO окна лидерборда вокруг пользователя
+ * <p>
+ * Содержит соседей пользователя выше и ниже по лидерборду и его собственную строку.
+ * </p>
+ */
+@Data
+@Builder
+@Schema(description = "Окно лидерборда вокруг пользователя")
+public class LeaderboardWindowDto {
+
+    /**
+     * Строки окна (отсортированы по убыванию очков), строка пользователя отмечена isCurrentUser
+     */
+    @Schema(description = "Соседи по лидерборду и строка пользователя (isCurrentUser = true); пусто, если не зачислен")
+    private List<LeaderboardEntryDto> entries;
+
+    /**
+     * Место пользователя в лидерборде (null, если не зачислен)
+     */
+    @Schema(description = "Место пользователя в лидерборде (null, если не зачислен)")
+    private Long currentUserRank;
+
+    /**
+     * Очки пользователя по курсу (null, если не зачислен)
+     */
+    @Schema(description = "Очки пользователя по курсу (null, если не зачислен)")
+    private Integer currentUserPoints;
+}
@@ -42,10 +42,10 @@ public class UserCourseGroupLeaderboardDto {
     private Integer currentUserPoints;
 
     /**
-     * Номер текущей страницы (0-based)
+     * Номер текущей страницы (0-based), null при чтении по курсору
      */
-    @Schema(description = "Номер текущей страницы (0-based)")
-    private int pageNumber;
+    @Schema(description = "Номер текущей страницы (0-based), null при чтении по курсору")
+    private Integer pageNumber;
 
     /**
      * Размер страницы
@@ -56,14 +56,14 @@ public class UserCourseGroupLeaderboardDto {
     /**
      * Общее количество элементов в лидерборде (без учёта пользователя, если вне топа)
      */
-    @Schema(description = "Общее количество элементов в лидерборде")
-    private long totalElements;
+    @Schema(description = "Общее количество элементов в лидерборде, null при чтении по курсору")
+    private Long totalElements;
 
     /**
      * Общее количество страниц
      */
-    @Schema(description = "Общее количество страниц")
-    private int totalPages;
+    @Schema(description = "Общее количество страниц, null при чтении по курсору")
+    private Integer totalPages;
 
     /**
      * Есть ли следующая страница
@@ -76,4 +76,10 @@ public class UserCourseGroupLeaderboardDto {
      */
     @Schema(description = "Есть ли предыдущая страница")
     private boolean hasPrevious;
+
+    /**
+     * Курсор следующей страницы
+     */
+    @Schema(description = "Курсор следующей страницы (передать в параметре cursor); null, если страница последняя")
+    private String nextCursor;
 }
\ No newline at end of file
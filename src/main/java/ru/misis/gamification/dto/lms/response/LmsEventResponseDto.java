@@ -39,10 +39,10 @@ public class LmsEventResponseDto {
     private String displayName;
 
     /**
-     * Статус события (success, duplicate, error)
+     * Статус события (success, duplicate, error, accepted)
      */
-    @Schema(description = "Статус обработки",
-            allowableValues = {"success", "duplicate", "error"},
+    @Schema(description = "Статус обработки (accepted — событие принято в очередь асинхронной обработки)",
+            allowableValues = {"success", "duplicate", "error", "accepted"},
             example = "success")
     private String status;
 
@@ -110,7 +110,7 @@ public class LmsEventResponseDto {
             Long pointsToNextLevel,
             Double progressPercent,
             String eventId,
-//            UUID transactionId,
+            UUID transactionId,
             String displayName
     ) {
         return LmsEventResponseDto.builder()
@@ -124,7 +124,7 @@ public class LmsEventResponseDto {
                 .newLevel(newLevel)
                 .pointsToNextLevel(pointsToNextLevel)
                 .progressPercent(progressPercent)
-//                .transactionId(transactionId)
+                .transactionId(transactionId)
                 .processedAt(LocalDateTime.now())
                 .build();
     }
@@ -146,6 +146,16 @@ public class LmsEventResponseDto {
                 .build();
     }
 
+    public static LmsEventResponseDto accepted(String userId, String eventId) {
+        return LmsEventResponseDto.builder()
+                .status("accepted")
+                .userId(userId)
+                .eventId(eventId)
+                .message("Событие принято в обработку")
+                .processedAt(LocalDateTime.now())
+                .build();
+    }
+
     public boolean isSuccess() {
         return "success".equals(status);
     }
@@ -157,4 +167,8 @@ public class LmsEventResponseDto {
     public boolean isError() {
         return "error".equals(status);
     }
+
+    public boolean isAccepted() {
+        return "accepted".equals(status);
+    }
 }
@@ -0,0 +1,78 @@
+package ru.misis.gamification.dto.lms.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO состояния события, принятого в асинхронном режиме
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Состояние обработки события, принятого в асинхронном режиме")
+public class LmsEventStatusResponseDto {
+
+    /**
+     * Идентификатор события из LMS
+     */
+    @Schema(description = "Идентификатор события из LMS", example = "event-uuid-001")
+    private String eventId;
+
+    /**
+     * Идентификатор пользователя из LMS
+     */
+    @Schema(description = "Идентификатор пользователя из LMS", example = "user-12345")
+    private String userId;
+
+    /**
+     * Статус в очереди (PENDING, PROCESSING, PROCESSED, PARKED)
+     */
+    @Schema(description = "Статус в очереди",
+            allowableValues = {"PENDING", "PROCESSING", "PROCESSED", "PARKED"},
+            example = "PROCESSED")
+    private String status;
+
+    /**
+     * Количество попыток обработки
+     */
+    @Schema(description = "Количество попыток обработки", example = "1")
+    private Integer attempts;
+
+    /**
+     * Статус результата начисления (success, duplicate, error)
+     */
+    @Schema(description = "Результат начисления (при status = PROCESSED)",
+            allowableValues = {"success", "duplicate", "error"},
+            example = "success", nullable = true)
+    private String resultStatus;
+
+    /**
+     * Сообщение результата начисления
+     */
+    @Schema(description = "Сообщение результата начисления", example = "Начислено 80 очков", nullable = true)
+    private String resultMessage;
+
+    /**
+     * Текст последней ошибки обработки
+     */
+    @Schema(description = "Последняя ошибка обработки (при повторах и PARKED)", nullable = true)
+    private String lastError;
+
+    /**
+     * Дата приёма события
+     */
+    @Schema(description = "Дата и время приёма события", example = "2026-02-19T16:30:00")
+    private LocalDateTime receivedAt;
+
+    /**
+     * Дата завершения обработки
+     */
+    @Schema(description = "Дата и время завершения обработки", example = "2026-02-19T16:30:01", nullable = true)
+    private LocalDateTime processedAt;
+}
@@ -14,7 +14,11 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Comment;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -32,6 +36,8 @@ import java.util.UUID;
         }
 )
 @Comment("Курсы / дисциплины (например: \"Математический анализ\", \"История России\")")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "course")
+@NaturalIdCache(region = "course-natural-id")
 @Data
 @Builder
 @NoArgsConstructor
@@ -49,6 +55,7 @@ public class Course {
     /**
      * Идентификатор курса из LMS
      */
+    @NaturalId
     @NotBlank
     @Comment("Идентификатор курса из LMS (строка любого формата)")
     @Column(name = "course_id", nullable = false, unique = true, length = 100)
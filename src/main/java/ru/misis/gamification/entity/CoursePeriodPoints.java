@@ -0,0 +1,60 @@
+package ru.misis.gamification.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Comment;
+
+import java.util.UUID;
+
+/**
+ * Очки студента по курсу за неделю или месяц
+ * <p>
+ * Увеличиваются при каждом начислении по курсу вместе с {@link UserCourseEnrollment#getTotalPointsInCourse()}
+ * и позволяют строить лидерборды за период чтением по индексу вместо суммирования истории транзакций.
+ * </p>
+ */
+@Entity
+@Table(
+        name = "course_period_points",
+        indexes = {
+                @Index(name = "idx_course_period_points_leaderboard",
+                        columnList = "course_uuid, period, period_start, points DESC, user_uuid DESC"),
+                @Index(name = "idx_course_period_points_group_leaderboard",
+                        columnList = "course_uuid, period, period_start, group_uuid, points DESC, user_uuid DESC"),
+                @Index(name = "idx_course_period_points_period_start", columnList = "period_start")
+        }
+)
+@Comment("Очки студентов по курсу за неделю и месяц")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CoursePeriodPoints {
+
+    /**
+     * Курс — период — начало периода — пользователь
+     */
+    @EmbeddedId
+    private CoursePeriodPointsId id;
+
+    /**
+     * UUID группы студента на курсе при последнем начислении
+     */
+    @Column(name = "group_uuid")
+    @Comment("Группа студента на курсе при последнем начислении")
+    private UUID groupUuid;
+
+    /**
+     * Сумма очков, начисленных по курсу за период
+     */
+    @Column(name = "points", nullable = false)
+    @Comment("Сумма очков, начисленных по курсу за период")
+    private Integer points;
+}
@@ -0,0 +1,48 @@
+package ru.misis.gamification.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Составной ключ очков за период: курс — период — начало периода — пользователь
+ */
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CoursePeriodPointsId implements Serializable {
+
+    /**
+     * UUID курса
+     */
+    @Column(name = "course_uuid", nullable = false)
+    private UUID courseUuid;
+
+    /**
+     * Период
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "period", nullable = false, length = 10)
+    private LeaderboardPeriod period;
+
+    /**
+     * Первый день периода
+     */
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;
+
+    /**
+     * UUID пользователя
+     */
+    @Column(name = "user_uuid", nullable = false)
+    private UUID userUuid;
+}
@@ -0,0 +1,47 @@
+package ru.misis.gamification.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Comment;
+
+/**
+ * Дневной счётчик очков пользователя по типу события
+ * <p>
+ * Увеличивается при каждом начислении и используется для проверки {@link EventType#getMaxDailyPoints()}
+ * чтением по первичному ключу вместо суммирования истории транзакций.
+ * </p>
+ */
+@Entity
+@Table(
+        name = "daily_points_usage",
+        indexes = {
+                @Index(name = "idx_daily_points_usage_day", columnList = "day")
+        }
+)
+@Comment("Дневные счётчики очков по типам событий")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyPointsUsage {
+
+    /**
+     * Пользователь — тип события — день
+     */
+    @EmbeddedId
+    private DailyPointsUsageId id;
+
+    /**
+     * Сумма очков, начисленных за день
+     */
+    @Column(name = "points", nullable = false)
+    @Comment("Сумма очков, начисленных за день")
+    private Integer points;
+}
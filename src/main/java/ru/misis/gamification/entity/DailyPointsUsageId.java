@@ -0,0 +1,39 @@
+package ru.misis.gamification.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Составной ключ дневного счётчика очков: пользователь — тип события — день
+ */
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyPointsUsageId implements Serializable {
+
+    /**
+     * UUID пользователя
+     */
+    @Column(name = "user_uuid", nullable = false)
+    private UUID userUuid;
+
+    /**
+     * UUID типа события
+     */
+    @Column(name = "event_type_uuid", nullable = false)
+    private UUID eventTypeUuid;
+
+    /**
+     * День начисления
+     */
+    @Column(name = "day", nullable = false)
+    private LocalDate day;
+}
@@ -16,7 +16,11 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Comment;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import ru.misis.gamification.dto.lms.request.LmsEventRequestDto;
 
 import java.time.LocalDateTime;
@@ -37,6 +41,8 @@ import java.util.UUID;
         }
 )
 @Comment("Типы событий из LMS (настраиваемые шаблоны начисления очков)")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "event-type")
+@NaturalIdCache(region = "event-type-natural-id")
 @Data
 @Builder
 @NoArgsConstructor
@@ -54,6 +60,7 @@ public class EventType {
     /**
      * Уникальный код типа события из LMS {@link LmsEventRequestDto#getEventType()}
      */
+    @NaturalId
     @NotBlank(message = "Код типа события обязателен")
     @Column(name = "type_code", nullable = false, unique = true, length = 50)
     @Comment("Уникальный код типа события из LMS (используется LMS в поле eventType)")
@@ -18,7 +18,11 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Comment;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -36,6 +40,8 @@ import java.util.UUID;
         }
 )
 @Comment("Группы / потоки / классы внутри курса")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "group")
+@NaturalIdCache(region = "group-natural-id")
 @Data
 @Builder
 @NoArgsConstructor
@@ -53,6 +59,7 @@ public class Group {
     /**
      * Внешний идентификатор группы из LMS
      */
+    @NaturalId
     @NotBlank
     @Column(name = "group_id", nullable = false, length = 100)
     @Comment("Внешний идентификатор группы из LMS")
@@ -67,6 +74,7 @@ public class Group {
     /**
      * Курс
      */
+    @NaturalId
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "course_id", nullable = false)
     private Course course;
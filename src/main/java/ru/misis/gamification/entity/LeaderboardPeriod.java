@@ -0,0 +1,38 @@
+package ru.misis.gamification.entity;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+
+/**
+ * Период лидерборда по курсу
+ */
+public enum LeaderboardPeriod {
+
+    /**
+     * Календарная неделя с понедельника
+     */
+    WEEK {
+        @Override
+        public LocalDate start(LocalDate day) {
+            return day.with(DayOfWeek.MONDAY);
+        }
+    },
+
+    /**
+     * Календарный месяц
+     */
+    MONTH {
+        @Override
+        public LocalDate start(LocalDate day) {
+            return day.withDayOfMonth(1);
+        }
+    };
+
+    /**
+     * Первый день периода, которому принадлежит день
+     *
+     * @param day День
+     * @return Понедельник недели или первое число месяца
+     */
+    public abstract LocalDate start(LocalDate day);
+}
@@ -0,0 +1,122 @@
+package ru.misis.gamification.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Comment;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Задача пересчёта сохранённых уровней пользователей по действующей формуле
+ * <p>
+ * Хранит точку продолжения, поэтому задача, прерванная остановкой экземпляра,
+ * продолжается с последнего обработанного пользователя.
+ * </p>
+ */
+@Entity
+@Table(name = "level_recalculation_jobs")
+@Comment("Задачи пересчёта уровней пользователей")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LevelRecalculationJob {
+
+    /**
+     * Идентификатор задачи
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(columnDefinition = "uuid DEFAULT gen_random_uuid()")
+    private UUID uuid;
+
+    /**
+     * Статус задачи
+     */
+    @Builder.Default
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    @Comment("Статус задачи")
+    private LevelRecalculationJobStatus status = LevelRecalculationJobStatus.RUNNING;
+
+    /**
+     * Формула уровней, по которой выполняется пересчёт
+     */
+    @Column(name = "formula", nullable = false, length = 200)
+    @Comment("Формула уровней, по которой выполняется пересчёт")
+    private String formula;
+
+    /**
+     * UUID последнего обработанного пользователя
+     */
+    @Column(name = "last_user_uuid")
+    @Comment("UUID последнего обработанного пользователя (точка продолжения)")
+    private UUID lastUserUuid;
+
+    /**
+     * Обработано пользователей
+     */
+    @Builder.Default
+    @Column(name = "processed", nullable = false)
+    @Comment("Обработано пользователей")
+    private Long processed = 0L;
+
+    /**
+     * Пользователей с изменённым уровнем
+     */
+    @Builder.Default
+    @Column(name = "changed", nullable = false)
+    @Comment("Пользователей с изменённым уровнем")
+    private Long changed = 0L;
+
+    /**
+     * Пользователей на момент запуска
+     */
+    @Builder.Default
+    @Column(name = "total_users", nullable = false)
+    @Comment("Пользователей на момент запуска")
+    private Long totalUsers = 0L;
+
+    /**
+     * Текст ошибки, остановившей задачу
+     */
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    /**
+     * Время запуска
+     */
+    @Column(name = "started_at", nullable = false, updatable = false)
+    private LocalDateTime startedAt;
+
+    /**
+     * Время последней отметки выполняющего экземпляра
+     */
+    @Column(name = "heartbeat_at", nullable = false)
+    @Comment("Время последней отметки выполняющего экземпляра")
+    private LocalDateTime heartbeatAt;
+
+    /**
+     * Время завершения
+     */
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (startedAt == null) startedAt = LocalDateTime.now();
+        if (heartbeatAt == null) heartbeatAt = startedAt;
+    }
+}
@@ -0,0 +1,27 @@
+package ru.misis.gamification.entity;
+
+/**
+ * Статус задачи пересчёта уровней
+ */
+public enum LevelRecalculationJobStatus {
+
+    /**
+     * Выполняется (или прервана остановкой экземпляра и будет продолжена)
+     */
+    RUNNING,
+
+    /**
+     * Все пользователи обработаны
+     */
+    COMPLETED,
+
+    /**
+     * Остановлена ошибкой, текст — в поле lastError
+     */
+    FAILED,
+
+    /**
+     * Отменена администратором
+     */
+    CANCELLED
+}
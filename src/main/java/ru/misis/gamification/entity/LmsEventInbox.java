@@ -0,0 +1,157 @@
+package ru.misis.gamification.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Comment;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Входящее событие LMS, принятое в асинхронном режиме и ожидающее начисления очков
+ */
+@Entity
+@Table(
+        name = "lms_event_inbox",
+        indexes = {
+                @Index(name = "idx_lms_event_inbox_status_next_attempt", columnList = "status, next_attempt_at")
+        }
+)
+@Comment("Входящая очередь событий LMS")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LmsEventInbox {
+
+    /**
+     * Идентификатор записи в таблице
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(columnDefinition = "uuid DEFAULT gen_random_uuid()")
+    private UUID uuid;
+
+    /**
+     * Идентификатор события из LMS
+     */
+    @NotBlank
+    @Column(name = "event_id", nullable = false, unique = true)
+    @Comment("Идентификатор события из LMS")
+    private String eventId;
+
+    /**
+     * Идентификатор пользователя из LMS
+     */
+    @NotBlank
+    @Column(name = "user_id", nullable = false, length = 100)
+    @Comment("Идентификатор пользователя из LMS")
+    private String userId;
+
+    /**
+     * Код типа события
+     */
+    @NotBlank
+    @Column(name = "event_type", nullable = false, length = 50)
+    @Comment("Код типа события")
+    private String eventType;
+
+    /**
+     * Идентификатор курса из LMS
+     */
+    @Column(name = "course_id", length = 100)
+    private String courseId;
+
+    /**
+     * Идентификатор группы из LMS
+     */
+    @Column(name = "group_id", length = 100)
+    private String groupId;
+
+    /**
+     * Статус обработки
+     */
+    @Builder.Default
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    @Comment("Статус обработки")
+    private LmsEventInboxStatus status = LmsEventInboxStatus.PENDING;
+
+    /**
+     * Количество попыток обработки
+     */
+    @Builder.Default
+    @Column(name = "attempts", nullable = false)
+    @Comment("Количество попыток обработки")
+    private Integer attempts = 0;
+
+    /**
+     * Время, раньше которого событие не будет взято в обработку
+     */
+    @Column(name = "next_attempt_at", nullable = false)
+    @Comment("Время следующей попытки обработки")
+    private LocalDateTime nextAttemptAt;
+
+    /**
+     * Текст последней ошибки обработки
+     */
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    /**
+     * Статус результата начисления (success, duplicate, error)
+     */
+    @Column(name = "result_status", length = 20)
+    @Comment("Статус результата начисления")
+    private String resultStatus;
+
+    /**
+     * Сообщение результата начисления
+     */
+    @Column(name = "result_message", length = 500)
+    private String resultMessage;
+
+    /**
+     * Дата приёма события
+     */
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Дата последнего изменения
+     */
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    /**
+     * Дата завершения обработки
+     */
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) createdAt = LocalDateTime.now();
+        if (nextAttemptAt == null) nextAttemptAt = createdAt;
+        updatedAt = createdAt;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,27 @@
+package ru.misis.gamification.entity;
+
+/**
+ * Статус события во входящей очереди LMS
+ */
+public enum LmsEventInboxStatus {
+
+    /**
+     * Ожидает обработки (в том числе повторной после ошибки)
+     */
+    PENDING,
+
+    /**
+     * Захвачено обработчиком
+     */
+    PROCESSING,
+
+    /**
+     * Обработано (результат — в полях resultStatus / resultMessage)
+     */
+    PROCESSED,
+
+    /**
+     * Исчерпаны попытки обработки, требуется разбор администратором
+     */
+    PARKED
+}
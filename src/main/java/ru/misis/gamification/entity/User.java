@@ -26,7 +26,7 @@ import java.util.UUID;
         name = "users",
         indexes = {
                 @Index(name = "idx_users_external_id", columnList = "user_id"),
-                @Index(name = "idx_users_points", columnList = "total_points DESC"),
+                @Index(name = "idx_users_points", columnList = "total_points DESC, uuid DESC"),
                 @Index(name = "idx_users_level", columnList = "level DESC")
         }
 )
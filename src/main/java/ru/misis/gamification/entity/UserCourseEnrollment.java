@@ -30,8 +30,8 @@ import java.util.UUID;
         uniqueConstraints = @UniqueConstraint(name = "unique_user_course", columnNames = {"user_uuid", "course_uuid"}),
         indexes = {
                 @Index(name = "idx_enrollments_user_course", columnList = "user_uuid, course_uuid"),
-                @Index(name = "idx_enrollments_course_id", columnList = "course_uuid"),
-                @Index(name = "idx_enrollments_course_group_points", columnList = "course_uuid, group_uuid, total_points_in_course DESC")
+                @Index(name = "idx_enrollments_course_points", columnList = "course_uuid, total_points_in_course DESC, user_uuid DESC"),
+                @Index(name = "idx_enrollments_course_group_points", columnList = "course_uuid, group_uuid, total_points_in_course DESC, user_uuid DESC")
         }
 )
 @Comment("Зачисление студентов на курсы + статистика по курсу")
@@ -0,0 +1,19 @@
+package ru.misis.gamification.events;
+
+import lombok.Builder;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Событие изменения типа события администратором (создание, изменение, деактивация)
+ */
+@Data
+@Builder
+@RequiredArgsConstructor
+public class EventTypeChangedEvent {
+
+    /**
+     * Уникальный код изменённого типа события
+     */
+    private final String typeCode;
+}
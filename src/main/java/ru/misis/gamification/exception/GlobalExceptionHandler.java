@@ -9,8 +9,11 @@ import org.springframework.security.core.AuthenticationException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 import ru.misis.gamification.dto.lms.response.LmsEventResponseDto;
 
+import java.util.concurrent.RejectedExecutionException;
+
 /**
  * Глобальный обработчик исключений для всех REST-контроллеров
  */
@@ -66,12 +69,44 @@ public class GlobalExceptionHandler {
         return ResponseEntity.ok(LmsEventResponseDto.error(ex.getMessage()));
     }
 
+    @ExceptionHandler(LmsEventInboxNotFoundException.class)
+    public ResponseEntity<LmsEventResponseDto> handleInboxEventNotFound(LmsEventInboxNotFoundException ex) {
+        log.warn("Ошибка: {}", ex.getMessage());
+        return ResponseEntity.status(404).body(LmsEventResponseDto.error(ex.getMessage()));
+    }
+
+    @ExceptionHandler(LevelRecalculationJobNotFoundException.class)
+    public ResponseEntity<LmsEventResponseDto> handleLevelRecalculationJobNotFound(LevelRecalculationJobNotFoundException ex) {
+        log.warn("Ошибка: {}", ex.getMessage());
+        return ResponseEntity.status(404).body(LmsEventResponseDto.error(ex.getMessage()));
+    }
+
+    @ExceptionHandler(InvalidLeaderboardCursorException.class)
+    public ResponseEntity<LmsEventResponseDto> handleInvalidLeaderboardCursor(InvalidLeaderboardCursorException ex) {
+        log.warn("Ошибка: {}", ex.getMessage());
+        return ResponseEntity.badRequest().body(LmsEventResponseDto.error(ex.getMessage()));
+    }
+
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<LmsEventResponseDto> handleArgumentTypeMismatch(MethodArgumentTypeMismatchException ex) {
+        log.warn("Некорректное значение параметра {}: {}", ex.getName(), ex.getValue());
+        return ResponseEntity.badRequest()
+                .body(LmsEventResponseDto.error("Некорректное значение параметра " + ex.getName()));
+    }
+
     @ExceptionHandler(DataIntegrityViolationException.class)
     public ResponseEntity<LmsEventResponseDto> handleDataIntegrityViolation(DataIntegrityViolationException ex) {
         log.warn("Нарушение целостности данных: {}", ex.getMostSpecificCause().getMessage());
         return ResponseEntity.ok(LmsEventResponseDto.duplicate("Событие уже обработано (обнаружено на уровне БД)"));
     }
 
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<LmsEventResponseDto> handleRejectedExecution(RejectedExecutionException ex) {
+        log.warn("Очередь начислений переполнена: {}", ex.getMessage());
+        return ResponseEntity.status(503)
+                .body(LmsEventResponseDto.error("Сервис перегружен, повторите запрос позже"));
+    }
+
     // Ошибки валидации @Valid
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<LmsEventResponseDto> handleValidationErrors(MethodArgumentNotValidException ex) {
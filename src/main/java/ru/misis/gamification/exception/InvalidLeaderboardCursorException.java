@@ -0,0 +1,10 @@
+package ru.misis.gamification.exception;
+
+/**
+ * Исключение, выбрасываемое в случае получения некорректного курсора лидерборда
+ */
+public class InvalidLeaderboardCursorException extends RuntimeException {
+    public InvalidLeaderboardCursorException(String cursor) {
+        super("Некорректный курсор лидерборда: " + cursor);
+    }
+}
@@ -0,0 +1,16 @@
+package ru.misis.gamification.exception;
+
+import java.util.UUID;
+
+/**
+ * Исключение, выбрасываемое в случае обращения к несуществующей задаче пересчёта уровней
+ */
+public class LevelRecalculationJobNotFoundException extends RuntimeException {
+    public LevelRecalculationJobNotFoundException(UUID jobUuid) {
+        super("Задача пересчёта уровней не найдена: " + jobUuid);
+    }
+
+    public LevelRecalculationJobNotFoundException() {
+        super("Задачи пересчёта уровней не запускались");
+    }
+}
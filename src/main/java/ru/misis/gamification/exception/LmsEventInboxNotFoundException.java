@@ -0,0 +1,10 @@
+package ru.misis.gamification.exception;
+
+/**
+ * Исключение, выбрасываемое в случае обращения к событию, которое не поступало во входящую очередь
+ */
+public class LmsEventInboxNotFoundException extends RuntimeException {
+    public LmsEventInboxNotFoundException(String eventId) {
+        super("Событие не найдено во входящей очереди: " + eventId);
+    }
+}
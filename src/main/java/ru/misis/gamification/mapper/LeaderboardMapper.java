@@ -2,11 +2,21 @@ package ru.misis.gamification.mapper;
 
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
+import ru.misis.gamification.dto.analytics.CoursePercentileDto;
+import ru.misis.gamification.dto.analytics.CourseRanksDto;
+import ru.misis.gamification.dto.analytics.GlobalLeaderboardPageDto;
+import ru.misis.gamification.dto.analytics.GlobalRankDto;
 import ru.misis.gamification.dto.analytics.GroupLeaderboardPageDto;
 import ru.misis.gamification.dto.analytics.LeaderboardEntryDto;
+import ru.misis.gamification.dto.analytics.LeaderboardWindowDto;
 import ru.misis.gamification.dto.analytics.UserCourseGroupLeaderboardDto;
+import ru.misis.gamification.model.CoursePercentileView;
+import ru.misis.gamification.model.CourseRanksView;
+import ru.misis.gamification.model.GlobalLeaderboardPageView;
+import ru.misis.gamification.model.GlobalRankView;
 import ru.misis.gamification.model.LeaderboardEntryView;
 import ru.misis.gamification.model.LeaderboardPageView;
+import ru.misis.gamification.model.LeaderboardWindowView;
 import ru.misis.gamification.model.UserCourseGroupLeaderboardView;
 
 /**
@@ -39,4 +49,44 @@ public interface LeaderboardMapper {
      * @return DTO пользователя с лидербордом по курсу
      */
     UserCourseGroupLeaderboardDto toUserCourseGroupLeaderboardDto(UserCourseGroupLeaderboardView view);
+
+    /**
+     * Смаппить окно лидерборда вокруг пользователя в DTO
+     *
+     * @param view Модель окна лидерборда
+     * @return DTO окна лидерборда
+     */
+    LeaderboardWindowDto toLeaderboardWindowDto(LeaderboardWindowView view);
+
+    /**
+     * Смаппить страницу глобального лидерборда в DTO
+     *
+     * @param view Модель страницы глобального лидерборда
+     * @return DTO страницы глобального лидерборда
+     */
+    GlobalLeaderboardPageDto toGlobalLeaderboardPageDto(GlobalLeaderboardPageView view);
+
+    /**
+     * Смаппить глобальный ранг пользователя в DTO
+     *
+     * @param view Модель глобального ранга
+     * @return DTO глобального ранга
+     */
+    GlobalRankDto toGlobalRankDto(GlobalRankView view);
+
+    /**
+     * Смаппить место пользователя на курсе в процентах в DTO
+     *
+     * @param view Модель места в процентах
+     * @return DTO места в процентах
+     */
+    CoursePercentileDto toCoursePercentileDto(CoursePercentileView view);
+
+    /**
+     * Смаппить ранги нескольких студентов на курсе в DTO
+     *
+     * @param view Модель рангов студентов
+     * @return DTO рангов студентов
+     */
+    CourseRanksDto toCourseRanksDto(CourseRanksView view);
 }
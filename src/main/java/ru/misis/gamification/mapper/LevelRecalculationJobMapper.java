@@ -0,0 +1,35 @@
+package ru.misis.gamification.mapper;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import ru.misis.gamification.dto.admin.response.LevelRecalculationJobDto;
+import ru.misis.gamification.entity.LevelRecalculationJob;
+
+/**
+ * Маппер задач пересчёта уровней
+ */
+@Mapper(componentModel = "spring")
+public interface LevelRecalculationJobMapper {
+
+    /**
+     * Смаппить задачу пересчёта уровней в DTO
+     *
+     * @param job Задача
+     * @return DTO задачи
+     */
+    @Mapping(target = "percent", expression = "java(percent(job))")
+    LevelRecalculationJobDto toDto(LevelRecalculationJob job);
+
+    /**
+     * Процент выполнения задачи, не больше 100
+     *
+     * @param job Задача
+     * @return Процент выполнения
+     */
+    default double percent(LevelRecalculationJob job) {
+        if (job.getTotalUsers() == null || job.getTotalUsers() == 0) {
+            return job.getFinishedAt() != null ? 100.0 : 0.0;
+        }
+        return Math.min(100.0, Math.round(job.getProcessed() * 1000.0 / job.getTotalUsers()) / 10.0);
+    }
+}
@@ -0,0 +1,31 @@
+package ru.misis.gamification.mapper;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import ru.misis.gamification.dto.lms.request.LmsEventRequestDto;
+import ru.misis.gamification.dto.lms.response.LmsEventStatusResponseDto;
+import ru.misis.gamification.entity.LmsEventInbox;
+
+/**
+ * Маппер входящей очереди событий LMS
+ */
+@Mapper(componentModel = "spring")
+public interface LmsEventInboxMapper {
+
+    /**
+     * Смаппить событие очереди в DTO состояния обработки
+     *
+     * @param inbox Событие очереди
+     * @return DTO состояния обработки
+     */
+    @Mapping(target = "receivedAt", source = "createdAt")
+    LmsEventStatusResponseDto toStatusDto(LmsEventInbox inbox);
+
+    /**
+     * Смаппить событие очереди в DTO события из LMS
+     *
+     * @param inbox Событие очереди
+     * @return DTO события из LMS
+     */
+    LmsEventRequestDto toRequestDto(LmsEventInbox inbox);
+}
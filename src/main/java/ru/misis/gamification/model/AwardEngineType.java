@@ -0,0 +1,17 @@
+package ru.misis.gamification.model;
+
+/**
+ * Способ начисления одиночного события
+ */
+public enum AwardEngineType {
+
+    /**
+     * Последовательность запросов через сервисы
+     */
+    STANDARD,
+
+    /**
+     * Проверки и обновления одним SQL-выражением
+     */
+    SINGLE_STATEMENT
+}
@@ -0,0 +1,21 @@
+package ru.misis.gamification.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Запрос на начисление очков по событию из LMS
+ *
+ * @param userId     Идентификатор пользователя из LMS
+ * @param eventId    Идентификатор события из LMS
+ * @param typeCode   Уникальный код типа события из LMS
+ * @param courseId   Идентификатор курса из LMS
+ * @param groupId    Идентификатор группы из LMS
+ * @param occurredAt Время события в LMS (задаётся только импортом истории; null — используется время обработки)
+ */
+public record AwardRequest(String userId, String eventId, String typeCode, String courseId, String groupId,
+                           LocalDateTime occurredAt) {
+
+    public AwardRequest(String userId, String eventId, String typeCode, String courseId, String groupId) {
+        this(userId, eventId, typeCode, courseId, groupId, null);
+    }
+}
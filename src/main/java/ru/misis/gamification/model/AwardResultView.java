@@ -1,5 +1,7 @@
 package ru.misis.gamification.model;
 
+import java.util.UUID;
+
 /**
  * Результат операции начисления очков по событию из LMS
  *
@@ -10,11 +12,14 @@ package ru.misis.gamification.model;
  * @param newLevel          Новый уровень
  * @param pointsToNextLevel Количество очков, необходимых для достижения следующего уровня
  * @param progressPercent   Процент заполнения текущего уровня
+ * @param displayName       Отображаемое название типа события
+ * @param transactionId     UUID созданной транзакции
  * @param rejectionReason   Причина отказа в начислении
  * @param duplicate         Флаг дубликата события
  */
 public record AwardResultView(boolean success, int pointsEarned, int totalPointsAfter, boolean levelUp, int newLevel,
-                              long pointsToNextLevel, double progressPercent, String rejectionReason,
+                              long pointsToNextLevel, double progressPercent, String displayName,
+                              UUID transactionId, String rejectionReason,
                               boolean duplicate
 ) {
 
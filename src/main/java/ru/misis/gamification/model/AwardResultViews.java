@@ -3,6 +3,8 @@ package ru.misis.gamification.model;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 
+import java.util.UUID;
+
 /**
  * Фабрика для создания экземпляров AwardResultView.
  * <p>
@@ -19,7 +21,9 @@ public final class AwardResultViews {
             boolean levelUp,
             int newLevel,
             long pointsToNextLevel,
-            double progressPercent) {
+            double progressPercent,
+            String displayName,
+            UUID transactionId) {
         return new AwardResultView(
                 true,
                 pointsEarned,
@@ -28,6 +32,8 @@ public final class AwardResultViews {
                 newLevel,
                 pointsToNextLevel,
                 progressPercent,
+                displayName,
+                transactionId,
                 null,
                 false
         );
@@ -36,14 +42,14 @@ public final class AwardResultViews {
     public static AwardResultView duplicate() {
         return new AwardResultView(
                 false, 0, 0, false, 0, 0L, 0.0,
-                null, true
+                null, null, null, true
         );
     }
 
     public static AwardResultView rejected(String reason) {
         return new AwardResultView(
                 false, 0, 0, false, 0, 0L, 0.0,
-                reason, false
+                null, null, reason, false
         );
     }
 }
\ No newline at end of file
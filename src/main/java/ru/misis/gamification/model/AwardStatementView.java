@@ -0,0 +1,87 @@
+package ru.misis.gamification.model;
+
+import java.util.UUID;
+
+/**
+ * Проекция результата начисления одним SQL-выражением
+ * <p>
+ * Флаги проверок заполняются всегда; поля транзакции и пользователя — только при успешной вставке.
+ * </p>
+ */
+public interface AwardStatementView {
+
+    /**
+     * @return Да, если найден активный тип события
+     */
+    Boolean getEventTypeFound();
+
+    /**
+     * @return Да, если найден пользователь
+     */
+    Boolean getUserFound();
+
+    /**
+     * @return Да, если курс не указан или найден
+     */
+    Boolean getCourseFound();
+
+    /**
+     * @return Да, если курс не указан или пользователь зачислен на него
+     */
+    Boolean getEnrolled();
+
+    /**
+     * @return Да, если начисление укладывается в дневной лимит типа события
+     */
+    Boolean getWithinLimit();
+
+    /**
+     * @return Да, если транзакция с таким eventId уже существовала до выполнения выражения
+     */
+    Boolean getDuplicate();
+
+    /**
+     * @return Отображаемое название типа события
+     */
+    String getDisplayName();
+
+    /**
+     * @return UUID созданной транзакции или null, если транзакция не создана
+     */
+    UUID getTransactionId();
+
+    /**
+     * @return UUID пользователя
+     */
+    UUID getUserUuid();
+
+    /**
+     * @return UUID типа события
+     */
+    UUID getEventTypeUuid();
+
+    /**
+     * @return Начисленные очки
+     */
+    Integer getPoints();
+
+    /**
+     * @return Общее количество очков после начисления
+     */
+    Integer getTotalPoints();
+
+    /**
+     * @return Уровень, сохранённый в БД на момент начисления
+     */
+    Integer getLevel();
+
+    /**
+     * @return UUID курса, по которому начислены очки, или {@code null}
+     */
+    UUID getCourseUuid();
+
+    /**
+     * @return Сумма очков по курсу после начисления или {@code null}, если начисление без курса
+     */
+    Integer getTotalPointsInCourse();
+}
@@ -0,0 +1,23 @@
+package ru.misis.gamification.model;
+
+/**
+ * Модель места пользователя на курсе в процентах от числа студентов
+ *
+ * @param userId         Идентификатор пользователя из LMS
+ * @param courseId       Идентификатор курса из LMS
+ * @param pointsInCourse Количество очков на курсе
+ * @param rank           Место: количество студентов с большим количеством очков + 1
+ * @param enrollments    Количество студентов на курсе
+ * @param topPercent     Доля студентов, не ниже которых находится пользователь, в процентах («топ 3%»)
+ * @param approximate    Место оценено по гистограмме очков, а не посчитано точно
+ */
+public record CoursePercentileView(
+        String userId,
+        String courseId,
+        Integer pointsInCourse,
+        Long rank,
+        Long enrollments,
+        Double topPercent,
+        Boolean approximate
+) {
+}
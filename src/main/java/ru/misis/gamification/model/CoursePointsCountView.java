@@ -0,0 +1,24 @@
+package ru.misis.gamification.model;
+
+import java.util.UUID;
+
+/**
+ * Проекция распределения очков на курсе: количество зачислений с одинаковой суммой очков
+ */
+public interface CoursePointsCountView {
+
+    /**
+     * @return UUID курса
+     */
+    UUID getCourseUuid();
+
+    /**
+     * @return Сумма очков на курсе
+     */
+    Integer getPointsInCourse();
+
+    /**
+     * @return Количество зачислений с этой суммой очков
+     */
+    Long getEnrollments();
+}
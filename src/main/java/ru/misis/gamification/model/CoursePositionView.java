@@ -0,0 +1,11 @@
+package ru.misis.gamification.model;
+
+/**
+ * Позиция суммы очков в лидерборде курса
+ *
+ * @param rank        Место: количество студентов с большим количеством очков + 1
+ * @param enrollments Количество студентов на курсе
+ * @param approximate Место оценено по гистограмме очков, а не посчитано точно
+ */
+public record CoursePositionView(long rank, long enrollments, boolean approximate) {
+}
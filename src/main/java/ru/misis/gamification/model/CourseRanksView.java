@@ -0,0 +1,15 @@
+package ru.misis.gamification.model;
+
+import java.util.List;
+
+/**
+ * Модель рангов нескольких студентов в лидерборде курса или группы
+ *
+ * @param entries        Строки лидерборда найденных студентов по убыванию очков
+ * @param missingUserIds Запрошенные студенты, которые не найдены или не зачислены на курс (в группу)
+ */
+public record CourseRanksView(
+        List<LeaderboardEntryView> entries,
+        List<String> missingUserIds
+) {
+}
@@ -0,0 +1,13 @@
+package ru.misis.gamification.model;
+
+import java.util.UUID;
+
+/**
+ * Сумма очков пользователя по типу события за день
+ *
+ * @param userUuid      UUID пользователя
+ * @param eventTypeUuid UUID типа события
+ * @param points        Сумма начисленных очков
+ */
+public record DailyPointsSumView(UUID userUuid, UUID eventTypeUuid, long points) {
+}
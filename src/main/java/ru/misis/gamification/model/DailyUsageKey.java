@@ -0,0 +1,12 @@
+package ru.misis.gamification.model;
+
+import java.util.UUID;
+
+/**
+ * Ключ дневного счётчика очков (пара пользователь — тип события)
+ *
+ * @param userUuid      UUID пользователя
+ * @param eventTypeUuid UUID типа события
+ */
+public record DailyUsageKey(UUID userUuid, UUID eventTypeUuid) {
+}
@@ -0,0 +1,12 @@
+package ru.misis.gamification.model;
+
+import java.util.UUID;
+
+/**
+ * Ключ зачисления на курс (пара пользователь — курс)
+ *
+ * @param userUuid   UUID пользователя
+ * @param courseUuid UUID курса
+ */
+public record EnrollmentKeyView(UUID userUuid, UUID courseUuid) {
+}
@@ -0,0 +1,34 @@
+package ru.misis.gamification.model;
+
+import java.util.UUID;
+
+/**
+ * Проекция очков пользователя на курсе для индекса лидербордов
+ */
+public interface EnrollmentPointsView {
+
+    /**
+     * @return UUID зачисления
+     */
+    UUID getUuid();
+
+    /**
+     * @return UUID пользователя
+     */
+    UUID getUserUuid();
+
+    /**
+     * @return UUID курса
+     */
+    UUID getCourseUuid();
+
+    /**
+     * @return UUID группы или {@code null}, если пользователь зачислен без группы
+     */
+    UUID getGroupUuid();
+
+    /**
+     * @return Сумма очков на курсе
+     */
+    Integer getTotalPointsInCourse();
+}
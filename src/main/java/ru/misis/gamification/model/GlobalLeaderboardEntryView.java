@@ -0,0 +1,15 @@
+package ru.misis.gamification.model;
+
+import java.util.UUID;
+
+/**
+ * Модель строки глобального лидерборда
+ *
+ * @param userUuid    UUID пользователя
+ * @param userId      Идентификатор пользователя из LMS
+ * @param totalPoints Общее количество очков по всем курсам
+ * @param level       Уровень пользователя
+ * @param rank        Плотный ранг строки в глобальном лидерборде
+ */
+public record GlobalLeaderboardEntryView(UUID userUuid, String userId, Integer totalPoints, Integer level, Long rank) {
+}
@@ -0,0 +1,19 @@
+package ru.misis.gamification.model;
+
+import java.util.List;
+
+/**
+ * Модель страницы глобального лидерборда (чтение по курсору)
+ *
+ * @param content    Строки лидерборда на странице
+ * @param pageSize   Размер страницы
+ * @param hasNext    Флаг следующей страницы
+ * @param nextCursor Курсор следующей страницы ({@code null}, если её нет)
+ */
+public record GlobalLeaderboardPageView(
+        List<GlobalLeaderboardEntryView> content,
+        int pageSize,
+        boolean hasNext,
+        String nextCursor
+) {
+}
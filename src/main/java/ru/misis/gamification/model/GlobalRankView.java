@@ -0,0 +1,13 @@
+package ru.misis.gamification.model;
+
+/**
+ * Модель глобального ранга пользователя
+ *
+ * @param userId      Идентификатор пользователя из LMS
+ * @param totalPoints Общее количество очков
+ * @param level       Уровень пользователя
+ * @param rank        Плотный ранг среди всех пользователей (1 = лидер)
+ * @param totalUsers  Количество пользователей
+ */
+public record GlobalRankView(String userId, Integer totalPoints, Integer level, Long rank, Long totalUsers) {
+}
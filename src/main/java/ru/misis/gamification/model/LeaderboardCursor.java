@@ -0,0 +1,70 @@
+package ru.misis.gamification.model;
+
+import ru.misis.gamification.exception.InvalidLeaderboardCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Курсор лидерборда — последняя строка предыдущей страницы
+ * <p>
+ * Лидерборд упорядочен по убыванию очков, при равенстве — по убыванию UUID пользователя,
+ * поэтому пара (очки, UUID) однозначно задаёт позицию, с которой продолжается следующая страница.
+ * Ранг последней строки передаётся в курсоре, чтобы не пересчитывать его по всем предыдущим строкам.
+ * Клиенту курсор передаётся непрозрачной строкой.
+ * </p>
+ *
+ * @param pointsInCourse Очки на курсе последней строки
+ * @param userUuid       UUID пользователя последней строки
+ * @param rank           Ранг последней строки в лидерборде
+ */
+public record LeaderboardCursor(int pointsInCourse, UUID userUuid, long rank) {
+
+    /**
+     * Курсор перед первой строкой лидерборда
+     */
+    public static final LeaderboardCursor FIRST = new LeaderboardCursor(Integer.MAX_VALUE, new UUID(-1L, -1L), 0L);
+
+    /**
+     * Создать курсор после строки лидерборда
+     *
+     * @param entry Строка лидерборда с рассчитанным рангом
+     * @return Курсор
+     */
+    public static LeaderboardCursor after(LeaderboardEntryView entry) {
+        return new LeaderboardCursor(entry.getPointsInCourse(), entry.getUserUuid(), entry.getRank());
+    }
+
+    /**
+     * Разобрать курсор, полученный от клиента
+     *
+     * @param value Строка курсора
+     * @return Курсор
+     * @throws InvalidLeaderboardCursorException если строка не является курсором лидерборда
+     */
+    public static LeaderboardCursor decode(String value) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8).split(":");
+            if (parts.length != 3) {
+                throw new InvalidLeaderboardCursorException(value);
+            }
+            LeaderboardCursor cursor = new LeaderboardCursor(
+                    Integer.parseInt(parts[0]), UUID.fromString(parts[1]), Long.parseLong(parts[2]));
+            if (cursor.pointsInCourse() < 0 || cursor.rank() < 0) {
+                throw new InvalidLeaderboardCursorException(value);
+            }
+            return cursor;
+        } catch (IllegalArgumentException e) {
+            throw new InvalidLeaderboardCursorException(value);
+        }
+    }
+
+    /**
+     * @return Строка курсора для передачи клиенту
+     */
+    public String encode() {
+        String value = pointsInCourse + ":" + userUuid + ":" + rank;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
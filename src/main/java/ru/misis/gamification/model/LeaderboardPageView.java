@@ -6,20 +6,22 @@ import java.util.List;
  * Модель страницы лидерборда
  *
  * @param content       Список строк лидерборда на текущей странице
- * @param pageNumber    Номер текущей страницы (0-based)
+ * @param pageNumber    Номер текущей страницы (0-based), {@code null} при чтении по курсору
  * @param pageSize      Размер страницы
- * @param totalElements Общее количество элементов во всём наборе
- * @param totalPages    Общее количество страниц
+ * @param totalElements Общее количество элементов во всём наборе, {@code null} при чтении по курсору
+ * @param totalPages    Общее количество страниц, {@code null} при чтении по курсору
  * @param hasNext       Флаг следующей страницы
  * @param hasPrevious   Флаг предыдущейстраницы
+ * @param nextCursor    Курсор следующей страницы ({@code null}, если её нет)
  */
 public record LeaderboardPageView(
         List<LeaderboardEntryView> content,
-        int pageNumber,
+        Integer pageNumber,
         int pageSize,
-        long totalElements,
-        int totalPages,
+        Long totalElements,
+        Integer totalPages,
         boolean hasNext,
-        boolean hasPrevious
+        boolean hasPrevious,
+        String nextCursor
 ) {
 }
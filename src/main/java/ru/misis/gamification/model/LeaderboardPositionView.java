@@ -0,0 +1,12 @@
+package ru.misis.gamification.model;
+
+import java.util.UUID;
+
+/**
+ * Позиция пользователя в лидерборде, полученная из индекса в памяти
+ *
+ * @param userUuid       UUID пользователя
+ * @param pointsInCourse Очки на курсе
+ */
+public record LeaderboardPositionView(UUID userUuid, int pointsInCourse) {
+}
@@ -0,0 +1,12 @@
+package ru.misis.gamification.model;
+
+/**
+ * Проекция строки лидерборда с плотным рангом
+ */
+public interface LeaderboardRankRowView extends LeaderboardRowView {
+
+    /**
+     * @return Плотный ранг (1 = лидер)
+     */
+    Long getRank();
+}
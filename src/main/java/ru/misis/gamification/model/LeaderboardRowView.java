@@ -0,0 +1,29 @@
+package ru.misis.gamification.model;
+
+import java.util.UUID;
+
+/**
+ * Проекция строки лидерборда для нативных запросов (без ранга)
+ */
+public interface LeaderboardRowView {
+
+    /**
+     * @return UUID пользователя
+     */
+    UUID getUserUuid();
+
+    /**
+     * @return Идентификатор пользователя из LMS
+     */
+    String getUserId();
+
+    /**
+     * @return Очки пользователя на курсе
+     */
+    Integer getPointsInCourse();
+
+    /**
+     * @return Глобальный уровень пользователя
+     */
+    Integer getGlobalLevel();
+}
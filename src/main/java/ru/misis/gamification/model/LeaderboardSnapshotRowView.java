@@ -0,0 +1,12 @@
+package ru.misis.gamification.model;
+
+/**
+ * Проекция строки лидерборда из снимка рангов
+ */
+public interface LeaderboardSnapshotRowView extends LeaderboardRowView {
+
+    /**
+     * @return Позиция строки в лидерборде на момент снимка, начиная с 1
+     */
+    Long getRank();
+}
@@ -0,0 +1,17 @@
+package ru.misis.gamification.model;
+
+import java.util.List;
+
+/**
+ * Модель окна лидерборда вокруг пользователя
+ *
+ * @param entries           Строки окна по убыванию очков, включая строку пользователя
+ * @param currentUserRank   Позиция пользователя в лидерборде
+ * @param currentUserPoints Количество очков пользователя
+ */
+public record LeaderboardWindowView(
+        List<LeaderboardEntryView> entries,
+        Long currentUserRank,
+        Integer currentUserPoints
+) {
+}
@@ -0,0 +1,17 @@
+package ru.misis.gamification.model;
+
+/**
+ * Проекция строки персонализированного лидерборда: плотный ранг, позиция и размер лидерборда
+ */
+public interface PersonalLeaderboardRowView extends LeaderboardRankRowView {
+
+    /**
+     * @return Позиция строки в лидерборде (1 = первая строка)
+     */
+    Long getPosition();
+
+    /**
+     * @return Общее количество строк лидерборда
+     */
+    Long getTotal();
+}
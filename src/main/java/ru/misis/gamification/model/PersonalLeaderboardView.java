@@ -0,0 +1,15 @@
+package ru.misis.gamification.model;
+
+import org.springframework.data.domain.Page;
+
+/**
+ * Страница лидерборда вместе со строкой запросившего её пользователя
+ *
+ * @param page             Страница лидерборда; ранг строки — её позиция
+ * @param currentUserEntry Строка пользователя с плотным рангом или {@code null}, если его нет в лидерборде
+ */
+public record PersonalLeaderboardView(
+        Page<LeaderboardEntryView> page,
+        LeaderboardEntryView currentUserEntry
+) {
+}
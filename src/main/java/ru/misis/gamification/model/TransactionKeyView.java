@@ -0,0 +1,19 @@
+package ru.misis.gamification.model;
+
+import java.util.UUID;
+
+/**
+ * Проекция ключей сохранённой транзакции
+ */
+public interface TransactionKeyView {
+
+    /**
+     * @return UUID транзакции
+     */
+    UUID getUuid();
+
+    /**
+     * @return Идентификатор события из LMS
+     */
+    String getEventId();
+}
@@ -9,23 +9,25 @@ import java.util.List;
  * @param currentUserEntry  Модель строки лидерборда пользователя
  * @param currentUserRank   Позиция пользователя в лидерборде
  * @param currentUserPoints Количество очков пользователя
- * @param pageNumber        Номер текущей страницы (0-based)
+ * @param pageNumber        Номер текущей страницы (0-based), {@code null} при чтении по курсору
  * @param pageSize          Размер страницы
- * @param totalElements     Общее количество элементов во всём наборе
- * @param totalPages        Общее количество страниц
+ * @param totalElements     Общее количество элементов во всём наборе, {@code null} при чтении по курсору
+ * @param totalPages        Общее количество страниц, {@code null} при чтении по курсору
  * @param hasNext           Флаг следующей страницы
  * @param hasPrevious       Флаг предыдущейстраницы
+ * @param nextCursor        Курсор следующей страницы ({@code null}, если её нет)
  */
 public record UserCourseGroupLeaderboardView(
         List<LeaderboardEntryView> topEntries,
         LeaderboardEntryView currentUserEntry,
         Long currentUserRank,
         Integer currentUserPoints,
-        int pageNumber,
+        Integer pageNumber,
         int pageSize,
-        long totalElements,
-        int totalPages,
+        Long totalElements,
+        Integer totalPages,
         boolean hasNext,
-        boolean hasPrevious
+        boolean hasPrevious,
+        String nextCursor
 ) {
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package ru.misis.gamification.model;
+
+import java.util.UUID;
+
+/**
+ * Проекция очков и уровня пользователя, возвращаемая атомарными операциями начисления
+ * и постраничным чтением для пересчёта уровней
+ */
+public interface UserPointsView {
+
+    /**
+     * @return UUID пользователя
+     */
+    UUID getUuid();
+
+    /**
+     * @return Общее количество очков после начисления
+     */
+    Integer getTotalPoints();
+
+    /**
+     * @return Уровень, сохранённый в БД на момент начисления
+     */
+    Integer getLevel();
+}
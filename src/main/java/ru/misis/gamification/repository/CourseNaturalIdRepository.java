@@ -0,0 +1,22 @@
+package ru.misis.gamification.repository;
+
+import ru.misis.gamification.entity.Course;
+
+import java.util.Optional;
+
+/**
+ * Поиск курсов по естественному идентификатору через кэш второго уровня
+ */
+public interface CourseNaturalIdRepository {
+
+    /**
+     * Получить курс по идентификатору курса из LMS
+     * <p>
+     * Сначала проверяются кэши естественных идентификаторов и сущностей; запрос в БД — только при промахе.
+     * </p>
+     *
+     * @param courseId Идентификатор курса из LMS
+     * @return Optional с курсом или пустой, если не найден
+     */
+    Optional<Course> findByNaturalId(String courseId);
+}
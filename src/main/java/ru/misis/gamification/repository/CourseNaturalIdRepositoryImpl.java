@@ -0,0 +1,23 @@
+package ru.misis.gamification.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+import ru.misis.gamification.entity.Course;
+
+import java.util.Optional;
+
+@Transactional(readOnly = true)
+public class CourseNaturalIdRepositoryImpl implements CourseNaturalIdRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Course> findByNaturalId(String courseId) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Course.class)
+                .loadOptional(courseId);
+    }
+}
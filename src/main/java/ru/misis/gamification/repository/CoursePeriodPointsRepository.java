@@ -0,0 +1,228 @@
+package ru.misis.gamification.repository;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.misis.gamification.entity.CoursePeriodPoints;
+import ru.misis.gamification.entity.CoursePeriodPointsId;
+import ru.misis.gamification.entity.LeaderboardPeriod;
+import ru.misis.gamification.model.LeaderboardEntryView;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Репозиторий очков по курсу за период
+ */
+@Repository
+public interface CoursePeriodPointsRepository extends JpaRepository<CoursePeriodPoints, CoursePeriodPointsId> {
+
+    /**
+     * Атомарно увеличить очки по курсу за неделю и за месяц, создав строки при первом начислении за период
+     * <p>
+     * Группа берётся из зачисления; если пользователь не зачислен на курс, ничего не изменяется.
+     * </p>
+     *
+     * @param userUuid   UUID пользователя
+     * @param courseUuid UUID курса
+     * @param points     Количество начисляемых очков
+     * @param weekStart  Первый день недели начисления
+     * @param monthStart Первый день месяца начисления
+     * @return Количество созданных и обновлённых строк
+     */
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "course_period_points"))
+    @Query(value = """
+            INSERT INTO course_period_points (course_uuid, period, period_start, user_uuid, group_uuid, points)
+            SELECT e.course_uuid, p.period, p.period_start, e.user_uuid, e.group_uuid, :points
+            FROM user_course_enrollments e
+                     CROSS JOIN (VALUES ('WEEK', CAST(:weekStart AS DATE)),
+                                        ('MONTH', CAST(:monthStart AS DATE))) AS p(period, period_start)
+            WHERE e.user_uuid = :userUuid
+              AND e.course_uuid = :courseUuid
+            ON CONFLICT (course_uuid, period, period_start, user_uuid)
+                DO UPDATE SET points     = course_period_points.points + EXCLUDED.points,
+                              group_uuid = EXCLUDED.group_uuid
+            """, nativeQuery = true)
+    int addPoints(@Param("userUuid") UUID userUuid,
+                  @Param("courseUuid") UUID courseUuid,
+                  @Param("points") int points,
+                  @Param("weekStart") LocalDate weekStart,
+                  @Param("monthStart") LocalDate monthStart);
+
+    /**
+     * Атомарно увеличить очки за неделю и за месяц нескольким зачислениям одним выражением
+     * <p>
+     * Массивы передаются поэлементно; пары ({@code userUuids[i]}, {@code courseUuids[i]}) должны быть уникальны.
+     * </p>
+     *
+     * @param userUuids   UUID пользователей
+     * @param courseUuids UUID курсов
+     * @param points      Количество начисляемых очков
+     * @param weekStart   Первый день недели начисления
+     * @param monthStart  Первый день месяца начисления
+     * @return Количество созданных и обновлённых строк
+     */
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "course_period_points"))
+    @Query(value = """
+            INSERT INTO course_period_points (course_uuid, period, period_start, user_uuid, group_uuid, points)
+            SELECT e.course_uuid, p.period, p.period_start, e.user_uuid, e.group_uuid, d.points
+            FROM unnest(:userUuids, :courseUuids, :points) AS d(user_uuid, course_uuid, points)
+                     JOIN user_course_enrollments e
+                          ON e.user_uuid = d.user_uuid
+                              AND e.course_uuid = d.course_uuid
+                     CROSS JOIN (VALUES ('WEEK', CAST(:weekStart AS DATE)),
+                                        ('MONTH', CAST(:monthStart AS DATE))) AS p(period, period_start)
+            ON CONFLICT (course_uuid, period, period_start, user_uuid)
+                DO UPDATE SET points     = course_period_points.points + EXCLUDED.points,
+                              group_uuid = EXCLUDED.group_uuid
+            """, nativeQuery = true)
+    int addPointsBatch(@Param("userUuids") UUID[] userUuids,
+                       @Param("courseUuids") UUID[] courseUuids,
+                       @Param("points") int[] points,
+                       @Param("weekStart") LocalDate weekStart,
+                       @Param("monthStart") LocalDate monthStart);
+
+    /**
+     * Получить страницу лидерборда курса или группы за период по убыванию очков за период
+     *
+     * @param courseUuid  UUID курса
+     * @param groupUuid   UUID группы или {@code null} — лидерборд всего курса
+     * @param period      Период
+     * @param periodStart Первый день периода
+     * @param pageable    Параметры пагинации (сортировка задана запросом)
+     * @return Страница лидерборда; ранг — позиция строки
+     */
+    @Query(value = """
+            SELECT new ru.misis.gamification.model.LeaderboardEntryView(
+                u.uuid,
+                u.userId,
+                p.points,
+                u.level,
+                ROW_NUMBER() OVER (ORDER BY p.points DESC, p.id.userUuid DESC)
+            )
+            FROM CoursePeriodPoints p
+            JOIN User u ON u.uuid = p.id.userUuid
+            WHERE p.id.courseUuid = :courseUuid
+              AND p.id.period = :period
+              AND p.id.periodStart = :periodStart
+              AND (:groupUuid IS NULL OR p.groupUuid = :groupUuid)
+            ORDER BY p.points DESC, p.id.userUuid DESC
+            """,
+            countQuery = """
+                    SELECT COUNT(p)
+                    FROM CoursePeriodPoints p
+                    WHERE p.id.courseUuid = :courseUuid
+                      AND p.id.period = :period
+                      AND p.id.periodStart = :periodStart
+                      AND (:groupUuid IS NULL OR p.groupUuid = :groupUuid)
+                    """)
+    Page<LeaderboardEntryView> findLeaderboard(@Param("courseUuid") UUID courseUuid,
+                                               @Param("groupUuid") UUID groupUuid,
+                                               @Param("period") LeaderboardPeriod period,
+                                               @Param("periodStart") LocalDate periodStart,
+                                               Pageable pageable);
+
+    /**
+     * Получить строки лидерборда курса за период, следующие за курсором (постраничное чтение по ключу)
+     * <p>
+     * Страница начинается поиском по индексу {@code idx_course_period_points_leaderboard}, поэтому стоимость
+     * не зависит от её номера. Ранг не рассчитывается — его продолжает вызывающий код от ранга курсора.
+     * </p>
+     *
+     * @param courseUuid  UUID курса
+     * @param period      Период
+     * @param periodStart Первый день периода
+     * @param points      Очки последней строки предыдущей страницы
+     * @param userUuid    UUID пользователя последней строки предыдущей страницы
+     * @param limit       Максимальное количество строк
+     * @return Строки лидерборда с рангом 0
+     */
+    @Query("""
+            SELECT new ru.misis.gamification.model.LeaderboardEntryView(
+                u.uuid,
+                u.userId,
+                p.points,
+                u.level,
+                0L
+            )
+            FROM CoursePeriodPoints p
+            JOIN User u ON u.uuid = p.id.userUuid
+            WHERE p.id.courseUuid = :courseUuid
+              AND p.id.period = :period
+              AND p.id.periodStart = :periodStart
+              AND (p.points, p.id.userUuid) < (:points, :userUuid)
+            ORDER BY p.points DESC, p.id.userUuid DESC
+            """)
+    List<LeaderboardEntryView> findLeaderboardAfter(@Param("courseUuid") UUID courseUuid,
+                                                    @Param("period") LeaderboardPeriod period,
+                                                    @Param("periodStart") LocalDate periodStart,
+                                                    @Param("points") int points,
+                                                    @Param("userUuid") UUID userUuid,
+                                                    Limit limit);
+
+    /**
+     * Получить строки лидерборда группы за период, следующие за курсором (постраничное чтение по ключу)
+     * <p>
+     * То же, что {@link #findLeaderboardAfter}, но только для студентов группы;
+     * использует индекс {@code idx_course_period_points_group_leaderboard}.
+     * </p>
+     *
+     * @param courseUuid  UUID курса
+     * @param groupUuid   UUID группы
+     * @param period      Период
+     * @param periodStart Первый день периода
+     * @param points      Очки последней строки предыдущей страницы
+     * @param userUuid    UUID пользователя последней строки предыдущей страницы
+     * @param limit       Максимальное количество строк
+     * @return Строки лидерборда с рангом 0
+     */
+    @Query("""
+            SELECT new ru.misis.gamification.model.LeaderboardEntryView(
+                u.uuid,
+                u.userId,
+                p.points,
+                u.level,
+                0L
+            )
+            FROM CoursePeriodPoints p
+            JOIN User u ON u.uuid = p.id.userUuid
+            WHERE p.id.courseUuid = :courseUuid
+              AND p.id.period = :period
+              AND p.id.periodStart = :periodStart
+              AND p.groupUuid = :groupUuid
+              AND (p.points, p.id.userUuid) < (:points, :userUuid)
+            ORDER BY p.points DESC, p.id.userUuid DESC
+            """)
+    List<LeaderboardEntryView> findGroupLeaderboardAfter(@Param("courseUuid") UUID courseUuid,
+                                                         @Param("groupUuid") UUID groupUuid,
+                                                         @Param("period") LeaderboardPeriod period,
+                                                         @Param("periodStart") LocalDate periodStart,
+                                                         @Param("points") int points,
+                                                         @Param("userUuid") UUID userUuid,
+                                                         Limit limit);
+
+    /**
+     * Удалить очки за периоды, начавшиеся раньше указанного дня
+     *
+     * @param day Первый сохраняемый день начала периода
+     * @return Количество удалённых строк
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM CoursePeriodPoints p WHERE p.id.periodStart < :day")
+    int deleteByPeriodStartBefore(@Param("day") LocalDate day);
+}
@@ -6,6 +6,8 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.misis.gamification.entity.Course;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -13,7 +15,7 @@ import java.util.UUID;
  * Репозиторий курсов
  */
 @Repository
-public interface CourseRepository extends JpaRepository<Course, UUID> {
+public interface CourseRepository extends JpaRepository<Course, UUID>, CourseNaturalIdRepository {
 
     /**
      * Получить курс по идентификатору курса из LMS
@@ -23,6 +25,14 @@ public interface CourseRepository extends JpaRepository<Course, UUID> {
      */
     Optional<Course> findByCourseId(String courseId);
 
+    /**
+     * Получить курсы по идентификаторам курсов из LMS
+     *
+     * @param courseIds Идентификаторы курсов из LMS
+     * @return Список найденных курсов
+     */
+    List<Course> findAllByCourseIdIn(Collection<String> courseIds);
+
     /**
      * Проверить существование курса по идентификатору курса из LMS
      *
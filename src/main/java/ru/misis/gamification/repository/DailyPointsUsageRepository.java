@@ -0,0 +1,116 @@
+package ru.misis.gamification.repository;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.misis.gamification.entity.DailyPointsUsage;
+import ru.misis.gamification.entity.DailyPointsUsageId;
+import ru.misis.gamification.model.DailyPointsSumView;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Репозиторий дневных счётчиков очков
+ */
+@Repository
+public interface DailyPointsUsageRepository extends JpaRepository<DailyPointsUsage, DailyPointsUsageId> {
+
+    /**
+     * Получить сумму очков пользователя по типу события за день (чтение по первичному ключу)
+     *
+     * @param userUuid      UUID пользователя
+     * @param eventTypeUuid UUID типа события
+     * @param day           День
+     * @return Сумма очков, либо пусто, если начислений за день не было
+     */
+    @Query("SELECT u.points FROM DailyPointsUsage u " +
+            "WHERE u.id.userUuid = :userUuid AND u.id.eventTypeUuid = :eventTypeUuid AND u.id.day = :day")
+    Optional<Integer> findPoints(@Param("userUuid") UUID userUuid,
+                                 @Param("eventTypeUuid") UUID eventTypeUuid,
+                                 @Param("day") LocalDate day);
+
+    /**
+     * Получить суммы очков за день для набора пользователей и типов событий
+     *
+     * @param userUuids      UUID пользователей
+     * @param eventTypeUuids UUID типов событий
+     * @param day            День
+     * @return Суммы по парам пользователь — тип события, для которых были начисления
+     */
+    @Query("SELECT new ru.misis.gamification.model.DailyPointsSumView(u.id.userUuid, u.id.eventTypeUuid, CAST(u.points AS Long)) " +
+            "FROM DailyPointsUsage u " +
+            "WHERE u.id.userUuid IN :userUuids AND u.id.eventTypeUuid IN :eventTypeUuids AND u.id.day = :day")
+    List<DailyPointsSumView> findPointsByUsersAndEventTypes(@Param("userUuids") Collection<UUID> userUuids,
+                                                            @Param("eventTypeUuids") Collection<UUID> eventTypeUuids,
+                                                            @Param("day") LocalDate day);
+
+    /**
+     * Атомарно увеличить дневной счётчик, создав его при первом начислении за день
+     *
+     * @param userUuid      UUID пользователя
+     * @param eventTypeUuid UUID типа события
+     * @param day           День
+     * @param points        Количество начисляемых очков
+     * @return Новая сумма очков за день
+     */
+    @Transactional
+    @Query(value = """
+            INSERT INTO daily_points_usage (user_uuid, event_type_uuid, day, points)
+            VALUES (:userUuid, :eventTypeUuid, :day, :points)
+            ON CONFLICT (user_uuid, event_type_uuid, day)
+                DO UPDATE SET points = daily_points_usage.points + EXCLUDED.points
+            RETURNING points
+            """, nativeQuery = true)
+    int addPoints(@Param("userUuid") UUID userUuid,
+                  @Param("eventTypeUuid") UUID eventTypeUuid,
+                  @Param("day") LocalDate day,
+                  @Param("points") int points);
+
+    /**
+     * Атомарно увеличить дневные счётчики для нескольких пар пользователь — тип события одним выражением
+     * <p>
+     * Массивы передаются поэлементно; пары ({@code userUuids[i]}, {@code eventTypeUuids[i]}) должны быть уникальны.
+     * </p>
+     *
+     * @param userUuids      UUID пользователей
+     * @param eventTypeUuids UUID типов событий
+     * @param points         Количество начисляемых очков
+     * @param day            День
+     * @return Количество созданных и обновлённых счётчиков
+     */
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "daily_points_usage"))
+    @Query(value = """
+            INSERT INTO daily_points_usage (user_uuid, event_type_uuid, day, points)
+            SELECT d.user_uuid, d.event_type_uuid, :day, d.points
+            FROM unnest(:userUuids, :eventTypeUuids, :points) AS d(user_uuid, event_type_uuid, points)
+            ON CONFLICT (user_uuid, event_type_uuid, day)
+                DO UPDATE SET points = daily_points_usage.points + EXCLUDED.points
+            """, nativeQuery = true)
+    int addPointsBatch(@Param("userUuids") UUID[] userUuids,
+                       @Param("eventTypeUuids") UUID[] eventTypeUuids,
+                       @Param("points") int[] points,
+                       @Param("day") LocalDate day);
+
+    /**
+     * Удалить счётчики за дни раньше указанного
+     *
+     * @param day Первый сохраняемый день
+     * @return Количество удалённых счётчиков
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM DailyPointsUsage u WHERE u.id.day < :day")
+    int deleteByDayBefore(@Param("day") LocalDate day);
+}
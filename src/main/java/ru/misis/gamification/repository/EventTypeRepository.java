@@ -6,6 +6,8 @@ import org.springframework.stereotype.Repository;
 import ru.misis.gamification.entity.EventType;
 
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -23,6 +25,21 @@ public interface EventTypeRepository extends JpaRepository<EventType, UUID> {
      */
     Optional<EventType> findByTypeCodeAndActiveTrue(String typeCode);
 
+    /**
+     * Получить активные типы событий из LMS по их кодам
+     *
+     * @param typeCodes Уникальные коды типов событий из LMS
+     * @return Список найденных активных типов событий
+     */
+    List<EventType> findAllByTypeCodeInAndActiveTrue(Collection<String> typeCodes);
+
+    /**
+     * Получить все активные типы событий из LMS
+     *
+     * @return Список активных типов событий
+     */
+    List<EventType> findAllByActiveTrue();
+
     /**
      * Проверить существование типа события из LMS по его коду
      *
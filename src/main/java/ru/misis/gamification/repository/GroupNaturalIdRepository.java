@@ -0,0 +1,23 @@
+package ru.misis.gamification.repository;
+
+import ru.misis.gamification.entity.Group;
+
+import java.util.Optional;
+
+/**
+ * Поиск групп по естественному идентификатору через кэш второго уровня
+ */
+public interface GroupNaturalIdRepository {
+
+    /**
+     * Получить группу по идентификаторам группы и курса из LMS
+     * <p>
+     * Курс и группа разрешаются по естественным идентификаторам; запрос в БД — только при промахе кэша.
+     * </p>
+     *
+     * @param groupId  Идентификатор группы из LMS
+     * @param courseId Идентификатор курса из LMS
+     * @return Optional с группой или пустой, если курс или группа не найдены
+     */
+    Optional<Group> findByNaturalId(String groupId, String courseId);
+}
@@ -0,0 +1,28 @@
+package ru.misis.gamification.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+import ru.misis.gamification.entity.Course;
+import ru.misis.gamification.entity.Group;
+
+import java.util.Optional;
+
+@Transactional(readOnly = true)
+public class GroupNaturalIdRepositoryImpl implements GroupNaturalIdRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Group> findByNaturalId(String groupId, String courseId) {
+        Session session = entityManager.unwrap(Session.class);
+        return session.bySimpleNaturalId(Course.class)
+                .loadOptional(courseId)
+                .flatMap(course -> session.byNaturalId(Group.class)
+                        .using("groupId", groupId)
+                        .using("course", course)
+                        .loadOptional());
+    }
+}
@@ -14,7 +14,7 @@ import java.util.UUID;
  * Репозиторий групп/потоков
  */
 @Repository
-public interface GroupRepository extends JpaRepository<Group, UUID> {
+public interface GroupRepository extends JpaRepository<Group, UUID>, GroupNaturalIdRepository {
 
     /**
      * Получить группу по внешнему идентификатору группы из LMS и курсу
@@ -0,0 +1,140 @@
+package ru.misis.gamification.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.misis.gamification.entity.LevelRecalculationJob;
+import ru.misis.gamification.entity.LevelRecalculationJobStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Репозиторий задач пересчёта уровней
+ */
+@Repository
+public interface LevelRecalculationJobRepository extends JpaRepository<LevelRecalculationJob, UUID> {
+
+    /**
+     * Найти последнюю запущенную задачу
+     *
+     * @return Задача, либо пусто, если задач не было
+     */
+    Optional<LevelRecalculationJob> findFirstByOrderByStartedAtDesc();
+
+    /**
+     * Найти задачу в указанном статусе
+     *
+     * @param status Статус
+     * @return Задача, либо пусто
+     */
+    Optional<LevelRecalculationJob> findFirstByStatus(LevelRecalculationJobStatus status);
+
+    /**
+     * Найти выполняющиеся задачи, экземпляр которых давно не отмечался
+     *
+     * @param before Граница времени последней отметки
+     * @return Прерванные задачи
+     */
+    @Query("SELECT j FROM LevelRecalculationJob j " +
+            "WHERE j.status = ru.misis.gamification.entity.LevelRecalculationJobStatus.RUNNING " +
+            "AND j.heartbeatAt < :before")
+    List<LevelRecalculationJob> findStale(@Param("before") LocalDateTime before);
+
+    /**
+     * Захватить прерванную задачу для продолжения
+     * <p>
+     * Условие на время отметки гарантирует, что задачу продолжит только один экземпляр.
+     * </p>
+     *
+     * @param uuid   UUID задачи
+     * @param before Граница времени последней отметки
+     * @param now    Текущее время
+     * @return 1 — задача захвачена, 0 — её уже продолжает другой экземпляр
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE LevelRecalculationJob j SET j.heartbeatAt = :now " +
+            "WHERE j.uuid = :uuid " +
+            "AND j.status = ru.misis.gamification.entity.LevelRecalculationJobStatus.RUNNING " +
+            "AND j.heartbeatAt < :before")
+    int claim(@Param("uuid") UUID uuid, @Param("before") LocalDateTime before, @Param("now") LocalDateTime now);
+
+    /**
+     * Начать выполняющуюся задачу заново по другой формуле
+     *
+     * @param uuid    UUID задачи
+     * @param formula Описание формулы
+     * @param now     Текущее время
+     * @return Количество обновлённых записей
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE LevelRecalculationJob j " +
+            "SET j.formula = :formula, j.lastUserUuid = null, j.processed = 0L, j.changed = 0L, j.heartbeatAt = :now " +
+            "WHERE j.uuid = :uuid " +
+            "AND j.status = ru.misis.gamification.entity.LevelRecalculationJobStatus.RUNNING")
+    int restart(@Param("uuid") UUID uuid, @Param("formula") String formula, @Param("now") LocalDateTime now);
+
+    /**
+     * Сохранить точку продолжения и прогресс
+     *
+     * @param uuid         UUID задачи
+     * @param lastUserUuid UUID последнего обработанного пользователя
+     * @param processed    Обработано пользователей с прошлой отметки
+     * @param changed      Изменено уровней с прошлой отметки
+     * @param now          Текущее время
+     * @return 1 — сохранено, 0 — задача больше не выполняется (отменена)
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE LevelRecalculationJob j " +
+            "SET j.lastUserUuid = :lastUserUuid, j.processed = j.processed + :processed, " +
+            "    j.changed = j.changed + :changed, j.heartbeatAt = :now " +
+            "WHERE j.uuid = :uuid " +
+            "AND j.status = ru.misis.gamification.entity.LevelRecalculationJobStatus.RUNNING")
+    int checkpoint(@Param("uuid") UUID uuid,
+                   @Param("lastUserUuid") UUID lastUserUuid,
+                   @Param("processed") long processed,
+                   @Param("changed") long changed,
+                   @Param("now") LocalDateTime now);
+
+    /**
+     * Отметить, что экземпляр продолжает выполнять задачу
+     *
+     * @param uuid UUID задачи
+     * @param now  Текущее время
+     * @return 1 — отмечено, 0 — задача больше не выполняется (отменена)
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE LevelRecalculationJob j SET j.heartbeatAt = :now " +
+            "WHERE j.uuid = :uuid " +
+            "AND j.status = ru.misis.gamification.entity.LevelRecalculationJobStatus.RUNNING")
+    int heartbeat(@Param("uuid") UUID uuid, @Param("now") LocalDateTime now);
+
+    /**
+     * Завершить выполняющуюся задачу
+     *
+     * @param uuid   UUID задачи
+     * @param status Итоговый статус
+     * @param error  Текст ошибки (для FAILED)
+     * @param now    Текущее время
+     * @return 1 — завершена, 0 — задача уже не выполнялась
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE LevelRecalculationJob j " +
+            "SET j.status = :status, j.lastError = :error, j.finishedAt = :now, j.heartbeatAt = :now " +
+            "WHERE j.uuid = :uuid " +
+            "AND j.status = ru.misis.gamification.entity.LevelRecalculationJobStatus.RUNNING")
+    int finish(@Param("uuid") UUID uuid,
+               @Param("status") LevelRecalculationJobStatus status,
+               @Param("error") String error,
+               @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,168 @@
+package ru.misis.gamification.repository;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.misis.gamification.entity.LmsEventInbox;
+import ru.misis.gamification.entity.LmsEventInboxStatus;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Репозиторий входящей очереди событий LMS
+ */
+@Repository
+public interface LmsEventInboxRepository extends JpaRepository<LmsEventInbox, UUID> {
+
+    /**
+     * Найти событие очереди по идентификатору события из LMS
+     *
+     * @param eventId Идентификатор события из LMS
+     * @return Событие очереди
+     */
+    Optional<LmsEventInbox> findByEventId(String eventId);
+
+    /**
+     * Поставить событие в очередь, если событие с таким eventId ещё не принималось
+     *
+     * @param eventId   Идентификатор события из LMS
+     * @param userId    Идентификатор пользователя из LMS
+     * @param eventType Код типа события
+     * @param courseId  Идентификатор курса из LMS
+     * @param groupId   Идентификатор группы из LMS
+     * @param now       Текущее время
+     * @return 1 — событие поставлено в очередь, 0 — уже было в очереди
+     */
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "lms_event_inbox"))
+    @Query(value = """
+            INSERT INTO lms_event_inbox (uuid, event_id, user_id, event_type, course_id, group_id,
+                                         status, attempts, next_attempt_at, created_at, updated_at)
+            VALUES (gen_random_uuid(), :eventId, :userId, :eventType, :courseId, :groupId,
+                    'PENDING', 0, :now, :now, :now)
+            ON CONFLICT (event_id) DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("eventId") String eventId,
+                       @Param("userId") String userId,
+                       @Param("eventType") String eventType,
+                       @Param("courseId") String courseId,
+                       @Param("groupId") String groupId,
+                       @Param("now") LocalDateTime now);
+
+    /**
+     * Захватить пачку готовых к обработке событий
+     * <p>
+     * Строки, захваченные другим экземпляром приложения, пропускаются ({@code FOR UPDATE SKIP LOCKED}),
+     * поэтому несколько обработчиков не получают одно и то же событие.
+     * </p>
+     *
+     * @param now   Текущее время
+     * @param limit Максимальный размер пачки
+     * @return Захваченные события в статусе PROCESSING
+     */
+    @Transactional
+    @Query(value = """
+            UPDATE lms_event_inbox i
+            SET status     = 'PROCESSING',
+                attempts   = i.attempts + 1,
+                updated_at = :now
+            WHERE i.uuid IN (SELECT c.uuid
+                             FROM lms_event_inbox c
+                             WHERE c.status = 'PENDING'
+                               AND c.next_attempt_at <= :now
+                             ORDER BY c.created_at
+                             LIMIT :limit
+                             FOR UPDATE SKIP LOCKED)
+            RETURNING i.*
+            """, nativeQuery = true)
+    List<LmsEventInbox> claimBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * Зафиксировать результат обработки события
+     *
+     * @param uuid          UUID события очереди
+     * @param status        Новый статус
+     * @param resultStatus  Статус результата начисления
+     * @param resultMessage Сообщение результата начисления
+     * @param now           Текущее время
+     * @return Количество обновлённых записей
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE LmsEventInbox i " +
+            "SET i.status = :status, i.resultStatus = :resultStatus, i.resultMessage = :resultMessage, " +
+            "    i.lastError = null, i.processedAt = :now, i.updatedAt = :now " +
+            "WHERE i.uuid = :uuid")
+    int complete(@Param("uuid") UUID uuid,
+                 @Param("status") LmsEventInboxStatus status,
+                 @Param("resultStatus") String resultStatus,
+                 @Param("resultMessage") String resultMessage,
+                 @Param("now") LocalDateTime now);
+
+    /**
+     * Зафиксировать ошибку обработки события
+     *
+     * @param uuid          UUID события очереди
+     * @param status        Новый статус (PENDING — повтор, PARKED — отложено для разбора)
+     * @param error         Текст ошибки
+     * @param nextAttemptAt Время следующей попытки
+     * @param now           Текущее время
+     * @return Количество обновлённых записей
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE LmsEventInbox i " +
+            "SET i.status = :status, i.lastError = :error, i.nextAttemptAt = :nextAttemptAt, i.updatedAt = :now " +
+            "WHERE i.uuid = :uuid")
+    int fail(@Param("uuid") UUID uuid,
+             @Param("status") LmsEventInboxStatus status,
+             @Param("error") String error,
+             @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+             @Param("now") LocalDateTime now);
+
+    /**
+     * Вернуть в очередь события, зависшие в статусе PROCESSING (например, после аварийной остановки)
+     *
+     * @param staleBefore Граница: события, захваченные раньше, считаются зависшими
+     * @param now         Текущее время
+     * @return Количество возвращённых событий
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE LmsEventInbox i " +
+            "SET i.status = ru.misis.gamification.entity.LmsEventInboxStatus.PENDING, i.updatedAt = :now " +
+            "WHERE i.status = ru.misis.gamification.entity.LmsEventInboxStatus.PROCESSING " +
+            "  AND i.updatedAt < :staleBefore")
+    int releaseStale(@Param("staleBefore") LocalDateTime staleBefore, @Param("now") LocalDateTime now);
+
+    /**
+     * Вернуть захваченные события в очередь без учёта попытки
+     * <p>
+     * Используется, когда событие не удалось передать на обработку (например, очередь полосы переполнена):
+     * срок следующей попытки не меняется, поэтому события снова захватываются в порядке поступления.
+     * </p>
+     *
+     * @param uuids UUID событий очереди
+     * @param now   Текущее время
+     * @return Количество возвращённых событий
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE LmsEventInbox i " +
+            "SET i.status = ru.misis.gamification.entity.LmsEventInboxStatus.PENDING, " +
+            "    i.attempts = i.attempts - 1, i.updatedAt = :now " +
+            "WHERE i.uuid IN :uuids " +
+            "  AND i.status = ru.misis.gamification.entity.LmsEventInboxStatus.PROCESSING")
+    int requeue(@Param("uuids") Collection<UUID> uuids, @Param("now") LocalDateTime now);
+}
@@ -6,9 +6,17 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import ru.misis.gamification.entity.Transaction;
+import ru.misis.gamification.model.AwardStatementView;
+import ru.misis.gamification.model.TransactionKeyView;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -25,6 +33,222 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
      */
     boolean existsByEventId(String eventId);
 
+    /**
+     * Получить страницу идентификаторов событий, следующих за указанным, в порядке уникального индекса
+     *
+     * @param after Последний идентификатор предыдущей страницы (пустая строка — с начала)
+     * @param limit Размер страницы
+     * @return Идентификаторы событий из LMS
+     */
+    @Query(value = """
+            SELECT event_id
+            FROM transactions
+            WHERE event_id > :after
+            ORDER BY event_id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<String> findEventIdsAfter(@Param("after") String after, @Param("limit") int limit);
+
+    /**
+     * Сохранить транзакцию, если событие с таким eventId ещё не обрабатывалось
+     * <p>
+     * Проверка дубликата и вставка выполняются одним выражением по уникальному индексу
+     * {@code event_id}: при конфликте строка не вставляется и исключение не выбрасывается.
+     * </p>
+     *
+     * @param userUuid      UUID пользователя
+     * @param courseUuid    UUID курса (может быть null)
+     * @param eventId       Идентификатор события из LMS
+     * @param eventTypeUuid UUID типа события
+     * @param points        Количество начисленных очков
+     * @param description   Описание
+     * @param createdAt     Дата создания
+     * @return UUID сохранённой транзакции, либо пусто, если событие уже обработано
+     */
+    @Transactional
+    @Query(value = """
+            INSERT INTO transactions (uuid, user_uuid, course_uuid, event_id, event_type_uuid,
+                                      points, description, created_at)
+            VALUES (gen_random_uuid(), :userUuid, :courseUuid, :eventId, :eventTypeUuid,
+                    :points, :description, :createdAt)
+            ON CONFLICT (event_id) DO NOTHING
+            RETURNING uuid
+            """, nativeQuery = true)
+    Optional<UUID> insertIfAbsent(@Param("userUuid") UUID userUuid,
+                                  @Param("courseUuid") UUID courseUuid,
+                                  @Param("eventId") String eventId,
+                                  @Param("eventTypeUuid") UUID eventTypeUuid,
+                                  @Param("points") int points,
+                                  @Param("description") String description,
+                                  @Param("createdAt") LocalDateTime createdAt);
+
+    /**
+     * Сохранить пакет транзакций, пропуская события, которые уже обработаны
+     * <p>
+     * Массивы передаются построчно: i-й элемент каждого массива относится к одной транзакции.
+     * Как и {@link #insertIfAbsent}, конфликт по уникальному индексу {@code event_id} не прерывает выражение:
+     * строка пропускается, а остальные вставляются. Идентификаторы событий в пакете должны быть уникальны.
+     * </p>
+     *
+     * @param userUuids      UUID пользователей
+     * @param courseUuids    UUID курсов (элементы могут быть null)
+     * @param eventIds       Идентификаторы событий из LMS
+     * @param eventTypeUuids UUID типов событий
+     * @param points         Количество начисленных очков
+     * @param descriptions   Описания
+     * @param createdAt      Даты создания
+     * @return Ключи вставленных транзакций; событий, которые уже обработаны, среди них нет
+     */
+    @Transactional
+    @Query(value = """
+            INSERT INTO transactions (uuid, user_uuid, course_uuid, event_id, event_type_uuid,
+                                      points, description, created_at)
+            SELECT gen_random_uuid(), d.user_uuid, d.course_uuid, d.event_id, d.event_type_uuid,
+                   d.points, d.description, d.created_at
+            FROM unnest(:userUuids, :courseUuids, :eventIds, :eventTypeUuids, :points, :descriptions, :createdAt)
+                     AS d(user_uuid, course_uuid, event_id, event_type_uuid, points, description, created_at)
+            ON CONFLICT (event_id) DO NOTHING
+            RETURNING uuid AS uuid, event_id AS eventId
+            """, nativeQuery = true)
+    List<TransactionKeyView> insertAllIfAbsent(@Param("userUuids") UUID[] userUuids,
+                                               @Param("courseUuids") UUID[] courseUuids,
+                                               @Param("eventIds") String[] eventIds,
+                                               @Param("eventTypeUuids") UUID[] eventTypeUuids,
+                                               @Param("points") int[] points,
+                                               @Param("descriptions") String[] descriptions,
+                                               @Param("createdAt") LocalDateTime[] createdAt);
+
+    /**
+     * Начислить очки за событие одним выражением
+     * <p>
+     * Поиск типа события, пользователя, курса и зачисления, проверка дубликата и дневного лимита,
+     * вставка транзакции и увеличение суммы пользователя, дневного счётчика, очков на курсе и очков
+     * на курсе за неделю и месяц выполняются одним data-modifying CTE. Если любая проверка не пройдена,
+     * ничего не изменяется. Если учёт курсов выключен, зачисление не проверяется, а очки на курсе
+     * и за период не изменяются — как при стандартном начислении.
+     * Уровень не пересчитывается — формула уровня задаётся конфигурацией приложения.
+     * </p>
+     *
+     * @param userId         Идентификатор пользователя из LMS
+     * @param eventId        Идентификатор события из LMS
+     * @param typeCode       Код типа события
+     * @param courseId       Идентификатор курса из LMS (может быть null)
+     * @param coursesEnabled Включён ли учёт курсов
+     * @param day            День для дневного лимита
+     * @param weekStart      Первый день недели начисления
+     * @param monthStart     Первый день месяца начисления
+     * @param createdAt      Дата создания транзакции
+     * @return Флаги проверок и, при успехе, данные созданной транзакции
+     */
+    @Transactional
+    @Query(value = """
+            WITH et AS (SELECT uuid, points, max_daily_points, display_name
+                        FROM event_types
+                        WHERE type_code = :typeCode
+                          AND active),
+                 usr AS (SELECT uuid
+                         FROM users
+                         WHERE user_id = :userId),
+                 crs AS (SELECT uuid
+                         FROM courses
+                         WHERE course_id = CAST(:courseId AS VARCHAR)),
+                 enr AS (SELECT e.uuid
+                         FROM user_course_enrollments e
+                                  JOIN usr ON e.user_uuid = usr.uuid
+                                  JOIN crs ON e.course_uuid = crs.uuid),
+                 dup AS (SELECT uuid
+                         FROM transactions
+                         WHERE event_id = :eventId),
+                 chk AS (SELECT usr.uuid                  AS user_uuid,
+                                et.uuid                   AS event_type_uuid,
+                                et.points,
+                                et.display_name,
+                                (SELECT uuid FROM crs)    AS course_uuid,
+                                et.max_daily_points IS NULL
+                                    OR COALESCE(d.points, 0) + et.points <= et.max_daily_points AS within_limit
+                         FROM et
+                                  CROSS JOIN usr
+                                  LEFT JOIN daily_points_usage d
+                                            ON d.user_uuid = usr.uuid
+                                                AND d.event_type_uuid = et.uuid
+                                                AND d.day = :day),
+                 ins AS (
+                     INSERT INTO transactions (uuid, user_uuid, course_uuid, event_id, event_type_uuid,
+                                               points, description, created_at)
+                         SELECT gen_random_uuid(), chk.user_uuid, chk.course_uuid, :eventId, chk.event_type_uuid,
+                                chk.points, 'Начисление за ' || chk.display_name, :createdAt
+                         FROM chk
+                         WHERE chk.within_limit
+                           AND (CAST(:courseId AS VARCHAR) IS NULL OR EXISTS (SELECT 1 FROM crs))
+                           AND (NOT CAST(:coursesEnabled AS BOOLEAN)
+                             OR CAST(:courseId AS VARCHAR) IS NULL
+                             OR EXISTS (SELECT 1 FROM enr))
+                           AND NOT EXISTS (SELECT 1 FROM dup)
+                         ON CONFLICT (event_id) DO NOTHING
+                         RETURNING uuid, user_uuid, course_uuid, event_type_uuid, points),
+                 upd_user AS (
+                     UPDATE users u
+                         SET total_points = u.total_points + ins.points,
+                             updated_at = NOW()
+                         FROM ins
+                         WHERE u.uuid = ins.user_uuid
+                         RETURNING u.total_points, u.level),
+                 upd_usage AS (
+                     INSERT INTO daily_points_usage (user_uuid, event_type_uuid, day, points)
+                         SELECT ins.user_uuid, ins.event_type_uuid, :day, ins.points
+                         FROM ins
+                         ON CONFLICT (user_uuid, event_type_uuid, day)
+                             DO UPDATE SET points = daily_points_usage.points + EXCLUDED.points
+                         RETURNING points),
+                 upd_enrollment AS (
+                     UPDATE user_course_enrollments e
+                         SET total_points_in_course = e.total_points_in_course + ins.points
+                         FROM ins
+                         WHERE e.user_uuid = ins.user_uuid
+                           AND e.course_uuid = ins.course_uuid
+                           AND CAST(:coursesEnabled AS BOOLEAN)
+                         RETURNING e.course_uuid, e.total_points_in_course),
+                 upd_period AS (
+                     INSERT INTO course_period_points (course_uuid, period, period_start, user_uuid, group_uuid, points)
+                         SELECT e.course_uuid, p.period, p.period_start, e.user_uuid, e.group_uuid, ins.points
+                         FROM ins
+                                  JOIN user_course_enrollments e
+                                       ON e.user_uuid = ins.user_uuid
+                                           AND e.course_uuid = ins.course_uuid
+                                  CROSS JOIN (VALUES ('WEEK', CAST(:weekStart AS DATE)),
+                                                     ('MONTH', CAST(:monthStart AS DATE))) AS p(period, period_start)
+                         WHERE CAST(:coursesEnabled AS BOOLEAN)
+                         ON CONFLICT (course_uuid, period, period_start, user_uuid)
+                             DO UPDATE SET points     = course_period_points.points + EXCLUDED.points,
+                                           group_uuid = EXCLUDED.group_uuid)
+            SELECT EXISTS (SELECT 1 FROM et)                                              AS eventTypeFound,
+                   EXISTS (SELECT 1 FROM usr)                                             AS userFound,
+                   (CAST(:courseId AS VARCHAR) IS NULL OR EXISTS (SELECT 1 FROM crs))     AS courseFound,
+                   (NOT CAST(:coursesEnabled AS BOOLEAN)
+                       OR CAST(:courseId AS VARCHAR) IS NULL
+                       OR EXISTS (SELECT 1 FROM enr))                                     AS enrolled,
+                   COALESCE((SELECT within_limit FROM chk), FALSE)                        AS withinLimit,
+                   EXISTS (SELECT 1 FROM dup)                                             AS duplicate,
+                   (SELECT display_name FROM et)                                          AS displayName,
+                   (SELECT uuid FROM ins)                                                 AS transactionId,
+                   (SELECT user_uuid FROM ins)                                            AS userUuid,
+                   (SELECT event_type_uuid FROM ins)                                      AS eventTypeUuid,
+                   (SELECT points FROM ins)                                               AS points,
+                   (SELECT total_points FROM upd_user)                                    AS totalPoints,
+                   (SELECT level FROM upd_user)                                           AS level,
+                   (SELECT course_uuid FROM upd_enrollment)                               AS courseUuid,
+                   (SELECT total_points_in_course FROM upd_enrollment)                    AS totalPointsInCourse
+            """, nativeQuery = true)
+    AwardStatementView awardInSingleStatement(@Param("userId") String userId,
+                                              @Param("eventId") String eventId,
+                                              @Param("typeCode") String typeCode,
+                                              @Param("courseId") String courseId,
+                                              @Param("coursesEnabled") boolean coursesEnabled,
+                                              @Param("day") LocalDate day,
+                                              @Param("weekStart") LocalDate weekStart,
+                                              @Param("monthStart") LocalDate monthStart,
+                                              @Param("createdAt") LocalDateTime createdAt);
+
     /**
      * Получить страницу транзакций по идентификатору пользователя из LMS
      *
@@ -55,4 +279,14 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
             @Param("userUuid") UUID userUuid,
             @Param("eventTypeUuid") UUID eventTypeUuid,
             @Param("date") LocalDate date);
-}
\ No newline at end of file
+
+    /**
+     * Получить идентификаторы событий из LMS, для которых уже существуют транзакции
+     *
+     * @param eventIds Идентификаторы событий из LMS
+     * @return Множество уже обработанных идентификаторов событий
+     */
+    @Query("SELECT t.eventId FROM Transaction t WHERE t.eventId IN :eventIds")
+    Set<String> findExistingEventIds(@Param("eventIds") Collection<String> eventIds);
+
+}
@@ -1,17 +1,31 @@
 package ru.misis.gamification.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.jspecify.annotations.Nullable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import ru.misis.gamification.entity.Course;
 import ru.misis.gamification.entity.User;
 import ru.misis.gamification.entity.UserCourseEnrollment;
+import ru.misis.gamification.model.CoursePointsCountView;
+import ru.misis.gamification.model.EnrollmentKeyView;
+import ru.misis.gamification.model.EnrollmentPointsView;
 import ru.misis.gamification.model.LeaderboardEntryView;
+import ru.misis.gamification.model.LeaderboardRankRowView;
+import ru.misis.gamification.model.LeaderboardRowView;
+import ru.misis.gamification.model.LeaderboardSnapshotRowView;
+import ru.misis.gamification.model.PersonalLeaderboardRowView;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -49,7 +63,7 @@ public interface UserCourseEnrollmentRepository extends JpaRepository<UserCourse
                 u.userId,
                 uce.totalPointsInCourse,
                 u.level,
-                ROW_NUMBER() OVER (ORDER BY uce.totalPointsInCourse DESC)
+                ROW_NUMBER() OVER (ORDER BY uce.totalPointsInCourse DESC, uce.user.uuid DESC)
             )
             FROM UserCourseEnrollment uce
             JOIN uce.user u
@@ -62,6 +76,251 @@ public interface UserCourseEnrollmentRepository extends JpaRepository<UserCourse
             Pageable pageable
     );
 
+    /**
+     * Получить строки лидерборда курса, следующие за курсором (постраничное чтение по ключу)
+     * <p>
+     * Порядок — по убыванию очков, при равенстве по убыванию UUID пользователя; страница начинается
+     * поиском по индексу {@code idx_enrollments_course_points}, поэтому стоимость не зависит от её номера.
+     * Ранг не рассчитывается — его продолжает вызывающий код от ранга курсора.
+     * </p>
+     *
+     * @param courseUuid UUID курса
+     * @param points     Очки последней строки предыдущей страницы
+     * @param userUuid   UUID пользователя последней строки предыдущей страницы
+     * @param limit      Максимальное количество строк
+     * @return Строки лидерборда с рангом 0
+     */
+    @Query("""
+            SELECT new ru.misis.gamification.model.LeaderboardEntryView(
+                u.uuid,
+                u.userId,
+                uce.totalPointsInCourse,
+                u.level,
+                0L
+            )
+            FROM UserCourseEnrollment uce
+            JOIN User u ON u.uuid = uce.user.uuid
+            WHERE uce.course.uuid = :courseUuid
+              AND (uce.totalPointsInCourse, uce.user.uuid) < (:points, :userUuid)
+            ORDER BY uce.totalPointsInCourse DESC, uce.user.uuid DESC
+            """)
+    List<LeaderboardEntryView> findLeaderboardAfter(@Param("courseUuid") UUID courseUuid,
+                                                    @Param("points") int points,
+                                                    @Param("userUuid") UUID userUuid,
+                                                    Limit limit);
+
+    /**
+     * Получить строки лидерборда группы на курсе, следующие за курсором (постраничное чтение по ключу)
+     * <p>
+     * То же, что {@link #findLeaderboardAfter}, но только для студентов группы;
+     * использует индекс {@code idx_enrollments_course_group_points}.
+     * </p>
+     *
+     * @param courseUuid UUID курса
+     * @param groupUuid  UUID группы
+     * @param points     Очки последней строки предыдущей страницы
+     * @param userUuid   UUID пользователя последней строки предыдущей страницы
+     * @param limit      Максимальное количество строк
+     * @return Строки лидерборда с рангом 0
+     */
+    @Query("""
+            SELECT new ru.misis.gamification.model.LeaderboardEntryView(
+                u.uuid,
+                u.userId,
+                uce.totalPointsInCourse,
+                u.level,
+                0L
+            )
+            FROM UserCourseEnrollment uce
+            JOIN User u ON u.uuid = uce.user.uuid
+            WHERE uce.course.uuid = :courseUuid
+              AND uce.group.uuid = :groupUuid
+              AND (uce.totalPointsInCourse, uce.user.uuid) < (:points, :userUuid)
+            ORDER BY uce.totalPointsInCourse DESC, uce.user.uuid DESC
+            """)
+    List<LeaderboardEntryView> findGroupLeaderboardAfter(@Param("courseUuid") UUID courseUuid,
+                                                         @Param("groupUuid") UUID groupUuid,
+                                                         @Param("points") int points,
+                                                         @Param("userUuid") UUID userUuid,
+                                                         Limit limit);
+
+    /**
+     * Получить окно лидерборда курса вокруг пользователя: до {@code radius} строк выше и ниже него
+     * <p>
+     * Одно выражение из двух поисков по индексу {@code idx_enrollments_course_points} от позиции
+     * пользователя — вверх и вниз, поэтому стоимость не зависит от места пользователя в лидерборде.
+     * Порядок — как у лидерборда: по убыванию очков, при равенстве по убыванию UUID пользователя.
+     * </p>
+     *
+     * @param courseUuid UUID курса
+     * @param userUuid   UUID пользователя
+     * @param radius     Количество строк выше и ниже пользователя
+     * @return Строки окна, включая строку пользователя; пусто, если пользователь не зачислен на курс
+     */
+    @Query(value = """
+            WITH me AS (
+                SELECT total_points_in_course AS points, user_uuid
+                FROM user_course_enrollments
+                WHERE course_uuid = :courseUuid
+                  AND user_uuid = :userUuid
+            )
+            SELECT w.user_uuid AS userUuid, u.user_id AS userId,
+                   w.total_points_in_course AS pointsInCourse, u.level AS globalLevel
+            FROM (
+                (SELECT e.user_uuid, e.total_points_in_course
+                 FROM user_course_enrollments e, me
+                 WHERE e.course_uuid = :courseUuid
+                   AND (e.total_points_in_course, e.user_uuid) > (me.points, me.user_uuid)
+                 ORDER BY e.total_points_in_course, e.user_uuid
+                 LIMIT :radius)
+                UNION ALL
+                (SELECT e.user_uuid, e.total_points_in_course
+                 FROM user_course_enrollments e, me
+                 WHERE e.course_uuid = :courseUuid
+                   AND (e.total_points_in_course, e.user_uuid) <= (me.points, me.user_uuid)
+                 ORDER BY e.total_points_in_course DESC, e.user_uuid DESC
+                 LIMIT :radius + 1)
+            ) w
+            JOIN users u ON u.uuid = w.user_uuid
+            ORDER BY w.total_points_in_course DESC, w.user_uuid DESC
+            """, nativeQuery = true)
+    List<LeaderboardRowView> findLeaderboardAround(@Param("courseUuid") UUID courseUuid,
+                                                   @Param("userUuid") UUID userUuid,
+                                                   @Param("radius") int radius);
+
+    /**
+     * Получить окно лидерборда группы на курсе вокруг пользователя
+     * <p>
+     * То же, что {@link #findLeaderboardAround}, но только для студентов группы;
+     * использует индекс {@code idx_enrollments_course_group_points}.
+     * </p>
+     *
+     * @param courseUuid UUID курса
+     * @param groupUuid  UUID группы
+     * @param userUuid   UUID пользователя
+     * @param radius     Количество строк выше и ниже пользователя
+     * @return Строки окна, включая строку пользователя; пусто, если пользователь не состоит в группе
+     */
+    @Query(value = """
+            WITH me AS (
+                SELECT total_points_in_course AS points, user_uuid
+                FROM user_course_enrollments
+                WHERE course_uuid = :courseUuid
+                  AND group_uuid = :groupUuid
+                  AND user_uuid = :userUuid
+            )
+            SELECT w.user_uuid AS userUuid, u.user_id AS userId,
+                   w.total_points_in_course AS pointsInCourse, u.level AS globalLevel
+            FROM (
+                (SELECT e.user_uuid, e.total_points_in_course
+                 FROM user_course_enrollments e, me
+                 WHERE e.course_uuid = :courseUuid
+                   AND e.group_uuid = :groupUuid
+                   AND (e.total_points_in_course, e.user_uuid) > (me.points, me.user_uuid)
+                 ORDER BY e.total_points_in_course, e.user_uuid
+                 LIMIT :radius)
+                UNION ALL
+                (SELECT e.user_uuid, e.total_points_in_course
+                 FROM user_course_enrollments e, me
+                 WHERE e.course_uuid = :courseUuid
+                   AND e.group_uuid = :groupUuid
+                   AND (e.total_points_in_course, e.user_uuid) <= (me.points, me.user_uuid)
+                 ORDER BY e.total_points_in_course DESC, e.user_uuid DESC
+                 LIMIT :radius + 1)
+            ) w
+            JOIN users u ON u.uuid = w.user_uuid
+            ORDER BY w.total_points_in_course DESC, w.user_uuid DESC
+            """, nativeQuery = true)
+    List<LeaderboardRowView> findGroupLeaderboardAround(@Param("courseUuid") UUID courseUuid,
+                                                        @Param("groupUuid") UUID groupUuid,
+                                                        @Param("userUuid") UUID userUuid,
+                                                        @Param("radius") int radius);
+
+    /**
+     * Получить строки лидерборда курса для указанных пользователей
+     * <p>
+     * Ранг не рассчитывается — порядок и позиции задаёт вызывающий код.
+     * </p>
+     *
+     * @param courseUuid UUID курса
+     * @param userUuids  UUID пользователей
+     * @return Строки лидерборда с рангом 0 в произвольном порядке
+     */
+    @Query("""
+            SELECT new ru.misis.gamification.model.LeaderboardEntryView(
+                u.uuid,
+                u.userId,
+                uce.totalPointsInCourse,
+                u.level,
+                0L
+            )
+            FROM UserCourseEnrollment uce
+            JOIN uce.user u
+            WHERE uce.course.uuid = :courseUuid
+              AND u.uuid IN :userUuids
+            """)
+    List<LeaderboardEntryView> findLeaderboardEntriesByUsers(@Param("courseUuid") UUID courseUuid,
+                                                             @Param("userUuids") Collection<UUID> userUuids);
+
+    /**
+     * Получить очки зачислений, следующих за указанным UUID (постраничное чтение по ключу)
+     *
+     * @param after UUID зачисления, после которого начинается страница
+     * @param limit Размер страницы
+     * @return Очки зачислений в порядке возрастания UUID
+     */
+    @Query(value = """
+            SELECT e.uuid AS uuid, e.user_uuid AS userUuid, e.course_uuid AS courseUuid,
+                   e.group_uuid AS groupUuid, e.total_points_in_course AS totalPointsInCourse
+            FROM user_course_enrollments e
+            WHERE e.uuid > :after
+            ORDER BY e.uuid
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<EnrollmentPointsView> findPointsAfter(@Param("after") UUID after, @Param("limit") int limit);
+
+    /**
+     * Получить распределение очков по всем курсам: количество зачислений для каждой суммы очков
+     * <p>
+     * Различных сумм очков на курсе намного меньше, чем зачислений, поэтому результат компактен.
+     * </p>
+     *
+     * @return Количество зачислений по курсу и сумме очков
+     */
+    @Query(value = """
+            SELECT e.course_uuid AS courseUuid, e.total_points_in_course AS pointsInCourse, COUNT(*) AS enrollments
+            FROM user_course_enrollments e
+            GROUP BY e.course_uuid, e.total_points_in_course
+            """, nativeQuery = true)
+    List<CoursePointsCountView> findPointsDistribution();
+
+    /**
+     * Посчитать зачисления на курсе с суммой очков больше указанной
+     * <p>
+     * Читает начало индекса {@code idx_enrollments_course_points}, поэтому для мест в начале лидерборда
+     * обходит лишь несколько строк.
+     * </p>
+     *
+     * @param courseUuid UUID курса
+     * @param points     Сумма очков
+     * @return Количество зачислений с большей суммой очков
+     */
+    @Query(value = """
+            SELECT COUNT(*)
+            FROM user_course_enrollments
+            WHERE course_uuid = :courseUuid
+              AND total_points_in_course > :points
+            """, nativeQuery = true)
+    long countByCourseUuidAndPointsAbove(@Param("courseUuid") UUID courseUuid, @Param("points") int points);
+
+    /**
+     * Посчитать зачисления на курсе
+     *
+     * @param courseUuid UUID курса
+     * @return Количество зачислений
+     */
+    long countByCourseUuid(UUID courseUuid);
+
     /**
      * Получить связь пользователя на курсе
      *
@@ -130,6 +389,201 @@ public interface UserCourseEnrollmentRepository extends JpaRepository<UserCourse
             @Param("userUuid") UUID userUuid
     );
 
+    /**
+     * Получить плотные ранги и очки нескольких пользователей на курсе или в группе за один проход
+     * <p>
+     * Зачисления курса (группы) ранжируются одним {@code DENSE_RANK()}, из результата выбираются
+     * строки указанных пользователей — вместо отдельного ранжирования на каждого пользователя.
+     * </p>
+     *
+     * @param courseUuid UUID курса
+     * @param groupUuid  UUID группы или {@code null} — ранги по всему курсу
+     * @param userUuids  UUID пользователей
+     * @return Строки лидерборда найденных пользователей по убыванию очков
+     */
+    @Query(value = """
+            SELECT r.user_uuid              AS userUuid,
+                   u.user_id                AS userId,
+                   r.total_points_in_course AS pointsInCourse,
+                   u.level                  AS globalLevel,
+                   r.rank                   AS rank
+            FROM (SELECT user_uuid,
+                         total_points_in_course,
+                         DENSE_RANK() OVER (ORDER BY total_points_in_course DESC) AS rank
+                  FROM user_course_enrollments
+                  WHERE course_uuid = :courseUuid
+                    AND (:groupUuid IS NULL OR group_uuid = :groupUuid)) r
+                     JOIN users u ON u.uuid = r.user_uuid
+            WHERE r.user_uuid = ANY (:userUuids)
+            ORDER BY r.total_points_in_course DESC, r.user_uuid DESC
+            """, nativeQuery = true)
+    List<LeaderboardRankRowView> findRanksByUsers(@Param("courseUuid") UUID courseUuid,
+                                                  @Param("groupUuid") UUID groupUuid,
+                                                  @Param("userUuids") UUID[] userUuids);
+
+    /**
+     * Получить страницу лидерборда курса или группы и строку пользователя одним запросом
+     * <p>
+     * Зачисления курса (группы) нумеруются за один проход: позиция строки ({@code ROW_NUMBER()}),
+     * плотный ранг ({@code DENSE_RANK()}) и общее количество строк ({@code COUNT(*) OVER ()}).
+     * Возвращаются строки страницы и строка пользователя, даже если он вне страницы.
+     * </p>
+     *
+     * @param courseUuid UUID курса
+     * @param groupUuid  UUID группы или {@code null} — лидерборд всего курса
+     * @param userUuid   UUID пользователя
+     * @param offset     Количество строк до начала страницы
+     * @param size       Размер страницы
+     * @return Строки страницы и строка пользователя по позиции; пусто, если в лидерборде нет ни тех, ни другой
+     */
+    @Query(value = """
+            SELECT r.user_uuid              AS userUuid,
+                   u.user_id                AS userId,
+                   r.total_points_in_course AS pointsInCourse,
+                   u.level                  AS globalLevel,
+                   r.rank                   AS rank,
+                   r.position               AS position,
+                   r.total                  AS total
+            FROM (SELECT user_uuid,
+                         total_points_in_course,
+                         DENSE_RANK() OVER (ORDER BY total_points_in_course DESC)            AS rank,
+                         ROW_NUMBER() OVER (ORDER BY total_points_in_course DESC, user_uuid DESC) AS position,
+                         COUNT(*) OVER ()                                                    AS total
+                  FROM user_course_enrollments
+                  WHERE course_uuid = :courseUuid
+                    AND (:groupUuid IS NULL OR group_uuid = :groupUuid)) r
+                     JOIN users u ON u.uuid = r.user_uuid
+            WHERE (r.position > :offset AND r.position <= :offset + :size)
+               OR r.user_uuid = :userUuid
+            ORDER BY r.position
+            """, nativeQuery = true)
+    List<PersonalLeaderboardRowView> findLeaderboardForUser(@Param("courseUuid") UUID courseUuid,
+                                                            @Param("groupUuid") UUID groupUuid,
+                                                            @Param("userUuid") UUID userUuid,
+                                                            @Param("offset") long offset,
+                                                            @Param("size") int size);
+
+    /**
+     * Обновить снимок рангов {@code enrollment_rank_snapshots}, не блокируя его чтение
+     * <p>
+     * Снимок не отображается на сущности, поэтому кэш второго уровня не сбрасывается.
+     * </p>
+     */
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "enrollment_rank_snapshots"))
+    @Query(value = "REFRESH MATERIALIZED VIEW CONCURRENTLY enrollment_rank_snapshots", nativeQuery = true)
+    void refreshRankSnapshot();
+
+    /**
+     * Получить плотный ранг пользователя на курсе из снимка рангов
+     *
+     * @param courseUuid UUID курса
+     * @param userUuid   UUID пользователя
+     * @return Ранг или {@code null}, если пользователя нет в снимке
+     */
+    @Query(value = """
+            SELECT course_rank
+            FROM enrollment_rank_snapshots
+            WHERE course_uuid = :courseUuid
+              AND user_uuid = :userUuid
+            """, nativeQuery = true)
+    Long findSnapshotCourseRank(@Param("courseUuid") UUID courseUuid, @Param("userUuid") UUID userUuid);
+
+    /**
+     * Получить плотный ранг пользователя в группе курса из снимка рангов
+     *
+     * @param courseUuid UUID курса
+     * @param groupUuid  UUID группы
+     * @param userUuid   UUID пользователя
+     * @return Ранг или {@code null}, если пользователя не было в группе на момент снимка
+     */
+    @Query(value = """
+            SELECT group_rank
+            FROM enrollment_rank_snapshots
+            WHERE course_uuid = :courseUuid
+              AND user_uuid = :userUuid
+              AND group_uuid = :groupUuid
+            """, nativeQuery = true)
+    Long findSnapshotGroupRank(@Param("courseUuid") UUID courseUuid,
+                               @Param("groupUuid") UUID groupUuid,
+                               @Param("userUuid") UUID userUuid);
+
+    /**
+     * Получить строки лидерборда курса из снимка рангов по позиции, без OFFSET
+     *
+     * @param courseUuid UUID курса
+     * @param offset     Количество пропускаемых позиций
+     * @param limit      Размер страницы
+     * @return Строки по возрастанию позиции
+     */
+    @Query(value = """
+            SELECT s.user_uuid AS userUuid, u.user_id AS userId, s.total_points_in_course AS pointsInCourse,
+                   u.level AS globalLevel, s.course_position AS rank
+            FROM enrollment_rank_snapshots s
+                     JOIN users u ON u.uuid = s.user_uuid
+            WHERE s.course_uuid = :courseUuid
+              AND s.course_position > :offset
+            ORDER BY s.course_position
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<LeaderboardSnapshotRowView> findSnapshotLeaderboard(@Param("courseUuid") UUID courseUuid,
+                                                             @Param("offset") long offset,
+                                                             @Param("limit") int limit);
+
+    /**
+     * Получить строки лидерборда группы курса из снимка рангов по позиции, без OFFSET
+     *
+     * @param courseUuid UUID курса
+     * @param groupUuid  UUID группы
+     * @param offset     Количество пропускаемых позиций
+     * @param limit      Размер страницы
+     * @return Строки по возрастанию позиции
+     */
+    @Query(value = """
+            SELECT s.user_uuid AS userUuid, u.user_id AS userId, s.total_points_in_course AS pointsInCourse,
+                   u.level AS globalLevel, s.group_position AS rank
+            FROM enrollment_rank_snapshots s
+                     JOIN users u ON u.uuid = s.user_uuid
+            WHERE s.course_uuid = :courseUuid
+              AND s.group_uuid = :groupUuid
+              AND s.group_position > :offset
+            ORDER BY s.group_position
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<LeaderboardSnapshotRowView> findSnapshotGroupLeaderboard(@Param("courseUuid") UUID courseUuid,
+                                                                  @Param("groupUuid") UUID groupUuid,
+                                                                  @Param("offset") long offset,
+                                                                  @Param("limit") int limit);
+
+    /**
+     * Получить размер лидерборда курса в снимке рангов — последнюю позицию
+     *
+     * @param courseUuid UUID курса
+     * @return Количество студентов на курсе на момент снимка
+     */
+    @Query(value = """
+            SELECT COALESCE(MAX(course_position), 0)
+            FROM enrollment_rank_snapshots
+            WHERE course_uuid = :courseUuid
+            """, nativeQuery = true)
+    long countSnapshotLeaderboard(@Param("courseUuid") UUID courseUuid);
+
+    /**
+     * Получить размер лидерборда группы в снимке рангов — последнюю позицию
+     *
+     * @param courseUuid UUID курса
+     * @param groupUuid  UUID группы
+     * @return Количество студентов в группе на момент снимка
+     */
+    @Query(value = """
+            SELECT COALESCE(MAX(group_position), 0)
+            FROM enrollment_rank_snapshots
+            WHERE course_uuid = :courseUuid
+              AND group_uuid = :groupUuid
+            """, nativeQuery = true)
+    long countSnapshotGroupLeaderboard(@Param("courseUuid") UUID courseUuid, @Param("groupUuid") UUID groupUuid);
+
     /**
      * Получить все зачисления пользователя на курсы
      *
@@ -137,4 +591,66 @@ public interface UserCourseEnrollmentRepository extends JpaRepository<UserCourse
      * @return Список зачислений на курсы (связи пользователь — курс)
      */
     List<UserCourseEnrollment> findAllByUser(User user);
-}
\ No newline at end of file
+
+    /**
+     * Получить существующие зачисления для набора пользователей и курсов
+     * <p>
+     * Возвращаются все пары из декартова произведения аргументов, для которых есть зачисление.
+     * </p>
+     *
+     * @param userUuids   UUID пользователей
+     * @param courseUuids UUID курсов
+     * @return Список пар пользователь — курс
+     */
+    @Query("SELECT new ru.misis.gamification.model.EnrollmentKeyView(uce.user.uuid, uce.course.uuid) " +
+            "FROM UserCourseEnrollment uce " +
+            "WHERE uce.user.uuid IN :userUuids AND uce.course.uuid IN :courseUuids")
+    List<EnrollmentKeyView> findEnrollmentKeys(@Param("userUuids") Collection<UUID> userUuids,
+                                               @Param("courseUuids") Collection<UUID> courseUuids);
+
+    /**
+     * Атомарно увеличить очки по курсу одного зачисления
+     *
+     * @param userUuid   UUID пользователя
+     * @param courseUuid UUID курса
+     * @param points     Количество начисляемых очков
+     * @return Новая сумма очков по курсу, либо пусто, если зачисления нет
+     */
+    @Transactional
+    @Query(value = """
+            UPDATE user_course_enrollments
+            SET total_points_in_course = total_points_in_course + :points
+            WHERE user_uuid = :userUuid
+              AND course_uuid = :courseUuid
+            RETURNING total_points_in_course
+            """, nativeQuery = true)
+    Optional<Integer> addPointsInCourse(@Param("userUuid") UUID userUuid,
+                                        @Param("courseUuid") UUID courseUuid,
+                                        @Param("points") int points);
+
+    /**
+     * Атомарно увеличить очки по курсам для нескольких зачислений одним выражением
+     * <p>
+     * Массивы передаются поэлементно: i-е зачисление определяется парой
+     * ({@code userUuids[i]}, {@code courseUuids[i]}). Пары должны быть уникальны.
+     * </p>
+     *
+     * @param userUuids   UUID пользователей
+     * @param courseUuids UUID курсов
+     * @param points      Количество начисляемых очков
+     * @return Обновлённые зачисления с новыми суммами очков
+     */
+    @Transactional
+    @Query(value = """
+            UPDATE user_course_enrollments e
+            SET total_points_in_course = e.total_points_in_course + d.points
+            FROM unnest(:userUuids, :courseUuids, :points) AS d(user_uuid, course_uuid, points)
+            WHERE e.user_uuid = d.user_uuid
+              AND e.course_uuid = d.course_uuid
+            RETURNING e.uuid AS uuid, e.user_uuid AS userUuid, e.course_uuid AS courseUuid,
+                      e.group_uuid AS groupUuid, e.total_points_in_course AS totalPointsInCourse
+            """, nativeQuery = true)
+    List<EnrollmentPointsView> addPointsInCourseBatch(@Param("userUuids") UUID[] userUuids,
+                                                      @Param("courseUuids") UUID[] courseUuids,
+                                                      @Param("points") int[] points);
+}
@@ -1,15 +1,25 @@
 package ru.misis.gamification.repository;
 
 import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import ru.misis.gamification.entity.User;
+import ru.misis.gamification.model.UserPointsView;
+import ru.misis.gamification.model.UserSummary;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -80,4 +90,172 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     Page<User> findAll(@Param("courseId") String courseId,
                        @Param("groupId") String groupId,
                        Pageable pageable);
+
+    /**
+     * Получить пользователей по идентификаторам пользователей из LMS
+     *
+     * @param userIds Идентификаторы пользователей из LMS
+     * @return Список найденных пользователей (отсутствующие пропускаются)
+     */
+    List<User> findAllByUserIdIn(Collection<String> userIds);
+
+    /**
+     * Атомарно увеличить общее количество очков пользователя
+     * <p>
+     * Приращение выполняется в БД, поэтому параллельные начисления не теряются. Уровень не изменяется
+     * и возвращается в состоянии до начисления.
+     * </p>
+     *
+     * @param uuid   UUID пользователя
+     * @param points Количество начисляемых очков
+     * @return Новая сумма очков и текущий уровень, либо пусто, если пользователь не найден
+     */
+    @Transactional
+    @Query(value = """
+            UPDATE users
+            SET total_points = total_points + :points,
+                updated_at   = NOW()
+            WHERE uuid = :uuid
+            RETURNING uuid AS uuid, total_points AS totalPoints, level AS level
+            """, nativeQuery = true)
+    Optional<UserPointsView> addPoints(@Param("uuid") UUID uuid, @Param("points") int points);
+
+    /**
+     * Обновить уровень пользователя, если он отличается от текущего
+     *
+     * @param uuid  UUID пользователя
+     * @param level Новый уровень
+     * @return Количество изменённых строк (0 — уровень не изменился)
+     */
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "users"))
+    @Query(value = """
+            UPDATE users
+            SET level      = :level,
+                updated_at = NOW()
+            WHERE uuid = :uuid
+              AND level <> :level
+            """, nativeQuery = true)
+    int updateLevel(@Param("uuid") UUID uuid, @Param("level") int level);
+
+    /**
+     * Атомарно увеличить общее количество очков нескольких пользователей одним выражением
+     * <p>
+     * Массивы передаются попарно: i-й элемент {@code points} начисляется пользователю {@code uuids[i]}.
+     * UUID в массиве должны быть уникальны. Уровень не изменяется и возвращается в состоянии до начисления.
+     * </p>
+     *
+     * @param uuids  UUID пользователей
+     * @param points Количество начисляемых очков
+     * @return Новые суммы очков и текущие уровни обновлённых пользователей
+     */
+    @Transactional
+    @Query(value = """
+            UPDATE users u
+            SET total_points = u.total_points + d.points,
+                updated_at   = NOW()
+            FROM unnest(:uuids, :points) AS d(uuid, points)
+            WHERE u.uuid = d.uuid
+            RETURNING u.uuid AS uuid, u.total_points AS totalPoints, u.level AS level
+            """, nativeQuery = true)
+    List<UserPointsView> addPointsBatch(@Param("uuids") UUID[] uuids, @Param("points") int[] points);
+
+    /**
+     * Обновить уровни нескольких пользователей одним выражением
+     * <p>
+     * Строки, уровень в которых уже совпадает с переданным, не перезаписываются.
+     * </p>
+     *
+     * @param uuids  UUID пользователей
+     * @param levels Новые уровни
+     * @return Количество изменённых строк
+     */
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "users"))
+    @Query(value = """
+            UPDATE users u
+            SET level      = d.level,
+                updated_at = NOW()
+            FROM unnest(:uuids, :levels) AS d(uuid, level)
+            WHERE u.uuid = d.uuid
+              AND u.level <> d.level
+            """, nativeQuery = true)
+    int updateLevelsBatch(@Param("uuids") UUID[] uuids, @Param("levels") int[] levels);
+
+    /**
+     * Получить очки и уровни пользователей, следующих за указанным UUID (постраничное чтение по ключу)
+     *
+     * @param after UUID, после которого начинается страница
+     * @param limit Размер страницы
+     * @return Очки и уровни пользователей в порядке возрастания UUID
+     */
+    @Query(value = """
+            SELECT u.uuid AS uuid, u.total_points AS totalPoints, u.level AS level
+            FROM users u
+            WHERE u.uuid > :after
+            ORDER BY u.uuid
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<UserPointsView> findPointsAfter(@Param("after") UUID after, @Param("limit") int limit);
+
+    /**
+     * Обновить уровни нескольких пользователей, если их очки не изменились с момента чтения
+     * <p>
+     * Строки, в которых очки уже изменились (параллельное начисление само пересчитало уровень)
+     * или уровень уже совпадает с переданным, не перезаписываются.
+     * </p>
+     *
+     * @param uuids       UUID пользователей
+     * @param totalPoints Очки, по которым рассчитан уровень
+     * @param levels      Новые уровни
+     * @return Количество изменённых строк
+     */
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "users"))
+    @Query(value = """
+            UPDATE users u
+            SET level      = d.level,
+                updated_at = NOW()
+            FROM unnest(:uuids, :totalPoints, :levels) AS d(uuid, total_points, level)
+            WHERE u.uuid = d.uuid
+              AND u.total_points = d.total_points
+              AND u.level <> d.level
+            """, nativeQuery = true)
+    int updateLevelsIfPointsUnchanged(@Param("uuids") UUID[] uuids,
+                                      @Param("totalPoints") int[] totalPoints,
+                                      @Param("levels") int[] levels);
+
+    /**
+     * Получить строки глобального лидерборда, следующие за курсором (постраничное чтение по ключу)
+     * <p>
+     * Порядок — по убыванию общих очков, при равенстве по убыванию UUID; страница начинается поиском
+     * по индексу {@code idx_users_points}, поэтому стоимость не зависит от её номера.
+     * </p>
+     *
+     * @param points   Очки последней строки предыдущей страницы
+     * @param userUuid UUID пользователя последней строки предыдущей страницы
+     * @param limit    Максимальное количество строк
+     * @return Пользователи в порядке лидерборда
+     */
+    @Query("""
+            SELECT new ru.misis.gamification.model.UserSummary(u.uuid, u.userId, u.totalPoints, u.level)
+            FROM User u
+            WHERE (u.totalPoints, u.uuid) < (:points, :userUuid)
+            ORDER BY u.totalPoints DESC, u.uuid DESC
+            """)
+    List<UserSummary> findGlobalLeaderboardAfter(@Param("points") int points,
+                                                 @Param("userUuid") UUID userUuid,
+                                                 Limit limit);
+
+    /**
+     * Посчитать различные значения общих очков, больше указанного
+     *
+     * @param points Очки
+     * @return Количество различных значений очков выше {@code points}
+     */
+    @Query(value = "SELECT COUNT(DISTINCT total_points) FROM users WHERE total_points > :points", nativeQuery = true)
+    long countDistinctTotalPointsAbove(@Param("points") int points);
 }
@@ -0,0 +1,37 @@
+package ru.misis.gamification.service.application.awarding;
+
+import ru.misis.gamification.model.AwardRequest;
+import ru.misis.gamification.model.AwardResultView;
+
+import java.util.List;
+
+/**
+ * Пакетное начисление на полосах пользователей
+ * <p>
+ * Пакет разбивается по полосам {@link AwardLaneExecutor}: каждая часть начисляется
+ * {@link AwardingOrchestratorApplicationService#awardPointsBatch} на своей полосе, поэтому пакетные
+ * начисления не конкурируют за строки пользователя с одиночными и не обгоняют их.
+ * </p>
+ */
+public interface AwardBatchDispatcher {
+
+    /**
+     * Начислить пакет на полосах пользователей; части пакета для переполненных полос отклоняются
+     *
+     * @param requests Запросы на начисление
+     * @return Результаты начисления в порядке запросов
+     */
+    List<AwardResultView> award(List<AwardRequest> requests);
+
+    /**
+     * Начислить пакет на полосах пользователей, дожидаясь места в очереди переполненных полос
+     * <p>
+     * Используется импортом истории, который не должен терять события.
+     * </p>
+     *
+     * @param requests Запросы на начисление
+     * @return Результаты начисления в порядке запросов
+     * @throws IllegalStateException если ожидание прервано
+     */
+    List<AwardResultView> awardAwaitingCapacity(List<AwardRequest> requests);
+}
@@ -0,0 +1,117 @@
+package ru.misis.gamification.service.application.awarding;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.misis.gamification.model.AwardRequest;
+import ru.misis.gamification.model.AwardResultView;
+import ru.misis.gamification.model.AwardResultViews;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AwardBatchDispatcherImpl implements AwardBatchDispatcher {
+
+    /**
+     * Сервис-оркестратор начисления баллов
+     */
+    private final AwardingOrchestratorApplicationService awardingOrchestrator;
+
+    /**
+     * Исполнитель начислений с единственным писателем на пользователя
+     */
+    private final AwardLaneExecutor awardLaneExecutor;
+
+    /**
+     * Пауза перед повторной постановкой части пакета в переполненную полосу, мс
+     */
+    @Value("${gamification.features.award-lanes.retry-delay-ms:50}")
+    private long retryDelayMs;
+
+    @Override
+    public List<AwardResultView> award(List<AwardRequest> requests) {
+        return dispatch(requests, false);
+    }
+
+    @Override
+    public List<AwardResultView> awardAwaitingCapacity(List<AwardRequest> requests) {
+        return dispatch(requests, true);
+    }
+
+    private List<AwardResultView> dispatch(List<AwardRequest> requests, boolean awaitCapacity) {
+        Map<Integer, List<Integer>> indicesByLane = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            indicesByLane.computeIfAbsent(awardLaneExecutor.laneOf(requests.get(i).userId()),
+                    lane -> new ArrayList<>()).add(i);
+        }
+
+        AwardResultView[] results = new AwardResultView[requests.size()];
+        List<CompletableFuture<Void>> futures = new ArrayList<>(indicesByLane.size());
+        for (List<Integer> indices : indicesByLane.values()) {
+            List<AwardRequest> laneRequests = indices.stream().map(requests::get).toList();
+            CompletableFuture<Void> future = submit(laneRequests, indices, results, awaitCapacity);
+            if (future != null) {
+                futures.add(future);
+            } else {
+                indices.forEach(i -> results[i] = AwardResultViews.rejected("Очередь полосы начисления переполнена"));
+            }
+        }
+
+        try {
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Поставить часть пакета в очередь полосы
+     *
+     * @return Результат выполнения или {@code null}, если полоса переполнена и ждать не нужно
+     */
+    private CompletableFuture<Void> submit(List<AwardRequest> laneRequests, List<Integer> indices,
+                                           AwardResultView[] results, boolean awaitCapacity) {
+        while (true) {
+            try {
+                return awardLaneExecutor.submit(laneRequests.getFirst().userId(), () -> {
+                    List<AwardResultView> laneResults = awardingOrchestrator.awardPointsBatch(laneRequests);
+                    for (int i = 0; i < indices.size(); i++) {
+                        results[indices.get(i)] = laneResults.get(i);
+                    }
+                    return null;
+                });
+            } catch (RejectedExecutionException e) {
+                if (!awaitCapacity) {
+                    log.warn("Очередь полосы начисления переполнена: отклонено событий пакета={}", indices.size());
+                    return null;
+                }
+                log.debug("Очередь полосы начисления переполнена, повтор через {} мс: событий={}",
+                        retryDelayMs, indices.size());
+                sleep();
+            }
+        }
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(retryDelayMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Ожидание места в очереди полосы начисления прервано", e);
+        }
+    }
+}
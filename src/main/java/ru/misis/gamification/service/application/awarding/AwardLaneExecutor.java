@@ -0,0 +1,70 @@
+package ru.misis.gamification.service.application.awarding;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Исполнитель начислений с единственным писателем на пользователя
+ * <p>
+ * Пользователи распределяются по фиксированному набору однопоточных «полос» по хешу userId.
+ * Все задачи одного пользователя выполняются строго последовательно в порядке постановки,
+ * поэтому чтение-изменение-запись его очков не конкурирует само с собой и не требует блокировок строк.
+ * Задачи разных пользователей на разных полосах выполняются параллельно.
+ * </p>
+ * <p>
+ * Гарантия действует в пределах одного экземпляра приложения.
+ * </p>
+ */
+public interface AwardLaneExecutor {
+
+    /**
+     * Выполнить задачу на полосе пользователя и дождаться результата
+     * <p>
+     * Если вызов уже выполняется на полосе этого пользователя, задача выполняется сразу в текущем потоке.
+     * </p>
+     *
+     * @param userId Идентификатор пользователя из LMS
+     * @param task   Задача
+     * @param <T>    Тип результата
+     * @return Результат задачи
+     * @throws RejectedExecutionException если очередь полосы переполнена
+     */
+    <T> T execute(String userId, Supplier<T> task);
+
+    /**
+     * Поставить задачу в очередь полосы пользователя
+     *
+     * @param userId Идентификатор пользователя из LMS
+     * @param task   Задача
+     * @param <T>    Тип результата
+     * @return Результат задачи
+     * @throws RejectedExecutionException если очередь полосы переполнена
+     */
+    <T> CompletableFuture<T> submit(String userId, Supplier<T> task);
+
+    /**
+     * Получить номер полосы пользователя
+     *
+     * @param userId Идентификатор пользователя из LMS
+     * @return Номер полосы
+     */
+    int laneOf(String userId);
+
+    /**
+     * Получить количество полос
+     *
+     * @return Количество полос
+     */
+    int laneCount();
+
+    /**
+     * Получить количество задач, ожидающих в очередях всех полос
+     * <p>
+     * Используется фоновыми задачами, чтобы уступать ресурсы начислениям при их накоплении.
+     * </p>
+     *
+     * @return Количество ожидающих задач
+     */
+    int queuedTasks();
+}
@@ -0,0 +1,119 @@
+package ru.misis.gamification.service.application.awarding;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+@Component
+@Slf4j
+public class AwardLaneExecutorImpl implements AwardLaneExecutor {
+
+    /**
+     * Номер полосы, на которой выполняется текущий поток
+     */
+    private static final ThreadLocal<Integer> CURRENT_LANE = new ThreadLocal<>();
+
+    /**
+     * Полосы — однопоточные исполнители с ограниченной очередью
+     */
+    private final ThreadPoolExecutor[] lanes;
+
+    public AwardLaneExecutorImpl(@Value("${gamification.features.award-lanes.count:0}") int laneCount,
+                                 @Value("${gamification.features.award-lanes.queue-capacity:10000}") int queueCapacity) {
+        int count = laneCount > 0 ? laneCount : Runtime.getRuntime().availableProcessors();
+        this.lanes = new ThreadPoolExecutor[count];
+
+        for (int i = 0; i < count; i++) {
+            ThreadFactory threadFactory = Thread.ofVirtual().name("award-lane-" + i).factory();
+            lanes[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(queueCapacity), threadFactory);
+        }
+
+        log.info("Исполнитель начислений запущен: полос={}, ёмкость очереди полосы={}", count, queueCapacity);
+    }
+
+    @Override
+    public <T> T execute(String userId, Supplier<T> task) {
+        int lane = laneOf(userId);
+        Integer current = CURRENT_LANE.get();
+        if (current != null && current == lane) {
+            return task.get();
+        }
+
+        try {
+            return submit(userId, task).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public <T> CompletableFuture<T> submit(String userId, Supplier<T> task) {
+        int lane = laneOf(userId);
+        CompletableFuture<T> future = new CompletableFuture<>();
+
+        lanes[lane].execute(() -> {
+            CURRENT_LANE.set(lane);
+            try {
+                future.complete(task.get());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            } finally {
+                CURRENT_LANE.remove();
+            }
+        });
+
+        return future;
+    }
+
+    @Override
+    public int laneOf(String userId) {
+        return userId == null ? 0 : Math.floorMod(userId.hashCode(), lanes.length);
+    }
+
+    @Override
+    public int laneCount() {
+        return lanes.length;
+    }
+
+    @Override
+    public int queuedTasks() {
+        int queued = 0;
+        for (ThreadPoolExecutor lane : lanes) {
+            queued += lane.getQueue().size();
+        }
+        return queued;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.shutdown();
+        }
+        for (ThreadPoolExecutor lane : lanes) {
+            try {
+                if (!lane.awaitTermination(10, TimeUnit.SECONDS)) {
+                    lane.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                lane.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package ru.misis.gamification.service.application.awarding;
 
+import ru.misis.gamification.model.AwardRequest;
 import ru.misis.gamification.model.AwardResultView;
 
+import java.util.List;
+
 /**
  * Сервис-ркестратор начисления баллов для события из LMS
  */
@@ -19,4 +22,24 @@ public interface AwardingOrchestratorApplicationService {
      */
     AwardResultView awardPoints(String userId, String eventId, String typeCode,
                                 String courseId, String groupId);
+
+    /**
+     * Начислить очки по пакету событий от LMS в одной транзакции
+     * <p>
+     * Семантика каждого события совпадает с {@link #awardPoints}: проверка дубликатов, типа события,
+     * дневного лимита и зачисления на курс. Отличие — в количестве обращений к БД: все проверки
+     * и обновления выполняются фиксированным набором пакетных запросов, не зависящим от размера пакета.
+     * События обрабатываются в порядке следования, поэтому повтор eventId внутри пакета
+     * и накопление дневного лимита учитываются так же, как при последовательной отправке.
+     * </p>
+     * <p>
+     * Если у запроса задано {@link AwardRequest#occurredAt()}, транзакция датируется этим временем
+     * и дневной лимит проверяется за день события — время задаёт только импорт истории.
+     * Дневные счётчики читаются и обновляются отдельным запросом на каждый день пакета.
+     * </p>
+     *
+     * @param requests Запросы на начисление очков
+     * @return Результаты начисления в том же порядке, что и запросы
+     */
+    List<AwardResultView> awardPointsBatch(List<AwardRequest> requests);
 }
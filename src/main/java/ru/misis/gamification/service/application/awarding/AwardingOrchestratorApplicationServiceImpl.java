@@ -2,6 +2,7 @@ package ru.misis.gamification.service.application.awarding;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
@@ -9,17 +10,41 @@ import ru.misis.gamification.entity.Course;
 import ru.misis.gamification.entity.EventType;
 import ru.misis.gamification.entity.Transaction;
 import ru.misis.gamification.entity.User;
+import ru.misis.gamification.exception.CourseNotFoundException;
+import ru.misis.gamification.exception.UserCourseEnrollmentNotFoundException;
+import ru.misis.gamification.exception.UserNotFoundException;
+import ru.misis.gamification.model.AwardEngineType;
+import ru.misis.gamification.model.AwardRequest;
 import ru.misis.gamification.model.AwardResultView;
 import ru.misis.gamification.model.AwardResultViews;
+import ru.misis.gamification.model.AwardStatementView;
+import ru.misis.gamification.model.DailyUsageKey;
+import ru.misis.gamification.model.EnrollmentKeyView;
+import ru.misis.gamification.model.UserPointsView;
 import ru.misis.gamification.service.application.enrollment.EnrollmentApplicationService;
 import ru.misis.gamification.service.simple.course.CourseService;
 import ru.misis.gamification.service.simple.eventtype.EventTypeService;
+import ru.misis.gamification.service.simple.period.CoursePeriodPointsService;
 import ru.misis.gamification.service.simple.progress.LevelCalculatorService;
+import ru.misis.gamification.service.simple.quota.DailyPointsUsageService;
 import ru.misis.gamification.service.simple.transaction.TransactionService;
 import ru.misis.gamification.service.simple.user.UserService;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -58,6 +83,28 @@ public class AwardingOrchestratorApplicationServiceImpl implements AwardingOrche
      */
     private final EnrollmentApplicationService enrollmentApplicationService;
 
+    /**
+     * Сервис дневных счётчиков очков по типам событий
+     */
+    private final DailyPointsUsageService dailyPointsUsageService;
+
+    /**
+     * Сервис очков по курсу за неделю и месяц
+     */
+    private final CoursePeriodPointsService coursePeriodPointsService;
+
+    /**
+     * Способ начисления одиночного события; неизвестное значение не даёт приложению запуститься
+     */
+    @Value("${gamification.features.award-engine.type:STANDARD}")
+    private AwardEngineType awardEngine = AwardEngineType.STANDARD;
+
+    /**
+     * Признак учёта курсов: если выключен, очки на курсе и за период не начисляются
+     */
+    @Value("${gamification.features.courses.enabled:true}")
+    private boolean coursesEnabled = true;
+
     @Override
     public AwardResultView awardPoints(String userId, String eventId, String typeCode,
                                        String courseId, String groupId) {
@@ -66,26 +113,34 @@ public class AwardingOrchestratorApplicationServiceImpl implements AwardingOrche
             return AwardResultViews.rejected("Отсутствует идентификатор пользователя");
         }
 
-        if (transactionService.isExistsByEventId(eventId)) {
-            log.info("Дубликат события: {}", eventId);
-            return AwardResultViews.duplicate();
-        }
+        return switch (awardEngine) {
+            case STANDARD -> awardPointsStandard(userId, eventId, typeCode, courseId);
+            case SINGLE_STATEMENT -> awardPointsInSingleStatement(userId, eventId, typeCode, courseId);
+        };
+    }
 
+    /**
+     * Начислить очки последовательностью запросов через сервисы
+     */
+    private AwardResultView awardPointsStandard(String userId, String eventId, String typeCode, String courseId) {
+        // Дубликат определяется при вставке транзакции; отдельная проверка нужна только перед отказом,
+        // чтобы повтор уже принятого события получил статус дубликата, а не ошибки
         EventType eventType;
         try {
             eventType = eventTypeService.getActiveByCode(typeCode);
         } catch (Exception e) {
-            return AwardResultViews.rejected("Неизвестный или отключённый тип события: " + typeCode);
+            return rejectedUnlessDuplicate(eventId, "Неизвестный или отключённый тип события: " + typeCode);
         }
 
-        User user = userService.getUserByExternalId(userId);
+        UUID userUuid = userService.getUserUuidByExternalId(userId);
 
-        long todaySum = transactionService.sumPointsByUserAndEventTypeAndDate(
-                user.getUuid(), eventType.getUuid(), LocalDate.now());
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate today = now.toLocalDate();
 
         int points = eventType.getPoints();
-        if (eventType.getMaxDailyPoints() != null && todaySum + points > eventType.getMaxDailyPoints()) {
-            return AwardResultViews.rejected("Превышен дневной лимит по типу " + eventType.getDisplayName());
+        if (eventType.getMaxDailyPoints() != null
+                && dailyPointsUsageService.getPoints(userUuid, eventType.getUuid(), today) + points > eventType.getMaxDailyPoints()) {
+            return rejectedUnlessDuplicate(eventId, "Превышен дневной лимит по типу " + eventType.getDisplayName());
         }
 
         Course course = null;
@@ -94,34 +149,375 @@ public class AwardingOrchestratorApplicationServiceImpl implements AwardingOrche
         }
 
         Transaction tx = Transaction.builder()
-                .user(user)
+                .user(userService.getReference(userUuid))
                 .course(course)
                 .eventType(eventType)
                 .eventId(eventId)
                 .points(points)
                 .description("Начисление за " + eventType.getDisplayName())
-                .createdAt(LocalDateTime.now())
+                .createdAt(now)
                 .build();
 
-        transactionService.saveIfNotExists(tx);
+        if (transactionService.insertIfAbsent(tx).isEmpty()) {
+            log.info("Дубликат события: {}", eventId);
+            return AwardResultViews.duplicate();
+        }
+
+        dailyPointsUsageService.addPoints(userUuid, eventType.getUuid(), today, points);
+
+        // Сумма увеличивается в БД атомарно; уровень пересчитывается по возвращённой сумме
+        // и записывается только при изменении
+        UserPointsView updated = userService.addPoints(userUuid, points);
+        int newTotal = updated.getTotalPoints();
+        int oldLevel = updated.getLevel();
+        int newLevel = levelCalculator.calculateLevel(newTotal);
+        if (newLevel != oldLevel) {
+            userService.updateLevel(userUuid, newLevel);
+        }
+
+        boolean levelUp = newLevel > oldLevel;
+
+        if (course != null && coursesEnabled) {
+            enrollmentApplicationService.addPointsToCourse(userId, userUuid, course, points);
+            coursePeriodPointsService.addPoints(userUuid, course.getUuid(), today, points);
+        }
+
+        log.info("Начисление успешно: {} очков пользователю {}, новый уровень = {}", points, userId, newLevel);
 
-        int oldLevel = user.getLevel();
-        int newTotal = user.getTotalPoints() + points;
-        user.setTotalPoints(newTotal);
-        user.setLevel(levelCalculator.calculateLevel(newTotal));
-        userService.update(user);
+        long pointsToNext = levelCalculator.pointsToNextLevel(newLevel);
+        double progress = calculateProgress(newTotal, pointsToNext);
 
-        boolean levelUp = user.getLevel() > oldLevel;
+        return AwardResultViews.success(points, newTotal, levelUp, newLevel, pointsToNext, progress,
+                eventType.getDisplayName(), tx.getUuid());
+    }
+
+    @Override
+    public List<AwardResultView> awardPointsBatch(List<AwardRequest> requests) {
+        AwardResultView[] results = new AwardResultView[requests.size()];
+        if (requests.isEmpty()) {
+            return List.of();
+        }
+
+        Set<String> eventIds = new HashSet<>();
+        Set<String> typeCodes = new HashSet<>();
+        Set<String> userIds = new HashSet<>();
+        Set<String> courseIds = new HashSet<>();
+        for (AwardRequest request : requests) {
+            addIfPresent(eventIds, request.eventId());
+            addIfPresent(typeCodes, request.typeCode());
+            addIfPresent(userIds, request.userId());
+            addIfPresent(courseIds, request.courseId());
+        }
+
+        Set<String> processedEventIds = new HashSet<>(transactionService.findExistingEventIds(eventIds));
+        Map<String, EventType> eventTypes = eventTypeService.getActiveByCodes(typeCodes).stream()
+                .collect(Collectors.toMap(EventType::getTypeCode, Function.identity()));
+        Map<String, User> users = userService.getUsersByExternalIds(userIds).stream()
+                .collect(Collectors.toMap(User::getUserId, Function.identity()));
+        Map<String, Course> courses = courseService.findAllByCourseIds(courseIds).stream()
+                .collect(Collectors.toMap(Course::getCourseId, Function.identity()));
+
+        LocalDateTime now = LocalDateTime.now();
 
-        if (course != null) {
-            enrollmentApplicationService.addPointsToCourse(userId, course.getUuid(), points);
+        // Дневные суммы нужны только для типов с лимитом — по каждому дню, к которому относятся события
+        Set<UUID> userUuids = users.values().stream().map(User::getUuid).collect(Collectors.toSet());
+        Set<UUID> cappedEventTypeUuids = eventTypes.values().stream()
+                .filter(type -> type.getMaxDailyPoints() != null)
+                .map(EventType::getUuid)
+                .collect(Collectors.toSet());
+        Map<LocalDate, Map<DailyUsageKey, Long>> dailySums = new HashMap<>();
+        for (AwardRequest request : requests) {
+            dailySums.computeIfAbsent(awardTime(request, now).toLocalDate(), day ->
+                    new HashMap<>(dailyPointsUsageService.getPoints(userUuids, cappedEventTypeUuids, day)));
         }
 
-        log.info("Начисление успешно: {} очков пользователю {}, новый уровень = {}", points, userId, user.getLevel());
+        Set<EnrollmentKeyView> requestedEnrollments = new HashSet<>();
+        for (AwardRequest request : requests) {
+            User user = users.get(request.userId());
+            Course course = courses.get(request.courseId());
+            if (user != null && course != null) {
+                requestedEnrollments.add(new EnrollmentKeyView(user.getUuid(), course.getUuid()));
+            }
+        }
+        Set<EnrollmentKeyView> missingEnrollments = enrollmentApplicationService.findMissingEnrollments(requestedEnrollments);
+
+        List<Transaction> transactions = new ArrayList<>();
+        List<AcceptedAward> candidates = new ArrayList<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            AwardRequest request = requests.get(i);
+
+            if (isBlank(request.userId())) {
+                results[i] = AwardResultViews.rejected("Отсутствует идентификатор пользователя");
+                continue;
+            }
+            if (isBlank(request.eventId())) {
+                results[i] = AwardResultViews.rejected("Отсутствует идентификатор события");
+                continue;
+            }
+            if (processedEventIds.contains(request.eventId())) {
+                log.info("Дубликат события: {}", request.eventId());
+                results[i] = AwardResultViews.duplicate();
+                continue;
+            }
+
+            EventType eventType = eventTypes.get(request.typeCode());
+            if (eventType == null) {
+                results[i] = AwardResultViews.rejected("Неизвестный или отключённый тип события: " + request.typeCode());
+                continue;
+            }
+
+            User user = users.get(request.userId());
+            if (user == null) {
+                results[i] = AwardResultViews.rejected(new UserNotFoundException(request.userId()).getMessage());
+                continue;
+            }
+
+            int points = eventType.getPoints();
+            LocalDateTime createdAt = awardTime(request, now);
+            Map<DailyUsageKey, Long> daySums = dailySums.get(createdAt.toLocalDate());
+            DailyUsageKey dailyKey = new DailyUsageKey(user.getUuid(), eventType.getUuid());
+            long daySum = daySums.getOrDefault(dailyKey, 0L);
+            if (eventType.getMaxDailyPoints() != null && daySum + points > eventType.getMaxDailyPoints()) {
+                results[i] = AwardResultViews.rejected("Превышен дневной лимит по типу " + eventType.getDisplayName());
+                continue;
+            }
 
-        long pointsToNext = levelCalculator.pointsToNextLevel(user.getLevel());
-        double progress = pointsToNext > 0 ? Math.min((double) newTotal / pointsToNext * 100, 100) : 100.0;
+            Course course = null;
+            EnrollmentKeyView enrollmentKey = null;
+            if (!isBlank(request.courseId())) {
+                course = courses.get(request.courseId());
+                if (course == null) {
+                    results[i] = AwardResultViews.rejected(new CourseNotFoundException(request.courseId()).getMessage());
+                    continue;
+                }
+                enrollmentKey = new EnrollmentKeyView(user.getUuid(), course.getUuid());
+                if (missingEnrollments.contains(enrollmentKey)) {
+                    results[i] = AwardResultViews.rejected(
+                            new UserCourseEnrollmentNotFoundException(request.userId(), request.courseId()).getMessage());
+                    continue;
+                }
+            }
 
-        return AwardResultViews.success(points, newTotal, levelUp, user.getLevel(), pointsToNext, progress);
+            processedEventIds.add(request.eventId());
+            daySums.put(dailyKey, daySum + points);
+
+            Transaction transaction = Transaction.builder()
+                    .user(user)
+                    .course(course)
+                    .eventType(eventType)
+                    .eventId(request.eventId())
+                    .points(points)
+                    .description("Начисление за " + eventType.getDisplayName())
+                    .createdAt(createdAt)
+                    .build();
+            transactions.add(transaction);
+            candidates.add(new AcceptedAward(i, user.getUuid(), points, eventType.getDisplayName(), dailyKey,
+                    enrollmentKey, transaction));
+        }
+
+        if (candidates.isEmpty()) {
+            return Arrays.asList(results);
+        }
+
+        // Событие могли сохранить параллельно после проверки дубликатов: такие строки вставка пропускает,
+        // и событие получает статус дубликата, не прерывая остальной пакет
+        Set<Transaction> inserted = Collections.newSetFromMap(new IdentityHashMap<>());
+        inserted.addAll(transactionService.insertAllIfAbsent(transactions));
+
+        List<AcceptedAward> accepted = new ArrayList<>(inserted.size());
+        Map<UUID, Integer> pointsByUser = new LinkedHashMap<>();
+        Map<EnrollmentKeyView, Integer> pointsByEnrollment = new LinkedHashMap<>();
+        Map<LocalDate, Map<DailyUsageKey, Integer>> pointsByDailyKey = new LinkedHashMap<>();
+        Map<LocalDate, Map<EnrollmentKeyView, Integer>> pointsByDayAndEnrollment = new LinkedHashMap<>();
+        for (AcceptedAward award : candidates) {
+            if (!inserted.contains(award.transaction())) {
+                log.info("Дубликат события: {}", award.transaction().getEventId());
+                results[award.index()] = AwardResultViews.duplicate();
+                continue;
+            }
+            accepted.add(award);
+
+            LocalDate day = award.transaction().getCreatedAt().toLocalDate();
+            pointsByDailyKey.computeIfAbsent(day, d -> new LinkedHashMap<>())
+                    .merge(award.dailyKey(), award.points(), Integer::sum);
+            pointsByUser.merge(award.userUuid(), award.points(), Integer::sum);
+            if (award.enrollmentKey() != null) {
+                pointsByEnrollment.merge(award.enrollmentKey(), award.points(), Integer::sum);
+                pointsByDayAndEnrollment.computeIfAbsent(day, d -> new LinkedHashMap<>())
+                        .merge(award.enrollmentKey(), award.points(), Integer::sum);
+            }
+        }
+
+        if (accepted.isEmpty()) {
+            return Arrays.asList(results);
+        }
+
+        pointsByDailyKey.forEach((day, points) -> dailyPointsUsageService.addPoints(points, day));
+        List<UserPointsView> totals = userService.addPoints(pointsByUser);
+        enrollmentApplicationService.addPointsToCourses(pointsByEnrollment);
+        if (coursesEnabled) {
+            pointsByDayAndEnrollment.forEach((day, points) -> coursePeriodPointsService.addPoints(points, day));
+        }
+
+        // Итоговые суммы получены одним UPDATE ... RETURNING — восстанавливаем промежуточные
+        // значения для каждого события, вычитая очки, начисленные в пакете
+        Map<UUID, Integer> runningTotals = new HashMap<>();
+        Map<UUID, Integer> runningLevels = new HashMap<>();
+        Map<UUID, Integer> storedLevels = new HashMap<>();
+        for (UserPointsView total : totals) {
+            runningTotals.put(total.getUuid(), total.getTotalPoints() - pointsByUser.get(total.getUuid()));
+            runningLevels.put(total.getUuid(), total.getLevel());
+            storedLevels.put(total.getUuid(), total.getLevel());
+        }
+
+        for (AcceptedAward award : accepted) {
+            int newTotal = runningTotals.merge(award.userUuid(), award.points(), Integer::sum);
+            int oldLevel = runningLevels.get(award.userUuid());
+            int newLevel = levelCalculator.calculateLevel(newTotal);
+            runningLevels.put(award.userUuid(), newLevel);
+
+            long pointsToNext = levelCalculator.pointsToNextLevel(newLevel);
+            results[award.index()] = AwardResultViews.success(award.points(), newTotal, newLevel > oldLevel, newLevel,
+                    pointsToNext, calculateProgress(newTotal, pointsToNext), award.displayName(),
+                    award.transaction().getUuid());
+        }
+
+        Map<UUID, Integer> changedLevels = new HashMap<>();
+        runningLevels.forEach((uuid, level) -> {
+            if (!level.equals(storedLevels.get(uuid))) {
+                changedLevels.put(uuid, level);
+            }
+        });
+        userService.updateLevels(changedLevels);
+
+        log.info("Пакетное начисление: событий={}, начислено={}, пользователей={}",
+                requests.size(), accepted.size(), pointsByUser.size());
+
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Начислить очки одним SQL-выражением
+     * <p>
+     * Все проверки и обновления выполняются за одно обращение к БД. Отдельный запрос выполняется,
+     * только если изменился уровень — формула уровня задаётся конфигурацией приложения.
+     * Порядок проверок и исключения совпадают со стандартным начислением.
+     * </p>
+     */
+    private AwardResultView awardPointsInSingleStatement(String userId, String eventId, String typeCode,
+                                                         String courseId) {
+        String normalizedCourseId = isBlank(courseId) ? null : courseId;
+        LocalDateTime now = LocalDateTime.now();
+
+        AwardStatementView result = transactionService.awardInSingleStatement(
+                userId, eventId, typeCode, normalizedCourseId, coursesEnabled, now);
+
+        if (result.getTransactionId() == null) {
+            return rejectionOf(result, userId, eventId, typeCode, normalizedCourseId);
+        }
+
+        dailyPointsUsageService.recordAward(result.getUserUuid(), result.getEventTypeUuid(), now.toLocalDate(),
+                result.getPoints());
+        if (result.getCourseUuid() != null) {
+            enrollmentApplicationService.recordCourseAward(result.getUserUuid(), result.getCourseUuid(),
+                    result.getPoints(), result.getTotalPointsInCourse());
+        }
+
+        int points = result.getPoints();
+        int newTotal = result.getTotalPoints();
+        int oldLevel = result.getLevel();
+        int newLevel = levelCalculator.calculateLevel(newTotal);
+        if (newLevel != oldLevel) {
+            userService.updateLevel(result.getUserUuid(), newLevel);
+        }
+
+        log.info("Начисление успешно: {} очков пользователю {}, новый уровень = {}", points, userId, newLevel);
+
+        long pointsToNext = levelCalculator.pointsToNextLevel(newLevel);
+        return AwardResultViews.success(points, newTotal, newLevel > oldLevel, newLevel, pointsToNext,
+                calculateProgress(newTotal, pointsToNext), result.getDisplayName(), result.getTransactionId());
+    }
+
+    /**
+     * Определить результат начисления, не создавшего транзакцию
+     * <p>
+     * Повтор уже принятого события получает статус дубликата, как и в стандартном начислении.
+     * </p>
+     */
+    private AwardResultView rejectionOf(AwardStatementView result, String userId, String eventId,
+                                        String typeCode, String courseId) {
+        boolean duplicate = Boolean.TRUE.equals(result.getDuplicate());
+
+        if (!Boolean.TRUE.equals(result.getEventTypeFound())) {
+            return duplicateOrRejected(duplicate, eventId, "Неизвестный или отключённый тип события: " + typeCode);
+        }
+        if (!Boolean.TRUE.equals(result.getUserFound())) {
+            throw new UserNotFoundException(userId);
+        }
+        if (!Boolean.TRUE.equals(result.getWithinLimit())) {
+            return duplicateOrRejected(duplicate, eventId, "Превышен дневной лимит по типу " + result.getDisplayName());
+        }
+        if (!Boolean.TRUE.equals(result.getCourseFound())) {
+            throw new CourseNotFoundException(courseId);
+        }
+        if (duplicate || Boolean.TRUE.equals(result.getEnrolled())) {
+            // Все проверки пройдены, но вставка не состоялась — событие успели обработать параллельно
+            log.info("Дубликат события: {}", eventId);
+            return AwardResultViews.duplicate();
+        }
+        throw new UserCourseEnrollmentNotFoundException(userId, courseId);
+    }
+
+    private AwardResultView duplicateOrRejected(boolean duplicate, String eventId, String reason) {
+        if (duplicate) {
+            log.info("Дубликат события: {}", eventId);
+            return AwardResultViews.duplicate();
+        }
+        return AwardResultViews.rejected(reason);
+    }
+
+    private AwardResultView rejectedUnlessDuplicate(String eventId, String reason) {
+        if (transactionService.isExistsByEventId(eventId)) {
+            log.info("Дубликат события: {}", eventId);
+            return AwardResultViews.duplicate();
+        }
+        return AwardResultViews.rejected(reason);
+    }
+
+    /**
+     * Время начисления: время события в LMS, если оно передано и не в будущем, иначе время обработки
+     */
+    private static LocalDateTime awardTime(AwardRequest request, LocalDateTime now) {
+        return request.occurredAt() != null && request.occurredAt().isBefore(now) ? request.occurredAt() : now;
+    }
+
+    private double calculateProgress(int totalPoints, long pointsToNext) {
+        return pointsToNext > 0 ? Math.min((double) totalPoints / pointsToNext * 100, 100) : 100.0;
+    }
+
+    private static void addIfPresent(Set<String> target, String value) {
+        if (!isBlank(value)) {
+            target.add(value);
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
+    /**
+     * Принятое к начислению событие пакета
+     *
+     * @param index         Позиция события в пакете
+     * @param userUuid      UUID пользователя
+     * @param points        Начисляемые очки
+     * @param displayName   Отображаемое название типа события
+     * @param dailyKey      Ключ дневного счётчика очков
+     * @param enrollmentKey Зачисление на курс или {@code null}, если событие без курса
+     * @param transaction   Транзакция; UUID заполняется при сохранении
+     */
+    private record AcceptedAward(int index, UUID userUuid, int points, String displayName, DailyUsageKey dailyKey,
+                                 EnrollmentKeyView enrollmentKey, Transaction transaction) {
     }
 }
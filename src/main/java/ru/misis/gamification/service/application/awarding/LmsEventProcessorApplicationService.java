@@ -3,6 +3,8 @@ package ru.misis.gamification.service.application.awarding;
 import ru.misis.gamification.dto.lms.request.LmsEventRequestDto;
 import ru.misis.gamification.dto.lms.response.LmsEventResponseDto;
 
+import java.util.List;
+
 /**
  * Фасандый сервис обработки событий из LMS
  */
@@ -15,4 +17,12 @@ public interface LmsEventProcessorApplicationService {
      * @return DTO ответа LMS-системе на обработанное событие
      */
     LmsEventResponseDto process(LmsEventRequestDto request);
+
+    /**
+     * Обработать пакет событий из LMS
+     *
+     * @param requests DTO событий из LMS
+     * @return DTO ответов в том же порядке, что и события
+     */
+    List<LmsEventResponseDto> processBatch(List<LmsEventRequestDto> requests);
 }
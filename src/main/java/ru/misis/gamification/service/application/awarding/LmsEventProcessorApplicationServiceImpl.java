@@ -3,17 +3,17 @@ package ru.misis.gamification.service.application.awarding;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 import ru.misis.gamification.dto.lms.request.LmsEventRequestDto;
 import ru.misis.gamification.dto.lms.response.LmsEventResponseDto;
-import ru.misis.gamification.entity.EventType;
+import ru.misis.gamification.model.AwardRequest;
 import ru.misis.gamification.model.AwardResultView;
-import ru.misis.gamification.service.simple.eventtype.EventTypeService;
+
+import java.util.ArrayList;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
-@Transactional
 @Slf4j
 @Validated
 public class LmsEventProcessorApplicationServiceImpl implements LmsEventProcessorApplicationService {
@@ -24,22 +24,26 @@ public class LmsEventProcessorApplicationServiceImpl implements LmsEventProcesso
     private final AwardingOrchestratorApplicationService awardingOrchestrator;
 
     /**
-     * Сервис управления типами событий
+     * Исполнитель начислений с единственным писателем на пользователя
+     */
+    private final AwardLaneExecutor awardLaneExecutor;
+
+    /**
+     * Пакетное начисление на полосах пользователей
      */
-    private final EventTypeService eventTypeService;
+    private final AwardBatchDispatcher awardBatchDispatcher;
 
     @Override
     public LmsEventResponseDto process(LmsEventRequestDto request) {
         log.debug("Обработка события от LMS: userId={}, eventId={}, type={}",
                 request.getUserId(), request.getEventId(), request.getEventType());
 
-        AwardResultView result = awardingOrchestrator.awardPoints(
+        // Транзакция открывается уже на полосе пользователя — вызывающий поток не держит соединение с БД
+        AwardResultView result = awardLaneExecutor.execute(request.getUserId(), () -> awardingOrchestrator.awardPoints(
                 request.getUserId(), request.getEventId(), request.getEventType(),
-                request.getCourseId(), request.getGroupId());
+                request.getCourseId(), request.getGroupId()));
 
         if (result.success()) {
-            EventType type = eventTypeService.getActiveByCode(request.getEventType());
-
             return LmsEventResponseDto.success(
                     request.getUserId(),
                     result.pointsEarned(),
@@ -49,7 +53,8 @@ public class LmsEventProcessorApplicationServiceImpl implements LmsEventProcesso
                     result.pointsToNextLevel(),
                     result.progressPercent(),
                     request.getEventId(),
-                    type.getDisplayName()
+                    result.transactionId(),
+                    result.displayName()
             );
         }
 
@@ -59,4 +64,46 @@ public class LmsEventProcessorApplicationServiceImpl implements LmsEventProcesso
 
         return LmsEventResponseDto.error(result.rejectionReason());
     }
+
+    @Override
+    public List<LmsEventResponseDto> processBatch(List<LmsEventRequestDto> requests) {
+        log.debug("Обработка пакета событий от LMS: size={}", requests.size());
+
+        List<AwardRequest> awardRequests = requests.stream()
+                .map(request -> new AwardRequest(request.getUserId(), request.getEventId(),
+                        request.getEventType(), request.getCourseId(), request.getGroupId()))
+                .toList();
+
+        List<AwardResultView> results = awardBatchDispatcher.award(awardRequests);
+
+        List<LmsEventResponseDto> responses = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            LmsEventRequestDto request = requests.get(i);
+            AwardResultView result = results.get(i);
+
+            if (result.success()) {
+                responses.add(LmsEventResponseDto.success(
+                        request.getUserId(),
+                        result.pointsEarned(),
+                        result.totalPointsAfter(),
+                        result.levelUp(),
+                        result.newLevel(),
+                        result.pointsToNextLevel(),
+                        result.progressPercent(),
+                        request.getEventId(),
+                        result.transactionId(),
+                        result.displayName()
+                ));
+            } else if (result.duplicate()) {
+                responses.add(LmsEventResponseDto.duplicate(request.getEventId()));
+            } else {
+                LmsEventResponseDto error = LmsEventResponseDto.error(result.rejectionReason());
+                error.setUserId(request.getUserId());
+                error.setEventId(request.getEventId());
+                responses.add(error);
+            }
+        }
+
+        return responses;
+    }
 }
@@ -0,0 +1,47 @@
+package ru.misis.gamification.service.application.context;
+
+import ru.misis.gamification.entity.Course;
+import ru.misis.gamification.entity.User;
+
+import java.util.UUID;
+
+/**
+ * Контекст поиска сущностей в рамках одного HTTP-запроса
+ * <p>
+ * Пользователь, курс или группа, найденные прикладным сервисом, запоминаются в атрибутах запроса
+ * и повторно не загружаются, даже если запрос обслуживают несколько прикладных сервисов
+ * в разных транзакциях. Вне HTTP-запроса (фоновые задачи, обработка очереди событий)
+ * каждый вызов выполняет поиск заново.
+ * </p>
+ * <p>
+ * Предназначен для сценариев чтения: изменения сущности, сделанные после её первого поиска
+ * в том же запросе, контекст не отражает. Отрицательные результаты не запоминаются.
+ * </p>
+ */
+public interface RequestLookupContext {
+
+    /**
+     * Получить пользователя по идентификатору из LMS
+     *
+     * @param userId Идентификатор пользователя из LMS
+     * @return Пользователь
+     */
+    User getUser(String userId);
+
+    /**
+     * Получить курс по внешнему идентификатору
+     *
+     * @param courseId Идентификатор курса
+     * @return Курс
+     */
+    Course getCourse(String courseId);
+
+    /**
+     * Получить UUID группы по внешнему идентификатору группы и курса
+     *
+     * @param groupId  Идентификатор группы
+     * @param courseId Идентификатор курса
+     * @return UUID группы
+     */
+    UUID getGroupUuid(String groupId, String courseId);
+}
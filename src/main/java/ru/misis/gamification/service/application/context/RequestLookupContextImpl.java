@@ -0,0 +1,123 @@
+package ru.misis.gamification.service.application.context;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.HandlerMapping;
+import ru.misis.gamification.entity.Course;
+import ru.misis.gamification.entity.User;
+import ru.misis.gamification.service.simple.course.CourseService;
+import ru.misis.gamification.service.simple.group.GroupService;
+import ru.misis.gamification.service.simple.user.UserService;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+@Component
+@Slf4j
+public class RequestLookupContextImpl implements RequestLookupContext {
+
+    /**
+     * Атрибут запроса с найденными сущностями
+     */
+    private static final String ENTRIES_ATTRIBUTE = RequestLookupContextImpl.class.getName() + ".entries";
+
+    private static final String UNKNOWN_ENDPOINT = "unknown";
+
+    /**
+     * Сервис управления пользователями
+     */
+    private final UserService userService;
+
+    /**
+     * Сервис управления курсами
+     */
+    private final CourseService courseService;
+
+    /**
+     * Сервис управления группами/потоками
+     */
+    private final GroupService groupService;
+
+    private final MeterRegistry meterRegistry;
+
+    private final boolean enabled;
+
+    public RequestLookupContextImpl(UserService userService,
+                                    CourseService courseService,
+                                    GroupService groupService,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${gamification.features.lookup-context.enabled:true}") boolean enabled) {
+        this.userService = userService;
+        this.courseService = courseService;
+        this.groupService = groupService;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public User getUser(String userId) {
+        return resolve("user", userId, () -> userService.getUserByExternalId(userId));
+    }
+
+    @Override
+    public Course getCourse(String courseId) {
+        return resolve("course", courseId, () -> courseService.findByCourseId(courseId));
+    }
+
+    @Override
+    public UUID getGroupUuid(String groupId, String courseId) {
+        return resolve("group", List.of(groupId, courseId),
+                () -> groupService.getGroupUuidByExternalIdAndCourseId(groupId, courseId));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T resolve(String entity, Object id, Supplier<T> loader) {
+        RequestAttributes attributes = enabled ? RequestContextHolder.getRequestAttributes() : null;
+        if (attributes == null) {
+            return loader.get();
+        }
+
+        Map<LookupKey, Object> entries =
+                (Map<LookupKey, Object>) attributes.getAttribute(ENTRIES_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (entries == null) {
+            entries = new HashMap<>();
+            attributes.setAttribute(ENTRIES_ATTRIBUTE, entries, RequestAttributes.SCOPE_REQUEST);
+        }
+
+        LookupKey key = new LookupKey(entity, id);
+        Object found = entries.get(key);
+        if (found != null) {
+            recordSavedLookup(entity, attributes);
+            return (T) found;
+        }
+
+        T loaded = loader.get();
+        if (loaded != null) {
+            entries.put(key, loaded);
+        }
+        return loaded;
+    }
+
+    private void recordSavedLookup(String entity, RequestAttributes attributes) {
+        Object pattern = attributes.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+        String endpoint = pattern != null ? pattern.toString() : UNKNOWN_ENDPOINT;
+
+        log.debug("Повторный поиск пропущен: entity={}, endpoint={}", entity, endpoint);
+        meterRegistry.counter("gamification.lookup.context.saved", "entity", entity, "endpoint", endpoint)
+                .increment();
+    }
+
+    /**
+     * Ключ найденной сущности: вид сущности и её внешний идентификатор
+     */
+    private record LookupKey(String entity, Object id) {
+    }
+}
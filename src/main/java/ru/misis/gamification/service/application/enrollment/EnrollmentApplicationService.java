@@ -1,7 +1,13 @@
 package ru.misis.gamification.service.application.enrollment;
 
+import ru.misis.gamification.entity.Course;
+import ru.misis.gamification.exception.UserCourseEnrollmentNotFoundException;
 import ru.misis.gamification.model.CourseEnrollmentSummary;
+import ru.misis.gamification.model.EnrollmentKeyView;
 
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -21,12 +27,44 @@ public interface EnrollmentApplicationService {
 
     /**
      * Начислить очки пользователю по конкретному курсу
+     * <p>
+     * Сумма по курсу увеличивается атомарно в БД, без предварительного чтения зачисления.
+     * </p>
      *
-     * @param userId     Идентификатор пользователя из LMS
-     * @param courseUuid UUID курса
-     * @param points     Количество очков
+     * @param userId   Идентификатор пользователя из LMS
+     * @param userUuid UUID пользователя
+     * @param course   Курс
+     * @param points   Количество очков
+     * @throws UserCourseEnrollmentNotFoundException если пользователь не зачислен на курс
+     */
+    void addPointsToCourse(String userId, UUID userUuid, Course course, int points);
+
+    /**
+     * Найти пары пользователь — курс, для которых нет зачисления.
+     * Если курсы отключены — всегда возвращает пустое множество
+     *
+     * @param enrollments Пары пользователь — курс
+     * @return Пары без зачисления
+     */
+    Set<EnrollmentKeyView> findMissingEnrollments(Collection<EnrollmentKeyView> enrollments);
+
+    /**
+     * Начислить очки по курсам нескольким зачислениям одним запросом.
+     * Если курсы отключены — ничего не делает
+     *
+     * @param pointsByEnrollment Количество начисляемых очков по паре пользователь — курс
+     */
+    void addPointsToCourses(Map<EnrollmentKeyView, Integer> pointsByEnrollment);
+
+    /**
+     * Учесть очки по курсу, уже начисленные в БД одним SQL-выражением
+     *
+     * @param userUuid       UUID пользователя
+     * @param courseUuid     UUID курса
+     * @param points         Начисленные очки
+     * @param pointsInCourse Сумма очков по курсу после начисления
      */
-    void addPointsToCourse(String userId, UUID courseUuid, int points);
+    void recordCourseAward(UUID userUuid, UUID courseUuid, int points, int pointsInCourse);
 
     /**
      * Получить модель зачисления на курс
@@ -12,13 +12,19 @@ import ru.misis.gamification.entity.Group;
 import ru.misis.gamification.entity.User;
 import ru.misis.gamification.entity.UserCourseEnrollment;
 import ru.misis.gamification.events.UserCreatedEvent;
+import ru.misis.gamification.exception.UserCourseEnrollmentNotFoundException;
 import ru.misis.gamification.exception.UserNotEnrolledInCourseException;
 import ru.misis.gamification.model.CourseEnrollmentSummary;
+import ru.misis.gamification.model.EnrollmentKeyView;
 import ru.misis.gamification.service.simple.course.CourseService;
 import ru.misis.gamification.service.simple.enrollment.EnrollmentService;
 import ru.misis.gamification.service.simple.group.GroupService;
 import ru.misis.gamification.service.simple.user.UserService;
 
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -59,7 +65,7 @@ public class EnrollmentApplicationServiceImpl implements EnrollmentApplicationSe
 
         log.info("Зачисление пользователя {} на курс {} / группу {}", userId, courseId, groupId);
 
-        User user = userService.getUserByExternalId(userId);
+        User user = userService.getReference(userService.getUserUuidByExternalId(userId));
         Course course = courseService.findByCourseId(courseId);
 
         if (enrollmentService.isUserEnrolledInCourse(user, course)) {
@@ -87,26 +93,57 @@ public class EnrollmentApplicationServiceImpl implements EnrollmentApplicationSe
     }
 
     @Override
-    public void addPointsToCourse(String userId, UUID courseUuid, int points) {
+    public void addPointsToCourse(String userId, UUID userUuid, Course course, int points) {
         if (!coursesEnabled || points <= 0) {
             return;
         }
 
-        User user = userService.getUserByExternalId(userId);
-        Course course = courseService.findById(courseUuid);
+        int totalInCourse = enrollmentService.addPointsInCourse(userUuid, course.getUuid(), points)
+                .orElseThrow(() -> new UserCourseEnrollmentNotFoundException(userId, course.getCourseId()));
 
-        UserCourseEnrollment enrollment = enrollmentService.findByUserAndCourse(user, course);
+        log.debug("Начислено {} очков по курсу {} (UUID: {}) пользователю {}, итого по курсу {}",
+                points, course.getCourseId(), course.getUuid(), userId, totalInCourse);
+    }
 
-        enrollment.setTotalPointsInCourse(enrollment.getTotalPointsInCourse() + points);
-        enrollmentService.save(enrollment);
+    @Override
+    public Set<EnrollmentKeyView> findMissingEnrollments(Collection<EnrollmentKeyView> enrollments) {
+        if (!coursesEnabled || enrollments.isEmpty()) {
+            return Set.of();
+        }
+
+        Set<UUID> userUuids = new HashSet<>();
+        Set<UUID> courseUuids = new HashSet<>();
+        enrollments.forEach(key -> {
+            userUuids.add(key.userUuid());
+            courseUuids.add(key.courseUuid());
+        });
+
+        Set<EnrollmentKeyView> missing = new HashSet<>(enrollments);
+        missing.removeAll(enrollmentService.findEnrollmentKeys(userUuids, courseUuids));
+        return missing;
+    }
 
-        log.debug("Начислено {} очков по курсу {} (UUID: {}) пользователю {}",
-                points, course.getCourseId(), courseUuid, userId);
+    @Override
+    public void addPointsToCourses(Map<EnrollmentKeyView, Integer> pointsByEnrollment) {
+        if (!coursesEnabled || pointsByEnrollment.isEmpty()) {
+            return;
+        }
+
+        int updated = enrollmentService.addPointsInCourses(pointsByEnrollment);
+        log.debug("Начислены очки по курсам пакетом: зачислений={}", updated);
+    }
+
+    @Override
+    public void recordCourseAward(UUID userUuid, UUID courseUuid, int points, int pointsInCourse) {
+        if (coursesEnabled) {
+            enrollmentService.recordPointsInCourse(userUuid, courseUuid, points, pointsInCourse);
+        }
     }
 
     @Override
     public CourseEnrollmentSummary getEnrollmentSummary(String userId, String courseId) {
-        User user = userService.getUserByExternalId(userId);
+        UUID userUuid = userService.getUserUuidByExternalId(userId);
+        User user = userService.getReference(userUuid);
         Course course = courseService.findByCourseId(courseId);
 
         if (!enrollmentService.isUserEnrolledInCourse(user, course)) {
@@ -116,7 +153,7 @@ public class EnrollmentApplicationServiceImpl implements EnrollmentApplicationSe
         UserCourseEnrollment enrollment = enrollmentService.findByUserAndCourse(user, course);
 
         return new CourseEnrollmentSummary(
-                user.getUuid(),
+                userUuid,
                 userId,
                 course.getUuid(),
                 courseId,
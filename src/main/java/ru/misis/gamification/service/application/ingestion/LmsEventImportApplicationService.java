@@ -0,0 +1,25 @@
+package ru.misis.gamification.service.application.ingestion;
+
+import ru.misis.gamification.dto.admin.response.EventImportResultDto;
+
+import java.io.InputStream;
+
+/**
+ * Фасадный сервис импорта истории событий LMS
+ * <p>
+ * Принимает поток NDJSON (одно событие LMS в формате JSON на строку) и начисляет очки пачками
+ * через пакетное начисление, с той же проверкой дубликатов и дневных лимитов.
+ * Поток читается построчно: следующая пачка читается только после фиксации предыдущей,
+ * поэтому память не зависит от размера файла, а скорость передачи ограничивается скоростью начисления.
+ * </p>
+ */
+public interface LmsEventImportApplicationService {
+
+    /**
+     * Импортировать события из потока NDJSON
+     *
+     * @param ndjson Поток строк NDJSON в кодировке UTF-8
+     * @return Итоги импорта
+     */
+    EventImportResultDto importEvents(InputStream ndjson);
+}
@@ -0,0 +1,216 @@
+package ru.misis.gamification.service.application.ingestion;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import ru.misis.gamification.dto.admin.request.EventImportLineDto;
+import ru.misis.gamification.dto.admin.response.EventImportResultDto;
+import ru.misis.gamification.model.AwardRequest;
+import ru.misis.gamification.model.AwardResultView;
+import ru.misis.gamification.service.application.awarding.AwardBatchDispatcher;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LmsEventImportApplicationServiceImpl implements LmsEventImportApplicationService {
+
+    /**
+     * Пакетное начисление на полосах пользователей
+     */
+    private final AwardBatchDispatcher awardBatchDispatcher;
+
+    /**
+     * Парсер JSON
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Количество событий, начисляемых одной транзакцией
+     */
+    @Value("${gamification.features.import.chunk-size:500}")
+    private int chunkSize;
+
+    /**
+     * Максимальное количество ошибок по строкам в итогах импорта
+     */
+    @Value("${gamification.features.import.max-reported-errors:100}")
+    private int maxReportedErrors;
+
+    /**
+     * Периодичность записи прогресса в лог, строк
+     */
+    @Value("${gamification.features.import.progress-log-interval:50000}")
+    private long progressLogInterval;
+
+    @Override
+    public EventImportResultDto importEvents(InputStream ndjson) {
+        ImportProgress progress = new ImportProgress(System.nanoTime());
+        List<AwardRequest> chunk = new ArrayList<>(chunkSize);
+        List<Long> chunkLines = new ArrayList<>(chunkSize);
+        String stopReason = null;
+
+        log.info("Импорт истории событий LMS начат: размер пачки={}", chunkSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8))) {
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                progress.lines++;
+
+                AwardRequest request = parse(line, lineNumber, progress);
+                if (request != null) {
+                    chunk.add(request);
+                    chunkLines.add(lineNumber);
+                }
+
+                if (chunk.size() >= chunkSize) {
+                    award(chunk, chunkLines, progress);
+                    chunk.clear();
+                    chunkLines.clear();
+                }
+                if (progress.lines % progressLogInterval == 0) {
+                    logProgress(progress);
+                }
+            }
+            award(chunk, chunkLines, progress);
+        } catch (IOException e) {
+            stopReason = "Ошибка чтения потока: " + e.getMessage();
+            log.error("Импорт истории событий LMS прерван: {}", stopReason, e);
+        } catch (RuntimeException e) {
+            long firstLine = chunkLines.isEmpty() ? progress.lines : chunkLines.getFirst();
+            stopReason = "Ошибка начисления пачки, начиная со строки " + firstLine + ": " + e.getMessage();
+            log.error("Импорт истории событий LMS прерван: {}", stopReason, e);
+        }
+
+        EventImportResultDto result = progress.toResult(stopReason);
+        log.info("Импорт истории событий LMS завершён: строк={}, начислено={}, дубликатов={}, отклонено={}, " +
+                        "некорректных={}, за {} мс ({} строк/с)",
+                result.getLines(), result.getAwarded(), result.getDuplicates(), result.getRejected(),
+                result.getMalformed(), result.getDurationMs(), String.format("%.1f", result.getEventsPerSecond()));
+        return result;
+    }
+
+    private AwardRequest parse(String line, long lineNumber, ImportProgress progress) {
+        EventImportLineDto event;
+        try {
+            event = objectMapper.readValue(line, EventImportLineDto.class);
+        } catch (JsonProcessingException e) {
+            progress.malformed++;
+            progress.addError("строка " + lineNumber + ": некорректный JSON — " + e.getOriginalMessage(), maxReportedErrors);
+            return null;
+        }
+
+        if (isBlank(event.getUserId()) || isBlank(event.getEventId()) || isBlank(event.getEventType())) {
+            progress.malformed++;
+            progress.addError("строка " + lineNumber + ": обязательны userId, eventId и eventType", maxReportedErrors);
+            return null;
+        }
+
+        return new AwardRequest(event.getUserId(), event.getEventId(), event.getEventType(),
+                event.getCourseId(), event.getGroupId(), event.getOccurredAt());
+    }
+
+    private void award(List<AwardRequest> chunk, List<Long> chunkLines, ImportProgress progress) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        // Импорт идёт через полосы пользователей, чтобы не конкурировать с текущими начислениями
+        List<AwardResultView> results = awardBatchDispatcher.awardAwaitingCapacity(chunk);
+        for (int i = 0; i < results.size(); i++) {
+            AwardResultView result = results.get(i);
+            if (result.success()) {
+                progress.awarded++;
+                progress.pointsAwarded += result.pointsEarned();
+            } else if (result.duplicate()) {
+                progress.duplicates++;
+            } else {
+                progress.rejected++;
+                progress.addError("строка " + chunkLines.get(i) + " (" + chunk.get(i).eventId() + "): "
+                        + result.rejectionReason(), maxReportedErrors);
+            }
+        }
+    }
+
+    private void logProgress(ImportProgress progress) {
+        log.info("Импорт истории событий LMS: строк={}, начислено={}, дубликатов={}, отклонено={}, {} строк/с",
+                progress.lines, progress.awarded, progress.duplicates, progress.rejected,
+                String.format("%.1f", progress.eventsPerSecond()));
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    /**
+     * Накопленные итоги импорта
+     */
+    private static final class ImportProgress {
+
+        private final long startedNanos;
+
+        private final List<String> errors = new ArrayList<>();
+
+        private long lines;
+
+        private long awarded;
+
+        private long duplicates;
+
+        private long rejected;
+
+        private long malformed;
+
+        private long pointsAwarded;
+
+        private ImportProgress(long startedNanos) {
+            this.startedNanos = startedNanos;
+        }
+
+        private void addError(String error, int limit) {
+            if (errors.size() < limit) {
+                errors.add(error);
+            }
+        }
+
+        private long elapsedMs() {
+            return (System.nanoTime() - startedNanos) / 1_000_000;
+        }
+
+        private double eventsPerSecond() {
+            long elapsedMs = elapsedMs();
+            return elapsedMs > 0 ? lines * 1000.0 / elapsedMs : lines;
+        }
+
+        private EventImportResultDto toResult(String stopReason) {
+            return EventImportResultDto.builder()
+                    .completed(stopReason == null)
+                    .lines(lines)
+                    .awarded(awarded)
+                    .duplicates(duplicates)
+                    .rejected(rejected)
+                    .malformed(malformed)
+                    .pointsAwarded(pointsAwarded)
+                    .durationMs(elapsedMs())
+                    .eventsPerSecond(eventsPerSecond())
+                    .message(stopReason)
+                    .errors(List.copyOf(errors))
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package ru.misis.gamification.service.application.ingestion;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Фоновый обработчик входящей очереди событий LMS
+ * <p>
+ * Активен только при включённом асинхронном режиме приёма событий.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "gamification.features.ingestion.async.enabled", havingValue = "true")
+public class LmsEventInboxWorker {
+
+    /**
+     * Фасадный сервис асинхронного приёма событий из LMS
+     */
+    private final LmsEventIngestionApplicationService ingestionService;
+
+    @Scheduled(fixedDelayString = "${gamification.features.ingestion.async.poll-interval-ms:200}")
+    public void poll() {
+        try {
+            ingestionService.drainBatch();
+        } catch (Exception e) {
+            log.error("Ошибка при обработке входящей очереди событий", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${gamification.features.ingestion.async.stale-check-interval-ms:30000}")
+    public void releaseStale() {
+        try {
+            ingestionService.releaseStale();
+        } catch (Exception e) {
+            log.error("Ошибка при возврате зависших событий в очередь", e);
+        }
+    }
+}
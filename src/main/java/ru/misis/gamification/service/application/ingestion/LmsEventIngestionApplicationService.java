@@ -0,0 +1,59 @@
+package ru.misis.gamification.service.application.ingestion;
+
+import ru.misis.gamification.dto.lms.request.LmsEventRequestDto;
+import ru.misis.gamification.dto.lms.response.LmsEventResponseDto;
+import ru.misis.gamification.dto.lms.response.LmsEventStatusResponseDto;
+import ru.misis.gamification.exception.LmsEventInboxNotFoundException;
+
+/**
+ * Фасадный сервис асинхронного приёма событий из LMS
+ * <p>
+ * В асинхронном режиме событие сохраняется во входящую очередь и подтверждается сразу,
+ * а начисление очков выполняется фоновым обработчиком.
+ * </p>
+ */
+public interface LmsEventIngestionApplicationService {
+
+    /**
+     * Включён ли асинхронный режим приёма событий
+     *
+     * @return Да / Нет
+     */
+    boolean isAsyncEnabled();
+
+    /**
+     * Принять событие в очередь асинхронной обработки
+     *
+     * @param request DTO события из LMS
+     * @return DTO ответа LMS-системе со статусом accepted
+     */
+    LmsEventResponseDto accept(LmsEventRequestDto request);
+
+    /**
+     * Получить состояние обработки события
+     *
+     * @param eventId Идентификатор события из LMS
+     * @return DTO состояния обработки
+     * @throws LmsEventInboxNotFoundException если событие не поступало в очередь
+     */
+    LmsEventStatusResponseDto getStatus(String eventId);
+
+    /**
+     * Обработать очередную пачку событий из очереди
+     * <p>
+     * События передаются на полосы {@link ru.misis.gamification.service.application.awarding.AwardLaneExecutor}:
+     * события одного пользователя обрабатываются последовательно в порядке поступления,
+     * разных пользователей — параллельно. Метод возвращает управление после обработки всей пачки.
+     * </p>
+     *
+     * @return Количество обработанных событий
+     */
+    int drainBatch();
+
+    /**
+     * Вернуть в очередь события, зависшие в обработке
+     *
+     * @return Количество возвращённых событий
+     */
+    int releaseStale();
+}
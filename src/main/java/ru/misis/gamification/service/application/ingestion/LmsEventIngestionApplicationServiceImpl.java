@@ -0,0 +1,158 @@
+package ru.misis.gamification.service.application.ingestion;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.validation.annotation.Validated;
+import ru.misis.gamification.dto.lms.request.LmsEventRequestDto;
+import ru.misis.gamification.dto.lms.response.LmsEventResponseDto;
+import ru.misis.gamification.dto.lms.response.LmsEventStatusResponseDto;
+import ru.misis.gamification.entity.LmsEventInbox;
+import ru.misis.gamification.exception.CourseNotFoundException;
+import ru.misis.gamification.exception.DuplicateEventException;
+import ru.misis.gamification.exception.EventTypeNotFoundException;
+import ru.misis.gamification.exception.GroupNotFoundException;
+import ru.misis.gamification.exception.UserCourseEnrollmentNotFoundException;
+import ru.misis.gamification.exception.UserNotEnrolledInCourseException;
+import ru.misis.gamification.exception.UserNotFoundException;
+import ru.misis.gamification.mapper.LmsEventInboxMapper;
+import ru.misis.gamification.model.AwardRequest;
+import ru.misis.gamification.service.application.awarding.AwardLaneExecutor;
+import ru.misis.gamification.service.application.awarding.LmsEventProcessorApplicationService;
+import ru.misis.gamification.service.simple.inbox.LmsEventInboxService;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Validated
+public class LmsEventIngestionApplicationServiceImpl implements LmsEventIngestionApplicationService {
+
+    /**
+     * Сервис управления входящей очередью событий LMS
+     */
+    private final LmsEventInboxService inboxService;
+
+    /**
+     * Фасадный сервис обработки событий из LMS
+     */
+    private final LmsEventProcessorApplicationService lmsEventProcessor;
+
+    /**
+     * Маппер входящей очереди событий LMS
+     */
+    private final LmsEventInboxMapper inboxMapper;
+
+    /**
+     * Исполнитель начислений с единственным писателем на пользователя
+     */
+    private final AwardLaneExecutor awardLaneExecutor;
+
+    /**
+     * Включён ли асинхронный режим приёма событий
+     */
+    @Value("${gamification.features.ingestion.async.enabled:false}")
+    private boolean asyncEnabled;
+
+    /**
+     * Максимальный размер пачки, забираемой из очереди за один проход
+     */
+    @Value("${gamification.features.ingestion.async.batch-size:200}")
+    private int batchSize;
+
+    /**
+     * Время, после которого событие в статусе PROCESSING считается зависшим
+     */
+    @Value("${gamification.features.ingestion.async.stale-processing-timeout-ms:60000}")
+    private long staleProcessingTimeoutMs;
+
+    @Override
+    public boolean isAsyncEnabled() {
+        return asyncEnabled;
+    }
+
+    @Override
+    public LmsEventResponseDto accept(LmsEventRequestDto request) {
+        inboxService.enqueue(new AwardRequest(request.getUserId(), request.getEventId(),
+                request.getEventType(), request.getCourseId(), request.getGroupId()));
+
+        return LmsEventResponseDto.accepted(request.getUserId(), request.getEventId());
+    }
+
+    @Override
+    public LmsEventStatusResponseDto getStatus(String eventId) {
+        return inboxMapper.toStatusDto(inboxService.getByEventId(eventId));
+    }
+
+    @Override
+    public int drainBatch() {
+        List<LmsEventInbox> batch = inboxService.claimBatch(batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        log.debug("Обработка пачки из очереди: событий={}", batch.size());
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>(batch.size());
+        // Если полоса не приняла событие пользователя, его следующие события пачки тоже возвращаются в очередь,
+        // иначе они обогнали бы непереданное событие
+        Set<String> deferredUsers = new HashSet<>();
+        List<LmsEventInbox> deferred = new ArrayList<>();
+        for (LmsEventInbox event : batch) {
+            if (deferredUsers.contains(event.getUserId())) {
+                deferred.add(event);
+                continue;
+            }
+            try {
+                futures.add(awardLaneExecutor.submit(event.getUserId(), () -> {
+                    processEvent(event);
+                    return null;
+                }));
+            } catch (RejectedExecutionException e) {
+                deferredUsers.add(event.getUserId());
+                deferred.add(event);
+            }
+        }
+        if (!deferred.isEmpty()) {
+            log.warn("Очередь полосы начисления переполнена: возвращено в очередь событий={}, пользователей={}",
+                    deferred.size(), deferredUsers.size());
+            inboxService.requeue(deferred);
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+        return batch.size();
+    }
+
+    @Override
+    public int releaseStale() {
+        return inboxService.releaseStale(Duration.ofMillis(staleProcessingTimeoutMs));
+    }
+
+    private void processEvent(LmsEventInbox event) {
+        try {
+            LmsEventResponseDto response = lmsEventProcessor.process(inboxMapper.toRequestDto(event));
+            String message = response.isSuccess()
+                    ? "Начислено " + response.getPointsEarned() + " очков"
+                    : response.getMessage();
+            inboxService.markCompleted(event.getUuid(), response.getStatus(), message);
+        } catch (DuplicateEventException e) {
+            inboxService.markCompleted(event.getUuid(), "duplicate", e.getMessage());
+        } catch (UserNotFoundException | CourseNotFoundException | GroupNotFoundException
+                 | UserCourseEnrollmentNotFoundException | UserNotEnrolledInCourseException
+                 | EventTypeNotFoundException e) {
+            // Бизнес-ошибки детерминированы — повтор не изменит результат
+            inboxService.markCompleted(event.getUuid(), "error", e.getMessage());
+        } catch (Exception e) {
+            log.warn("Ошибка обработки события из очереди: eventId={}", event.getEventId(), e);
+            inboxService.markFailed(event, e.getMessage() != null ? e.getMessage() : e.getClass().getName());
+        }
+    }
+}
@@ -5,9 +5,24 @@ import jakarta.validation.ConstraintViolationException;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import ru.misis.gamification.entity.LeaderboardPeriod;
+import ru.misis.gamification.exception.InvalidLeaderboardCursorException;
+import ru.misis.gamification.exception.UserNotEnrolledInCourseException;
+import ru.misis.gamification.exception.UserNotFoundException;
+import ru.misis.gamification.model.CoursePercentileView;
+import ru.misis.gamification.model.CourseRanksView;
+import ru.misis.gamification.model.GlobalLeaderboardPageView;
+import ru.misis.gamification.model.GlobalRankView;
 import ru.misis.gamification.model.LeaderboardPageView;
+import ru.misis.gamification.model.LeaderboardWindowView;
 import ru.misis.gamification.model.UserCourseGroupLeaderboardView;
 
+import java.time.LocalDate;
+import java.util.Collection;
+
 /**
  * Фасадный сервис управления лидербордом
  */
@@ -41,8 +56,81 @@ public interface LeaderboardApplicationService {
                                             @Min(value = 0, message = "{page.non-negative}") int page,
                                             @Min(value = 1, message = "{size.positive}") @Max(value = 100, message = "{size.too-large}") int size);
 
+    /**
+     * Получить страницу лидерборда курса или группы, следующую за курсором
+     * <p>
+     * В отличие от {@link #getGroupLeaderboard} не использует OFFSET и не считает общее количество:
+     * номер страницы и итоги в ответе равны {@code null}.
+     * </p>
+     *
+     * @param courseId Идентификатор курса из LMS
+     * @param groupId  Идентификатор группы из LMS (опционально)
+     * @param cursor   Курсор из {@code nextCursor} предыдущей страницы
+     * @param size     Размер страницы
+     * @return Страница лидерборда {@link LeaderboardPageView}
+     * @throws InvalidLeaderboardCursorException если курсор некорректен
+     */
+    LeaderboardPageView getGroupLeaderboardAfter(@NotBlank(message = "{course.id.required}") String courseId,
+                                                 @Nullable String groupId,
+                                                 @NotBlank(message = "{leaderboard.cursor.required}") String cursor,
+                                                 @Min(value = 1, message = "{size.positive}") @Max(value = 100, message = "{size.too-large}") int size);
+
+    /**
+     * Получить страницу лидерборда курса или группы за неделю или месяц
+     * <p>
+     * Лидерборд формируется по убыванию очков, заработанных на курсе за период, содержащий {@code date}.
+     * Очки за период накапливаются при начислении, поэтому история транзакций не суммируется.
+     * Лидерборд доступен только студентам, зачисленным на курс.
+     * </p>
+     *
+     * @param courseId      Идентификатор курса из LMS
+     * @param groupId       Идентификатор группы из LMS (опционально)
+     * @param period        Период
+     * @param date          Любой день периода или {@code null} — текущий период
+     * @param page          Номер страницы (0-based)
+     * @param size          Размер страницы
+     * @param currentUserId Идентификатор пользователя из LMS
+     * @return Страница лидерборда за период {@link LeaderboardPageView}
+     * @throws UserNotFoundException             если пользователь не найден
+     * @throws UserNotEnrolledInCourseException если пользователь не зачислен на курс
+     */
+    LeaderboardPageView getPeriodLeaderboard(@NotBlank(message = "{course.id.required}") String courseId,
+                                             @Nullable String groupId,
+                                             @NotNull(message = "{leaderboard.period.required}") LeaderboardPeriod period,
+                                             @Nullable LocalDate date,
+                                             @Min(value = 0, message = "{page.non-negative}") int page,
+                                             @Min(value = 1, message = "{size.positive}") @Max(value = 100, message = "{size.too-large}") int size,
+                                             @NotBlank(message = "{user.id.required}") String currentUserId);
+
+    /**
+     * Получить страницу лидерборда курса или группы за неделю или месяц, следующую за курсором
+     *
+     * @param courseId      Идентификатор курса из LMS
+     * @param groupId       Идентификатор группы из LMS (опционально)
+     * @param period        Период
+     * @param date          Любой день периода или {@code null} — текущий период
+     * @param cursor        Курсор из {@code nextCursor} предыдущей страницы
+     * @param size          Размер страницы
+     * @param currentUserId Идентификатор пользователя из LMS
+     * @return Страница лидерборда за период {@link LeaderboardPageView}
+     * @throws InvalidLeaderboardCursorException если курсор некорректен
+     * @throws UserNotFoundException             если пользователь не найден
+     * @throws UserNotEnrolledInCourseException если пользователь не зачислен на курс
+     */
+    LeaderboardPageView getPeriodLeaderboardAfter(@NotBlank(message = "{course.id.required}") String courseId,
+                                                  @Nullable String groupId,
+                                                  @NotNull(message = "{leaderboard.period.required}") LeaderboardPeriod period,
+                                                  @Nullable LocalDate date,
+                                                  @NotBlank(message = "{leaderboard.cursor.required}") String cursor,
+                                                  @Min(value = 1, message = "{size.positive}") @Max(value = 100, message = "{size.too-large}") int size,
+                                                  @NotBlank(message = "{user.id.required}") String currentUserId);
+
     /**
      * Получить модель персонализированного лидерборда по курсу и группе (опционально)
+     * <p>
+     * Страница, общее количество и строка пользователя с рангом читаются одним запросом
+     * (или из индекса лидербордов в памяти).
+     * </p>
      *
      * @param courseId      Идентификатор курса из LMS
      * @param groupId       Идентификатор группы из LMS
@@ -56,4 +144,96 @@ public interface LeaderboardApplicationService {
                                                                @Min(value = 0, message = "{page.non-negative}") int page,
                                                                @Min(value = 1, message = "{size.positive}") @Max(value = 100, message = "{size.too-large}") int size,
                                                                @NotBlank(message = "{user.id.required}") String currentUserId);
+
+    /**
+     * Получить ранги и очки нескольких студентов в лидерборде курса или группы (панель преподавателя)
+     * <p>
+     * Ранги всех студентов находятся одним обращением к индексу лидербордов в памяти
+     * или одним проходом {@code DENSE_RANK()} по курсу (группе) — а не отдельным запросом на студента.
+     * </p>
+     *
+     * @param courseId Идентификатор курса из LMS
+     * @param groupId  Идентификатор группы из LMS (опционально)
+     * @param userIds  Идентификаторы студентов из LMS
+     * @return Модель рангов студентов {@link CourseRanksView}
+     */
+    CourseRanksView getRanks(@NotBlank(message = "{course.id.required}") String courseId,
+                             @Nullable String groupId,
+                             @NotEmpty(message = "{leaderboard.users.required}") @Size(max = 500, message = "{leaderboard.users.size}") Collection<String> userIds);
+
+    /**
+     * Получить окно лидерборда вокруг пользователя: до {@code radius} соседей выше и ниже него
+     * <p>
+     * Если пользователь не найден или не зачислен на курс (в группу) — окно пустое.
+     * </p>
+     *
+     * @param courseId      Идентификатор курса из LMS
+     * @param groupId       Идентификатор группы из LMS (опционально)
+     * @param radius        Количество соседей с каждой стороны
+     * @param currentUserId Идентификатор пользователя из LMS
+     * @return Модель окна лидерборда {@link LeaderboardWindowView}
+     */
+    LeaderboardWindowView getLeaderboardAroundUser(@NotBlank(message = "{course.id.required}") String courseId,
+                                                   @Nullable String groupId,
+                                                   @Min(value = 1, message = "{leaderboard.radius.range}") @Max(value = 50, message = "{leaderboard.radius.range}") int radius,
+                                                   @NotBlank(message = "{user.id.required}") String currentUserId);
+
+    /**
+     * Получить модель персонализированного лидерборда, где топ — страница после курсора
+     *
+     * @param courseId      Идентификатор курса из LMS
+     * @param groupId       Идентификатор группы из LMS
+     * @param cursor        Курсор из {@code nextCursor} предыдущей страницы
+     * @param size          Размер страницы
+     * @param currentUserId Идентификатор пользователя из LMS
+     * @return Модель персонализированного лидерборда {@link UserCourseGroupLeaderboardView}
+     * @throws InvalidLeaderboardCursorException если курсор некорректен
+     */
+    UserCourseGroupLeaderboardView getCourseLeaderboardForUserAfter(@NotBlank(message = "{course.id.required}") String courseId,
+                                                                    @Nullable String groupId,
+                                                                    @NotBlank(message = "{leaderboard.cursor.required}") String cursor,
+                                                                    @Min(value = 1, message = "{size.positive}") @Max(value = 100, message = "{size.too-large}") int size,
+                                                                    @NotBlank(message = "{user.id.required}") String currentUserId);
+
+    /**
+     * Получить страницу глобального лидерборда по общим очкам всех пользователей
+     * <p>
+     * Страница читается по курсору поиском по индексу {@code idx_users_points}, поэтому стоимость
+     * не зависит от её номера. Ранг строки плотный, как в {@link #getGlobalRank(String)}: одинаковые очки —
+     * одинаковое место. Ранг последней строки передаётся в курсоре, поэтому он продолжается между страницами.
+     * </p>
+     *
+     * @param cursor Курсор из {@code nextCursor} предыдущей страницы или {@code null} для первой
+     * @param size   Размер страницы
+     * @return Страница глобального лидерборда {@link GlobalLeaderboardPageView}
+     * @throws InvalidLeaderboardCursorException если курсор некорректен
+     */
+    GlobalLeaderboardPageView getGlobalLeaderboard(@Nullable String cursor,
+                                                   @Min(value = 1, message = "{size.positive}") @Max(value = 100, message = "{size.too-large}") int size);
+
+    /**
+     * Получить глобальный ранг пользователя среди всех пользователей
+     *
+     * @param userId Идентификатор пользователя из LMS
+     * @return Модель глобального ранга {@link GlobalRankView}
+     * @throws UserNotFoundException если пользователь не найден
+     */
+    GlobalRankView getGlobalRank(@NotBlank(message = "{user.id.required}") String userId);
+
+    /**
+     * Получить место пользователя на курсе в процентах от числа студентов («топ 3%»)
+     * <p>
+     * Место — количество студентов с большим количеством очков + 1. На больших курсах при включённой
+     * приближённой оценке оно оценивается по гистограмме очков за O(корзин) с заданной относительной
+     * погрешностью; начало лидерборда и малые курсы всегда считаются точно.
+     * </p>
+     *
+     * @param courseId Идентификатор курса из LMS
+     * @param userId   Идентификатор пользователя из LMS
+     * @return Модель места в процентах {@link CoursePercentileView}
+     * @throws UserNotFoundException             если пользователь не найден
+     * @throws UserNotEnrolledInCourseException если пользователь не зачислен на курс
+     */
+    CoursePercentileView getCoursePercentile(@NotBlank(message = "{course.id.required}") String courseId,
+                                             @NotBlank(message = "{user.id.required}") String userId);
 }
@@ -5,26 +5,40 @@ import lombok.extern.slf4j.Slf4j;
 import org.jspecify.annotations.Nullable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
-import ru.misis.gamification.entity.Course;
+import ru.misis.gamification.entity.LeaderboardPeriod;
 import ru.misis.gamification.entity.User;
-import ru.misis.gamification.entity.UserCourseEnrollment;
-import ru.misis.gamification.exception.CourseNotFoundException;
+import ru.misis.gamification.exception.UserNotEnrolledInCourseException;
 import ru.misis.gamification.exception.UserNotFoundException;
+import ru.misis.gamification.model.CoursePercentileView;
+import ru.misis.gamification.model.CoursePositionView;
+import ru.misis.gamification.model.CourseRanksView;
+import ru.misis.gamification.model.GlobalLeaderboardEntryView;
+import ru.misis.gamification.model.GlobalLeaderboardPageView;
+import ru.misis.gamification.model.GlobalRankView;
+import ru.misis.gamification.model.LeaderboardCursor;
 import ru.misis.gamification.model.LeaderboardEntryView;
 import ru.misis.gamification.model.LeaderboardPageView;
+import ru.misis.gamification.model.LeaderboardWindowView;
+import ru.misis.gamification.model.PersonalLeaderboardView;
 import ru.misis.gamification.model.UserCourseGroupLeaderboardView;
-import ru.misis.gamification.service.simple.course.CourseService;
+import ru.misis.gamification.model.UserSummary;
+import ru.misis.gamification.service.application.context.RequestLookupContext;
 import ru.misis.gamification.service.simple.enrollment.EnrollmentService;
-import ru.misis.gamification.service.simple.group.GroupService;
+import ru.misis.gamification.service.simple.period.CoursePeriodPointsService;
 import ru.misis.gamification.service.simple.user.UserService;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -34,14 +48,9 @@ import java.util.UUID;
 public class LeaderboardApplicationServiceImpl implements LeaderboardApplicationService {
 
     /**
-     * Сервис управления курсами (дисциплинами)
+     * Контекст поиска сущностей в рамках запроса
      */
-    private final CourseService courseService;
-
-    /**
-     * Сервис управления группами/потоками
-     */
-    private final GroupService groupService;
+    private final RequestLookupContext lookupContext;
 
     /**
      * Сервис управления пользователями
@@ -53,13 +62,24 @@ public class LeaderboardApplicationServiceImpl implements LeaderboardApplication
      */
     private final EnrollmentService enrollmentService;
 
+    /**
+     * Сервис очков по курсу за неделю и месяц
+     */
+    private final CoursePeriodPointsService periodPointsService;
+
+    /**
+     * Порядок лидерборда: по убыванию очков, при равенстве — по убыванию UUID пользователя
+     * (тот же, что при чтении по курсору)
+     */
+    private static final Sort LEADERBOARD_ORDER = Sort.by(Sort.Direction.DESC, "totalPointsInCourse", "user.uuid");
+
     @Override
     public LeaderboardPageView getGroupLeaderboard(String courseId, @Nullable String groupId, int page, int size) {
-        UUID courseUuid = courseService.getCourseUuidByExternalId(courseId);
-        UUID groupUuid = groupId != null ? groupService.getGroupUuidByExternalIdAndCourseId(groupId, courseId) : null;
+        UUID courseUuid = lookupContext.getCourse(courseId).getUuid();
+        UUID groupUuid = groupId != null ? lookupContext.getGroupUuid(groupId, courseId) : null;
 
-        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "totalPointsInCourse"));
-        Page<LeaderboardEntryView> pageResult = enrollmentService.findLeaderboardByCourseAndGroup(courseUuid, groupUuid, pageable);
+        Page<LeaderboardEntryView> pageResult = enrollmentService.findLeaderboardByCourseAndGroup(
+                courseUuid, groupUuid, PageRequest.of(page, size, LEADERBOARD_ORDER));
 
         List<LeaderboardEntryView> content = pageResult.getContent();
 
@@ -70,7 +90,74 @@ public class LeaderboardApplicationServiceImpl implements LeaderboardApplication
                 pageResult.getTotalElements(),
                 pageResult.getTotalPages(),
                 pageResult.hasNext(),
-                pageResult.hasPrevious()
+                pageResult.hasPrevious(),
+                nextCursor(pageResult)
+        );
+    }
+
+    @Override
+    public LeaderboardPageView getGroupLeaderboardAfter(String courseId, @Nullable String groupId, String cursor, int size) {
+        LeaderboardCursor after = LeaderboardCursor.decode(cursor);
+        UUID courseUuid = lookupContext.getCourse(courseId).getUuid();
+        UUID groupUuid = groupId != null ? lookupContext.getGroupUuid(groupId, courseId) : null;
+
+        Slice<LeaderboardEntryView> slice = enrollmentService.findLeaderboardAfter(courseUuid, groupUuid, after, size);
+
+        return new LeaderboardPageView(
+                slice.getContent(),
+                null,
+                size,
+                null,
+                null,
+                slice.hasNext(),
+                after.rank() > 0,
+                nextCursor(slice)
+        );
+    }
+
+    @Override
+    public LeaderboardPageView getPeriodLeaderboard(String courseId, @Nullable String groupId, LeaderboardPeriod period,
+                                                    @Nullable LocalDate date, int page, int size, String currentUserId) {
+        UUID courseUuid = lookupContext.getCourse(courseId).getUuid();
+        requireEnrollment(courseId, courseUuid, currentUserId);
+        UUID groupUuid = groupId != null ? lookupContext.getGroupUuid(groupId, courseId) : null;
+
+        Page<LeaderboardEntryView> pageResult = periodPointsService.findLeaderboard(
+                courseUuid, groupUuid, period, date != null ? date : LocalDate.now(), PageRequest.of(page, size));
+
+        return new LeaderboardPageView(
+                pageResult.getContent(),
+                pageResult.getNumber(),
+                pageResult.getSize(),
+                pageResult.getTotalElements(),
+                pageResult.getTotalPages(),
+                pageResult.hasNext(),
+                pageResult.hasPrevious(),
+                nextCursor(pageResult)
+        );
+    }
+
+    @Override
+    public LeaderboardPageView getPeriodLeaderboardAfter(String courseId, @Nullable String groupId, LeaderboardPeriod period,
+                                                         @Nullable LocalDate date, String cursor, int size,
+                                                         String currentUserId) {
+        LeaderboardCursor after = LeaderboardCursor.decode(cursor);
+        UUID courseUuid = lookupContext.getCourse(courseId).getUuid();
+        requireEnrollment(courseId, courseUuid, currentUserId);
+        UUID groupUuid = groupId != null ? lookupContext.getGroupUuid(groupId, courseId) : null;
+
+        Slice<LeaderboardEntryView> slice = periodPointsService.findLeaderboardAfter(
+                courseUuid, groupUuid, period, date != null ? date : LocalDate.now(), after, size);
+
+        return new LeaderboardPageView(
+                slice.getContent(),
+                null,
+                size,
+                null,
+                null,
+                slice.hasNext(),
+                after.rank() > 0,
+                nextCursor(slice)
         );
     }
 
@@ -79,51 +166,221 @@ public class LeaderboardApplicationServiceImpl implements LeaderboardApplication
         log.debug("Студенческий лидерборд курса: courseId={}, groupId={}, page={}, size={}, userId={}",
                 courseId, groupId, page, size, currentUserId);
 
-        UUID courseUuid = courseService.getCourseUuidByExternalId(courseId);
-        UUID groupUuid = groupId != null ? groupService.getGroupUuidByExternalIdAndCourseId(groupId, courseId) : null;
-
-        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "totalPointsInCourse"));
-        Page<LeaderboardEntryView> topPage = enrollmentService.findLeaderboardByCourseAndGroup(courseUuid, groupUuid, pageable);
-
-        LeaderboardEntryView currentUserEntry = null;
-        Long currentUserRank = null;
-        Integer currentUserPoints = null;
+        UUID courseUuid = lookupContext.getCourse(courseId).getUuid();
+        UUID groupUuid = groupId != null ? lookupContext.getGroupUuid(groupId, courseId) : null;
 
+        UUID userUuid = null;
         try {
-            User user = userService.getUserByExternalId(currentUserId);
-            Course course = courseService.findByCourseId(courseId);
-
-            if (enrollmentService.isUserEnrolledInCourse(user, course)) {
-                UserCourseEnrollment enrollment = enrollmentService.findByUserAndCourse(user, course);
-                currentUserPoints = enrollment.getTotalPointsInCourse();
-                currentUserRank = enrollmentService.getRankByPointsInCourse(courseUuid, groupUuid, user.getUuid());
-
-                currentUserEntry = new LeaderboardEntryView(
-                        user.getUuid(),
-                        currentUserId,
-                        currentUserPoints,
-                        user.getLevel(),
-                        currentUserRank,
-                        true
-                );
-            }
-        } catch (CourseNotFoundException | UserNotFoundException e) {
-            log.debug("Пользователь или курс не найден: userId={}, courseId={}", currentUserId, courseId);
+            userUuid = userService.getUserUuidByExternalId(currentUserId);
+        } catch (UserNotFoundException e) {
+            log.debug("Пользователь не найден: userId={}, courseId={}", currentUserId, courseId);
         }
 
-        List<LeaderboardEntryView> topEntries = topPage.getContent();
+        PersonalLeaderboardView leaderboard = enrollmentService.findLeaderboardForUser(
+                courseUuid, groupUuid, userUuid, PageRequest.of(page, size, LEADERBOARD_ORDER));
+        Page<LeaderboardEntryView> topPage = leaderboard.page();
+        LeaderboardEntryView currentUserEntry = leaderboard.currentUserEntry();
 
         return new UserCourseGroupLeaderboardView(
-                topEntries,
+                topPage.getContent(),
                 currentUserEntry,
-                currentUserRank,
-                currentUserPoints,
+                currentUserEntry != null ? currentUserEntry.getRank() : null,
+                currentUserEntry != null ? currentUserEntry.getPointsInCourse() : null,
                 topPage.getNumber(),
                 topPage.getSize(),
                 topPage.getTotalElements(),
                 topPage.getTotalPages(),
                 topPage.hasNext(),
-                topPage.hasPrevious()
+                topPage.hasPrevious(),
+                nextCursor(topPage)
+        );
+    }
+
+    @Override
+    public UserCourseGroupLeaderboardView getCourseLeaderboardForUserAfter(String courseId, @Nullable String groupId,
+                                                                           String cursor, int size, String currentUserId) {
+        log.debug("Студенческий лидерборд курса по курсору: courseId={}, groupId={}, size={}, userId={}",
+                courseId, groupId, size, currentUserId);
+
+        LeaderboardCursor after = LeaderboardCursor.decode(cursor);
+        UUID courseUuid = lookupContext.getCourse(courseId).getUuid();
+        UUID groupUuid = groupId != null ? lookupContext.getGroupUuid(groupId, courseId) : null;
+
+        Slice<LeaderboardEntryView> topSlice = enrollmentService.findLeaderboardAfter(courseUuid, groupUuid, after, size);
+
+        LeaderboardEntryView currentUserEntry = findCurrentUserEntry(courseId, courseUuid, groupUuid, currentUserId);
+
+        return new UserCourseGroupLeaderboardView(
+                topSlice.getContent(),
+                currentUserEntry,
+                currentUserEntry != null ? currentUserEntry.getRank() : null,
+                currentUserEntry != null ? currentUserEntry.getPointsInCourse() : null,
+                null,
+                size,
+                null,
+                null,
+                topSlice.hasNext(),
+                after.rank() > 0,
+                nextCursor(topSlice)
         );
     }
+
+    @Override
+    public LeaderboardWindowView getLeaderboardAroundUser(String courseId, @Nullable String groupId, int radius,
+                                                          String currentUserId) {
+        log.debug("Окно лидерборда вокруг пользователя: courseId={}, groupId={}, radius={}, userId={}",
+                courseId, groupId, radius, currentUserId);
+
+        UUID courseUuid = lookupContext.getCourse(courseId).getUuid();
+        UUID groupUuid = groupId != null ? lookupContext.getGroupUuid(groupId, courseId) : null;
+
+        UUID userUuid;
+        try {
+            userUuid = userService.getUserUuidByExternalId(currentUserId);
+        } catch (UserNotFoundException e) {
+            log.debug("Пользователь не найден: userId={}, courseId={}", currentUserId, courseId);
+            return new LeaderboardWindowView(List.of(), null, null);
+        }
+
+        List<LeaderboardEntryView> entries = enrollmentService.findLeaderboardAround(courseUuid, groupUuid, userUuid, radius);
+        LeaderboardEntryView currentUserEntry = entries.stream()
+                .filter(entry -> entry.getUserUuid().equals(userUuid))
+                .findFirst()
+                .orElse(null);
+        if (currentUserEntry == null) {
+            return new LeaderboardWindowView(List.of(), null, null);
+        }
+
+        currentUserEntry.setIsCurrentUser(true);
+        return new LeaderboardWindowView(entries, currentUserEntry.getRank(), currentUserEntry.getPointsInCourse());
+    }
+
+    @Override
+    public CourseRanksView getRanks(String courseId, @Nullable String groupId, Collection<String> userIds) {
+        log.debug("Ранги студентов: courseId={}, groupId={}, users={}", courseId, groupId, userIds.size());
+
+        UUID courseUuid = lookupContext.getCourse(courseId).getUuid();
+        UUID groupUuid = groupId != null ? lookupContext.getGroupUuid(groupId, courseId) : null;
+
+        List<UUID> userUuids = userService.getUsersByExternalIds(userIds).stream().map(User::getUuid).toList();
+        List<LeaderboardEntryView> entries = enrollmentService.findRanksByUsers(courseUuid, groupUuid, userUuids);
+
+        Set<String> ranked = entries.stream().map(LeaderboardEntryView::getUserId).collect(Collectors.toSet());
+        List<String> missingUserIds = userIds.stream()
+                .distinct()
+                .filter(userId -> !ranked.contains(userId))
+                .toList();
+
+        return new CourseRanksView(entries, missingUserIds);
+    }
+
+    @Override
+    public GlobalLeaderboardPageView getGlobalLeaderboard(@Nullable String cursor, int size) {
+        LeaderboardCursor after = cursor != null ? LeaderboardCursor.decode(cursor) : LeaderboardCursor.FIRST;
+
+        List<UserSummary> rows = userService.findGlobalLeaderboardAfter(after.pointsInCourse(), after.userUuid(), size + 1);
+        boolean hasNext = rows.size() > size;
+        List<GlobalLeaderboardEntryView> content = new ArrayList<>(Math.min(rows.size(), size));
+        long rank = after.rank();
+        int previousPoints = after.pointsInCourse();
+        for (UserSummary row : hasNext ? rows.subList(0, size) : rows) {
+            if (row.totalPoints() != previousPoints) {
+                rank++;
+                previousPoints = row.totalPoints();
+            }
+            content.add(new GlobalLeaderboardEntryView(row.uuid(), row.userId(), row.totalPoints(), row.level(), rank));
+        }
+
+        String nextCursor = null;
+        if (hasNext) {
+            GlobalLeaderboardEntryView last = content.getLast();
+            nextCursor = new LeaderboardCursor(last.totalPoints(), last.userUuid(), last.rank()).encode();
+        }
+        return new GlobalLeaderboardPageView(content, size, hasNext, nextCursor);
+    }
+
+    @Override
+    public GlobalRankView getGlobalRank(String userId) {
+        log.debug("Глобальный ранг пользователя: userId={}", userId);
+
+        User user = lookupContext.getUser(userId);
+        return new GlobalRankView(
+                user.getUserId(),
+                user.getTotalPoints(),
+                user.getLevel(),
+                userService.getGlobalRank(user.getTotalPoints()),
+                userService.countUsers()
+        );
+    }
+
+    @Override
+    public CoursePercentileView getCoursePercentile(String courseId, String userId) {
+        log.debug("Место пользователя на курсе в процентах: courseId={}, userId={}", courseId, userId);
+
+        UUID courseUuid = lookupContext.getCourse(courseId).getUuid();
+        UUID userUuid = userService.getUserUuidByExternalId(userId);
+        int pointsInCourse = enrollmentService.findPointsInCourse(userUuid, courseUuid)
+                .orElseThrow(() -> new UserNotEnrolledInCourseException(userId, courseId));
+
+        CoursePositionView position = enrollmentService.getPositionInCourse(courseUuid, pointsInCourse);
+        double topPercent = Math.ceil(position.rank() * 10000.0 / Math.max(position.enrollments(), 1)) / 100;
+
+        return new CoursePercentileView(
+                userId,
+                courseId,
+                pointsInCourse,
+                position.rank(),
+                position.enrollments(),
+                Math.min(topPercent, 100.0),
+                position.approximate()
+        );
+    }
+
+    /**
+     * Проверить, что пользователь зачислен на курс
+     *
+     * @throws UserNotFoundException             если пользователь не найден
+     * @throws UserNotEnrolledInCourseException если пользователь не зачислен на курс
+     */
+    private void requireEnrollment(String courseId, UUID courseUuid, String userId) {
+        UUID userUuid = userService.getUserUuidByExternalId(userId);
+        if (enrollmentService.findPointsInCourse(userUuid, courseUuid).isEmpty()) {
+            throw new UserNotEnrolledInCourseException(userId, courseId);
+        }
+    }
+
+    /**
+     * Получить строку лидерборда текущего пользователя с плотным рангом в курсе или группе
+     *
+     * @return Строка лидерборда или {@code null}, если пользователь не найден или не входит в лидерборд
+     */
+    private LeaderboardEntryView findCurrentUserEntry(String courseId, UUID courseUuid, @Nullable UUID groupUuid,
+                                                      String currentUserId) {
+        UUID userUuid;
+        try {
+            userUuid = userService.getUserUuidByExternalId(currentUserId);
+        } catch (UserNotFoundException e) {
+            log.debug("Пользователь не найден: userId={}, courseId={}", currentUserId, courseId);
+            return null;
+        }
+
+        LeaderboardEntryView entry = enrollmentService.findRanksByUsers(courseUuid, groupUuid, List.of(userUuid))
+                .stream()
+                .findFirst()
+                .orElse(null);
+        if (entry != null) {
+            entry.setIsCurrentUser(true);
+        }
+        return entry;
+    }
+
+    /**
+     * Курсор после последней строки страницы, если за ней есть следующая
+     */
+    private static String nextCursor(Slice<LeaderboardEntryView> slice) {
+        if (!slice.hasNext() || !slice.hasContent()) {
+            return null;
+        }
+        return LeaderboardCursor.after(slice.getContent().getLast()).encode();
+    }
 }
@@ -0,0 +1,67 @@
+package ru.misis.gamification.service.application.user;
+
+import ru.misis.gamification.dto.admin.response.LevelRecalculationJobDto;
+import ru.misis.gamification.exception.LevelRecalculationJobNotFoundException;
+
+import java.util.UUID;
+
+/**
+ * Фасадный сервис пересчёта сохранённых уровней пользователей после смены формулы уровней
+ * <p>
+ * Пересчёт выполняется в фоне: пользователи читаются страницами по возрастанию UUID,
+ * страница делится на пачки, которые рассчитываются параллельно и записываются отдельными
+ * короткими транзакциями — только изменившиеся уровни и только если очки не изменились с момента чтения.
+ * После каждой страницы сохраняется точка продолжения, поэтому прерванная задача продолжается
+ * с места остановки. Скорость ограничивается, а при накоплении очереди начислений задача приостанавливается.
+ * </p>
+ */
+public interface LevelRecalculationApplicationService {
+
+    /**
+     * Запустить пересчёт уровней по действующей формуле
+     * <p>
+     * Если задача уже выполняется, новая не создаётся — возвращается выполняющаяся.
+     * </p>
+     *
+     * @return Состояние задачи
+     */
+    LevelRecalculationJobDto start();
+
+    /**
+     * Получить состояние задачи
+     *
+     * @param jobUuid UUID задачи
+     * @return Состояние задачи
+     * @throws LevelRecalculationJobNotFoundException если задача не найдена
+     */
+    LevelRecalculationJobDto getJob(UUID jobUuid);
+
+    /**
+     * Получить состояние последней запущенной задачи
+     *
+     * @return Состояние задачи
+     * @throws LevelRecalculationJobNotFoundException если задачи не запускались
+     */
+    LevelRecalculationJobDto getLatest();
+
+    /**
+     * Отменить задачу
+     * <p>
+     * Выполняющий экземпляр останавливается после текущей страницы. Уже записанные уровни остаются.
+     * </p>
+     *
+     * @param jobUuid UUID задачи
+     * @return Состояние задачи
+     * @throws LevelRecalculationJobNotFoundException если задача не найдена
+     */
+    LevelRecalculationJobDto cancel(UUID jobUuid);
+
+    /**
+     * Продолжить задачу, прерванную остановкой экземпляра
+     * <p>
+     * Задача считается прерванной, если выполнявший её экземпляр не отмечался дольше таймаута.
+     * Если с момента прерывания сменилась формула уровней, задача начинается заново.
+     * </p>
+     */
+    void resumeStale();
+}
@@ -0,0 +1,409 @@
+package ru.misis.gamification.service.application.user;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import ru.misis.gamification.dto.admin.response.LevelRecalculationJobDto;
+import ru.misis.gamification.entity.LevelRecalculationJob;
+import ru.misis.gamification.exception.LevelRecalculationJobNotFoundException;
+import ru.misis.gamification.mapper.LevelRecalculationJobMapper;
+import ru.misis.gamification.model.UserPointsView;
+import ru.misis.gamification.service.application.awarding.AwardLaneExecutor;
+import ru.misis.gamification.service.simple.progress.LevelCalculatorService;
+import ru.misis.gamification.service.simple.progress.LevelRecalculationJobService;
+import ru.misis.gamification.service.simple.user.UserService;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Service
+@Slf4j
+public class LevelRecalculationApplicationServiceImpl implements LevelRecalculationApplicationService {
+
+    /**
+     * Начальная точка обхода: наименьший UUID
+     */
+    static final UUID FIRST_USER = new UUID(0L, 0L);
+
+    /**
+     * Сервис задач пересчёта уровней
+     */
+    private final LevelRecalculationJobService jobService;
+
+    /**
+     * Сервис управления пользователями
+     */
+    private final UserService userService;
+
+    /**
+     * Сервис расчёта уровней
+     */
+    private final LevelCalculatorService levelCalculatorService;
+
+    /**
+     * Исполнитель начислений: по размеру его очередей задача уступает начислениям
+     */
+    private final AwardLaneExecutor awardLaneExecutor;
+
+    /**
+     * Маппер задач пересчёта уровней
+     */
+    private final LevelRecalculationJobMapper jobMapper;
+
+    /**
+     * Пользователей в одной пачке записи
+     */
+    private final int chunkSize;
+
+    /**
+     * Количество пачек, рассчитываемых параллельно
+     */
+    private final int parallelism;
+
+    /**
+     * Ограничение скорости, пользователей в секунду (0 — без ограничения)
+     */
+    private final int maxUsersPerSecond;
+
+    /**
+     * Размер очереди начислений, при превышении которого задача приостанавливается
+     */
+    private final int backlogThreshold;
+
+    /**
+     * Пауза при накопленной очереди начислений
+     */
+    private final long backoffMs;
+
+    /**
+     * Время без отметки, после которого задача считается прерванной
+     */
+    private final Duration staleTimeout;
+
+    /**
+     * Периодичность записи прогресса в лог, пользователей
+     */
+    private final long progressLogInterval;
+
+    /**
+     * Потоки расчёта и записи пачек
+     */
+    private final ExecutorService workers;
+
+    /**
+     * Задача, выполняемая этим экземпляром
+     */
+    private final AtomicReference<UUID> activeJob = new AtomicReference<>();
+
+    private final Counter processedUsers;
+
+    private final Counter changedLevels;
+
+    private final Counter backoffs;
+
+    public LevelRecalculationApplicationServiceImpl(
+            LevelRecalculationJobService jobService,
+            UserService userService,
+            LevelCalculatorService levelCalculatorService,
+            AwardLaneExecutor awardLaneExecutor,
+            LevelRecalculationJobMapper jobMapper,
+            MeterRegistry meterRegistry,
+            @Value("${gamification.features.level-recalculation.chunk-size:1000}") int chunkSize,
+            @Value("${gamification.features.level-recalculation.parallelism:2}") int parallelism,
+            @Value("${gamification.features.level-recalculation.max-users-per-second:20000}") int maxUsersPerSecond,
+            @Value("${gamification.features.level-recalculation.backlog-threshold:1000}") int backlogThreshold,
+            @Value("${gamification.features.level-recalculation.backoff-ms:500}") long backoffMs,
+            @Value("${gamification.features.level-recalculation.stale-timeout-ms:120000}") long staleTimeoutMs,
+            @Value("${gamification.features.level-recalculation.progress-log-interval:100000}") long progressLogInterval) {
+        this.jobService = jobService;
+        this.userService = userService;
+        this.levelCalculatorService = levelCalculatorService;
+        this.awardLaneExecutor = awardLaneExecutor;
+        this.jobMapper = jobMapper;
+        this.chunkSize = Math.max(chunkSize, 1);
+        this.parallelism = Math.max(parallelism, 1);
+        this.maxUsersPerSecond = maxUsersPerSecond;
+        this.backlogThreshold = backlogThreshold;
+        this.backoffMs = backoffMs;
+        this.staleTimeout = Duration.ofMillis(staleTimeoutMs);
+        this.progressLogInterval = Math.max(progressLogInterval, 1);
+        this.workers = Executors.newFixedThreadPool(this.parallelism,
+                Thread.ofPlatform().name("level-recalculation-", 0).daemon().factory());
+
+        this.processedUsers = Counter.builder("gamification.level.recalculation.users")
+                .description("Пользователи, обработанные пересчётом уровней")
+                .tag("result", "processed")
+                .register(meterRegistry);
+        this.changedLevels = Counter.builder("gamification.level.recalculation.users")
+                .description("Пользователи, обработанные пересчётом уровней")
+                .tag("result", "changed")
+                .register(meterRegistry);
+        this.backoffs = Counter.builder("gamification.level.recalculation.backoffs")
+                .description("Паузы пересчёта уровней из-за очереди начислений")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public LevelRecalculationJobDto start() {
+        Optional<LevelRecalculationJob> running = jobService.findRunning();
+        if (running.isPresent()) {
+            log.info("Пересчёт уровней уже выполняется: uuid={}", running.get().getUuid());
+            resumeStale();
+            return jobMapper.toDto(jobService.getById(running.get().getUuid()));
+        }
+
+        String formula = levelCalculatorService.getCurveSignature();
+        LevelRecalculationJob job;
+        try {
+            job = jobService.create(formula, userService.count());
+        } catch (DataIntegrityViolationException e) {
+            log.info("Пересчёт уровней одновременно запущен другим запросом");
+            return jobMapper.toDto(jobService.findRunning().orElseThrow(() -> e));
+        }
+
+        if (!launch(job.getUuid(), null)) {
+            log.warn("Экземпляр ещё завершает предыдущую задачу, задача {} будет продолжена проверкой прерванных задач",
+                    job.getUuid());
+        }
+        return jobMapper.toDto(job);
+    }
+
+    @Override
+    public LevelRecalculationJobDto getJob(UUID jobUuid) {
+        return jobMapper.toDto(jobService.getById(jobUuid));
+    }
+
+    @Override
+    public LevelRecalculationJobDto getLatest() {
+        return jobService.findLatest()
+                .map(jobMapper::toDto)
+                .orElseThrow(LevelRecalculationJobNotFoundException::new);
+    }
+
+    @Override
+    public LevelRecalculationJobDto cancel(UUID jobUuid) {
+        if (jobService.cancel(jobUuid)) {
+            log.info("Пересчёт уровней отменён: uuid={}", jobUuid);
+        }
+        return jobMapper.toDto(jobService.getById(jobUuid));
+    }
+
+    @Override
+    public void resumeStale() {
+        if (activeJob.get() != null) {
+            return;
+        }
+
+        for (LevelRecalculationJob job : jobService.findStale(staleTimeout)) {
+            if (!jobService.claim(job.getUuid(), staleTimeout)) {
+                continue;
+            }
+
+            UUID after = job.getLastUserUuid();
+            String formula = levelCalculatorService.getCurveSignature();
+            if (!formula.equals(job.getFormula())) {
+                log.warn("Формула уровней изменилась с {} на {}, пересчёт {} начат заново",
+                        job.getFormula(), formula, job.getUuid());
+                jobService.restart(job.getUuid(), formula);
+                after = null;
+            }
+
+            log.info("Продолжение прерванного пересчёта уровней: uuid={}, обработано={}, после={}",
+                    job.getUuid(), job.getProcessed(), after);
+            launch(job.getUuid(), after);
+            return;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * Запустить выполнение задачи в фоне, если этот экземпляр не выполняет другую
+     *
+     * @param jobUuid UUID задачи
+     * @param after   Точка продолжения; null — с первого пользователя
+     * @return true — задача запущена
+     */
+    private boolean launch(UUID jobUuid, UUID after) {
+        if (!activeJob.compareAndSet(null, jobUuid)) {
+            return false;
+        }
+
+        Thread.ofVirtual().name("level-recalculation-" + jobUuid).start(() -> {
+            try {
+                run(jobUuid, after);
+            } finally {
+                activeJob.set(null);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Выполнить задачу: страница за страницей до последнего пользователя
+     */
+    void run(UUID jobUuid, UUID after) {
+        long started = System.nanoTime();
+        long processed = 0;
+        long changed = 0;
+        long nextLog = progressLogInterval;
+        int pageSize = chunkSize * parallelism;
+        UUID cursor = after != null ? after : FIRST_USER;
+
+        log.info("Пересчёт уровней начат: uuid={}, формула={}, страница={}, пачка={}, ограничение={} польз./с",
+                jobUuid, levelCalculatorService.getCurveSignature(), pageSize, chunkSize, maxUsersPerSecond);
+
+        try {
+            while (true) {
+                if (!awaitAwardBacklog(jobUuid)) {
+                    log.info("Пересчёт уровней остановлен: задача {} отменена", jobUuid);
+                    return;
+                }
+
+                long pageStarted = System.nanoTime();
+                List<UserPointsView> page = userService.findPointsAfter(cursor, pageSize);
+                if (page.isEmpty()) {
+                    break;
+                }
+
+                int pageChanged = recalculatePage(page);
+                cursor = page.getLast().getUuid();
+                if (!jobService.checkpoint(jobUuid, cursor, page.size(), pageChanged)) {
+                    log.info("Пересчёт уровней остановлен: задача {} отменена", jobUuid);
+                    return;
+                }
+
+                processed += page.size();
+                changed += pageChanged;
+                processedUsers.increment(page.size());
+                changedLevels.increment(pageChanged);
+                if (processed >= nextLog) {
+                    log.info("Пересчёт уровней {}: обработано={}, изменено={}, {} польз./с",
+                            jobUuid, processed, changed, String.format("%.0f", rate(processed, started)));
+                    nextLog += progressLogInterval;
+                }
+
+                if (page.size() < pageSize) {
+                    break;
+                }
+                throttle(page.size(), pageStarted);
+            }
+
+            jobService.complete(jobUuid);
+            log.info("Пересчёт уровней завершён: uuid={}, обработано={}, изменено={}, за {} мс",
+                    jobUuid, processed, changed, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Пересчёт уровней прерван остановкой экземпляра: uuid={}, будет продолжен с {}", jobUuid, cursor);
+        } catch (RuntimeException e) {
+            log.error("Ошибка пересчёта уровней: uuid={}, после={}: {}", jobUuid, cursor, e.getMessage(), e);
+            jobService.fail(jobUuid, e.getMessage());
+        }
+    }
+
+    /**
+     * Рассчитать уровни страницы параллельными пачками и записать изменившиеся
+     *
+     * @return Количество изменённых уровней
+     */
+    private int recalculatePage(List<UserPointsView> page) {
+        List<CompletableFuture<Integer>> futures = new ArrayList<>(parallelism);
+        for (int from = 0; from < page.size(); from += chunkSize) {
+            List<UserPointsView> chunk = page.subList(from, Math.min(from + chunkSize, page.size()));
+            futures.add(CompletableFuture.supplyAsync(() -> recalculateChunk(chunk), workers));
+        }
+
+        int changed = 0;
+        try {
+            for (CompletableFuture<Integer> future : futures) {
+                changed += future.join();
+            }
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+        return changed;
+    }
+
+    /**
+     * Рассчитать уровни пачки и записать только изменившиеся одним запросом
+     */
+    private int recalculateChunk(List<UserPointsView> chunk) {
+        int[] points = new int[chunk.size()];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = chunk.get(i).getTotalPoints();
+        }
+        int[] levels = levelCalculatorService.calculateLevels(points);
+
+        UUID[] changedUuids = new UUID[chunk.size()];
+        int[] changedPoints = new int[chunk.size()];
+        int[] changedLevels = new int[chunk.size()];
+        int count = 0;
+        for (int i = 0; i < levels.length; i++) {
+            if (levels[i] != chunk.get(i).getLevel()) {
+                changedUuids[count] = chunk.get(i).getUuid();
+                changedPoints[count] = points[i];
+                changedLevels[count] = levels[i];
+                count++;
+            }
+        }
+        if (count == 0) {
+            return 0;
+        }
+
+        return userService.updateLevelsIfPointsUnchanged(Arrays.copyOf(changedUuids, count),
+                Arrays.copyOf(changedPoints, count), Arrays.copyOf(changedLevels, count));
+    }
+
+    /**
+     * Дождаться, пока очередь начислений не опустится ниже порога, отмечая задачу во время ожидания
+     *
+     * @return false — задача отменена во время ожидания
+     */
+    private boolean awaitAwardBacklog(UUID jobUuid) throws InterruptedException {
+        while (awardLaneExecutor.queuedTasks() > backlogThreshold) {
+            backoffs.increment();
+            log.debug("Пересчёт уровней приостановлен: в очереди начислений {} задач", awardLaneExecutor.queuedTasks());
+            Thread.sleep(backoffMs);
+            if (!jobService.heartbeat(jobUuid)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Выдержать паузу, чтобы скорость не превышала ограничение
+     */
+    private void throttle(int pageUsers, long pageStarted) throws InterruptedException {
+        if (maxUsersPerSecond <= 0) {
+            return;
+        }
+        long minNanos = TimeUnit.SECONDS.toNanos(pageUsers) / maxUsersPerSecond;
+        long remaining = minNanos - (System.nanoTime() - pageStarted);
+        if (remaining > 0) {
+            TimeUnit.NANOSECONDS.sleep(remaining);
+        }
+    }
+
+    private static double rate(long users, long started) {
+        double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+        return seconds > 0 ? users / seconds : users;
+    }
+}
@@ -0,0 +1,37 @@
+package ru.misis.gamification.service.application.user;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Фоновое продолжение задач пересчёта уровней, прерванных остановкой экземпляра
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LevelRecalculationWorker {
+
+    /**
+     * Фасадный сервис пересчёта уровней
+     */
+    private final LevelRecalculationApplicationService recalculationService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        resumeStale();
+    }
+
+    @Scheduled(fixedDelayString = "${gamification.features.level-recalculation.stale-check-interval-ms:60000}",
+            initialDelayString = "${gamification.features.level-recalculation.stale-check-interval-ms:60000}")
+    public void resumeStale() {
+        try {
+            recalculationService.resumeStale();
+        } catch (Exception e) {
+            log.error("Ошибка при продолжении прерванной задачи пересчёта уровней", e);
+        }
+    }
+}
@@ -3,14 +3,20 @@ package ru.misis.gamification.service.application.user;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 import ru.misis.gamification.entity.User;
 import ru.misis.gamification.model.UserAdminView;
+import ru.misis.gamification.model.UserProgressView;
+import ru.misis.gamification.service.application.context.RequestLookupContext;
 import ru.misis.gamification.service.simple.user.UserService;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
@@ -23,6 +29,11 @@ public class UserAdminApplicationServiceImpl implements UserAdminApplicationServ
      */
     private final UserService userService;
 
+    /**
+     * Контекст поиска сущностей в рамках запроса
+     */
+    private final RequestLookupContext lookupContext;
+
     /**
      * Фасадный сервис управления прогрессом очков и уровня пользователей
      */
@@ -30,9 +41,9 @@ public class UserAdminApplicationServiceImpl implements UserAdminApplicationServ
 
     @Override
     public UserAdminView findByUserId(String userId) {
-        User user = userService.getUserByExternalId(userId);
+        User user = lookupContext.getUser(userId);
         log.debug("Админ запросил пользователя: userId={}", userId);
-        return toUserAdminView(user);
+        return toUserAdminView(user, progressApplicationService.getProgress(user));
     }
 
     @Override
@@ -43,12 +54,19 @@ public class UserAdminApplicationServiceImpl implements UserAdminApplicationServ
         String normalizedCourseId = (courseId == null || courseId.trim().isEmpty()) ? null : courseId.trim();
         String normalizedGroupId = (groupId == null || groupId.trim().isEmpty()) ? null : groupId.trim();
 
-        return userService.findAll(normalizedCourseId, normalizedGroupId, pageable)
-                .map(this::toUserAdminView);
+        Page<User> users = userService.findAll(normalizedCourseId, normalizedGroupId, pageable);
+        List<UserProgressView> progress = users.hasContent()
+                ? progressApplicationService.getProgress(users.getContent())
+                : List.of();
+
+        List<UserAdminView> views = new ArrayList<>(progress.size());
+        for (int i = 0; i < progress.size(); i++) {
+            views.add(toUserAdminView(users.getContent().get(i), progress.get(i)));
+        }
+        return new PageImpl<>(views, users.getPageable(), users.getTotalElements());
     }
 
-    private UserAdminView toUserAdminView(User user) {
-        var progress = progressApplicationService.getProgress(user.getUserId());
+    private UserAdminView toUserAdminView(User user, UserProgressView progress) {
         return new UserAdminView(
                 user.getUuid(),
                 user.getUserId(),
@@ -1,7 +1,10 @@
 package ru.misis.gamification.service.application.user;
 
+import ru.misis.gamification.entity.User;
 import ru.misis.gamification.model.UserProgressView;
 
+import java.util.List;
+
 /**
  * Фасадный сервис управления прогрессом очков и уровня пользователей
  */
@@ -14,4 +17,20 @@ public interface UserProgressApplicationService {
      * @return Модель прогресса пользователя
      */
     UserProgressView getProgress(String userId);
+
+    /**
+     * Получить прогресс уже загруженного пользователя без повторного поиска
+     *
+     * @param user Пользователь
+     * @return Модель прогресса пользователя
+     */
+    UserProgressView getProgress(User user);
+
+    /**
+     * Получить прогресс набора уже загруженных пользователей одним расчётом
+     *
+     * @param users Пользователи
+     * @return Модели прогресса в том же порядке
+     */
+    List<UserProgressView> getProgress(List<User> users);
 }
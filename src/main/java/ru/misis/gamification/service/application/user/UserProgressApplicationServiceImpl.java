@@ -9,8 +9,11 @@ import org.springframework.validation.annotation.Validated;
 import ru.misis.gamification.entity.User;
 import ru.misis.gamification.model.ProgressMetrics;
 import ru.misis.gamification.model.UserProgressView;
+import ru.misis.gamification.service.application.context.RequestLookupContext;
 import ru.misis.gamification.service.simple.progress.LevelCalculatorService;
-import ru.misis.gamification.service.simple.user.UserService;
+
+import java.util.ArrayList;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
@@ -20,9 +23,9 @@ import ru.misis.gamification.service.simple.user.UserService;
 public class UserProgressApplicationServiceImpl implements UserProgressApplicationService {
 
     /**
-     * Сервис управления пользователями
+     * Контекст поиска сущностей в рамках запроса
      */
-    private final UserService userService;
+    private final RequestLookupContext lookupContext;
 
     /**
      * Сервис расчета уровня пользователя на основе накопленных очков
@@ -40,8 +43,34 @@ public class UserProgressApplicationServiceImpl implements UserProgressApplicati
 
     @Override
     public UserProgressView getProgress(String userId) {
-        User user = userService.getUserByExternalId(userId);
-        ProgressMetrics metrics = calculateMetrics(user);
+        return getProgress(lookupContext.getUser(userId));
+    }
+
+    @Override
+    public UserProgressView getProgress(User user) {
+        int safeLevel = user.getLevel() != null ? user.getLevel() : defaultLevel;
+        return toView(user, levelCalculator.pointsToNextLevel(safeLevel));
+    }
+
+    @Override
+    public List<UserProgressView> getProgress(List<User> users) {
+        int[] levels = new int[users.size()];
+        for (int i = 0; i < levels.length; i++) {
+            Integer level = users.get(i).getLevel();
+            levels[i] = level != null ? level : defaultLevel;
+        }
+
+        long[] pointsToNext = levelCalculator.pointsToNextLevels(levels);
+
+        List<UserProgressView> result = new ArrayList<>(users.size());
+        for (int i = 0; i < levels.length; i++) {
+            result.add(toView(users.get(i), pointsToNext[i]));
+        }
+        return result;
+    }
+
+    private UserProgressView toView(User user, long pointsToNext) {
+        ProgressMetrics metrics = calculateMetrics(user, pointsToNext);
 
         int safePoints = user.getTotalPoints() != null ? user.getTotalPoints() : defaultPoints;
         int safeLevel = user.getLevel() != null ? user.getLevel() : defaultLevel;
@@ -55,11 +84,9 @@ public class UserProgressApplicationServiceImpl implements UserProgressApplicati
         );
     }
 
-    private ProgressMetrics calculateMetrics(User user) {
+    private ProgressMetrics calculateMetrics(User user, long pointsToNext) {
         int points = user.getTotalPoints() != null ? user.getTotalPoints() : defaultPoints;
-        int level = user.getLevel() != null ? user.getLevel() : defaultLevel;
 
-        long pointsToNext = levelCalculator.pointsToNextLevel(level);
         double percent = pointsToNext > 0
                 ? Math.min((double) points / pointsToNext * 100, maxProgress)
                 : maxProgress;
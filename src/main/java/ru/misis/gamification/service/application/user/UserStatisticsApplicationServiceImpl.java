@@ -15,10 +15,10 @@ import ru.misis.gamification.model.UserCourseSummary;
 import ru.misis.gamification.model.UserCoursesView;
 import ru.misis.gamification.model.UserProgressView;
 import ru.misis.gamification.model.UserStatisticsView;
+import ru.misis.gamification.service.application.context.RequestLookupContext;
 import ru.misis.gamification.service.simple.course.CourseService;
 import ru.misis.gamification.service.simple.enrollment.EnrollmentService;
 import ru.misis.gamification.service.simple.group.GroupService;
-import ru.misis.gamification.service.simple.user.UserService;
 
 import java.util.List;
 import java.util.UUID;
@@ -31,9 +31,9 @@ import java.util.UUID;
 public class UserStatisticsApplicationServiceImpl implements UserStatisticsApplicationService {
 
     /**
-     * Сервис управления пользователями
+     * Контекст поиска сущностей в рамках запроса
      */
-    private final UserService userService;
+    private final RequestLookupContext lookupContext;
 
     /**
      * Сервис управления курсами
@@ -57,16 +57,16 @@ public class UserStatisticsApplicationServiceImpl implements UserStatisticsAppli
 
     @Override
     public UserStatisticsView getUserStatistics(String userId, String courseId, String groupId) {
-        User user = userService.getUserByExternalId(userId);
+        User user = lookupContext.getUser(userId);
 
-        Course course = courseService.findByCourseId(courseId);
+        Course course = lookupContext.getCourse(courseId);
         if (course == null) {
             throw new CourseNotFoundException(courseId);
         }
 
         UUID courseUuid = course.getUuid();
         UUID groupUuid = (groupId != null)
-                ? groupService.getGroupUuidByExternalIdAndCourseId(groupId, courseId)
+                ? lookupContext.getGroupUuid(groupId, courseId)
                 : null;
 
         if (!enrollmentService.isUserEnrolledInCourse(user, course)) {
@@ -80,7 +80,7 @@ public class UserStatisticsApplicationServiceImpl implements UserStatisticsAppli
                 ? enrollmentService.getRankByPointsInCourse(courseUuid, groupUuid, user.getUuid())
                 : null;
 
-        UserProgressView progress = progressApplicationService.getProgress(userId);
+        UserProgressView progress = progressApplicationService.getProgress(user);
 
         return new UserStatisticsView(
                 userId,
@@ -98,9 +98,9 @@ public class UserStatisticsApplicationServiceImpl implements UserStatisticsAppli
 
     @Override
     public UserCoursesView getUserCourses(String userId) {
-        User user = userService.getUserByExternalId(userId);
+        User user = lookupContext.getUser(userId);
 
-        UserProgressView progress = progressApplicationService.getProgress(userId);
+        UserProgressView progress = progressApplicationService.getProgress(user);
         List<UserCourseEnrollment> enrollments = enrollmentService.findAllByUser(user);
 
         List<UserCourseSummary> courses = enrollments.stream()
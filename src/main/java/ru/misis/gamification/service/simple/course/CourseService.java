@@ -6,6 +6,8 @@ import jakarta.validation.constraints.NotNull;
 import ru.misis.gamification.entity.Course;
 import ru.misis.gamification.exception.CourseNotFoundException;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -42,6 +44,15 @@ public interface CourseService {
      */
     Course findByCourseId(@NotBlank(message = "{course.id.required}") String courseId);
 
+    /**
+     * Получить курсы по набору идентификаторов из LMS
+     *
+     * @param courseIds Идентификаторы курсов из LMS
+     * @return Список найденных курсов (отсутствующие пропускаются)
+     * @throws ConstraintViolationException если courseIds == null
+     */
+    List<Course> findAllByCourseIds(@NotNull(message = "{course.ids.required}") Collection<String> courseIds);
+
     /**
      * Получить курс по UUID
      *
@@ -10,6 +10,8 @@ import ru.misis.gamification.entity.Course;
 import ru.misis.gamification.exception.CourseNotFoundException;
 import ru.misis.gamification.repository.CourseRepository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 @Service
@@ -25,18 +27,27 @@ public class CourseServiceImpl implements CourseService {
 
     @Override
     public boolean existsByCourseId(@NotBlank(message = "{course.id.required}") String courseId) {
-        return courseRepository.existsByCourseId(courseId);
+        return courseRepository.findByNaturalId(courseId).isPresent();
     }
 
     @Override
     public UUID getCourseUuidByExternalId(@NotBlank(message = "{course.id.required}") String courseId) {
-        return courseRepository.findUuidByCourseId(courseId)
+        return courseRepository.findByNaturalId(courseId)
+                .map(Course::getUuid)
                 .orElseThrow(() -> new CourseNotFoundException(courseId));
     }
 
     @Override
     public Course findByCourseId(@NotBlank(message = "{course.id.required}") String courseId) {
-        return courseRepository.findByCourseId(courseId).orElseThrow(() -> new CourseNotFoundException(courseId));
+        return courseRepository.findByNaturalId(courseId).orElseThrow(() -> new CourseNotFoundException(courseId));
+    }
+
+    @Override
+    public List<Course> findAllByCourseIds(@NotNull(message = "{course.ids.required}") Collection<String> courseIds) {
+        if (courseIds.isEmpty()) {
+            return List.of();
+        }
+        return courseRepository.findAllByCourseIdIn(courseIds);
     }
 
     @Override
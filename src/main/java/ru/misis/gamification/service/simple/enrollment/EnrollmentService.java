@@ -4,13 +4,22 @@ import jakarta.validation.ConstraintViolationException;
 import jakarta.validation.constraints.NotNull;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import ru.misis.gamification.entity.Course;
 import ru.misis.gamification.entity.User;
 import ru.misis.gamification.entity.UserCourseEnrollment;
 import ru.misis.gamification.exception.UserCourseEnrollmentNotFoundException;
+import ru.misis.gamification.model.CoursePositionView;
+import ru.misis.gamification.model.EnrollmentKeyView;
+import ru.misis.gamification.model.LeaderboardCursor;
 import ru.misis.gamification.model.LeaderboardEntryView;
+import ru.misis.gamification.model.PersonalLeaderboardView;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -43,6 +52,11 @@ public interface EnrollmentService {
 
     /**
      * Получить страницу лидерборда студентов на курсе
+     * <p>
+     * Если включён индекс лидербордов в памяти, порядок и общее количество берутся из него,
+     * а из БД по первичному ключу загружаются только строки страницы. Иначе, если снимок рангов свежий,
+     * страница читается из него по позиции (очки и ранги — на момент снимка).
+     * </p>
      *
      * @param courseUuid UUID курса
      * @param groupUuid  UUID группы
@@ -51,6 +65,58 @@ public interface EnrollmentService {
      */
     Page<LeaderboardEntryView> findLeaderboardByCourseAndGroup(UUID courseUuid, UUID groupUuid, Pageable pageable);
 
+    /**
+     * Получить страницу лидерборда курса или группы вместе со строкой пользователя
+     * <p>
+     * Если включён индекс лидербордов в памяти, порядок, общее количество и ранг пользователя берутся
+     * из него, а строки страницы и пользователя загружаются из БД одним запросом по первичному ключу.
+     * Иначе страница, общее количество и строка пользователя с рангом читаются одним запросом
+     * с оконными функциями.
+     * </p>
+     *
+     * @param courseUuid UUID курса
+     * @param groupUuid  UUID группы (может быть {@code null} для общего лидерборда курса)
+     * @param userUuid   UUID пользователя или {@code null}, если пользователь не найден
+     * @param pageable   Параметры пагинации (сортировка не учитывается)
+     * @return Страница лидерборда (ранг строки — её позиция) и строка пользователя с плотным рангом
+     */
+    PersonalLeaderboardView findLeaderboardForUser(@NotNull(message = "{course.uuid.required}") UUID courseUuid,
+                                                   UUID groupUuid, UUID userUuid, Pageable pageable);
+
+    /**
+     * Получить страницу лидерборда студентов на курсе, следующую за курсором
+     * <p>
+     * Страница находится поиском по индексу без OFFSET и без подсчёта общего количества,
+     * поэтому любая страница стоит столько же, сколько первая. Ранги продолжаются от ранга курсора.
+     * </p>
+     *
+     * @param courseUuid UUID курса
+     * @param groupUuid  UUID группы (может быть {@code null} для общего лидерборда курса)
+     * @param cursor     Курсор — последняя строка предыдущей страницы ({@link LeaderboardCursor#FIRST} для первой)
+     * @param size       Размер страницы
+     * @return Срез лидерборда с признаком следующей страницы
+     */
+    Slice<LeaderboardEntryView> findLeaderboardAfter(UUID courseUuid, UUID groupUuid,
+                                                     @NotNull LeaderboardCursor cursor, int size);
+
+    /**
+     * Получить окно лидерборда вокруг пользователя: до {@code radius} строк выше и ниже него
+     * <p>
+     * Строки находятся поиском по индексу от позиции пользователя (или в индексе лидербордов в памяти),
+     * поэтому стоимость не зависит от места пользователя. Ранг в строках — плотный, как
+     * в {@link #getRankByPointsInCourse}: ранги соседей отсчитываются от ранга пользователя.
+     * </p>
+     *
+     * @param courseUuid UUID курса
+     * @param groupUuid  UUID группы (может быть {@code null} для общего лидерборда курса)
+     * @param userUuid   UUID пользователя
+     * @param radius     Количество строк выше и ниже пользователя
+     * @return Строки окна по убыванию очков; пустой список, если пользователь не зачислен
+     */
+    List<LeaderboardEntryView> findLeaderboardAround(UUID courseUuid, UUID groupUuid,
+                                                     @NotNull(message = "{user.uuid.required}") UUID userUuid,
+                                                     int radius);
+
     /**
      * Получить текущее место (ранг) пользователя в лидерборде курса или группы
      * <p>
@@ -59,6 +125,8 @@ public interface EnrollmentService {
      *     <li>студенты с одинаковым количеством очков получают одинаковый ранг</li>
      *     <li>следующий ранг не пропускается (dense rank)</li>
      * </ul>
+     * Если включён индекс лидербордов в памяти, ранг берётся из него без запроса к БД,
+     * иначе — из свежего снимка рангов, если пользователь в нём есть.
      * </p>
      *
      * @param courseUuid      UUID курса
@@ -68,6 +136,48 @@ public interface EnrollmentService {
      */
     Long getRankByPointsInCourse(UUID courseUuid, UUID groupUuid, UUID currentUserUuid);
 
+    /**
+     * Получить плотные ранги и очки нескольких пользователей в лидерборде курса или группы
+     * <p>
+     * Если индекс лидербордов в памяти готов, ранги берутся из него за одно обращение и из БД читаются
+     * только данные пользователей; иначе все ранги рассчитываются одним проходом {@code DENSE_RANK()}.
+     * </p>
+     *
+     * @param courseUuid UUID курса
+     * @param groupUuid  UUID группы или {@code null} — ранги по всему курсу
+     * @param userUuids  UUID пользователей
+     * @return Строки лидерборда пользователей по убыванию очков; не зачисленные на курс (в группу) пропускаются
+     */
+    List<LeaderboardEntryView> findRanksByUsers(@NotNull(message = "{course.uuid.required}") UUID courseUuid,
+                                                UUID groupUuid,
+                                                @NotNull(message = "{user.uuids.required}") Collection<UUID> userUuids);
+
+    /**
+     * Получить сумму очков пользователя на курсе
+     *
+     * @param userUuid   UUID пользователя
+     * @param courseUuid UUID курса
+     * @return Сумма очков на курсе, либо пусто, если пользователь не зачислен на курс
+     * @throws ConstraintViolationException если userUuid == null или courseUuid == null
+     */
+    Optional<Integer> findPointsInCourse(@NotNull(message = "{user.uuid.required}") UUID userUuid,
+                                         @NotNull(message = "{course.uuid.required}") UUID courseUuid);
+
+    /**
+     * Получить место суммы очков в лидерборде курса: количество студентов с большим количеством очков + 1
+     * <p>
+     * Если включена приближённая оценка, место на большом курсе оценивается по гистограмме очков
+     * без подсчёта в БД; начало лидерборда и малые курсы считаются точно.
+     * </p>
+     *
+     * @param courseUuid     UUID курса
+     * @param pointsInCourse Сумма очков на курсе
+     * @return Место и количество студентов на курсе
+     * @throws ConstraintViolationException если courseUuid == null
+     */
+    CoursePositionView getPositionInCourse(@NotNull(message = "{course.uuid.required}") UUID courseUuid,
+                                           int pointsInCourse);
+
     /**
      * Сохранить или обновить зачисление пользователя на курс
      *
@@ -84,4 +194,51 @@ public interface EnrollmentService {
      * @return Список зачислений на курсы
      */
     List<UserCourseEnrollment> findAllByUser(User user);
+
+    /**
+     * Получить существующие зачисления для набора пользователей и курсов
+     *
+     * @param userUuids   UUID пользователей
+     * @param courseUuids UUID курсов
+     * @return Множество пар пользователь — курс, для которых есть зачисление
+     * @throws ConstraintViolationException если userUuids == null или courseUuids == null
+     */
+    Set<EnrollmentKeyView> findEnrollmentKeys(@NotNull(message = "{user.uuids.required}") Collection<UUID> userUuids,
+                                              @NotNull(message = "{course.uuids.required}") Collection<UUID> courseUuids);
+
+    /**
+     * Атомарно начислить очки по курсу одному зачислению
+     *
+     * @param userUuid   UUID пользователя
+     * @param courseUuid UUID курса
+     * @param points     Количество начисляемых очков
+     * @return Новая сумма очков по курсу, либо пусто, если пользователь не зачислен на курс
+     * @throws ConstraintViolationException если userUuid == null или courseUuid == null
+     */
+    Optional<Integer> addPointsInCourse(@NotNull(message = "{user.uuid.required}") UUID userUuid,
+                                        @NotNull(message = "{course.uuid.required}") UUID courseUuid,
+                                        int points);
+
+    /**
+     * Атомарно начислить очки по курсам нескольким зачислениям одним запросом к БД
+     *
+     * @param pointsByEnrollment Количество начисляемых очков по паре пользователь — курс
+     * @return Количество обновлённых зачислений
+     * @throws ConstraintViolationException если pointsByEnrollment == null
+     */
+    int addPointsInCourses(@NotNull(message = "{enrollments.required}") Map<EnrollmentKeyView, Integer> pointsByEnrollment);
+
+    /**
+     * Учесть в индексе лидербордов и гистограмме очков начисление по курсу в обход сервиса (одним SQL-выражением)
+     *
+     * @param userUuid       UUID пользователя
+     * @param courseUuid     UUID курса
+     * @param points         Начисленные очки
+     * @param pointsInCourse Сумма очков по курсу после начисления
+     * @throws ConstraintViolationException если userUuid == null или courseUuid == null
+     */
+    void recordPointsInCourse(@NotNull(message = "{user.uuid.required}") UUID userUuid,
+                              @NotNull(message = "{course.uuid.required}") UUID courseUuid,
+                              int points,
+                              int pointsInCourse);
 }
@@ -2,8 +2,13 @@ package ru.misis.gamification.service.simple.enrollment;
 
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
@@ -11,10 +16,25 @@ import ru.misis.gamification.entity.Course;
 import ru.misis.gamification.entity.User;
 import ru.misis.gamification.entity.UserCourseEnrollment;
 import ru.misis.gamification.exception.UserCourseEnrollmentNotFoundException;
+import ru.misis.gamification.model.CoursePositionView;
+import ru.misis.gamification.model.EnrollmentKeyView;
+import ru.misis.gamification.model.EnrollmentPointsView;
+import ru.misis.gamification.model.LeaderboardCursor;
 import ru.misis.gamification.model.LeaderboardEntryView;
+import ru.misis.gamification.model.LeaderboardPositionView;
+import ru.misis.gamification.model.PersonalLeaderboardRowView;
+import ru.misis.gamification.model.PersonalLeaderboardView;
 import ru.misis.gamification.repository.UserCourseEnrollmentRepository;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -28,6 +48,21 @@ public class EnrollmentServiceImpl implements EnrollmentService {
      */
     private final UserCourseEnrollmentRepository repository;
 
+    /**
+     * Индекс лидербордов в памяти
+     */
+    private final LeaderboardIndex leaderboardIndex;
+
+    /**
+     * Периодический снимок рангов лидербордов
+     */
+    private final LeaderboardSnapshot leaderboardSnapshot;
+
+    /**
+     * Гистограммы очков курсов для приближённого места
+     */
+    private final PointsHistogram pointsHistogram;
+
     @Override
     public boolean isUserEnrolledInCourse(@NotNull(message = "{user.required}") User user,
                                           @NotNull(message = "{course.required}") Course course) {
@@ -43,21 +78,298 @@ public class EnrollmentServiceImpl implements EnrollmentService {
 
     @Override
     public Page<LeaderboardEntryView> findLeaderboardByCourseAndGroup(UUID courseUuid, UUID groupUuid, Pageable pageable) {
-        return repository.findLeaderboardByCourseAndGroup(courseUuid, groupUuid, pageable);
+        return leaderboardIndex.findPage(courseUuid, groupUuid, pageable)
+                .map(positions -> toEntries(courseUuid, positions))
+                .or(() -> leaderboardSnapshot.findPage(courseUuid, groupUuid, pageable))
+                .orElseGet(() -> repository.findLeaderboardByCourseAndGroup(courseUuid, groupUuid, pageable));
+    }
+
+    @Override
+    public PersonalLeaderboardView findLeaderboardForUser(@NotNull(message = "{course.uuid.required}") UUID courseUuid,
+                                                          UUID groupUuid, UUID userUuid, Pageable pageable) {
+        Optional<Page<LeaderboardPositionView>> positions = leaderboardIndex.findPage(courseUuid, groupUuid, pageable);
+        if (positions.isPresent()) {
+            return fromIndex(courseUuid, groupUuid, userUuid, positions.get());
+        }
+
+        List<PersonalLeaderboardRowView> rows = repository.findLeaderboardForUser(courseUuid, groupUuid, userUuid,
+                pageable.getOffset(), pageable.getPageSize());
+        if (rows.isEmpty() && pageable.getOffset() > 0) {
+            // Страница за концом лидерборда, пользователя в нём нет: общее количество строки не принесли
+            return new PersonalLeaderboardView(
+                    repository.findLeaderboardByCourseAndGroup(courseUuid, groupUuid, pageable), null);
+        }
+
+        List<LeaderboardEntryView> content = new ArrayList<>(pageable.getPageSize());
+        LeaderboardEntryView currentUserEntry = null;
+        long total = 0;
+        for (PersonalLeaderboardRowView row : rows) {
+            total = row.getTotal();
+            if (row.getPosition() > pageable.getOffset()
+                    && row.getPosition() <= pageable.getOffset() + pageable.getPageSize()) {
+                content.add(new LeaderboardEntryView(row.getUserUuid(), row.getUserId(), row.getPointsInCourse(),
+                        row.getGlobalLevel(), row.getPosition()));
+            }
+            if (row.getUserUuid().equals(userUuid)) {
+                currentUserEntry = new LeaderboardEntryView(row.getUserUuid(), row.getUserId(),
+                        row.getPointsInCourse(), row.getGlobalLevel(), row.getRank(), true);
+            }
+        }
+        return new PersonalLeaderboardView(new PageImpl<>(content, pageable, total), currentUserEntry);
+    }
+
+    @Override
+    public Slice<LeaderboardEntryView> findLeaderboardAfter(UUID courseUuid, UUID groupUuid,
+                                                            @NotNull LeaderboardCursor cursor, int size) {
+        Limit limit = Limit.of(size + 1);
+        List<LeaderboardEntryView> rows = groupUuid == null
+                ? repository.findLeaderboardAfter(courseUuid, cursor.pointsInCourse(), cursor.userUuid(), limit)
+                : repository.findGroupLeaderboardAfter(courseUuid, groupUuid, cursor.pointsInCourse(),
+                cursor.userUuid(), limit);
+
+        boolean hasNext = rows.size() > size;
+        List<LeaderboardEntryView> content = hasNext ? rows.subList(0, size) : rows;
+        long rank = cursor.rank();
+        for (LeaderboardEntryView entry : content) {
+            entry.setRank(++rank);
+        }
+        return new SliceImpl<>(content, PageRequest.ofSize(size), hasNext);
+    }
+
+    @Override
+    public List<LeaderboardEntryView> findLeaderboardAround(UUID courseUuid, UUID groupUuid,
+                                                            @NotNull(message = "{user.uuid.required}") UUID userUuid,
+                                                            int radius) {
+        List<LeaderboardEntryView> window = leaderboardIndex.findWindow(courseUuid, groupUuid, userUuid, radius)
+                .map(positions -> loadEntries(courseUuid, positions.stream().map(LeaderboardPositionView::userUuid).toList()))
+                .orElseGet(() -> (groupUuid == null
+                        ? repository.findLeaderboardAround(courseUuid, userUuid, radius)
+                        : repository.findGroupLeaderboardAround(courseUuid, groupUuid, userUuid, radius))
+                        .stream()
+                        .map(row -> new LeaderboardEntryView(row.getUserUuid(), row.getUserId(),
+                                row.getPointsInCourse(), row.getGlobalLevel(), null))
+                        .toList());
+
+        int center = 0;
+        while (center < window.size() && !window.get(center).getUserUuid().equals(userUuid)) {
+            center++;
+        }
+        Long userRank = center < window.size() ? getRankByPointsInCourse(courseUuid, groupUuid, userUuid) : null;
+        if (userRank == null) {
+            return List.of();
+        }
+        assignDenseRanks(window, center, userRank);
+        return window;
     }
 
     @Override
     public Long getRankByPointsInCourse(UUID courseUuid, UUID groupUuid, UUID userUuid) {
-        return repository.findRankByPointsInCourse(courseUuid, groupUuid, userUuid);
+        return leaderboardIndex.findRank(courseUuid, groupUuid, userUuid)
+                .or(() -> leaderboardSnapshot.findRank(courseUuid, groupUuid, userUuid))
+                .orElseGet(() -> repository.findRankByPointsInCourse(courseUuid, groupUuid, userUuid));
+    }
+
+    @Override
+    public List<LeaderboardEntryView> findRanksByUsers(@NotNull(message = "{course.uuid.required}") UUID courseUuid,
+                                                       UUID groupUuid,
+                                                       @NotNull(message = "{user.uuids.required}") Collection<UUID> userUuids) {
+        if (userUuids.isEmpty()) {
+            return List.of();
+        }
+
+        Optional<Map<UUID, Long>> indexed = leaderboardIndex.findRanks(courseUuid, groupUuid, userUuids);
+        if (indexed.isPresent()) {
+            Map<UUID, Long> ranks = indexed.get();
+            List<LeaderboardEntryView> entries = loadEntries(courseUuid, List.copyOf(ranks.keySet()));
+            entries.forEach(entry -> entry.setRank(ranks.get(entry.getUserUuid())));
+            entries.sort(Comparator.comparing(LeaderboardEntryView::getRank)
+                    .thenComparing(LeaderboardEntryView::getUserUuid, Comparator.reverseOrder()));
+            return entries;
+        }
+
+        return repository.findRanksByUsers(courseUuid, groupUuid, userUuids.toArray(UUID[]::new)).stream()
+                .map(row -> new LeaderboardEntryView(row.getUserUuid(), row.getUserId(),
+                        row.getPointsInCourse(), row.getGlobalLevel(), row.getRank()))
+                .toList();
+    }
+
+    @Override
+    public Optional<Integer> findPointsInCourse(@NotNull(message = "{user.uuid.required}") UUID userUuid,
+                                                @NotNull(message = "{course.uuid.required}") UUID courseUuid) {
+        return repository.findTotalPointsInCourseByUserUuidAndCourseUuid(userUuid, courseUuid);
+    }
+
+    @Override
+    public CoursePositionView getPositionInCourse(@NotNull(message = "{course.uuid.required}") UUID courseUuid,
+                                                  int pointsInCourse) {
+        return pointsHistogram.estimate(courseUuid, pointsInCourse)
+                .orElseGet(() -> new CoursePositionView(
+                        repository.countByCourseUuidAndPointsAbove(courseUuid, pointsInCourse) + 1,
+                        repository.countByCourseUuid(courseUuid),
+                        false));
     }
 
     @Override
     public UserCourseEnrollment save(UserCourseEnrollment enrollment) {
-        return repository.save(enrollment);
+        UserCourseEnrollment saved = repository.save(enrollment);
+        if (saved != null) {
+            leaderboardIndex.recordEnrollment(saved.getCourse().getUuid(),
+                    saved.getGroup() != null ? saved.getGroup().getUuid() : null,
+                    saved.getUser().getUuid(), saved.getTotalPointsInCourse());
+            pointsHistogram.recordEnrollment(saved.getCourse().getUuid(), saved.getTotalPointsInCourse());
+        }
+        return saved;
     }
 
     @Override
     public List<UserCourseEnrollment> findAllByUser(User user) {
         return repository.findAllByUser(user);
     }
+
+    @Override
+    public Set<EnrollmentKeyView> findEnrollmentKeys(Collection<UUID> userUuids, Collection<UUID> courseUuids) {
+        if (userUuids.isEmpty() || courseUuids.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(repository.findEnrollmentKeys(userUuids, courseUuids));
+    }
+
+    @Override
+    public Optional<Integer> addPointsInCourse(@NotNull(message = "{user.uuid.required}") UUID userUuid,
+                                               @NotNull(message = "{course.uuid.required}") UUID courseUuid,
+                                               int points) {
+        Optional<Integer> total = repository.addPointsInCourse(userUuid, courseUuid, points);
+        total.ifPresent(pointsInCourse -> {
+            leaderboardIndex.recordPoints(courseUuid, userUuid, pointsInCourse);
+            pointsHistogram.recordPoints(courseUuid, points, pointsInCourse);
+        });
+        return total;
+    }
+
+    @Transactional
+    @Override
+    public int addPointsInCourses(Map<EnrollmentKeyView, Integer> pointsByEnrollment) {
+        if (pointsByEnrollment.isEmpty()) {
+            return 0;
+        }
+
+        UUID[] userUuids = new UUID[pointsByEnrollment.size()];
+        UUID[] courseUuids = new UUID[pointsByEnrollment.size()];
+        int[] points = new int[pointsByEnrollment.size()];
+        int i = 0;
+        for (Map.Entry<EnrollmentKeyView, Integer> entry : pointsByEnrollment.entrySet()) {
+            userUuids[i] = entry.getKey().userUuid();
+            courseUuids[i] = entry.getKey().courseUuid();
+            points[i++] = entry.getValue();
+        }
+
+        List<EnrollmentPointsView> updated = repository.addPointsInCourseBatch(userUuids, courseUuids, points);
+        for (EnrollmentPointsView enrollment : updated) {
+            leaderboardIndex.recordPoints(enrollment.getCourseUuid(), enrollment.getUserUuid(),
+                    enrollment.getTotalPointsInCourse());
+            pointsHistogram.recordPoints(enrollment.getCourseUuid(),
+                    pointsByEnrollment.get(new EnrollmentKeyView(enrollment.getUserUuid(), enrollment.getCourseUuid())),
+                    enrollment.getTotalPointsInCourse());
+        }
+        return updated.size();
+    }
+
+    @Override
+    public void recordPointsInCourse(@NotNull(message = "{user.uuid.required}") UUID userUuid,
+                                     @NotNull(message = "{course.uuid.required}") UUID courseUuid,
+                                     int points,
+                                     int pointsInCourse) {
+        leaderboardIndex.recordPoints(courseUuid, userUuid, pointsInCourse);
+        pointsHistogram.recordPoints(courseUuid, points, pointsInCourse);
+    }
+
+    /**
+     * Дополнить позиции из индекса данными пользователей; ранг — позиция строки в лидерборде
+     */
+    private Page<LeaderboardEntryView> toEntries(UUID courseUuid, Page<LeaderboardPositionView> positions) {
+        List<LeaderboardEntryView> content = loadEntries(courseUuid,
+                positions.map(LeaderboardPositionView::userUuid).getContent());
+
+        long rank = positions.getPageable().getOffset();
+        for (LeaderboardEntryView entry : content) {
+            entry.setRank(++rank);
+        }
+        return new PageImpl<>(content, positions.getPageable(), positions.getTotalElements());
+    }
+
+    /**
+     * Собрать персонализированный лидерборд по индексу: строки страницы и пользователя загружаются одним запросом
+     */
+    private PersonalLeaderboardView fromIndex(UUID courseUuid, UUID groupUuid, UUID userUuid,
+                                              Page<LeaderboardPositionView> positions) {
+        Optional<Long> userRank = userUuid != null
+                ? leaderboardIndex.findRank(courseUuid, groupUuid, userUuid)
+                : Optional.empty();
+
+        List<UUID> pageUuids = positions.map(LeaderboardPositionView::userUuid).getContent();
+        List<UUID> userUuids = new ArrayList<>(pageUuids);
+        if (userRank.isPresent() && !pageUuids.contains(userUuid)) {
+            userUuids.add(userUuid);
+        }
+
+        List<LeaderboardEntryView> content = new ArrayList<>(pageUuids.size());
+        LeaderboardEntryView currentUserEntry = null;
+        long rank = positions.getPageable().getOffset();
+        for (LeaderboardEntryView entry : loadEntries(courseUuid, userUuids)) {
+            if (userRank.isPresent() && entry.getUserUuid().equals(userUuid)) {
+                currentUserEntry = new LeaderboardEntryView(entry.getUserUuid(), entry.getUserId(),
+                        entry.getPointsInCourse(), entry.getGlobalLevel(), userRank.get(), true);
+            }
+            if (content.size() < pageUuids.size() && pageUuids.contains(entry.getUserUuid())) {
+                entry.setRank(++rank);
+                content.add(entry);
+            }
+        }
+        return new PersonalLeaderboardView(
+                new PageImpl<>(content, positions.getPageable(), positions.getTotalElements()), currentUserEntry);
+    }
+
+    /**
+     * Загрузить строки лидерборда пользователей в заданном порядке (без ранга)
+     * <p>
+     * Пользователи, зачисление которых не найдено в БД, пропускаются.
+     * </p>
+     */
+    private List<LeaderboardEntryView> loadEntries(UUID courseUuid, List<UUID> userUuids) {
+        if (userUuids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<UUID, LeaderboardEntryView> entries = new HashMap<>();
+        repository.findLeaderboardEntriesByUsers(courseUuid, userUuids)
+                .forEach(entry -> entries.put(entry.getUserUuid(), entry));
+
+        List<LeaderboardEntryView> content = new ArrayList<>(userUuids.size());
+        for (UUID userUuid : userUuids) {
+            LeaderboardEntryView entry = entries.get(userUuid);
+            if (entry != null) {
+                content.add(entry);
+            }
+        }
+        return content;
+    }
+
+    /**
+     * Проставить плотные ранги строкам окна, отсчитывая от ранга пользователя:
+     * ранг меняется на единицу при каждой смене количества очков между соседними строками
+     *
+     * @param center Позиция пользователя в окне
+     */
+    private static void assignDenseRanks(List<LeaderboardEntryView> window, int center, long userRank) {
+        window.get(center).setRank(userRank);
+        for (int i = center - 1; i >= 0; i--) {
+            LeaderboardEntryView below = window.get(i + 1);
+            boolean tie = window.get(i).getPointsInCourse().equals(below.getPointsInCourse());
+            window.get(i).setRank(tie ? below.getRank() : below.getRank() - 1);
+        }
+        for (int i = center + 1; i < window.size(); i++) {
+            LeaderboardEntryView above = window.get(i - 1);
+            boolean tie = window.get(i).getPointsInCourse().equals(above.getPointsInCourse());
+            window.get(i).setRank(tie ? above.getRank() : above.getRank() + 1);
+        }
+    }
 }
@@ -0,0 +1,91 @@
+package ru.misis.gamification.service.simple.enrollment;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import ru.misis.gamification.model.LeaderboardPositionView;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Индекс лидербордов курсов и групп в памяти экземпляра приложения
+ * <p>
+ * Для каждого курса и каждой группы курса хранит упорядоченные по очкам деревья с размерами поддеревьев:
+ * ранг пользователя и страница лидерборда находятся за O(log n) без оконных функций в БД.
+ * Строится из {@code user_course_enrollments} в фоне после старта, затем обновляется зачислениями
+ * и начислениями после фиксации транзакции. Пока индекс не построен, поиск возвращает пусто и ответ даёт БД.
+ * </p>
+ * <p>
+ * Индекс видит только начисления своего экземпляра: при нескольких экземплярах ранги в памяти
+ * могут отставать от БД.
+ * </p>
+ */
+public interface LeaderboardIndex {
+
+    /**
+     * Учесть зачисление после фиксации текущей транзакции
+     *
+     * @param courseUuid     UUID курса
+     * @param groupUuid      UUID группы или {@code null}
+     * @param userUuid       UUID пользователя
+     * @param pointsInCourse Очки на курсе
+     */
+    void recordEnrollment(UUID courseUuid, UUID groupUuid, UUID userUuid, int pointsInCourse);
+
+    /**
+     * Учесть новую сумму очков на курсе после фиксации текущей транзакции
+     * <p>
+     * Передаётся итоговая сумма, а не прирост: повторное или запоздавшее применение не искажает индекс.
+     * </p>
+     *
+     * @param courseUuid     UUID курса
+     * @param userUuid       UUID пользователя
+     * @param pointsInCourse Сумма очков на курсе после начисления
+     */
+    void recordPoints(UUID courseUuid, UUID userUuid, int pointsInCourse);
+
+    /**
+     * Найти плотный ранг пользователя (как {@code DENSE_RANK()} по убыванию очков)
+     *
+     * @param courseUuid UUID курса
+     * @param groupUuid  UUID группы или {@code null} — ранг по всему курсу
+     * @param userUuid   UUID пользователя
+     * @return Ранг; пусто, если индекс не готов или пользователя в нём нет
+     */
+    Optional<Long> findRank(UUID courseUuid, UUID groupUuid, UUID userUuid);
+
+    /**
+     * Найти плотные ранги нескольких пользователей за одно обращение к индексу
+     *
+     * @param courseUuid UUID курса
+     * @param groupUuid  UUID группы или {@code null} — ранги по всему курсу
+     * @param userUuids  UUID пользователей
+     * @return Ранги по UUID пользователя (пользователи вне лидерборда пропускаются); пусто, если индекс не готов
+     */
+    Optional<Map<UUID, Long>> findRanks(UUID courseUuid, UUID groupUuid, Collection<UUID> userUuids);
+
+    /**
+     * Найти страницу лидерборда по убыванию очков
+     *
+     * @param courseUuid UUID курса
+     * @param groupUuid  UUID группы или {@code null} — лидерборд всего курса
+     * @param pageable   Параметры пагинации (сортировка не учитывается)
+     * @return Страница позиций; пусто, если индекс не готов
+     */
+    Optional<Page<LeaderboardPositionView>> findPage(UUID courseUuid, UUID groupUuid, Pageable pageable);
+
+    /**
+     * Найти окно лидерборда вокруг пользователя: до {@code radius} позиций выше и ниже него
+     *
+     * @param courseUuid UUID курса
+     * @param groupUuid  UUID группы или {@code null} — лидерборд всего курса
+     * @param userUuid   UUID пользователя
+     * @param radius     Количество позиций выше и ниже пользователя
+     * @return Позиции окна по убыванию очков, включая пользователя (пустой список, если его нет в лидерборде);
+     * пусто, если индекс не готов
+     */
+    Optional<List<LeaderboardPositionView>> findWindow(UUID courseUuid, UUID groupUuid, UUID userUuid, int radius);
+}
@@ -0,0 +1,365 @@
+package ru.misis.gamification.service.simple.enrollment;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.misis.gamification.model.EnrollmentPointsView;
+import ru.misis.gamification.model.LeaderboardPositionView;
+import ru.misis.gamification.repository.UserCourseEnrollmentRepository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+@Slf4j
+public class LeaderboardIndexImpl implements LeaderboardIndex {
+
+    /**
+     * Начальная точка прогрева: наименьший UUID
+     */
+    private static final UUID FIRST = new UUID(0L, 0L);
+
+    /**
+     * Репозиторий связей пользователь — курс
+     */
+    private final UserCourseEnrollmentRepository enrollmentRepository;
+
+    /**
+     * Признак включения индекса
+     */
+    private final boolean enabled;
+
+    /**
+     * Размер пачки зачислений при прогреве
+     */
+    private final int warmUpBatchSize;
+
+    /**
+     * Лидерборды по UUID курса
+     */
+    private final ConcurrentHashMap<UUID, CourseRanking> courses = new ConcurrentHashMap<>();
+
+    /**
+     * Признак завершения прогрева
+     */
+    private volatile boolean ready;
+
+    /**
+     * Счётчик запросов, обслуженных индексом
+     */
+    private final Counter hits;
+
+    /**
+     * Счётчик запросов, для которых пользователя нет в индексе
+     */
+    private final Counter misses;
+
+    /**
+     * Счётчик запросов, переданных в БД, пока индекс не готов
+     */
+    private final Counter bypasses;
+
+    public LeaderboardIndexImpl(UserCourseEnrollmentRepository enrollmentRepository,
+                                MeterRegistry meterRegistry,
+                                @Value("${gamification.features.leaderboard-index.enabled:false}") boolean enabled,
+                                @Value("${gamification.features.leaderboard-index.warm-up-batch-size:10000}") int warmUpBatchSize) {
+        this.enrollmentRepository = enrollmentRepository;
+        this.enabled = enabled;
+        this.warmUpBatchSize = warmUpBatchSize;
+
+        this.hits = Counter.builder("gamification.leaderboard.index.lookups")
+                .description("Поиск ранга и страниц лидерборда по индексу в памяти")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("gamification.leaderboard.index.lookups")
+                .description("Поиск ранга и страниц лидерборда по индексу в памяти")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.bypasses = Counter.builder("gamification.leaderboard.index.lookups")
+                .description("Поиск ранга и страниц лидерборда по индексу в памяти")
+                .tag("result", "bypass")
+                .register(meterRegistry);
+        Gauge.builder("gamification.leaderboard.index.enrollments", courses,
+                        map -> map.values().stream().mapToInt(CourseRanking::size).sum())
+                .description("Количество зачислений в индексе лидербордов")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Запустить прогрев в фоне после старта приложения, чтобы не задерживать старт
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            Thread.ofVirtual().name("leaderboard-index-warm-up").start(this::warmUp);
+        }
+    }
+
+    /**
+     * Построить индекс по всем зачислениям
+     * <p>
+     * Читает постранично по первичному ключу. Зачисления и начисления, зафиксированные во время прогрева,
+     * попадают в индекс через {@link #recordEnrollment} и {@link #recordPoints}; хранится максимальная
+     * из прочитанных сумм, поэтому порядок не важен.
+     * </p>
+     */
+    void warmUp() {
+        if (!enabled) {
+            return;
+        }
+
+        long started = System.currentTimeMillis();
+        long loaded = 0;
+        UUID after = FIRST;
+
+        try {
+            List<EnrollmentPointsView> page;
+            do {
+                page = enrollmentRepository.findPointsAfter(after, warmUpBatchSize);
+                for (EnrollmentPointsView enrollment : page) {
+                    apply(enrollment.getCourseUuid(), enrollment.getGroupUuid(), enrollment.getUserUuid(),
+                            enrollment.getTotalPointsInCourse());
+                }
+                loaded += page.size();
+                if (!page.isEmpty()) {
+                    after = page.getLast().getUuid();
+                }
+            } while (page.size() == warmUpBatchSize);
+        } catch (RuntimeException e) {
+            log.error("Ошибка построения индекса лидербордов, ранги рассчитываются в БД: {}", e.getMessage(), e);
+            return;
+        }
+
+        ready = true;
+        log.info("Индекс лидербордов построен: зачислений={}, курсов={}, за {} мс",
+                loaded, courses.size(), System.currentTimeMillis() - started);
+    }
+
+    @Override
+    public void recordEnrollment(UUID courseUuid, UUID groupUuid, UUID userUuid, int pointsInCourse) {
+        if (enabled) {
+            afterCommit(() -> apply(courseUuid, groupUuid, userUuid, pointsInCourse));
+        }
+    }
+
+    @Override
+    public void recordPoints(UUID courseUuid, UUID userUuid, int pointsInCourse) {
+        if (!enabled) {
+            return;
+        }
+        afterCommit(() -> {
+            CourseRanking ranking = courses.get(courseUuid);
+            // Зачисление ещё не прочитано прогревом — прогрев прочитает уже новую сумму
+            if (ranking != null) {
+                ranking.update(userUuid, pointsInCourse);
+            }
+        });
+    }
+
+    @Override
+    public Optional<Long> findRank(UUID courseUuid, UUID groupUuid, UUID userUuid) {
+        if (!ready) {
+            bypasses.increment();
+            return Optional.empty();
+        }
+
+        CourseRanking ranking = courses.get(courseUuid);
+        Long rank = ranking != null ? ranking.rank(groupUuid, userUuid) : null;
+        (rank != null ? hits : misses).increment();
+        return Optional.ofNullable(rank);
+    }
+
+    @Override
+    public Optional<Map<UUID, Long>> findRanks(UUID courseUuid, UUID groupUuid, Collection<UUID> userUuids) {
+        if (!ready) {
+            bypasses.increment();
+            return Optional.empty();
+        }
+
+        hits.increment();
+        CourseRanking ranking = courses.get(courseUuid);
+        return Optional.of(ranking != null ? ranking.ranks(groupUuid, userUuids) : Map.of());
+    }
+
+    @Override
+    public Optional<Page<LeaderboardPositionView>> findPage(UUID courseUuid, UUID groupUuid, Pageable pageable) {
+        if (!ready) {
+            bypasses.increment();
+            return Optional.empty();
+        }
+
+        hits.increment();
+        CourseRanking ranking = courses.get(courseUuid);
+        if (ranking == null) {
+            return Optional.of(Page.empty(pageable));
+        }
+        return Optional.of(ranking.page(groupUuid, pageable));
+    }
+
+    @Override
+    public Optional<List<LeaderboardPositionView>> findWindow(UUID courseUuid, UUID groupUuid, UUID userUuid, int radius) {
+        if (!ready) {
+            bypasses.increment();
+            return Optional.empty();
+        }
+
+        CourseRanking ranking = courses.get(courseUuid);
+        List<LeaderboardPositionView> window = ranking != null ? ranking.window(groupUuid, userUuid, radius) : List.of();
+        (window.isEmpty() ? misses : hits).increment();
+        return Optional.of(window);
+    }
+
+    private void apply(UUID courseUuid, UUID groupUuid, UUID userUuid, int pointsInCourse) {
+        courses.computeIfAbsent(courseUuid, uuid -> new CourseRanking()).put(userUuid, groupUuid, pointsInCourse);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Лидерборды одного курса: по всему курсу и по каждой группе
+     */
+    private static final class CourseRanking {
+
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+        private final RankPartition course = new RankPartition();
+
+        private final Map<UUID, RankPartition> groups = new HashMap<>();
+
+        private final Map<UUID, UUID> groupByUser = new HashMap<>();
+
+        void put(UUID userUuid, UUID groupUuid, int points) {
+            lock.writeLock().lock();
+            try {
+                course.put(userUuid, points);
+                // Пользователь, сменивший группу или вышедший из неё, удаляется из лидерборда прежней группы
+                UUID previousGroupUuid = groupUuid != null
+                        ? groupByUser.put(userUuid, groupUuid)
+                        : groupByUser.remove(userUuid);
+                if (previousGroupUuid != null && !previousGroupUuid.equals(groupUuid)) {
+                    RankPartition previous = groups.get(previousGroupUuid);
+                    previous.remove(userUuid);
+                    if (previous.size() == 0) {
+                        groups.remove(previousGroupUuid);
+                    }
+                }
+                if (groupUuid != null) {
+                    groups.computeIfAbsent(groupUuid, uuid -> new RankPartition()).put(userUuid, points);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void update(UUID userUuid, int points) {
+            lock.writeLock().lock();
+            try {
+                if (!course.contains(userUuid)) {
+                    return;
+                }
+                course.put(userUuid, points);
+                UUID groupUuid = groupByUser.get(userUuid);
+                if (groupUuid != null) {
+                    groups.get(groupUuid).put(userUuid, points);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        Long rank(UUID groupUuid, UUID userUuid) {
+            lock.readLock().lock();
+            try {
+                RankPartition partition = partition(groupUuid);
+                return partition != null ? partition.denseRank(userUuid) : null;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        Map<UUID, Long> ranks(UUID groupUuid, Collection<UUID> userUuids) {
+            lock.readLock().lock();
+            try {
+                RankPartition partition = partition(groupUuid);
+                if (partition == null) {
+                    return Map.of();
+                }
+                Map<UUID, Long> ranks = new HashMap<>();
+                for (UUID userUuid : userUuids) {
+                    Long rank = partition.denseRank(userUuid);
+                    if (rank != null) {
+                        ranks.put(userUuid, rank);
+                    }
+                }
+                return ranks;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        Page<LeaderboardPositionView> page(UUID groupUuid, Pageable pageable) {
+            lock.readLock().lock();
+            try {
+                RankPartition partition = partition(groupUuid);
+                if (partition == null) {
+                    return Page.empty(pageable);
+                }
+                return new PageImpl<>(partition.page((int) pageable.getOffset(), pageable.getPageSize()),
+                        pageable, partition.size());
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        List<LeaderboardPositionView> window(UUID groupUuid, UUID userUuid, int radius) {
+            lock.readLock().lock();
+            try {
+                RankPartition partition = partition(groupUuid);
+                return partition != null ? partition.window(userUuid, radius) : List.of();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        int size() {
+            lock.readLock().lock();
+            try {
+                return course.size();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private RankPartition partition(UUID groupUuid) {
+            return groupUuid == null ? course : groups.get(groupUuid);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package ru.misis.gamification.service.simple.enrollment;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import ru.misis.gamification.model.LeaderboardEntryView;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Периодический снимок рангов лидербордов курсов и групп в БД ({@code enrollment_rank_snapshots})
+ * <p>
+ * Материализованное представление обновляется по расписанию через {@code REFRESH MATERIALIZED VIEW CONCURRENTLY};
+ * ранг пользователя и страница лидерборда читаются из него по индексу за постоянное время вместо
+ * {@code DENSE_RANK()} по всем зачислениям курса. Ранги отстают от начислений на время между обновлениями:
+ * снимок используется, только пока с начала последнего успешного обновления прошло не больше допустимого
+ * отставания, иначе поиск возвращает пусто и ответ даёт живой запрос.
+ * </p>
+ */
+public interface LeaderboardSnapshot {
+
+    /**
+     * Найти плотный ранг пользователя в снимке (как {@code DENSE_RANK()} по убыванию очков)
+     *
+     * @param courseUuid UUID курса
+     * @param groupUuid  UUID группы или {@code null} — ранг по всему курсу
+     * @param userUuid   UUID пользователя
+     * @return Ранг; пусто, если снимок выключен, устарел или пользователя в нём нет
+     */
+    Optional<Long> findRank(UUID courseUuid, UUID groupUuid, UUID userUuid);
+
+    /**
+     * Найти страницу лидерборда в снимке; ранг строки — её позиция
+     *
+     * @param courseUuid UUID курса
+     * @param groupUuid  UUID группы или {@code null} — лидерборд всего курса
+     * @param pageable   Параметры пагинации (сортировка не учитывается)
+     * @return Страница лидерборда; пусто, если снимок выключен или устарел
+     */
+    Optional<Page<LeaderboardEntryView>> findPage(UUID courseUuid, UUID groupUuid, Pageable pageable);
+}
@@ -0,0 +1,163 @@
+package ru.misis.gamification.service.simple.enrollment;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.misis.gamification.model.LeaderboardEntryView;
+import ru.misis.gamification.model.LeaderboardSnapshotRowView;
+import ru.misis.gamification.repository.UserCourseEnrollmentRepository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Component
+@Slf4j
+public class LeaderboardSnapshotImpl implements LeaderboardSnapshot {
+
+    /**
+     * Репозиторий связей пользователь — курс
+     */
+    private final UserCourseEnrollmentRepository enrollmentRepository;
+
+    /**
+     * Признак включения снимка
+     */
+    private final boolean enabled;
+
+    /**
+     * Допустимое отставание снимка, мс
+     */
+    private final long maxStalenessMs;
+
+    /**
+     * Время начала последнего успешного обновления, мс (0 — снимок ещё не обновлялся этим экземпляром)
+     */
+    private volatile long refreshedAt;
+
+    /**
+     * Таймер обновления снимка
+     */
+    private final Timer refreshTimer;
+
+    /**
+     * Счётчик запросов, обслуженных снимком
+     */
+    private final Counter hits;
+
+    /**
+     * Счётчик запросов, переданных в БД из-за устаревшего снимка
+     */
+    private final Counter stale;
+
+    public LeaderboardSnapshotImpl(UserCourseEnrollmentRepository enrollmentRepository,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${gamification.features.leaderboard-snapshot.enabled:false}") boolean enabled,
+                                   @Value("${gamification.features.leaderboard-snapshot.max-staleness-ms:30000}") long maxStalenessMs) {
+        this.enrollmentRepository = enrollmentRepository;
+        this.enabled = enabled;
+        this.maxStalenessMs = maxStalenessMs;
+
+        this.refreshTimer = Timer.builder("gamification.leaderboard.snapshot.refresh")
+                .description("Длительность обновления снимка рангов лидербордов")
+                .register(meterRegistry);
+        this.hits = Counter.builder("gamification.leaderboard.snapshot.lookups")
+                .description("Поиск ранга и страниц лидерборда в снимке рангов")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.stale = Counter.builder("gamification.leaderboard.snapshot.lookups")
+                .description("Поиск ранга и страниц лидерборда в снимке рангов")
+                .tag("result", "stale")
+                .register(meterRegistry);
+        Gauge.builder("gamification.leaderboard.snapshot.lag", this, LeaderboardSnapshotImpl::lagSeconds)
+                .description("Отставание снимка рангов лидербордов, с")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Обновить снимок по расписанию
+     * <p>
+     * Отставание отсчитывается от начала обновления: снимок отражает данные на этот момент.
+     * При ошибке остаётся прежний снимок, и после превышения допустимого отставания чтение уходит в живые запросы.
+     * </p>
+     */
+    @Scheduled(fixedDelayString = "${gamification.features.leaderboard-snapshot.refresh-interval-ms:10000}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+
+        long started = System.currentTimeMillis();
+        try {
+            refreshTimer.record(enrollmentRepository::refreshRankSnapshot);
+            refreshedAt = started;
+            log.debug("Снимок рангов лидербордов обновлён за {} мс", System.currentTimeMillis() - started);
+        } catch (RuntimeException e) {
+            log.error("Ошибка обновления снимка рангов лидербордов, отставание {} с: {}", lagSeconds(), e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Optional<Long> findRank(UUID courseUuid, UUID groupUuid, UUID userUuid) {
+        if (!isFresh()) {
+            return Optional.empty();
+        }
+
+        hits.increment();
+        return Optional.ofNullable(groupUuid == null
+                ? enrollmentRepository.findSnapshotCourseRank(courseUuid, userUuid)
+                : enrollmentRepository.findSnapshotGroupRank(courseUuid, groupUuid, userUuid));
+    }
+
+    @Override
+    public Optional<Page<LeaderboardEntryView>> findPage(UUID courseUuid, UUID groupUuid, Pageable pageable) {
+        if (!isFresh()) {
+            return Optional.empty();
+        }
+
+        hits.increment();
+        long offset = pageable.getOffset();
+        int size = pageable.getPageSize();
+        List<LeaderboardSnapshotRowView> rows = groupUuid == null
+                ? enrollmentRepository.findSnapshotLeaderboard(courseUuid, offset, size)
+                : enrollmentRepository.findSnapshotGroupLeaderboard(courseUuid, groupUuid, offset, size);
+        long total = groupUuid == null
+                ? enrollmentRepository.countSnapshotLeaderboard(courseUuid)
+                : enrollmentRepository.countSnapshotGroupLeaderboard(courseUuid, groupUuid);
+
+        List<LeaderboardEntryView> content = rows.stream()
+                .map(row -> new LeaderboardEntryView(row.getUserUuid(), row.getUserId(), row.getPointsInCourse(),
+                        row.getGlobalLevel(), row.getRank()))
+                .toList();
+        return Optional.of(new PageImpl<>(content, pageable, total));
+    }
+
+    /**
+     * Снимок включён, обновлялся этим экземпляром и отстаёт не больше допустимого
+     */
+    private boolean isFresh() {
+        if (!enabled) {
+            return false;
+        }
+        long taken = refreshedAt;
+        if (taken == 0 || System.currentTimeMillis() - taken > maxStalenessMs) {
+            stale.increment();
+            return false;
+        }
+        return true;
+    }
+
+    private double lagSeconds() {
+        long taken = refreshedAt;
+        return taken == 0 ? Double.NaN : (System.currentTimeMillis() - taken) / 1000.0;
+    }
+}
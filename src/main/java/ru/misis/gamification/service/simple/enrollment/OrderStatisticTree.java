@@ -0,0 +1,193 @@
+package ru.misis.gamification.service.simple.enrollment;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Упорядоченное множество с подсчётом размеров поддеревьев (декартово дерево)
+ * <p>
+ * Вставка, удаление и определение позиции ключа выполняются за O(log n) в среднем,
+ * выборка {@code limit} ключей начиная с позиции — за O(log n + limit).
+ * </p>
+ * <p>
+ * Не потокобезопасно.
+ * </p>
+ *
+ * @param <K> Тип ключа
+ */
+final class OrderStatisticTree<K> {
+
+    private final Comparator<? super K> comparator;
+
+    private Node<K> root;
+
+    OrderStatisticTree(Comparator<? super K> comparator) {
+        this.comparator = comparator;
+    }
+
+    /**
+     * @return Количество ключей
+     */
+    int size() {
+        return size(root);
+    }
+
+    /**
+     * Добавить ключ, которого ещё нет в дереве
+     *
+     * @param key Ключ
+     */
+    void insert(K key) {
+        Node<K>[] parts = split(root, key);
+        root = merge(merge(parts[0], new Node<>(key)), parts[1]);
+    }
+
+    /**
+     * Удалить ключ
+     *
+     * @param key Ключ
+     */
+    void remove(K key) {
+        root = remove(root, key);
+    }
+
+    /**
+     * Количество ключей, предшествующих указанному
+     *
+     * @param key Ключ (может отсутствовать в дереве)
+     * @return Позиция ключа, начиная с 0
+     */
+    int countBefore(K key) {
+        int count = 0;
+        Node<K> node = root;
+        while (node != null) {
+            if (comparator.compare(key, node.key) <= 0) {
+                node = node.left;
+            } else {
+                count += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Ключи начиная с позиции в порядке возрастания
+     *
+     * @param from  Позиция первого ключа, начиная с 0
+     * @param limit Максимальное количество ключей
+     * @return Ключи
+     */
+    List<K> range(int from, int limit) {
+        List<K> result = new ArrayList<>(Math.max(0, Math.min(limit, size() - from)));
+        collect(root, from, from + limit, 0, result);
+        return result;
+    }
+
+    /**
+     * Обойти поддерево, пропуская ветви вне интервала позиций [from, to)
+     *
+     * @param offset Позиция первого ключа поддерева
+     */
+    private void collect(Node<K> node, int from, int to, int offset, List<K> result) {
+        if (node == null || offset >= to) {
+            return;
+        }
+        int position = offset + size(node.left);
+        if (from < position) {
+            collect(node.left, from, to, offset, result);
+        }
+        if (position >= from && position < to) {
+            result.add(node.key);
+        }
+        if (position + 1 < to) {
+            collect(node.right, from, to, position + 1, result);
+        }
+    }
+
+    private Node<K> remove(Node<K> node, K key) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = comparator.compare(key, node.key);
+        if (cmp == 0) {
+            return merge(node.left, node.right);
+        }
+        if (cmp < 0) {
+            node.left = remove(node.left, key);
+        } else {
+            node.right = remove(node.right, key);
+        }
+        node.update();
+        return node;
+    }
+
+    /**
+     * Разделить поддерево на ключи меньше указанного и остальные
+     */
+    @SuppressWarnings("unchecked")
+    private Node<K>[] split(Node<K> node, K key) {
+        if (node == null) {
+            return new Node[]{null, null};
+        }
+        if (comparator.compare(node.key, key) < 0) {
+            Node<K>[] parts = split(node.right, key);
+            node.right = parts[0];
+            node.update();
+            parts[0] = node;
+            return parts;
+        }
+        Node<K>[] parts = split(node.left, key);
+        node.left = parts[1];
+        node.update();
+        parts[1] = node;
+        return parts;
+    }
+
+    /**
+     * Объединить поддеревья, все ключи левого меньше ключей правого
+     */
+    private Node<K> merge(Node<K> left, Node<K> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private static int size(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static final class Node<K> {
+
+        private final K key;
+
+        private final int priority = ThreadLocalRandom.current().nextInt();
+
+        private int size = 1;
+
+        private Node<K> left;
+
+        private Node<K> right;
+
+        private Node(K key) {
+            this.key = key;
+        }
+
+        private void update() {
+            size = 1 + OrderStatisticTree.size(left) + OrderStatisticTree.size(right);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package ru.misis.gamification.service.simple.enrollment;
+
+import ru.misis.gamification.model.CoursePositionView;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Гистограммы очков курсов в памяти экземпляра приложения для приближённого места студента
+ * <p>
+ * Для каждого курса хранит количество зачислений в корзинах очков логарифмической ширины: граница каждой
+ * следующей корзины больше предыдущей в {@code (1 + a) / (1 - a)} раз, где {@code a} — допустимая
+ * относительная погрешность. Место оценивается суммой корзин выше корзины пользователя за O(корзин) —
+ * без подсчёта зачислений в БД. Неточны только студенты из той же корзины: их очки отличаются
+ * от очков пользователя не больше чем на {@code a} относительно.
+ * </p>
+ * <p>
+ * Строится из {@code user_course_enrollments} в фоне после старта и перестраивается по расписанию;
+ * между перестроениями обновляется зачислениями и начислениями своего экземпляра после фиксации транзакции.
+ * Малые курсы и начало лидерборда оценкой не обслуживаются: поиск возвращает пусто, и место считается точно.
+ * </p>
+ */
+public interface PointsHistogram {
+
+    /**
+     * Учесть зачисление после фиксации текущей транзакции
+     *
+     * @param courseUuid     UUID курса
+     * @param pointsInCourse Очки на курсе
+     */
+    void recordEnrollment(UUID courseUuid, int pointsInCourse);
+
+    /**
+     * Учесть начисление очков по курсу после фиксации текущей транзакции
+     *
+     * @param courseUuid     UUID курса
+     * @param points         Начисленные очки
+     * @param pointsInCourse Сумма очков на курсе после начисления
+     */
+    void recordPoints(UUID courseUuid, int points, int pointsInCourse);
+
+    /**
+     * Оценить место суммы очков в лидерборде курса
+     *
+     * @param courseUuid     UUID курса
+     * @param pointsInCourse Сумма очков на курсе
+     * @return Приближённое место; пусто, если гистограмма выключена или не построена, курс меньше порога
+     * или оценка попадает в начало лидерборда, где место считается точно
+     */
+    Optional<CoursePositionView> estimate(UUID courseUuid, int pointsInCourse);
+}
@@ -0,0 +1,285 @@
+package ru.misis.gamification.service.simple.enrollment;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.misis.gamification.model.CoursePointsCountView;
+import ru.misis.gamification.model.CoursePositionView;
+import ru.misis.gamification.repository.UserCourseEnrollmentRepository;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+@Slf4j
+public class PointsHistogramImpl implements PointsHistogram {
+
+    /**
+     * Репозиторий связей пользователь — курс
+     */
+    private final UserCourseEnrollmentRepository enrollmentRepository;
+
+    /**
+     * Признак включения приближённого подсчёта места
+     */
+    private final boolean enabled;
+
+    /**
+     * Минимальное количество зачислений на курсе, при котором место оценивается
+     */
+    private final long minEnrollments;
+
+    /**
+     * Места до этого включительно считаются точно
+     */
+    private final long exactTopN;
+
+    /**
+     * Логарифм отношения границ соседних корзин
+     */
+    private final double logGamma;
+
+    /**
+     * Гистограммы по UUID курса; {@code null}, пока не построены. При перестроении заменяются целиком
+     */
+    private volatile Map<UUID, CourseHistogram> courses;
+
+    /**
+     * Таймер перестроения гистограмм
+     */
+    private final Timer rebuildTimer;
+
+    /**
+     * Счётчик мест, оценённых по гистограмме
+     */
+    private final Counter hits;
+
+    /**
+     * Счётчик мест в верхней части лидерборда, переданных на точный подсчёт
+     */
+    private final Counter exact;
+
+    /**
+     * Счётчик запросов, переданных на точный подсчёт из-за отсутствия гистограммы или малого курса
+     */
+    private final Counter bypasses;
+
+    public PointsHistogramImpl(UserCourseEnrollmentRepository enrollmentRepository,
+                               MeterRegistry meterRegistry,
+                               @Value("${gamification.features.approximate-rank.enabled:false}") boolean enabled,
+                               @Value("${gamification.features.approximate-rank.relative-error:0.01}") double relativeError,
+                               @Value("${gamification.features.approximate-rank.min-enrollments:10000}") long minEnrollments,
+                               @Value("${gamification.features.approximate-rank.exact-top-n:100}") long exactTopN) {
+        this.enrollmentRepository = enrollmentRepository;
+        this.enabled = enabled;
+        this.minEnrollments = minEnrollments;
+        this.exactTopN = exactTopN;
+        this.logGamma = Math.log((1 + relativeError) / (1 - relativeError));
+
+        this.rebuildTimer = Timer.builder("gamification.leaderboard.histogram.rebuild")
+                .description("Длительность перестроения гистограмм очков курсов")
+                .register(meterRegistry);
+        this.hits = Counter.builder("gamification.leaderboard.histogram.lookups")
+                .description("Оценка места на курсе по гистограмме очков")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.exact = Counter.builder("gamification.leaderboard.histogram.lookups")
+                .description("Оценка места на курсе по гистограмме очков")
+                .tag("result", "exact")
+                .register(meterRegistry);
+        this.bypasses = Counter.builder("gamification.leaderboard.histogram.lookups")
+                .description("Оценка места на курсе по гистограмме очков")
+                .tag("result", "bypass")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Построить гистограммы в фоне после старта приложения, чтобы не задерживать старт
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            Thread.ofVirtual().name("points-histogram-build").start(this::scheduledRebuild);
+        }
+    }
+
+    /**
+     * Периодически перестраивать гистограммы, чтобы учесть начисления других экземпляров
+     * и убрать расхождения с начислениями, пришедшимися на время перестроения
+     */
+    @Scheduled(fixedDelayString = "${gamification.features.approximate-rank.rebuild-interval-ms:300000}",
+            initialDelayString = "${gamification.features.approximate-rank.rebuild-interval-ms:300000}")
+    public void scheduledRebuild() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            rebuildTimer.record(this::rebuild);
+        } catch (RuntimeException e) {
+            log.error("Ошибка построения гистограмм очков, используются предыдущие: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Прочитать распределение очков по курсам и заменить гистограммы
+     */
+    void rebuild() {
+        Map<UUID, CourseHistogram> rebuilt = new ConcurrentHashMap<>();
+        for (CoursePointsCountView row : enrollmentRepository.findPointsDistribution()) {
+            rebuilt.computeIfAbsent(row.getCourseUuid(), uuid -> new CourseHistogram())
+                    .add(bucketOf(row.getPointsInCourse()), row.getEnrollments());
+        }
+
+        courses = rebuilt;
+        log.debug("Гистограммы очков построены: курсов={}", rebuilt.size());
+    }
+
+    @Override
+    public void recordEnrollment(UUID courseUuid, int pointsInCourse) {
+        if (enabled) {
+            afterCommit(() -> {
+                Map<UUID, CourseHistogram> current = courses;
+                // Гистограммы ещё не построены — построение прочитает зачисление из БД
+                if (current != null) {
+                    current.computeIfAbsent(courseUuid, uuid -> new CourseHistogram())
+                            .add(bucketOf(pointsInCourse), 1);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void recordPoints(UUID courseUuid, int points, int pointsInCourse) {
+        if (!enabled) {
+            return;
+        }
+        afterCommit(() -> {
+            Map<UUID, CourseHistogram> current = courses;
+            CourseHistogram histogram = current != null ? current.get(courseUuid) : null;
+            if (histogram != null) {
+                histogram.move(bucketOf(pointsInCourse - points), bucketOf(pointsInCourse));
+            }
+        });
+    }
+
+    @Override
+    public Optional<CoursePositionView> estimate(UUID courseUuid, int pointsInCourse) {
+        Map<UUID, CourseHistogram> current = courses;
+        CourseHistogram histogram = enabled && current != null ? current.get(courseUuid) : null;
+        if (histogram == null) {
+            bypasses.increment();
+            return Optional.empty();
+        }
+
+        int bucket = bucketOf(pointsInCourse);
+        long[] counts = histogram.count(bucket);
+        long above = counts[0];
+        long same = counts[1];
+        long enrollments = counts[2];
+        if (enrollments < minEnrollments) {
+            bypasses.increment();
+            return Optional.empty();
+        }
+
+        // Внутри корзины студенты считаются равномерно распределёнными между её границами
+        long sameAbove = Math.round(fractionAbove(bucket, pointsInCourse) * Math.max(same - 1, 0));
+        long rank = Math.min(above + sameAbove + 1, enrollments);
+        if (rank <= exactTopN) {
+            exact.increment();
+            return Optional.empty();
+        }
+
+        hits.increment();
+        return Optional.of(new CoursePositionView(rank, enrollments, true));
+    }
+
+    /**
+     * Номер корзины: 0 — неположительные очки, далее корзина {@code i} содержит очки
+     * из {@code (gamma^(i-2), gamma^(i-1)]}
+     */
+    int bucketOf(int points) {
+        if (points <= 0) {
+            return 0;
+        }
+        return 1 + (int) Math.ceil(Math.log(points) / logGamma);
+    }
+
+    /**
+     * Доля корзины выше указанных очков
+     */
+    private double fractionAbove(int bucket, int points) {
+        if (bucket == 0) {
+            return 0;
+        }
+        double upper = Math.exp((bucket - 1) * logGamma);
+        double lower = Math.exp((bucket - 2) * logGamma);
+        return Math.clamp((upper - points) / (upper - lower), 0.0, 1.0);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Гистограмма очков одного курса
+     */
+    private static final class CourseHistogram {
+
+        private long[] counts = new long[64];
+
+        private long enrollments;
+
+        synchronized void add(int bucket, long delta) {
+            ensureCapacity(bucket);
+            counts[bucket] += delta;
+            enrollments += delta;
+        }
+
+        synchronized void move(int from, int to) {
+            if (from == to) {
+                return;
+            }
+            ensureCapacity(Math.max(from, to));
+            counts[from]--;
+            counts[to]++;
+        }
+
+        /**
+         * @return Зачислений в корзинах выше указанной, в указанной корзине и всего
+         */
+        synchronized long[] count(int bucket) {
+            long above = 0;
+            for (int i = bucket + 1; i < counts.length; i++) {
+                above += Math.max(counts[i], 0);
+            }
+            long same = bucket < counts.length ? Math.max(counts[bucket], 0) : 0;
+            return new long[]{above, same, enrollments};
+        }
+
+        private void ensureCapacity(int bucket) {
+            if (bucket >= counts.length) {
+                counts = Arrays.copyOf(counts, Math.max(bucket + 1, counts.length * 2));
+            }
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package ru.misis.gamification.service.simple.enrollment;
+
+import ru.misis.gamification.model.LeaderboardPositionView;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Лидерборд одного курса или одной группы курса в памяти
+ * <p>
+ * Хранит два упорядоченных дерева: различные значения очков (для плотного ранга, как {@code DENSE_RANK()})
+ * и самих пользователей по убыванию очков (для страниц лидерборда). Очки на курсе только растут,
+ * поэтому запись меньшего значения, чем сохранённое, игнорируется — порядок применения обновлений не важен.
+ * </p>
+ * <p>
+ * Не потокобезопасен.
+ * </p>
+ */
+final class RankPartition {
+
+    /**
+     * Сравнение UUID как в PostgreSQL — побайтно без знака ({@link UUID#compareTo} сравнивает со знаком)
+     */
+    private static final Comparator<UUID> UUID_ORDER = Comparator
+            .comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+            .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
+
+    /**
+     * Порядок лидерборда, совпадающий с запросами к БД: по убыванию очков, при равенстве — по убыванию UUID
+     */
+    private static final Comparator<LeaderboardPositionView> ORDER = Comparator
+            .comparingInt(LeaderboardPositionView::pointsInCourse).reversed()
+            .thenComparing(LeaderboardPositionView::userUuid, UUID_ORDER.reversed());
+
+    private final Map<UUID, Integer> pointsByUser = new HashMap<>();
+
+    /**
+     * Количество пользователей с каждым значением очков
+     */
+    private final Map<Integer, Integer> usersByPoints = new HashMap<>();
+
+    private final OrderStatisticTree<Integer> distinctPoints = new OrderStatisticTree<>(Comparator.reverseOrder());
+
+    private final OrderStatisticTree<LeaderboardPositionView> positions = new OrderStatisticTree<>(ORDER);
+
+    /**
+     * Записать очки пользователя, если они больше сохранённых
+     *
+     * @param userUuid UUID пользователя
+     * @param points   Очки на курсе
+     */
+    void put(UUID userUuid, int points) {
+        Integer current = pointsByUser.get(userUuid);
+        if (current != null) {
+            if (current >= points) {
+                return;
+            }
+            removePosition(userUuid, current);
+        }
+
+        pointsByUser.put(userUuid, points);
+        positions.insert(new LeaderboardPositionView(userUuid, points));
+        if (usersByPoints.merge(points, 1, Integer::sum) == 1) {
+            distinctPoints.insert(points);
+        }
+    }
+
+    /**
+     * Удалить пользователя из лидерборда
+     *
+     * @param userUuid UUID пользователя
+     */
+    void remove(UUID userUuid) {
+        Integer current = pointsByUser.remove(userUuid);
+        if (current != null) {
+            removePosition(userUuid, current);
+        }
+    }
+
+    /**
+     * @param userUuid UUID пользователя
+     * @return Есть ли пользователь в лидерборде
+     */
+    boolean contains(UUID userUuid) {
+        return pointsByUser.containsKey(userUuid);
+    }
+
+    /**
+     * Плотный ранг пользователя: одинаковые очки — одинаковый ранг, ранги не пропускаются
+     *
+     * @param userUuid UUID пользователя
+     * @return Ранг (1 = лидер) или {@code null}, если пользователя нет в лидерборде
+     */
+    Long denseRank(UUID userUuid) {
+        Integer points = pointsByUser.get(userUuid);
+        return points == null ? null : distinctPoints.countBefore(points) + 1L;
+    }
+
+    /**
+     * Страница лидерборда по убыванию очков
+     *
+     * @param offset Позиция первой строки, начиная с 0
+     * @param limit  Размер страницы
+     * @return Позиции пользователей
+     */
+    List<LeaderboardPositionView> page(int offset, int limit) {
+        return positions.range(offset, limit);
+    }
+
+    /**
+     * Окно лидерборда вокруг пользователя
+     *
+     * @param userUuid UUID пользователя
+     * @param radius   Количество позиций выше и ниже пользователя
+     * @return Позиции по убыванию очков, включая пользователя; пустой список, если его нет в лидерборде
+     */
+    List<LeaderboardPositionView> window(UUID userUuid, int radius) {
+        Integer points = pointsByUser.get(userUuid);
+        if (points == null) {
+            return List.of();
+        }
+        int position = positions.countBefore(new LeaderboardPositionView(userUuid, points));
+        int from = Math.max(0, position - radius);
+        return positions.range(from, position - from + radius + 1);
+    }
+
+    /**
+     * @return Количество пользователей
+     */
+    int size() {
+        return pointsByUser.size();
+    }
+
+    private void removePosition(UUID userUuid, int points) {
+        positions.remove(new LeaderboardPositionView(userUuid, points));
+        if (usersByPoints.merge(points, -1, Integer::sum) == 0) {
+            usersByPoints.remove(points);
+            distinctPoints.remove(points);
+        }
+    }
+}
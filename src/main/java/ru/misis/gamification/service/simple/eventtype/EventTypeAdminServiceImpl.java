@@ -3,12 +3,14 @@ package ru.misis.gamification.service.simple.eventtype;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 import ru.misis.gamification.entity.EventType;
+import ru.misis.gamification.events.EventTypeChangedEvent;
 import ru.misis.gamification.exception.DuplicateEventTypeException;
 import ru.misis.gamification.exception.EventTypeNotFoundException;
 import ru.misis.gamification.repository.EventTypeRepository;
@@ -26,13 +28,20 @@ public class EventTypeAdminServiceImpl implements EventTypeAdminService {
      */
     private final EventTypeRepository repository;
 
+    /**
+     * Публикатор событий приложения
+     */
+    private final ApplicationEventPublisher eventPublisher;
+
     @Transactional
     @Override
     public EventType create(@NotNull(message = "{eventType.required}") EventType eventType) {
         if (repository.existsByTypeCode(eventType.getTypeCode())) {
             throw new DuplicateEventTypeException(eventType.getTypeCode());
         }
-        return repository.save(eventType);
+        EventType saved = repository.save(eventType);
+        eventPublisher.publishEvent(new EventTypeChangedEvent(saved.getTypeCode()));
+        return saved;
     }
 
     @Transactional(readOnly = true)
@@ -61,7 +70,9 @@ public class EventTypeAdminServiceImpl implements EventTypeAdminService {
             existing.setActive(eventType.isActive());
         }
 
-        return repository.save(existing);
+        EventType saved = repository.save(existing);
+        eventPublisher.publishEvent(new EventTypeChangedEvent(saved.getTypeCode()));
+        return saved;
     }
 
     @Transactional
@@ -70,6 +81,7 @@ public class EventTypeAdminServiceImpl implements EventTypeAdminService {
         EventType type = getById(id);
         type.setActive(false);
         repository.save(type);
+        eventPublisher.publishEvent(new EventTypeChangedEvent(type.getTypeCode()));
         log.info("Тип события деактивирован: code={}, id={}", type.getTypeCode(), id);
     }
 
@@ -0,0 +1,48 @@
+package ru.misis.gamification.service.simple.eventtype;
+
+import ru.misis.gamification.entity.EventType;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Реестр активных типов событий в памяти
+ * <p>
+ * Хранит неизменяемый снимок активных типов по коду. Снимок загружается при старте и заменяется целиком
+ * после фиксации изменений через админ-сервис, а также периодически — чтобы подхватить изменения,
+ * сделанные другими экземплярами приложения. Каждая замена увеличивает версию реестра.
+ * </p>
+ * <p>
+ * Возвращаемые типы событий — общие отсоединённые экземпляры, их нельзя изменять.
+ * Если реестр отключён, каждый запрос читает типы из БД.
+ * </p>
+ */
+public interface EventTypeRegistry {
+
+    /**
+     * Найти активный тип события по коду
+     *
+     * @param typeCode Уникальный код типа события из LMS
+     * @return Тип события, либо пусто, если код неизвестен или тип отключён
+     */
+    Optional<EventType> findActive(String typeCode);
+
+    /**
+     * Найти активные типы событий по набору кодов
+     *
+     * @param typeCodes Уникальные коды типов событий из LMS
+     * @return Список найденных активных типов (неизвестные и отключённые коды пропускаются)
+     */
+    List<EventType> findAllActive(Collection<String> typeCodes);
+
+    /**
+     * Перечитать активные типы событий из БД и заменить снимок, если он изменился
+     */
+    void refresh();
+
+    /**
+     * @return Версия текущего снимка (0 — снимок ещё не загружен)
+     */
+    long getVersion();
+}
@@ -0,0 +1,160 @@
+package ru.misis.gamification.service.simple.eventtype;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.misis.gamification.entity.EventType;
+import ru.misis.gamification.events.EventTypeChangedEvent;
+import ru.misis.gamification.repository.EventTypeRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Component
+@Slf4j
+public class EventTypeRegistryImpl implements EventTypeRegistry {
+
+    /**
+     * Репозиторий типов событий
+     */
+    private final EventTypeRepository repository;
+
+    private final boolean enabled;
+
+    /**
+     * Текущий снимок; заменяется целиком, никогда не изменяется на месте
+     */
+    private volatile Snapshot snapshot;
+
+    public EventTypeRegistryImpl(EventTypeRepository repository,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${gamification.features.event-type-registry.enabled:true}") boolean enabled) {
+        this.repository = repository;
+        this.enabled = enabled;
+
+        Gauge.builder("gamification.event.type.registry.version", this, EventTypeRegistryImpl::getVersion)
+                .description("Версия снимка активных типов событий")
+                .register(meterRegistry);
+        Gauge.builder("gamification.event.type.registry.size", this,
+                        registry -> registry.snapshot == null ? 0 : registry.snapshot.byCode().size())
+                .description("Количество активных типов событий в реестре")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            refresh();
+        }
+    }
+
+    /**
+     * Заменить снимок после фиксации изменения типа события
+     * <p>
+     * Чтение выполняется в новой транзакции, чтобы не получить экземпляры из контекста
+     * только что завершённой транзакции администратора.
+     * </p>
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onEventTypeChanged(EventTypeChangedEvent event) {
+        if (enabled) {
+            log.debug("Тип события изменён, обновление реестра: code={}", event.getTypeCode());
+            refresh();
+        }
+    }
+
+    /**
+     * Периодически перечитывать типы событий, изменённые другими экземплярами приложения
+     */
+    @Scheduled(fixedDelayString = "${gamification.features.event-type-registry.refresh-interval-ms:60000}",
+            initialDelayString = "${gamification.features.event-type-registry.refresh-interval-ms:60000}")
+    public void scheduledRefresh() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.error("Ошибка обновления реестра типов событий, используется версия {}", getVersion(), e);
+        }
+    }
+
+    @Override
+    public Optional<EventType> findActive(String typeCode) {
+        if (!enabled) {
+            return repository.findByTypeCodeAndActiveTrue(typeCode);
+        }
+        return Optional.ofNullable(current().byCode().get(typeCode));
+    }
+
+    @Override
+    public List<EventType> findAllActive(Collection<String> typeCodes) {
+        if (!enabled) {
+            return repository.findAllByTypeCodeInAndActiveTrue(typeCodes);
+        }
+
+        Map<String, EventType> byCode = current().byCode();
+        List<EventType> result = new ArrayList<>(typeCodes.size());
+        for (String typeCode : typeCodes) {
+            EventType type = byCode.get(typeCode);
+            if (type != null) {
+                result.add(type);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized void refresh() {
+        Map<String, EventType> loaded = repository.findAllByActiveTrue().stream()
+                .collect(Collectors.toUnmodifiableMap(EventType::getTypeCode, Function.identity()));
+
+        Snapshot previous = snapshot;
+        if (previous != null && previous.byCode().equals(loaded)) {
+            return;
+        }
+
+        long version = previous == null ? 1 : previous.version() + 1;
+        snapshot = new Snapshot(version, loaded);
+        log.info("Реестр типов событий обновлён: версия={}, активных типов={}", version, loaded.size());
+    }
+
+    @Override
+    public long getVersion() {
+        Snapshot current = snapshot;
+        return current == null ? 0 : current.version();
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            refresh();
+            current = snapshot;
+        }
+        return current;
+    }
+
+    /**
+     * Неизменяемый снимок активных типов событий
+     *
+     * @param version Версия снимка
+     * @param byCode  Активные типы событий по коду
+     */
+    private record Snapshot(long version, Map<String, EventType> byCode) {
+    }
+}
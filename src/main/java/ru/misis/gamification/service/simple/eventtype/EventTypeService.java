@@ -8,6 +8,8 @@ import ru.misis.gamification.entity.EventType;
 import ru.misis.gamification.exception.EventTypeNotFoundException;
 
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 
 /**
  * Сервис управления типами событий
@@ -24,6 +26,15 @@ public interface EventTypeService {
      */
     EventType getActiveByCode(@NotBlank(message = "{eventType.code.required}") String typeCode);
 
+    /**
+     * Получить активные типы событий по набору кодов
+     *
+     * @param typeCodes Уникальные коды типов событий из LMS
+     * @return Список найденных активных типов (неизвестные и отключённые коды пропускаются)
+     * @throws ConstraintViolationException если typeCodes == null
+     */
+    List<EventType> getActiveByCodes(@NotNull(message = "{eventType.codes.required}") Collection<String> typeCodes);
+
     /**
      * Проверить, не превышен ли дневной лимит очков по типу для пользователя
      *
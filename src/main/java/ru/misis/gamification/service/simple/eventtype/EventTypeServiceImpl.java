@@ -6,41 +6,56 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 import ru.misis.gamification.entity.EventType;
 import ru.misis.gamification.exception.EventTypeNotFoundException;
-import ru.misis.gamification.repository.EventTypeRepository;
+import ru.misis.gamification.service.simple.quota.DailyPointsUsageService;
 import ru.misis.gamification.service.simple.user.UserService;
 
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
-@Transactional(readOnly = true)
+@Transactional(readOnly = true, noRollbackFor = EventTypeNotFoundException.class)
 @Validated
 public class EventTypeServiceImpl implements EventTypeService {
 
     /**
-     * Репозиторий типов событий
+     * Реестр активных типов событий
      */
-    private final EventTypeRepository repository;
+    private final EventTypeRegistry eventTypeRegistry;
 
     /**
      * Сервис управления пользователями
      */
     private final UserService userService;
 
+    /**
+     * Сервис дневных счётчиков очков по типам событий
+     */
+    private final DailyPointsUsageService dailyPointsUsageService;
+
     @Override
     public EventType getActiveByCode(String typeCode) {
-        return repository.findByTypeCodeAndActiveTrue(typeCode)
+        return eventTypeRegistry.findActive(typeCode)
                 .orElseThrow(() -> new EventTypeNotFoundException("Активный тип события не найден по коду: " + typeCode));
     }
 
+    @Override
+    public List<EventType> getActiveByCodes(Collection<String> typeCodes) {
+        if (typeCodes.isEmpty()) {
+            return List.of();
+        }
+        return eventTypeRegistry.findAllActive(typeCodes);
+    }
+
     @Override
     public boolean canAwardPoints(String userId, String typeCode, int pointsToAward, LocalDate date) {
         EventType type = getActiveByCode(typeCode);
         if (type.getMaxDailyPoints() == null) return true;
 
         UUID userUuid = userService.getUserUuidByExternalId(userId);
-        long currentPoints = repository.calculateDailyPointsSumForUserAndType(userUuid, type.getUuid(), date);
+        long currentPoints = dailyPointsUsageService.getPoints(userUuid, type.getUuid(), date);
         return currentPoints + pointsToAward <= type.getMaxDailyPoints();
     }
 
@@ -48,6 +63,6 @@ public class EventTypeServiceImpl implements EventTypeService {
     public long getDailyPointsSum(String userId, String typeCode, LocalDate date) {
         UUID userUuid = userService.getUserUuidByExternalId(userId);
         EventType type = getActiveByCode(typeCode);
-        return repository.calculateDailyPointsSumForUserAndType(userUuid, type.getUuid(), date);
+        return dailyPointsUsageService.getPoints(userUuid, type.getUuid(), date);
     }
 }
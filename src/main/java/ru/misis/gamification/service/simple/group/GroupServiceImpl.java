@@ -26,13 +26,14 @@ public class GroupServiceImpl implements GroupService {
     @Override
     public boolean existsByGroupIdAndCourseId(@NotBlank(message = "{group.id.required}") String groupId,
                                               @NotBlank(message = "{course.id.required}") String courseId) {
-        return groupRepository.existsByGroupIdAndCourseCourseId(groupId, courseId);
+        return groupRepository.findByNaturalId(groupId, courseId).isPresent();
     }
 
     @Override
     public UUID getGroupUuidByExternalIdAndCourseId(@NotBlank(message = "{group.id.required}") String groupId,
                                                     @NotBlank(message = "{course.id.required}") String courseId) {
-        return groupRepository.findUuidByGroupIdAndCourseCourseId(groupId, courseId)
+        return groupRepository.findByNaturalId(groupId, courseId)
+                .map(Group::getUuid)
                 .orElseThrow(() -> new GroupNotFoundException(groupId, courseId));
     }
 
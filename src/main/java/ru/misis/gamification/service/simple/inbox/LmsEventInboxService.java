@@ -0,0 +1,86 @@
+package ru.misis.gamification.service.simple.inbox;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import ru.misis.gamification.entity.LmsEventInbox;
+import ru.misis.gamification.exception.LmsEventInboxNotFoundException;
+import ru.misis.gamification.model.AwardRequest;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Сервис управления входящей очередью событий LMS
+ */
+public interface LmsEventInboxService {
+
+    /**
+     * Поставить событие в очередь
+     * <p>
+     * Повторная постановка события с тем же eventId ничего не меняет.
+     * </p>
+     *
+     * @param request Запрос на начисление очков
+     * @return true — событие поставлено в очередь, false — событие уже было принято ранее
+     */
+    boolean enqueue(@NotNull(message = "{request.required}") AwardRequest request);
+
+    /**
+     * Получить событие очереди по идентификатору события из LMS
+     *
+     * @param eventId Идентификатор события из LMS
+     * @return Событие очереди
+     * @throws LmsEventInboxNotFoundException если событие не поступало в очередь
+     */
+    LmsEventInbox getByEventId(@NotBlank(message = "{event.id.required}") String eventId);
+
+    /**
+     * Захватить пачку готовых к обработке событий
+     *
+     * @param limit Максимальный размер пачки
+     * @return Захваченные события в порядке поступления
+     */
+    List<LmsEventInbox> claimBatch(int limit);
+
+    /**
+     * Зафиксировать результат начисления по событию
+     *
+     * @param uuid          UUID события очереди
+     * @param resultStatus  Статус результата (success, duplicate, error)
+     * @param resultMessage Сообщение результата
+     */
+    void markCompleted(@NotNull(message = "{inbox.uuid.required}") UUID uuid, String resultStatus, String resultMessage);
+
+    /**
+     * Зафиксировать ошибку обработки события
+     * <p>
+     * Пока не исчерпаны попытки, событие возвращается в очередь с экспоненциальной задержкой,
+     * затем откладывается в статус PARKED.
+     * </p>
+     *
+     * @param event Событие очереди (с уже увеличенным счётчиком попыток)
+     * @param error Текст ошибки
+     */
+    void markFailed(@NotNull(message = "{inbox.event.required}") LmsEventInbox event, String error);
+
+    /**
+     * Вернуть захваченные события в очередь, не засчитывая попытку
+     * <p>
+     * Для событий, которые не были переданы на обработку. Срок следующей попытки не меняется:
+     * события снова захватываются в порядке поступления.
+     * </p>
+     *
+     * @param events События очереди
+     */
+    void requeue(@NotNull(message = "{inbox.events.required}") Collection<LmsEventInbox> events);
+
+    /**
+     * Вернуть в очередь события, слишком долго находящиеся в обработке
+     *
+     * @param timeout Допустимое время обработки
+     * @return Количество возвращённых событий
+     */
+    int releaseStale(@NotNull Duration timeout);
+}
@@ -0,0 +1,135 @@
+package ru.misis.gamification.service.simple.inbox;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.validation.annotation.Validated;
+import ru.misis.gamification.entity.LmsEventInbox;
+import ru.misis.gamification.entity.LmsEventInboxStatus;
+import ru.misis.gamification.exception.LmsEventInboxNotFoundException;
+import ru.misis.gamification.model.AwardRequest;
+import ru.misis.gamification.repository.LmsEventInboxRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Validated
+public class LmsEventInboxServiceImpl implements LmsEventInboxService {
+
+    /**
+     * Максимальная длина текста ошибки в очереди
+     */
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    /**
+     * Порядок захваченных событий: по времени поступления, при равенстве — по UUID
+     */
+    private static final Comparator<LmsEventInbox> CLAIM_ORDER = Comparator
+            .comparing(LmsEventInbox::getCreatedAt)
+            .thenComparing(LmsEventInbox::getUuid);
+
+    /**
+     * Репозиторий входящей очереди событий LMS
+     */
+    private final LmsEventInboxRepository inboxRepository;
+
+    /**
+     * Максимальное количество попыток обработки события до перевода в PARKED
+     */
+    @Value("${gamification.features.ingestion.async.max-attempts:5}")
+    private int maxAttempts;
+
+    /**
+     * Базовая задержка перед повторной попыткой (удваивается с каждой попыткой)
+     */
+    @Value("${gamification.features.ingestion.async.retry-backoff-ms:5000}")
+    private long retryBackoffMs;
+
+    @Override
+    public boolean enqueue(@NotNull(message = "{request.required}") AwardRequest request) {
+        int inserted = inboxRepository.insertIfAbsent(request.eventId(), request.userId(), request.typeCode(),
+                request.courseId(), request.groupId(), LocalDateTime.now());
+
+        if (inserted == 0) {
+            log.info("Событие уже принято в очередь: eventId={}", request.eventId());
+            return false;
+        }
+
+        log.debug("Событие поставлено в очередь: eventId={}, userId={}", request.eventId(), request.userId());
+        return true;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public LmsEventInbox getByEventId(@NotBlank(message = "{event.id.required}") String eventId) {
+        return inboxRepository.findByEventId(eventId)
+                .orElseThrow(() -> new LmsEventInboxNotFoundException(eventId));
+    }
+
+    @Override
+    public List<LmsEventInbox> claimBatch(int limit) {
+        // UPDATE ... RETURNING не сохраняет порядок подзапроса, а события пользователя
+        // должны передаваться на полосу в порядке поступления
+        List<LmsEventInbox> claimed = new ArrayList<>(inboxRepository.claimBatch(LocalDateTime.now(), limit));
+        claimed.sort(CLAIM_ORDER);
+        return claimed;
+    }
+
+    @Override
+    public void markCompleted(@NotNull(message = "{inbox.uuid.required}") UUID uuid,
+                              String resultStatus, String resultMessage) {
+        inboxRepository.complete(uuid, LmsEventInboxStatus.PROCESSED, resultStatus, resultMessage, LocalDateTime.now());
+    }
+
+    @Override
+    public void markFailed(@NotNull(message = "{inbox.event.required}") LmsEventInbox event, String error) {
+        LocalDateTime now = LocalDateTime.now();
+        String truncated = error != null && error.length() > MAX_ERROR_LENGTH
+                ? error.substring(0, MAX_ERROR_LENGTH)
+                : error;
+
+        if (event.getAttempts() >= maxAttempts) {
+            log.warn("Событие отложено после {} попыток: eventId={}, ошибка={}",
+                    event.getAttempts(), event.getEventId(), truncated);
+            inboxRepository.fail(event.getUuid(), LmsEventInboxStatus.PARKED, truncated, now, now);
+            return;
+        }
+
+        long delayMs = retryBackoffMs << Math.clamp(event.getAttempts() - 1, 0, 16);
+        log.info("Повторная попытка через {} мс: eventId={}, попытка={}, ошибка={}",
+                delayMs, event.getEventId(), event.getAttempts(), truncated);
+        inboxRepository.fail(event.getUuid(), LmsEventInboxStatus.PENDING, truncated,
+                now.plus(Duration.ofMillis(delayMs)), now);
+    }
+
+    @Override
+    public void requeue(@NotNull(message = "{inbox.events.required}") Collection<LmsEventInbox> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        int requeued = inboxRepository.requeue(events.stream().map(LmsEventInbox::getUuid).toList(), LocalDateTime.now());
+        log.info("Возвращены в очередь события, не переданные на обработку: {}", requeued);
+    }
+
+    @Override
+    public int releaseStale(@NotNull Duration timeout) {
+        LocalDateTime now = LocalDateTime.now();
+        int released = inboxRepository.releaseStale(now.minus(timeout), now);
+        if (released > 0) {
+            log.warn("Возвращены в очередь зависшие события: {}", released);
+        }
+        return released;
+    }
+}
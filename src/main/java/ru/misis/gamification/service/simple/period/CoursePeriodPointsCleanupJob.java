@@ -0,0 +1,39 @@
+package ru.misis.gamification.service.simple.period;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Периодическая очистка очков за старые недели и месяцы
+ * <p>
+ * Лидерборды за период строятся по строкам своего периода, поэтому прошлые периоды
+ * хранятся {@code retention-days} дней для просмотра истории.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CoursePeriodPointsCleanupJob {
+
+    /**
+     * Сервис очков по курсу за период
+     */
+    private final CoursePeriodPointsService periodPointsService;
+
+    @Value("${gamification.features.period-leaderboards.retention-days:400}")
+    private int retentionDays;
+
+    @Scheduled(cron = "${gamification.features.period-leaderboards.cleanup-cron:0 45 3 * * *}")
+    public void purge() {
+        try {
+            periodPointsService.purgeBefore(LocalDate.now().minusDays(retentionDays));
+        } catch (Exception e) {
+            log.error("Ошибка при очистке очков за периоды", e);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package ru.misis.gamification.service.simple.period;
+
+import jakarta.validation.constraints.NotNull;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import ru.misis.gamification.entity.LeaderboardPeriod;
+import ru.misis.gamification.model.EnrollmentKeyView;
+import ru.misis.gamification.model.LeaderboardCursor;
+import ru.misis.gamification.model.LeaderboardEntryView;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Сервис очков по курсу за неделю и месяц
+ * <p>
+ * Очки за период увеличиваются в той же транзакции, что и очки по курсу, и заменяют суммирование
+ * истории транзакций при построении лидербордов за период.
+ * </p>
+ */
+public interface CoursePeriodPointsService {
+
+    /**
+     * Увеличить очки по курсу за неделю и месяц дня начисления
+     *
+     * @param userUuid   UUID пользователя
+     * @param courseUuid UUID курса
+     * @param day        День начисления
+     * @param points     Количество начисляемых очков
+     */
+    void addPoints(@NotNull(message = "{user.uuid.required}") UUID userUuid,
+                   @NotNull(message = "{course.uuid.required}") UUID courseUuid,
+                   @NotNull(message = "{date.required}") LocalDate day,
+                   int points);
+
+    /**
+     * Увеличить очки по курсам за неделю и месяц дня начисления пакетом
+     *
+     * @param pointsByEnrollment Количество начисляемых очков по паре пользователь — курс
+     * @param day                День начисления
+     */
+    void addPoints(@NotNull(message = "{enrollments.required}") Map<EnrollmentKeyView, Integer> pointsByEnrollment,
+                   @NotNull(message = "{date.required}") LocalDate day);
+
+    /**
+     * Получить страницу лидерборда курса или группы за период
+     *
+     * @param courseUuid UUID курса
+     * @param groupUuid  UUID группы или {@code null} — лидерборд всего курса
+     * @param period     Период
+     * @param day        Любой день периода
+     * @param pageable   Параметры пагинации
+     * @return Страница лидерборда по убыванию очков за период; ранг — позиция строки
+     */
+    Page<LeaderboardEntryView> findLeaderboard(@NotNull(message = "{course.uuid.required}") UUID courseUuid,
+                                               UUID groupUuid,
+                                               @NotNull(message = "{leaderboard.period.required}") LeaderboardPeriod period,
+                                               @NotNull(message = "{date.required}") LocalDate day,
+                                               @NotNull(message = "{pageable.required}") Pageable pageable);
+
+    /**
+     * Получить страницу лидерборда курса или группы за период, следующую за курсором
+     *
+     * @param courseUuid UUID курса
+     * @param groupUuid  UUID группы или {@code null} — лидерборд всего курса
+     * @param period     Период
+     * @param day        Любой день периода
+     * @param cursor     Курсор последней строки предыдущей страницы
+     * @param size       Размер страницы
+     * @return Срез лидерборда; ранги продолжают ранг курсора
+     */
+    Slice<LeaderboardEntryView> findLeaderboardAfter(@NotNull(message = "{course.uuid.required}") UUID courseUuid,
+                                                     UUID groupUuid,
+                                                     @NotNull(message = "{leaderboard.period.required}") LeaderboardPeriod period,
+                                                     @NotNull(message = "{date.required}") LocalDate day,
+                                                     @NotNull(message = "{leaderboard.cursor.required}") LeaderboardCursor cursor,
+                                                     int size);
+
+    /**
+     * Удалить очки за периоды, начавшиеся раньше указанного дня
+     *
+     * @param day Первый сохраняемый день начала периода
+     * @return Количество удалённых строк
+     */
+    int purgeBefore(@NotNull(message = "{date.required}") LocalDate day);
+}
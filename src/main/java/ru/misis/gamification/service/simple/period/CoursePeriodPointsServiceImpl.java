@@ -0,0 +1,111 @@
+package ru.misis.gamification.service.simple.period;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.validation.annotation.Validated;
+import ru.misis.gamification.entity.LeaderboardPeriod;
+import ru.misis.gamification.model.EnrollmentKeyView;
+import ru.misis.gamification.model.LeaderboardCursor;
+import ru.misis.gamification.model.LeaderboardEntryView;
+import ru.misis.gamification.repository.CoursePeriodPointsRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Validated
+public class CoursePeriodPointsServiceImpl implements CoursePeriodPointsService {
+
+    /**
+     * Репозиторий очков по курсу за период
+     */
+    private final CoursePeriodPointsRepository periodPointsRepository;
+
+    @Override
+    public void addPoints(@NotNull(message = "{user.uuid.required}") UUID userUuid,
+                          @NotNull(message = "{course.uuid.required}") UUID courseUuid,
+                          @NotNull(message = "{date.required}") LocalDate day,
+                          int points) {
+        periodPointsRepository.addPoints(userUuid, courseUuid, points,
+                LeaderboardPeriod.WEEK.start(day), LeaderboardPeriod.MONTH.start(day));
+    }
+
+    @Override
+    public void addPoints(@NotNull(message = "{enrollments.required}") Map<EnrollmentKeyView, Integer> pointsByEnrollment,
+                          @NotNull(message = "{date.required}") LocalDate day) {
+        if (pointsByEnrollment.isEmpty()) {
+            return;
+        }
+
+        UUID[] userUuids = new UUID[pointsByEnrollment.size()];
+        UUID[] courseUuids = new UUID[pointsByEnrollment.size()];
+        int[] points = new int[pointsByEnrollment.size()];
+        int i = 0;
+        for (Map.Entry<EnrollmentKeyView, Integer> entry : pointsByEnrollment.entrySet()) {
+            userUuids[i] = entry.getKey().userUuid();
+            courseUuids[i] = entry.getKey().courseUuid();
+            points[i++] = entry.getValue();
+        }
+
+        int updated = periodPointsRepository.addPointsBatch(userUuids, courseUuids, points,
+                LeaderboardPeriod.WEEK.start(day), LeaderboardPeriod.MONTH.start(day));
+        log.debug("Очки за период увеличены пакетом: day={}, строк={}", day, updated);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Page<LeaderboardEntryView> findLeaderboard(@NotNull(message = "{course.uuid.required}") UUID courseUuid,
+                                                      UUID groupUuid,
+                                                      @NotNull(message = "{leaderboard.period.required}") LeaderboardPeriod period,
+                                                      @NotNull(message = "{date.required}") LocalDate day,
+                                                      @NotNull(message = "{pageable.required}") Pageable pageable) {
+        return periodPointsRepository.findLeaderboard(courseUuid, groupUuid, period, period.start(day),
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Slice<LeaderboardEntryView> findLeaderboardAfter(@NotNull(message = "{course.uuid.required}") UUID courseUuid,
+                                                            UUID groupUuid,
+                                                            @NotNull(message = "{leaderboard.period.required}") LeaderboardPeriod period,
+                                                            @NotNull(message = "{date.required}") LocalDate day,
+                                                            @NotNull(message = "{leaderboard.cursor.required}") LeaderboardCursor cursor,
+                                                            int size) {
+        Limit limit = Limit.of(size + 1);
+        LocalDate periodStart = period.start(day);
+        List<LeaderboardEntryView> rows = groupUuid == null
+                ? periodPointsRepository.findLeaderboardAfter(courseUuid, period, periodStart,
+                cursor.pointsInCourse(), cursor.userUuid(), limit)
+                : periodPointsRepository.findGroupLeaderboardAfter(courseUuid, groupUuid, period, periodStart,
+                cursor.pointsInCourse(), cursor.userUuid(), limit);
+
+        boolean hasNext = rows.size() > size;
+        List<LeaderboardEntryView> content = hasNext ? rows.subList(0, size) : rows;
+        long rank = cursor.rank();
+        for (LeaderboardEntryView entry : content) {
+            entry.setRank(++rank);
+        }
+        return new SliceImpl<>(content, PageRequest.ofSize(size), hasNext);
+    }
+
+    @Transactional
+    @Override
+    public int purgeBefore(@NotNull(message = "{date.required}") LocalDate day) {
+        int deleted = periodPointsRepository.deleteByPeriodStartBefore(day);
+        log.info("Удалены очки за периоды, начавшиеся ранее {}: {}", day, deleted);
+        return deleted;
+    }
+}
@@ -2,6 +2,10 @@ package ru.misis.gamification.service.simple.progress;
 
 /**
  * Сервис расчета уровня пользователя на основе накопленных очков
+ * <p>
+ * Формула компилируется при старте в таблицу порогов уровней, поэтому стоимость расчёта
+ * не зависит от уровня пользователя.
+ * </p>
  */
 public interface LevelCalculatorService {
 
@@ -27,4 +31,31 @@ public interface LevelCalculatorService {
      * @return Количество очков до следующего уровня (всегда > 0)
      */
     long pointsToNextLevel(int currentLevel);
+
+    /**
+     * Рассчитывает уровни для набора значений накопленных очков
+     *
+     * @param totalPoints Накопленные очки
+     * @return Уровни в том же порядке
+     */
+    int[] calculateLevels(int[] totalPoints);
+
+    /**
+     * Рассчитывает количество очков до следующего уровня для набора уровней
+     *
+     * @param levels Текущие уровни
+     * @return Очки до следующего уровня в том же порядке
+     */
+    long[] pointsToNextLevels(int[] levels);
+
+    /**
+     * Получить описание действующей формулы
+     * <p>
+     * Уровни, рассчитанные при разных описаниях, могут различаться — по нему задача пересчёта
+     * определяет, что формула сменилась.
+     * </p>
+     *
+     * @return Описание формулы и её параметров, например {@code TRIANGULAR(base=500)}
+     */
+    String getCurveSignature();
 }
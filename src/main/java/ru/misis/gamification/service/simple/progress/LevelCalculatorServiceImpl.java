@@ -1,147 +1,63 @@
 package ru.misis.gamification.service.simple.progress;
 
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 @Service
+@Slf4j
 public class LevelCalculatorServiceImpl implements LevelCalculatorService {
 
     /**
-     * Тип формулы расчёта уровня.
-     * <p>Возможные значения: {@code TRIANGULAR}, {@code QUADRATIC}, {@code LINEAR} (регистр не важен).</p>
+     * Кривая уровней, скомпилированная из настроек формулы при старте
      */
-    @Value("${gamification.features.leveling.formula.type:TRIANGULAR}")
-    private String formula;
+    private final LevelCurve curve;
 
     /**
-     * Базовый множитель для расчёта очков.
-     * <p>Используется во всех моделях как стартовая единица.</p>
+     * @param formula           Тип формулы расчёта уровня: {@code TRIANGULAR}, {@code QUADRATIC}, {@code LINEAR}
+     *                          (регистр не важен), иначе — fallback-режим
+     * @param base              Базовый множитель для расчёта очков, используется во всех моделях как стартовая единица
+     * @param increment         Прирост очков между уровнями, используется только в модели {@code LINEAR}
+     * @param fallbackIncrement Шаг уровня в fallback-режиме
      */
-    @Value("${gamification.features.leveling.formula.base:500}")
-    private int base;
-
-    /**
-     * Прирост очков между уровнями для линейной модели.
-     * <p>Используется только в модели {@code LINEAR}.</p>
-     */
-    @Value("${gamification.features.leveling.formula.increment:200}")
-    private int increment;
-
-    @Value("${gamification.features.leveling.formula.fallback-level-increment:1000}")
-    private long fallbackIncrement;
+    public LevelCalculatorServiceImpl(@Value("${gamification.features.leveling.formula.type:TRIANGULAR}") String formula,
+                                      @Value("${gamification.features.leveling.formula.base:500}") int base,
+                                      @Value("${gamification.features.leveling.formula.increment:200}") int increment,
+                                      @Value("${gamification.features.leveling.formula.fallback-level-increment:1000}") long fallbackIncrement) {
+        this.curve = LevelCurve.compile(formula, base, increment, fallbackIncrement);
+        log.info("Кривая уровней скомпилирована: {}, уровней в таблице={}", curve.signature(), curve.tableSize());
+    }
 
     @Override
     public int calculateLevel(int totalPoints) {
-        if (totalPoints <= 0) {
-            return 1;
-        }
-
-        return switch (formula.toUpperCase()) {
-            case "TRIANGULAR" -> calculateTriangular(totalPoints);
-            case "QUADRATIC" -> calculateQuadratic(totalPoints);
-            case "LINEAR" -> calculateLinear(totalPoints);
-            default -> {
-                if (fallbackIncrement == 0) yield 1;
-                yield 1 + (totalPoints / (int) fallbackIncrement);
-            }
-        };
+        return curve.levelFor(totalPoints);
     }
 
     @Override
     public long pointsToNextLevel(int currentLevel) {
-        if (currentLevel < 1) {
-            return pointsToNextLevel(1);
-        }
-
-        return switch (formula.toUpperCase()) {
-            case "TRIANGULAR" -> calculateTriangularToNext(currentLevel);
-            case "QUADRATIC" -> calculateQuadraticToNext(currentLevel);
-            case "LINEAR" -> calculateLinearToNext(currentLevel);
-            default -> fallbackIncrement == 0 ? 1000L : fallbackIncrement;
-        };
-    }
-
-    /**
-     * Расчёт уровня по треугольной модели
-     * <p>
-     * Формула: L = ⌊ (-1 + √(1 + 8 × total / base)) / 2 ⌋ + 1
-     * </p>
-     *
-     * @param total Накопленные очки
-     * @return Рассчитанный уровень (≥ 1)
-     */
-    private int calculateTriangular(int total) {
-        if (total <= 0) return 1;
-        double n = (-1 + Math.sqrt(1 + 8.0 * total / base)) / 2;
-        return Math.max(1, (int) Math.floor(n) + 1);
+        return curve.toNextLevel(currentLevel);
     }
 
-    /**
-     * Расчёт уровня по квадратичной модели
-     * <p>
-     * Формула: L = ⌊ √(total / base) ⌋ + 1
-     * </p>
-     *
-     * @param total Накопленные очки
-     * @return Рассчитанный уровень (≥ 1)
-     */
-    private int calculateQuadratic(int total) {
-        if (total <= 0) return 1;
-        double n = Math.sqrt(total / (double) base);
-        return Math.max(1, (int) Math.floor(n) + 1);
+    @Override
+    public String getCurveSignature() {
+        return curve.signature();
     }
 
-    /**
-     * Расчёт уровня по линейной модели
-     * <p>
-     * Итеративно вычисляет кумулятивную сумму: base + increment × (0 + 1 + ... + (level-1))
-     * </p>
-     *
-     * @param total Накопленные очки
-     * @return Рассчитанный уровень (≥ 1)
-     */
-    private int calculateLinear(int total) {
-        if (total <= 0) return 1;
-        int level = 1;
-        int sum = 0;
-        while (sum <= total) {
-            sum += base + increment * (level - 1);
-            level++;
+    @Override
+    public int[] calculateLevels(int[] totalPoints) {
+        int[] levels = new int[totalPoints.length];
+        for (int i = 0; i < totalPoints.length; i++) {
+            levels[i] = curve.levelFor(totalPoints[i]);
         }
-        return level - 1;
-    }
-
-    /**
-     * Расчёт очков до следующего уровня по треугольной модели
-     *
-     * @param level Текущий уровень
-     * @return Очки до уровня level + 1
-     */
-    private long calculateTriangularToNext(int level) {
-        long current = (long) base * level * (level + 1) / 2;
-        long next = (long) base * (level + 1) * (level + 2) / 2;
-        return next - current;
+        return levels;
     }
 
-    /**
-     * Расчёт очков до следующего уровня по квадратичной модели
-     *
-     * @param level Текущий уровень
-     * @return Очки до уровня level + 1
-     */
-    private long calculateQuadraticToNext(int level) {
-        long current = (long) base * level * level;
-        long next = (long) base * (level + 1) * (level + 1);
-        return next - current;
-    }
-
-    /**
-     * Расчёт очков до следующего уровня по линейной модели
-     *
-     * @param level Текущий уровень
-     * @return Очки до уровня level + 1
-     */
-    private long calculateLinearToNext(int level) {
-        return base + (long) increment * level;
+    @Override
+    public long[] pointsToNextLevels(int[] levels) {
+        long[] result = new long[levels.length];
+        for (int i = 0; i < levels.length; i++) {
+            result[i] = curve.toNextLevel(levels[i]);
+        }
+        return result;
     }
 }
@@ -0,0 +1,218 @@
+package ru.misis.gamification.service.simple.progress;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Скомпилированная кривая уровней
+ * <p>
+ * Строится один раз из настроек формулы. Для треугольной, квадратичной и линейной моделей
+ * хранит кумулятивные пороги очков каждого уровня в массиве {@code int[]}: уровень по очкам
+ * находится двоичным поиском, очки до следующего уровня — по индексу. Если шаг между уровнями
+ * постоянен (fallback-режим, линейная модель без прироста), таблица не строится и уровень
+ * вычисляется делением.
+ * </p>
+ * <p>
+ * Неизменяем и потокобезопасен.
+ * </p>
+ */
+final class LevelCurve {
+
+    /**
+     * Очки до следующего уровня в fallback-режиме, если шаг не задан
+     */
+    private static final long DEFAULT_FALLBACK_STEP = 1000L;
+
+    /**
+     * Модель роста порогов уровней
+     */
+    enum Formula {
+        TRIANGULAR, QUADRATIC, LINEAR, FALLBACK;
+
+        /**
+         * Определить модель по значению настройки (регистр не важен)
+         *
+         * @param value Значение настройки
+         * @return Модель; для неизвестного значения — {@link #FALLBACK}
+         */
+        static Formula parse(String value) {
+            if (value == null) {
+                return FALLBACK;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return FALLBACK;
+            }
+        }
+    }
+
+    /**
+     * Модель роста порогов
+     */
+    private final Formula formula;
+
+    /**
+     * Базовый множитель
+     */
+    private final int base;
+
+    /**
+     * Прирост очков между уровнями (только {@code LINEAR})
+     */
+    private final int increment;
+
+    /**
+     * Очки до следующего уровня в fallback-режиме
+     */
+    private final long fallbackIncrement;
+
+    /**
+     * Постоянный шаг между уровнями; 0 — используется таблица порогов
+     */
+    private final long uniformStep;
+
+    /**
+     * Пороги уровней: {@code thresholds[i]} — минимум очков для уровня {@code i + 1}
+     */
+    private final int[] thresholds;
+
+    /**
+     * Очки до следующего уровня: {@code toNext[i]} — для уровня {@code i + 1}
+     */
+    private final long[] toNext;
+
+    private LevelCurve(Formula formula, int base, int increment, long fallbackIncrement) {
+        this.formula = formula;
+        this.base = base;
+        this.increment = increment;
+        this.fallbackIncrement = fallbackIncrement;
+
+        if (formula == Formula.FALLBACK) {
+            this.uniformStep = fallbackIncrement;
+        } else if (formula == Formula.LINEAR && increment == 0) {
+            this.uniformStep = base;
+        } else {
+            this.uniformStep = 0;
+        }
+
+        this.thresholds = uniformStep > 0 || formula == Formula.FALLBACK ? new int[]{0} : buildThresholds();
+        this.toNext = new long[thresholds.length];
+        for (int i = 0; i < toNext.length; i++) {
+            toNext[i] = computeToNext(i + 1);
+        }
+    }
+
+    /**
+     * Скомпилировать кривую по настройкам формулы
+     *
+     * @param formula           Тип формулы ({@code TRIANGULAR}, {@code QUADRATIC}, {@code LINEAR}, иначе fallback)
+     * @param base              Базовый множитель
+     * @param increment         Прирост очков между уровнями (только {@code LINEAR})
+     * @param fallbackIncrement Шаг уровня в fallback-режиме
+     * @return Скомпилированная кривая
+     * @throws IllegalArgumentException если параметры формулы некорректны
+     */
+    static LevelCurve compile(String formula, int base, int increment, long fallbackIncrement) {
+        Formula parsed = Formula.parse(formula);
+        if (parsed != Formula.FALLBACK && base <= 0) {
+            throw new IllegalArgumentException("Базовый множитель уровня должен быть положительным: " + base);
+        }
+        if (increment < 0) {
+            throw new IllegalArgumentException("Прирост очков между уровнями не может быть отрицательным: " + increment);
+        }
+        if (fallbackIncrement < 0) {
+            throw new IllegalArgumentException("Шаг уровня в fallback-режиме не может быть отрицательным: " + fallbackIncrement);
+        }
+        return new LevelCurve(parsed, base, increment, fallbackIncrement);
+    }
+
+    /**
+     * Уровень по накопленным очкам
+     *
+     * @param totalPoints Накопленные очки
+     * @return Уровень (≥ 1)
+     */
+    int levelFor(int totalPoints) {
+        if (totalPoints <= 0) {
+            return 1;
+        }
+        if (uniformStep > 0) {
+            return 1 + (int) (totalPoints / uniformStep);
+        }
+
+        int index = Arrays.binarySearch(thresholds, totalPoints);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    /**
+     * Очки, необходимые для перехода с уровня на следующий
+     *
+     * @param level Уровень (≥ 1)
+     * @return Очки до следующего уровня
+     */
+    long toNextLevel(int level) {
+        int safeLevel = Math.max(level, 1);
+        return safeLevel <= toNext.length ? toNext[safeLevel - 1] : computeToNext(safeLevel);
+    }
+
+    /**
+     * @return Модель роста порогов
+     */
+    Formula formula() {
+        return formula;
+    }
+
+    /**
+     * Описание параметров кривой: кривые с одинаковым описанием дают одинаковые уровни
+     *
+     * @return Описание параметров кривой
+     */
+    String signature() {
+        return switch (formula) {
+            case TRIANGULAR, QUADRATIC -> formula + "(base=" + base + ")";
+            case LINEAR -> formula + "(base=" + base + ", increment=" + increment + ")";
+            case FALLBACK -> formula + "(increment=" + fallbackIncrement + ")";
+        };
+    }
+
+    /**
+     * @return Количество уровней в таблице порогов (1 — таблица не используется)
+     */
+    int tableSize() {
+        return thresholds.length;
+    }
+
+    /**
+     * Построить пороги уровней, пока они помещаются в {@code int}
+     */
+    private int[] buildThresholds() {
+        int[] result = new int[64];
+        int size = 1;
+        for (long k = 1; ; k++) {
+            long threshold = switch (formula) {
+                case TRIANGULAR -> base * k * (k + 1) / 2;
+                case QUADRATIC -> base * k * k;
+                case LINEAR -> k * base + increment * k * (k - 1) / 2;
+                case FALLBACK -> throw new IllegalStateException("Для fallback-режима таблица порогов не строится");
+            };
+            if (threshold > Integer.MAX_VALUE) {
+                break;
+            }
+            if (size == result.length) {
+                result = Arrays.copyOf(result, size * 2);
+            }
+            result[size++] = (int) threshold;
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private long computeToNext(int level) {
+        return switch (formula) {
+            case TRIANGULAR -> (long) base * (level + 1);
+            case QUADRATIC -> (long) base * (2L * level + 1);
+            case LINEAR -> base + (long) increment * level;
+            case FALLBACK -> fallbackIncrement == 0 ? DEFAULT_FALLBACK_STEP : fallbackIncrement;
+        };
+    }
+}
@@ -0,0 +1,123 @@
+package ru.misis.gamification.service.simple.progress;
+
+import jakarta.validation.constraints.NotNull;
+import ru.misis.gamification.entity.LevelRecalculationJob;
+import ru.misis.gamification.exception.LevelRecalculationJobNotFoundException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Сервис управления задачами пересчёта уровней
+ * <p>
+ * Все изменения состояния выполняющейся задачи условны: если задача отменена или завершена,
+ * метод возвращает false и ничего не меняет.
+ * </p>
+ */
+public interface LevelRecalculationJobService {
+
+    /**
+     * Создать выполняющуюся задачу
+     *
+     * @param formula    Описание формулы уровней
+     * @param totalUsers Количество пользователей на момент запуска
+     * @return Созданная задача
+     * @throws org.springframework.dao.DataIntegrityViolationException если уже есть выполняющаяся задача
+     */
+    LevelRecalculationJob create(@NotNull(message = "{level.formula.required}") String formula, long totalUsers);
+
+    /**
+     * Получить задачу по UUID
+     *
+     * @param uuid UUID задачи
+     * @return Задача
+     * @throws LevelRecalculationJobNotFoundException если задача не найдена
+     */
+    LevelRecalculationJob getById(@NotNull(message = "{level.job.uuid.required}") UUID uuid);
+
+    /**
+     * Найти последнюю запущенную задачу
+     *
+     * @return Задача, либо пусто, если задач не было
+     */
+    Optional<LevelRecalculationJob> findLatest();
+
+    /**
+     * Найти выполняющуюся задачу
+     *
+     * @return Задача, либо пусто
+     */
+    Optional<LevelRecalculationJob> findRunning();
+
+    /**
+     * Найти выполняющиеся задачи, экземпляр которых не отмечался дольше таймаута
+     *
+     * @param timeout Таймаут отметки
+     * @return Прерванные задачи
+     */
+    List<LevelRecalculationJob> findStale(Duration timeout);
+
+    /**
+     * Захватить прерванную задачу для продолжения
+     *
+     * @param uuid    UUID задачи
+     * @param timeout Таймаут отметки
+     * @return true — задача захвачена этим экземпляром
+     */
+    boolean claim(UUID uuid, Duration timeout);
+
+    /**
+     * Начать выполняющуюся задачу с первого пользователя по другой формуле
+     *
+     * @param uuid    UUID задачи
+     * @param formula Описание формулы уровней
+     * @return true — задача перезапущена
+     */
+    boolean restart(UUID uuid, String formula);
+
+    /**
+     * Сохранить точку продолжения и прирост прогресса
+     *
+     * @param uuid         UUID задачи
+     * @param lastUserUuid UUID последнего обработанного пользователя
+     * @param processed    Обработано пользователей с прошлой отметки
+     * @param changed      Изменено уровней с прошлой отметки
+     * @return true — сохранено, false — задача больше не выполняется
+     */
+    boolean checkpoint(UUID uuid, UUID lastUserUuid, long processed, long changed);
+
+    /**
+     * Отметить, что экземпляр продолжает выполнять задачу
+     *
+     * @param uuid UUID задачи
+     * @return true — отмечено, false — задача больше не выполняется
+     */
+    boolean heartbeat(UUID uuid);
+
+    /**
+     * Завершить задачу успешно
+     *
+     * @param uuid UUID задачи
+     * @return true — задача завершена
+     */
+    boolean complete(UUID uuid);
+
+    /**
+     * Завершить задачу с ошибкой
+     *
+     * @param uuid  UUID задачи
+     * @param error Текст ошибки
+     * @return true — задача завершена
+     */
+    boolean fail(UUID uuid, String error);
+
+    /**
+     * Отменить выполняющуюся задачу
+     *
+     * @param uuid UUID задачи
+     * @return true — задача отменена, false — она уже не выполнялась
+     */
+    boolean cancel(UUID uuid);
+}
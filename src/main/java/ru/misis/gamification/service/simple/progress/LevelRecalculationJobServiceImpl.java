@@ -0,0 +1,108 @@
+package ru.misis.gamification.service.simple.progress;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.validation.annotation.Validated;
+import ru.misis.gamification.entity.LevelRecalculationJob;
+import ru.misis.gamification.entity.LevelRecalculationJobStatus;
+import ru.misis.gamification.exception.LevelRecalculationJobNotFoundException;
+import ru.misis.gamification.repository.LevelRecalculationJobRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Validated
+public class LevelRecalculationJobServiceImpl implements LevelRecalculationJobService {
+
+    /**
+     * Максимальная длина текста ошибки задачи
+     */
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    /**
+     * Репозиторий задач пересчёта уровней
+     */
+    private final LevelRecalculationJobRepository jobRepository;
+
+    @Override
+    public LevelRecalculationJob create(@NotNull(message = "{level.formula.required}") String formula, long totalUsers) {
+        LevelRecalculationJob job = jobRepository.saveAndFlush(LevelRecalculationJob.builder()
+                .formula(formula)
+                .totalUsers(totalUsers)
+                .build());
+        log.info("Создана задача пересчёта уровней: uuid={}, формула={}, пользователей={}",
+                job.getUuid(), formula, totalUsers);
+        return job;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public LevelRecalculationJob getById(@NotNull(message = "{level.job.uuid.required}") UUID uuid) {
+        return jobRepository.findById(uuid)
+                .orElseThrow(() -> new LevelRecalculationJobNotFoundException(uuid));
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Optional<LevelRecalculationJob> findLatest() {
+        return jobRepository.findFirstByOrderByStartedAtDesc();
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Optional<LevelRecalculationJob> findRunning() {
+        return jobRepository.findFirstByStatus(LevelRecalculationJobStatus.RUNNING);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<LevelRecalculationJob> findStale(Duration timeout) {
+        return jobRepository.findStale(LocalDateTime.now().minus(timeout));
+    }
+
+    @Override
+    public boolean claim(UUID uuid, Duration timeout) {
+        LocalDateTime now = LocalDateTime.now();
+        return jobRepository.claim(uuid, now.minus(timeout), now) == 1;
+    }
+
+    @Override
+    public boolean restart(UUID uuid, String formula) {
+        return jobRepository.restart(uuid, formula, LocalDateTime.now()) == 1;
+    }
+
+    @Override
+    public boolean checkpoint(UUID uuid, UUID lastUserUuid, long processed, long changed) {
+        return jobRepository.checkpoint(uuid, lastUserUuid, processed, changed, LocalDateTime.now()) == 1;
+    }
+
+    @Override
+    public boolean heartbeat(UUID uuid) {
+        return jobRepository.heartbeat(uuid, LocalDateTime.now()) == 1;
+    }
+
+    @Override
+    public boolean complete(UUID uuid) {
+        return jobRepository.finish(uuid, LevelRecalculationJobStatus.COMPLETED, null, LocalDateTime.now()) == 1;
+    }
+
+    @Override
+    public boolean fail(UUID uuid, String error) {
+        String message = error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+        return jobRepository.finish(uuid, LevelRecalculationJobStatus.FAILED, message, LocalDateTime.now()) == 1;
+    }
+
+    @Override
+    public boolean cancel(UUID uuid) {
+        return jobRepository.finish(uuid, LevelRecalculationJobStatus.CANCELLED, null, LocalDateTime.now()) == 1;
+    }
+}
@@ -0,0 +1,42 @@
+package ru.misis.gamification.service.simple.quota;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Периодическая очистка устаревших дневных счётчиков очков
+ * <p>
+ * Для проверки лимита нужен только текущий день; счётчики хранятся
+ * {@code retention-days} дней для диагностики.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DailyPointsUsageCleanupJob {
+
+    /**
+     * Сервис дневных счётчиков очков
+     */
+    private final DailyPointsUsageService usageService;
+
+    /**
+     * Сколько дней хранить дневные счётчики очков
+     */
+    @Value("${gamification.features.daily-usage.retention-days:7}")
+    private int retentionDays;
+
+    @Scheduled(cron = "${gamification.features.daily-usage.cleanup-cron:0 30 3 * * *}")
+    public void purge() {
+        try {
+            usageService.purgeBefore(LocalDate.now().minusDays(retentionDays));
+        } catch (Exception e) {
+            log.error("Ошибка при очистке дневных счётчиков очков", e);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package ru.misis.gamification.service.simple.quota;
+
+import jakarta.validation.constraints.NotNull;
+import ru.misis.gamification.model.DailyUsageKey;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Сервис дневных счётчиков очков по типам событий
+ * <p>
+ * Счётчики увеличиваются в той же транзакции, что и начисление, и заменяют суммирование
+ * истории транзакций при проверке дневного лимита.
+ * </p>
+ */
+public interface DailyPointsUsageService {
+
+    /**
+     * Получить сумму очков пользователя по типу события за день
+     *
+     * @param userUuid      UUID пользователя
+     * @param eventTypeUuid UUID типа события
+     * @param day           День
+     * @return Сумма очков или 0, если начислений за день не было
+     */
+    long getPoints(@NotNull(message = "{user.uuid.required}") UUID userUuid,
+                   @NotNull(message = "{eventType.uuid.required}") UUID eventTypeUuid,
+                   @NotNull(message = "{date.required}") LocalDate day);
+
+    /**
+     * Получить суммы очков за день для набора пользователей и типов событий
+     *
+     * @param userUuids      UUID пользователей
+     * @param eventTypeUuids UUID типов событий
+     * @param day            День
+     * @return Суммы по парам пользователь — тип события; пары без начислений отсутствуют
+     */
+    Map<DailyUsageKey, Long> getPoints(@NotNull(message = "{user.uuids.required}") Collection<UUID> userUuids,
+                                       @NotNull(message = "{eventType.uuids.required}") Collection<UUID> eventTypeUuids,
+                                       @NotNull(message = "{date.required}") LocalDate day);
+
+    /**
+     * Увеличить дневной счётчик
+     *
+     * @param userUuid      UUID пользователя
+     * @param eventTypeUuid UUID типа события
+     * @param day           День
+     * @param points        Количество начисляемых очков
+     * @return Новая сумма очков за день
+     */
+    long addPoints(@NotNull(message = "{user.uuid.required}") UUID userUuid,
+                   @NotNull(message = "{eventType.uuid.required}") UUID eventTypeUuid,
+                   @NotNull(message = "{date.required}") LocalDate day,
+                   int points);
+
+    /**
+     * Учесть начисление, дневной счётчик которого уже увеличен в БД тем же выражением, что и транзакция
+     *
+     * @param userUuid      UUID пользователя
+     * @param eventTypeUuid UUID типа события
+     * @param day           День
+     * @param points        Начисленные очки
+     */
+    void recordAward(@NotNull(message = "{user.uuid.required}") UUID userUuid,
+                     @NotNull(message = "{eventType.uuid.required}") UUID eventTypeUuid,
+                     @NotNull(message = "{date.required}") LocalDate day,
+                     int points);
+
+    /**
+     * Увеличить дневные счётчики пакетом
+     *
+     * @param pointsByKey Количество начисляемых очков по парам пользователь — тип события
+     * @param day         День
+     */
+    void addPoints(@NotNull(message = "{points.required}") Map<DailyUsageKey, Integer> pointsByKey,
+                   @NotNull(message = "{date.required}") LocalDate day);
+
+    /**
+     * Удалить счётчики за дни раньше указанного
+     *
+     * @param day Первый сохраняемый день
+     * @return Количество удалённых счётчиков
+     */
+    int purgeBefore(@NotNull(message = "{date.required}") LocalDate day);
+}
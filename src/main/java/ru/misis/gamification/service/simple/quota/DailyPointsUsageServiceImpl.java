@@ -0,0 +1,107 @@
+package ru.misis.gamification.service.simple.quota;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.validation.annotation.Validated;
+import ru.misis.gamification.model.DailyPointsSumView;
+import ru.misis.gamification.model.DailyUsageKey;
+import ru.misis.gamification.repository.DailyPointsUsageRepository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Validated
+public class DailyPointsUsageServiceImpl implements DailyPointsUsageService {
+
+    /**
+     * Репозиторий дневных счётчиков очков
+     */
+    private final DailyPointsUsageRepository usageRepository;
+
+    /**
+     * Кэш дневных счётчиков очков
+     */
+    private final DailyQuotaCache quotaCache;
+
+    @Transactional(readOnly = true)
+    @Override
+    public long getPoints(@NotNull(message = "{user.uuid.required}") UUID userUuid,
+                          @NotNull(message = "{eventType.uuid.required}") UUID eventTypeUuid,
+                          @NotNull(message = "{date.required}") LocalDate day) {
+        return quotaCache.getPoints(userUuid, eventTypeUuid, day);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Map<DailyUsageKey, Long> getPoints(@NotNull(message = "{user.uuids.required}") Collection<UUID> userUuids,
+                                              @NotNull(message = "{eventType.uuids.required}") Collection<UUID> eventTypeUuids,
+                                              @NotNull(message = "{date.required}") LocalDate day) {
+        Map<DailyUsageKey, Long> result = new HashMap<>();
+        if (userUuids.isEmpty() || eventTypeUuids.isEmpty()) {
+            return result;
+        }
+
+        for (DailyPointsSumView sum : usageRepository.findPointsByUsersAndEventTypes(userUuids, eventTypeUuids, day)) {
+            result.put(new DailyUsageKey(sum.userUuid(), sum.eventTypeUuid()), sum.points());
+        }
+        return result;
+    }
+
+    @Override
+    public long addPoints(@NotNull(message = "{user.uuid.required}") UUID userUuid,
+                          @NotNull(message = "{eventType.uuid.required}") UUID eventTypeUuid,
+                          @NotNull(message = "{date.required}") LocalDate day,
+                          int points) {
+        int total = usageRepository.addPoints(userUuid, eventTypeUuid, day, points);
+        quotaCache.add(userUuid, eventTypeUuid, day, points);
+        log.debug("Дневной счётчик увеличен: userUuid={}, eventTypeUuid={}, day={}, points={}",
+                userUuid, eventTypeUuid, day, total);
+        return total;
+    }
+
+    @Override
+    public void recordAward(@NotNull(message = "{user.uuid.required}") UUID userUuid,
+                            @NotNull(message = "{eventType.uuid.required}") UUID eventTypeUuid,
+                            @NotNull(message = "{date.required}") LocalDate day,
+                            int points) {
+        quotaCache.add(userUuid, eventTypeUuid, day, points);
+    }
+
+    @Override
+    public void addPoints(@NotNull(message = "{points.required}") Map<DailyUsageKey, Integer> pointsByKey,
+                          @NotNull(message = "{date.required}") LocalDate day) {
+        if (pointsByKey.isEmpty()) {
+            return;
+        }
+
+        UUID[] userUuids = new UUID[pointsByKey.size()];
+        UUID[] eventTypeUuids = new UUID[pointsByKey.size()];
+        int[] points = new int[pointsByKey.size()];
+        int i = 0;
+        for (Map.Entry<DailyUsageKey, Integer> entry : pointsByKey.entrySet()) {
+            userUuids[i] = entry.getKey().userUuid();
+            eventTypeUuids[i] = entry.getKey().eventTypeUuid();
+            points[i++] = entry.getValue();
+            quotaCache.add(entry.getKey().userUuid(), entry.getKey().eventTypeUuid(), day, entry.getValue());
+        }
+
+        int updated = usageRepository.addPointsBatch(userUuids, eventTypeUuids, points, day);
+        log.debug("Дневные счётчики увеличены пакетом: day={}, счётчиков={}", day, updated);
+    }
+
+    @Override
+    public int purgeBefore(@NotNull(message = "{date.required}") LocalDate day) {
+        int deleted = usageRepository.deleteByDayBefore(day);
+        log.info("Удалены дневные счётчики ранее {}: {}", day, deleted);
+        return deleted;
+    }
+}
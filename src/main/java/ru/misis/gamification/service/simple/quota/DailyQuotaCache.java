@@ -0,0 +1,43 @@
+package ru.misis.gamification.service.simple.quota;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Кэш дневных счётчиков очков в памяти экземпляра приложения
+ * <p>
+ * Хранит суммы за текущий день по парам пользователь — тип события. Отсутствующая пара
+ * загружается из {@code daily_points_usage} при первом обращении, при смене дня кэш сбрасывается целиком.
+ * Начисления учитываются после фиксации транзакции, поэтому откаченное начисление лимит не расходует.
+ * </p>
+ * <p>
+ * Кэш видит только начисления своего экземпляра: при нескольких экземплярах счётчик в памяти
+ * может отставать от БД. Пока кэш отключён, все обращения идут в БД.
+ * </p>
+ */
+public interface DailyQuotaCache {
+
+    /**
+     * Получить сумму очков пользователя по типу события за день
+     *
+     * @param userUuid      UUID пользователя
+     * @param eventTypeUuid UUID типа события
+     * @param day           День
+     * @return Сумма очков или 0, если начислений за день не было
+     */
+    long getPoints(UUID userUuid, UUID eventTypeUuid, LocalDate day);
+
+    /**
+     * Учесть начисление после фиксации текущей транзакции
+     * <p>
+     * Счётчик в БД должен быть увеличен в той же транзакции. Если пара ещё не загружена в кэш,
+     * начисление пропускается — при загрузке оно будет прочитано из БД.
+     * </p>
+     *
+     * @param userUuid      UUID пользователя
+     * @param eventTypeUuid UUID типа события
+     * @param day           День
+     * @param points        Начисленные очки
+     */
+    void add(UUID userUuid, UUID eventTypeUuid, LocalDate day, long points);
+}
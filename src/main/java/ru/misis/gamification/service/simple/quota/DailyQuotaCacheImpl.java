@@ -0,0 +1,178 @@
+package ru.misis.gamification.service.simple.quota;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.misis.gamification.model.DailyUsageKey;
+import ru.misis.gamification.repository.DailyPointsUsageRepository;
+
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+@Slf4j
+public class DailyQuotaCacheImpl implements DailyQuotaCache {
+
+    /**
+     * Репозиторий дневных счётчиков очков
+     */
+    private final DailyPointsUsageRepository usageRepository;
+
+    private final boolean enabled;
+
+    /**
+     * Максимальное количество пар за день; новые пары сверх лимита читаются из БД
+     */
+    private final int maxEntries;
+
+    /**
+     * Счётчики текущего дня; заменяются целиком при смене дня
+     */
+    private volatile DayBucket bucket;
+
+    private final Counter hits;
+
+    private final Counter misses;
+
+    private final Counter bypasses;
+
+    public DailyQuotaCacheImpl(DailyPointsUsageRepository usageRepository,
+                               MeterRegistry meterRegistry,
+                               @Value("${gamification.features.daily-usage.cache.enabled:false}") boolean enabled,
+                               @Value("${gamification.features.daily-usage.cache.max-entries:200000}") int maxEntries) {
+        this.usageRepository = usageRepository;
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.bucket = new DayBucket(LocalDate.now(), new ConcurrentHashMap<>());
+
+        this.hits = Counter.builder("gamification.daily.quota.cache.lookups")
+                .description("Проверки дневного лимита по кэшу")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("gamification.daily.quota.cache.lookups")
+                .description("Проверки дневного лимита по кэшу")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.bypasses = Counter.builder("gamification.daily.quota.cache.lookups")
+                .description("Проверки дневного лимита по кэшу")
+                .tag("result", "bypass")
+                .register(meterRegistry);
+        Gauge.builder("gamification.daily.quota.cache.entries", this, cache -> cache.bucket.counters().size())
+                .description("Количество пар пользователь — тип события в кэше текущего дня")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public long getPoints(UUID userUuid, UUID eventTypeUuid, LocalDate day) {
+        DayBucket current = enabled ? bucketFor(day) : null;
+        if (current == null) {
+            return load(userUuid, eventTypeUuid, day);
+        }
+
+        DailyUsageKey key = new DailyUsageKey(userUuid, eventTypeUuid);
+        LongAdder counter = current.counters().get(key);
+        if (counter != null) {
+            hits.increment();
+            return counter.sum();
+        }
+
+        if (current.counters().size() >= maxEntries) {
+            bypasses.increment();
+            return load(userUuid, eventTypeUuid, day);
+        }
+
+        // Загрузка выполняется под блокировкой ячейки: конкурентное add() для этой пары
+        // дождётся её и не потеряет начисление, зафиксированное во время чтения
+        misses.increment();
+        return current.counters().computeIfAbsent(key, k -> {
+            LongAdder loaded = new LongAdder();
+            loaded.add(load(userUuid, eventTypeUuid, day));
+            return loaded;
+        }).sum();
+    }
+
+    @Override
+    public void add(UUID userUuid, UUID eventTypeUuid, LocalDate day, long points) {
+        if (!enabled) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    increment(userUuid, eventTypeUuid, day, points);
+                }
+            });
+        } else {
+            increment(userUuid, eventTypeUuid, day, points);
+        }
+    }
+
+    private void increment(UUID userUuid, UUID eventTypeUuid, LocalDate day, long points) {
+        DayBucket current = bucketFor(day);
+        if (current == null) {
+            return;
+        }
+
+        DailyUsageKey key = new DailyUsageKey(userUuid, eventTypeUuid);
+        LongAdder counter = current.counters().get(key);
+        if (counter != null) {
+            counter.add(points);
+            return;
+        }
+
+        // Пара может загружаться прямо сейчас — computeIfPresent дождётся окончания загрузки
+        current.counters().computeIfPresent(key, (k, loaded) -> {
+            loaded.add(points);
+            return loaded;
+        });
+    }
+
+    /**
+     * Получить счётчики указанного дня, при необходимости перейдя на новый день
+     *
+     * @param day День
+     * @return Счётчики дня или {@code null}, если день уже прошёл
+     */
+    private DayBucket bucketFor(LocalDate day) {
+        DayBucket current = bucket;
+        if (current.day().equals(day)) {
+            return current;
+        }
+        if (day.isBefore(current.day())) {
+            return null;
+        }
+
+        synchronized (this) {
+            current = bucket;
+            if (current.day().isBefore(day)) {
+                log.debug("Смена дня в кэше дневных лимитов: {} -> {}, сброшено пар: {}",
+                        current.day(), day, current.counters().size());
+                current = new DayBucket(day, new ConcurrentHashMap<>());
+                bucket = current;
+            }
+            return current.day().equals(day) ? current : null;
+        }
+    }
+
+    private long load(UUID userUuid, UUID eventTypeUuid, LocalDate day) {
+        return usageRepository.findPoints(userUuid, eventTypeUuid, day).orElse(0);
+    }
+
+    /**
+     * Счётчики одного дня
+     *
+     * @param day      День
+     * @param counters Суммы очков по парам пользователь — тип события
+     */
+    private record DayBucket(LocalDate day, ConcurrentHashMap<DailyUsageKey, LongAdder> counters) {
+    }
+}
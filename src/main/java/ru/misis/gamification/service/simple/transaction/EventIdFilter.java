@@ -0,0 +1,53 @@
+package ru.misis.gamification.service.simple.transaction;
+
+import java.util.Collection;
+
+/**
+ * Вероятностный фильтр идентификаторов обработанных событий LMS
+ * <p>
+ * Стоит перед уникальным индексом {@code transactions.event_id}: для события, которого фильтр
+ * точно не видел, запрос проверки дубликата в БД не выполняется. Положительный ответ означает
+ * только «возможно, уже обработано» и должен подтверждаться запросом.
+ * </p>
+ * <p>
+ * Фильтр прогревается при старте из таблицы транзакций и пополняется при каждой вставке.
+ * Пока прогрев не завершён или фильтр отключён, {@link #mightContain(String)} всегда возвращает {@code true}.
+ * Фильтр видит только вставки своего экземпляра приложения.
+ * </p>
+ */
+public interface EventIdFilter {
+
+    /**
+     * Проверить, могло ли событие быть обработано ранее
+     *
+     * @param eventId Идентификатор события из LMS
+     * @return {@code false} — событие точно не обрабатывалось, {@code true} — требуется проверка в БД
+     */
+    boolean mightContain(String eventId);
+
+    /**
+     * Запомнить идентификатор сохранённого события
+     *
+     * @param eventId Идентификатор события из LMS
+     */
+    void put(String eventId);
+
+    /**
+     * Запомнить идентификаторы сохранённых событий
+     *
+     * @param eventIds Идентификаторы событий из LMS
+     */
+    void putAll(Collection<String> eventIds);
+
+    /**
+     * Учесть ложные срабатывания: фильтр ответил «возможно», а проверка в БД дубликат не нашла
+     *
+     * @param count Количество ложных срабатываний
+     */
+    void recordFalsePositives(int count);
+
+    /**
+     * @return Да, если фильтр включён и прогрет
+     */
+    boolean isReady();
+}
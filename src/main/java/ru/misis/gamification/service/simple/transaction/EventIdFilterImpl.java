@@ -0,0 +1,172 @@
+package ru.misis.gamification.service.simple.transaction;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.misis.gamification.repository.TransactionRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Component
+@Slf4j
+public class EventIdFilterImpl implements EventIdFilter {
+
+    /**
+     * Репозиторий транзакций
+     */
+    private final TransactionRepository transactionRepository;
+
+    /**
+     * Фильтр идентификаторов событий
+     */
+    private final ScalableBloomFilter filter;
+
+    /**
+     * Признак включения фильтра
+     */
+    private final boolean enabled;
+
+    /**
+     * Размер пачки идентификаторов при прогреве
+     */
+    private final int warmUpBatchSize;
+
+    /**
+     * Признак завершения прогрева
+     */
+    private volatile boolean ready;
+
+    /**
+     * Счётчик проверок, по которым eventId точно не обработан
+     */
+    private final Counter absentLookups;
+
+    /**
+     * Счётчик проверок, по которым eventId, возможно, уже обработан
+     */
+    private final Counter presentLookups;
+
+    /**
+     * Счётчик ответов «возможно обработано», не подтверждённых БД
+     */
+    private final Counter falsePositives;
+
+    public EventIdFilterImpl(TransactionRepository transactionRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${gamification.features.dedup-filter.enabled:false}") boolean enabled,
+                             @Value("${gamification.features.dedup-filter.expected-insertions:1000000}") long expectedInsertions,
+                             @Value("${gamification.features.dedup-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                             @Value("${gamification.features.dedup-filter.warm-up-batch-size:10000}") int warmUpBatchSize) {
+        this.transactionRepository = transactionRepository;
+        this.enabled = enabled;
+        this.warmUpBatchSize = warmUpBatchSize;
+        this.filter = new ScalableBloomFilter(expectedInsertions, falsePositiveRate);
+
+        this.absentLookups = Counter.builder("gamification.dedup.filter.lookups")
+                .description("Проверки eventId по фильтру")
+                .tag("result", "absent")
+                .register(meterRegistry);
+        this.presentLookups = Counter.builder("gamification.dedup.filter.lookups")
+                .description("Проверки eventId по фильтру")
+                .tag("result", "maybe-present")
+                .register(meterRegistry);
+        this.falsePositives = Counter.builder("gamification.dedup.filter.false.positives")
+                .description("Ответы «возможно обработано», не подтверждённые БД")
+                .register(meterRegistry);
+        Gauge.builder("gamification.dedup.filter.entries", filter, ScalableBloomFilter::size)
+                .description("Количество идентификаторов в фильтре")
+                .register(meterRegistry);
+        Gauge.builder("gamification.dedup.filter.expected.false.positive.rate", filter,
+                        ScalableBloomFilter::expectedFalsePositiveRate)
+                .description("Расчётная доля ложных срабатываний при текущем заполнении")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Запустить прогрев в фоне после старта приложения, чтобы не задерживать старт
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            Thread.ofVirtual().name("event-id-filter-warm-up").start(this::warmUp);
+        }
+    }
+
+    /**
+     * Прогреть фильтр идентификаторами всех сохранённых транзакций
+     * <p>
+     * Читает постранично по уникальному индексу {@code event_id}.
+     * Вставки, выполненные во время прогрева, попадают в фильтр через {@link #put(String)}.
+     * </p>
+     */
+    void warmUp() {
+        if (!enabled) {
+            return;
+        }
+
+        long started = System.currentTimeMillis();
+        long loaded = 0;
+        String after = "";
+
+        try {
+            List<String> page;
+            do {
+                page = transactionRepository.findEventIdsAfter(after, warmUpBatchSize);
+                page.forEach(filter::put);
+                loaded += page.size();
+                if (!page.isEmpty()) {
+                    after = page.getLast();
+                }
+            } while (page.size() == warmUpBatchSize);
+        } catch (RuntimeException e) {
+            log.error("Ошибка прогрева фильтра eventId, фильтр не используется: {}", e.getMessage(), e);
+            return;
+        }
+
+        ready = true;
+        log.info("Фильтр eventId прогрет: загружено={}, за {} мс", loaded, System.currentTimeMillis() - started);
+    }
+
+    @Override
+    public boolean mightContain(String eventId) {
+        if (!ready) {
+            return true;
+        }
+
+        boolean present = filter.mightContain(eventId);
+        (present ? presentLookups : absentLookups).increment();
+        return present;
+    }
+
+    @Override
+    public void put(String eventId) {
+        if (enabled) {
+            filter.put(eventId);
+        }
+    }
+
+    @Override
+    public void putAll(Collection<String> eventIds) {
+        if (enabled) {
+            eventIds.forEach(filter::put);
+        }
+    }
+
+    @Override
+    public void recordFalsePositives(int count) {
+        if (ready && count > 0) {
+            falsePositives.increment(count);
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+}
@@ -0,0 +1,194 @@
+package ru.misis.gamification.service.simple.transaction;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Масштабируемый фильтр Блума для строковых ключей
+ * <p>
+ * Состоит из цепочки обычных фильтров Блума («ступеней»). Когда текущая ступень заполняется
+ * до расчётной ёмкости, добавляется новая — вдвое большей ёмкости и с вдвое меньшей долей
+ * ложных срабатываний, поэтому итоговая доля ложных срабатываний не превышает
+ * заданной независимо от числа элементов.
+ * </p>
+ * <p>
+ * Ложноотрицательных ответов не бывает: если {@link #mightContain(String)} вернул {@code false},
+ * элемент точно не добавлялся. Потокобезопасен: чтение и запись битов — без блокировок,
+ * блокировка берётся только при добавлении ступени.
+ * </p>
+ */
+final class ScalableBloomFilter {
+
+    private static final int GROWTH_FACTOR = 2;
+
+    private static final double TIGHTENING_RATIO = 0.5;
+
+    /**
+     * Ступени фильтра; список заменяется целиком при добавлении ступени
+     */
+    private volatile List<Stage> stages;
+
+    ScalableBloomFilter(long initialCapacity, double falsePositiveRate) {
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("Ёмкость фильтра должна быть положительной");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Доля ложных срабатываний должна быть в интервале (0, 1)");
+        }
+        this.stages = List.of(new Stage(initialCapacity, falsePositiveRate * (1 - TIGHTENING_RATIO)));
+    }
+
+    /**
+     * Проверить, мог ли элемент быть добавлен ранее
+     *
+     * @param value Элемент
+     * @return {@code false} — элемент точно не добавлялся, {@code true} — возможно добавлялся
+     */
+    boolean mightContain(String value) {
+        long h1 = hash(value, 0xcbf29ce484222325L);
+        long h2 = hash(value, 0x84222325cbf29ce4L);
+        for (Stage stage : stages) {
+            if (stage.mightContain(h1, h2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Добавить элемент
+     *
+     * @param value Элемент
+     */
+    void put(String value) {
+        long h1 = hash(value, 0xcbf29ce484222325L);
+        long h2 = hash(value, 0x84222325cbf29ce4L);
+
+        List<Stage> current = stages;
+        for (Stage stage : current) {
+            if (stage.mightContain(h1, h2)) {
+                return;
+            }
+        }
+
+        Stage last = current.getLast();
+        if (last.isFull()) {
+            last = grow(last);
+        }
+        last.put(h1, h2);
+    }
+
+    /**
+     * @return Приблизительное количество добавленных элементов
+     */
+    long size() {
+        long size = 0;
+        for (Stage stage : stages) {
+            size += stage.count.get();
+        }
+        return size;
+    }
+
+    /**
+     * @return Расчётная доля ложных срабатываний при текущем заполнении ступеней
+     */
+    double expectedFalsePositiveRate() {
+        double negative = 1.0;
+        for (Stage stage : stages) {
+            negative *= 1.0 - stage.currentFalsePositiveRate();
+        }
+        return 1.0 - negative;
+    }
+
+    private synchronized Stage grow(Stage full) {
+        List<Stage> current = stages;
+        Stage last = current.getLast();
+        if (last != full) {
+            return last;
+        }
+
+        Stage next = new Stage(full.capacity * GROWTH_FACTOR, full.falsePositiveRate * TIGHTENING_RATIO);
+        List<Stage> extended = new ArrayList<>(current);
+        extended.add(next);
+        stages = List.copyOf(extended);
+        return next;
+    }
+
+    private static long hash(String value, long seed) {
+        long h = seed;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * Обычный фильтр Блума фиксированного размера
+     */
+    private static final class Stage {
+
+        private final long capacity;
+
+        private final double falsePositiveRate;
+
+        private final long bitCount;
+
+        private final int hashCount;
+
+        private final AtomicLongArray bits;
+
+        private final AtomicLong count = new AtomicLong();
+
+        private Stage(long capacity, double falsePositiveRate) {
+            this.capacity = capacity;
+            this.falsePositiveRate = falsePositiveRate;
+            long optimalBits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.bitCount = Math.max(64, (optimalBits + 63) / 64 * 64);
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / capacity * Math.log(2)));
+            this.bits = new AtomicLongArray(Math.toIntExact(bitCount / 64));
+        }
+
+        private boolean mightContain(long h1, long h2) {
+            long combined = h1;
+            for (int i = 0; i < hashCount; i++) {
+                long index = Math.floorMod(combined, bitCount);
+                if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                    return false;
+                }
+                combined += h2;
+            }
+            return true;
+        }
+
+        private void put(long h1, long h2) {
+            long combined = h1;
+            for (int i = 0; i < hashCount; i++) {
+                long index = Math.floorMod(combined, bitCount);
+                long mask = 1L << index;
+                int word = (int) (index >>> 6);
+                long prev;
+                do {
+                    prev = bits.get(word);
+                } while ((prev & mask) == 0 && !bits.compareAndSet(word, prev, prev | mask));
+                combined += h2;
+            }
+            count.incrementAndGet();
+        }
+
+        private boolean isFull() {
+            return count.get() >= capacity;
+        }
+
+        private double currentFalsePositiveRate() {
+            return Math.pow(1 - Math.exp(-hashCount * (double) count.get() / bitCount), hashCount);
+        }
+    }
+}
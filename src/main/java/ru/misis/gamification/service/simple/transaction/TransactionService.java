@@ -8,8 +8,14 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import ru.misis.gamification.entity.Transaction;
 import ru.misis.gamification.exception.DuplicateEventException;
+import ru.misis.gamification.model.AwardStatementView;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -38,6 +44,43 @@ public interface TransactionService {
      */
     Transaction saveIfNotExists(@NotNull(message = "{transaction.required}") Transaction transaction);
 
+    /**
+     * Сохранить транзакцию одним выражением {@code INSERT … ON CONFLICT DO NOTHING}
+     * <p>
+     * В отличие от {@link #saveIfNotExists(Transaction)} не выполняет предварительную проверку
+     * и не использует исключения для сигнала о дубликате.
+     * </p>
+     *
+     * @param transaction Транзакция
+     * @return Сохранённая транзакция с заполненным UUID, либо пусто, если событие уже обработано
+     * @throws ConstraintViolationException если transaction == null
+     */
+    Optional<Transaction> insertIfAbsent(@NotNull(message = "{transaction.required}") Transaction transaction);
+
+    /**
+     * Начислить очки за событие одним SQL-выражением
+     * <p>
+     * Проверяет тип события, пользователя, курс, зачисление, дубликат и дневной лимит, создаёт транзакцию
+     * и увеличивает сумму пользователя, дневной счётчик и очки на курсе за одно обращение к БД.
+     * Уровень пользователя не пересчитывается. Если учёт курсов выключен, зачисление не проверяется,
+     * а очки на курсе не изменяются.
+     * </p>
+     *
+     * @param userId         Идентификатор пользователя из LMS
+     * @param eventId        Идентификатор события из LMS
+     * @param typeCode       Код типа события
+     * @param courseId       Идентификатор курса из LMS (может быть null)
+     * @param coursesEnabled Включён ли учёт курсов
+     * @param createdAt      Дата создания транзакции
+     * @return Флаги проверок и, при успехе, данные созданной транзакции
+     */
+    AwardStatementView awardInSingleStatement(@NotBlank(message = "{user.id.required}") String userId,
+                                              @NotBlank(message = "{event.id.required}") String eventId,
+                                              @NotBlank(message = "{eventType.code.required}") String typeCode,
+                                              String courseId,
+                                              boolean coursesEnabled,
+                                              @NotNull(message = "{date.required}") LocalDateTime createdAt);
+
     /**
      * Получить страницу транзакции по идентификатору пользователя из LMS
      *
@@ -61,4 +104,28 @@ public interface TransactionService {
     long sumPointsByUserAndEventTypeAndDate(@NotNull(message = "{user.uuid.required}") UUID userUuid,
                                             @NotNull(message = "{eventType.uuid.required}") UUID eventTypeUuid,
                                             @NotNull(message = "{date.required}") LocalDate date);
+
+    /**
+     * Получить идентификаторы событий из LMS, которые уже были обработаны
+     *
+     * @param eventIds Идентификаторы событий из LMS
+     * @return Множество уже обработанных идентификаторов
+     * @throws ConstraintViolationException если eventIds == null
+     */
+    Set<String> findExistingEventIds(@NotNull(message = "{event.ids.required}") Collection<String> eventIds);
+
+    /**
+     * Сохранить пакет транзакций одним выражением, пропуская события, которые уже обработаны
+     * <p>
+     * Дубликат определяется при вставке по уникальному индексу {@code event_id}, как в {@link #insertIfAbsent}:
+     * событие, сохранённое параллельно после предварительной проверки, не прерывает пакет.
+     * Идентификаторы событий в пакете должны быть уникальны.
+     * </p>
+     *
+     * @param transactions Транзакции
+     * @return Сохранённые транзакции с заполненным UUID; дубликатов среди них нет
+     * @throws ConstraintViolationException если transactions == null
+     */
+    List<Transaction> insertAllIfAbsent(@NotNull(message = "{transactions.required}") List<Transaction> transactions);
+
 }
@@ -4,18 +4,27 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
+import ru.misis.gamification.entity.LeaderboardPeriod;
 import ru.misis.gamification.entity.Transaction;
 import ru.misis.gamification.exception.DuplicateEventException;
+import ru.misis.gamification.model.AwardStatementView;
 import ru.misis.gamification.repository.TransactionRepository;
 import ru.misis.gamification.service.simple.user.UserService;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -34,9 +43,22 @@ public class TransactionServiceImpl implements TransactionService {
      */
     private final UserService userService;
 
+    /**
+     * Вероятностный фильтр обработанных eventId
+     */
+    private final EventIdFilter eventIdFilter;
+
     @Override
     public boolean isExistsByEventId(@NotBlank(message = "{event.id.required}") String eventId) {
-        return transactionRepository.existsByEventId(eventId);
+        if (!eventIdFilter.mightContain(eventId)) {
+            return false;
+        }
+
+        boolean exists = transactionRepository.existsByEventId(eventId);
+        if (!exists) {
+            eventIdFilter.recordFalsePositives(1);
+        }
+        return exists;
     }
 
     @Transactional
@@ -49,19 +71,57 @@ public class TransactionServiceImpl implements TransactionService {
         log.debug("Сохранение транзакции: eventId={}, userUuid={}, points={}",
                 eventId, transaction.getUser().getUuid(), transaction.getPoints());
 
-        if (transactionRepository.existsByEventId(eventId)) {
-            log.info("Дубликат события: eventId={}", eventId);
-            throw new DuplicateEventException("Событие уже обработано: " + eventId);
+        return insertIfAbsent(transaction)
+                .orElseThrow(() -> new DuplicateEventException("Событие уже обработано: " + eventId));
+    }
+
+    @Transactional
+    @Override
+    public Optional<Transaction> insertIfAbsent(@NotNull(message = "{transaction.required}") Transaction transaction) {
+        validateTransaction(transaction);
+
+        if (transaction.getCreatedAt() == null) {
+            transaction.setCreatedAt(LocalDateTime.now());
+        }
+
+        Optional<UUID> uuid = transactionRepository.insertIfAbsent(
+                transaction.getUser().getUuid(),
+                transaction.getCourse() != null ? transaction.getCourse().getUuid() : null,
+                transaction.getEventId(),
+                transaction.getEventType().getUuid(),
+                transaction.getPoints(),
+                transaction.getDescription(),
+                transaction.getCreatedAt());
+
+        if (uuid.isEmpty()) {
+            log.info("Дубликат события: eventId={}", transaction.getEventId());
+            return Optional.empty();
         }
 
-        try {
-            Transaction saved = transactionRepository.save(transaction);
-            log.info("Транзакция сохранена: id={}, eventId={}", saved.getUuid(), eventId);
-            return saved;
-        } catch (DataIntegrityViolationException e) {
-            log.info("Дубликат при сохранении: eventId={}", eventId);
-            throw new DuplicateEventException("Событие уже обработано: " + eventId);
+        transaction.setUuid(uuid.get());
+        eventIdFilter.put(transaction.getEventId());
+        log.info("Транзакция сохранена: id={}, eventId={}", uuid.get(), transaction.getEventId());
+        return Optional.of(transaction);
+    }
+
+    @Transactional
+    @Override
+    public AwardStatementView awardInSingleStatement(@NotBlank(message = "{user.id.required}") String userId,
+                                                     @NotBlank(message = "{event.id.required}") String eventId,
+                                                     @NotBlank(message = "{eventType.code.required}") String typeCode,
+                                                     String courseId,
+                                                     boolean coursesEnabled,
+                                                     @NotNull(message = "{date.required}") LocalDateTime createdAt) {
+        AwardStatementView result = transactionRepository.awardInSingleStatement(
+                userId, eventId, typeCode, courseId, coursesEnabled, createdAt.toLocalDate(),
+                LeaderboardPeriod.WEEK.start(createdAt.toLocalDate()), LeaderboardPeriod.MONTH.start(createdAt.toLocalDate()),
+                createdAt);
+
+        if (result.getTransactionId() != null) {
+            eventIdFilter.put(eventId);
+            log.info("Транзакция сохранена одним выражением: id={}, eventId={}", result.getTransactionId(), eventId);
         }
+        return result;
     }
 
     @Transactional(readOnly = true)
@@ -87,6 +147,70 @@ public class TransactionServiceImpl implements TransactionService {
                 userUuid, eventTypeUuid, date);
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public Set<String> findExistingEventIds(@NotNull(message = "{event.ids.required}") Collection<String> eventIds) {
+        List<String> candidates = eventIds.stream()
+                .filter(eventIdFilter::mightContain)
+                .toList();
+        if (candidates.isEmpty()) {
+            return Set.of();
+        }
+
+        Set<String> existing = transactionRepository.findExistingEventIds(candidates);
+        eventIdFilter.recordFalsePositives((int) candidates.stream().distinct().count() - existing.size());
+        return existing;
+    }
+
+    @Transactional
+    @Override
+    public List<Transaction> insertAllIfAbsent(@NotNull(message = "{transactions.required}") List<Transaction> transactions) {
+        transactions.forEach(this::validateTransaction);
+        if (transactions.isEmpty()) {
+            return List.of();
+        }
+
+        int size = transactions.size();
+        UUID[] userUuids = new UUID[size];
+        UUID[] courseUuids = new UUID[size];
+        String[] eventIds = new String[size];
+        UUID[] eventTypeUuids = new UUID[size];
+        int[] points = new int[size];
+        String[] descriptions = new String[size];
+        LocalDateTime[] createdAt = new LocalDateTime[size];
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < size; i++) {
+            Transaction t = transactions.get(i);
+            if (t.getCreatedAt() == null) {
+                t.setCreatedAt(now);
+            }
+            userUuids[i] = t.getUser().getUuid();
+            courseUuids[i] = t.getCourse() != null ? t.getCourse().getUuid() : null;
+            eventIds[i] = t.getEventId();
+            eventTypeUuids[i] = t.getEventType().getUuid();
+            points[i] = t.getPoints();
+            descriptions[i] = t.getDescription();
+            createdAt[i] = t.getCreatedAt();
+        }
+
+        Map<String, UUID> inserted = new HashMap<>();
+        transactionRepository.insertAllIfAbsent(userUuids, courseUuids, eventIds, eventTypeUuids, points,
+                        descriptions, createdAt)
+                .forEach(key -> inserted.put(key.getEventId(), key.getUuid()));
+
+        List<Transaction> saved = new ArrayList<>(inserted.size());
+        for (Transaction t : transactions) {
+            UUID uuid = inserted.get(t.getEventId());
+            if (uuid != null) {
+                t.setUuid(uuid);
+                saved.add(t);
+            }
+        }
+        eventIdFilter.putAll(saved.stream().map(Transaction::getEventId).toList());
+        log.debug("Сохранён пакет транзакций: size={}, дубликатов={}", saved.size(), size - saved.size());
+        return saved;
+    }
+
     private void validateTransaction(Transaction t) {
         if (t == null) {
             throw new IllegalArgumentException("Транзакция не может быть null");
@@ -100,5 +224,8 @@ public class TransactionServiceImpl implements TransactionService {
         if (t.getPoints() == null || t.getPoints() < 0) {
             throw new IllegalArgumentException("Количество очков не может быть null или отрицательным");
         }
+        if (t.getEventType() == null || t.getEventType().getUuid() == null) {
+            throw new IllegalArgumentException("Тип события или его UUID не может быть null");
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package ru.misis.gamification.service.simple.user;
+
+import java.util.Optional;
+
+/**
+ * Таблица глобальных рангов в памяти: отсортированный массив различных значений общих очков пользователей
+ * <p>
+ * Перестраивается целиком по расписанию; ранг по очкам находится двоичным поиском за O(log n) без запроса к БД.
+ * Очки самого пользователя берутся из БД, поэтому отстают только очки остальных — на время между перестроениями.
+ * Пока таблица не построена, поиск возвращает пусто и ответ даёт БД.
+ * </p>
+ */
+public interface GlobalRankTable {
+
+    /**
+     * Найти плотный глобальный ранг для количества очков (как {@code DENSE_RANK()} по убыванию очков)
+     *
+     * @param totalPoints Общие очки
+     * @return Ранг (1 = лидер); пусто, если таблица не построена
+     */
+    Optional<Long> findRank(int totalPoints);
+
+    /**
+     * @return Количество пользователей на момент построения; пусто, если таблица не построена
+     */
+    Optional<Long> countUsers();
+}
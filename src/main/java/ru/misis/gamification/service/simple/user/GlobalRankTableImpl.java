@@ -0,0 +1,193 @@
+package ru.misis.gamification.service.simple.user;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.misis.gamification.model.UserPointsView;
+import ru.misis.gamification.repository.UserRepository;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Component
+@Slf4j
+public class GlobalRankTableImpl implements GlobalRankTable {
+
+    /**
+     * Начальная точка чтения: наименьший UUID
+     */
+    private static final UUID FIRST = new UUID(0L, 0L);
+
+    /**
+     * Репозиторий пользователей
+     */
+    private final UserRepository userRepository;
+
+    /**
+     * Признак включения таблицы
+     */
+    private final boolean enabled;
+
+    /**
+     * Размер пачки пользователей при перестроении
+     */
+    private final int batchSize;
+
+    /**
+     * Текущая таблица; заменяется целиком, никогда не изменяется на месте
+     */
+    private volatile Table table;
+
+    /**
+     * Таймер перестроения таблицы
+     */
+    private final Timer rebuildTimer;
+
+    /**
+     * Счётчик запросов, обслуженных таблицей
+     */
+    private final Counter hits;
+
+    /**
+     * Счётчик запросов, переданных в БД, пока таблица не построена
+     */
+    private final Counter bypasses;
+
+    public GlobalRankTableImpl(UserRepository userRepository,
+                               MeterRegistry meterRegistry,
+                               @Value("${gamification.features.global-rank-table.enabled:true}") boolean enabled,
+                               @Value("${gamification.features.global-rank-table.batch-size:10000}") int batchSize) {
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+
+        this.rebuildTimer = Timer.builder("gamification.global.rank.table.rebuild")
+                .description("Длительность перестроения таблицы глобальных рангов")
+                .register(meterRegistry);
+        this.hits = Counter.builder("gamification.global.rank.table.lookups")
+                .description("Поиск глобального ранга в таблице в памяти")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.bypasses = Counter.builder("gamification.global.rank.table.lookups")
+                .description("Поиск глобального ранга в таблице в памяти")
+                .tag("result", "bypass")
+                .register(meterRegistry);
+        Gauge.builder("gamification.global.rank.table.users", this,
+                        rankTable -> rankTable.table == null ? 0 : rankTable.table.users())
+                .description("Количество пользователей в таблице глобальных рангов")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Построить таблицу в фоне после старта приложения, чтобы не задерживать старт
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            Thread.ofVirtual().name("global-rank-table-build").start(this::scheduledRebuild);
+        }
+    }
+
+    /**
+     * Периодически перестраивать таблицу, чтобы учесть начисления всех экземпляров
+     */
+    @Scheduled(fixedDelayString = "${gamification.features.global-rank-table.refresh-interval-ms:60000}",
+            initialDelayString = "${gamification.features.global-rank-table.refresh-interval-ms:60000}")
+    public void scheduledRebuild() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            rebuildTimer.record(this::rebuild);
+        } catch (RuntimeException e) {
+            log.error("Ошибка построения таблицы глобальных рангов, используется предыдущая: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Прочитать очки всех пользователей постранично по первичному ключу и заменить таблицу
+     */
+    void rebuild() {
+        int[] points = new int[Math.max(batchSize, 16)];
+        int users = 0;
+        UUID after = FIRST;
+
+        List<UserPointsView> page;
+        do {
+            page = userRepository.findPointsAfter(after, batchSize);
+            if (users + page.size() > points.length) {
+                points = Arrays.copyOf(points, Math.max(points.length * 2, users + page.size()));
+            }
+            for (UserPointsView user : page) {
+                points[users++] = user.getTotalPoints();
+            }
+            if (!page.isEmpty()) {
+                after = page.getLast().getUuid();
+            }
+        } while (page.size() == batchSize);
+
+        Arrays.sort(points, 0, users);
+        int distinct = 0;
+        for (int i = 0; i < users; i++) {
+            if (distinct == 0 || points[distinct - 1] != points[i]) {
+                points[distinct++] = points[i];
+            }
+        }
+
+        table = new Table(Arrays.copyOf(points, distinct), users);
+        log.debug("Таблица глобальных рангов построена: пользователей={}, значений очков={}", users, distinct);
+    }
+
+    @Override
+    public Optional<Long> findRank(int totalPoints) {
+        Table current = table;
+        if (current == null) {
+            bypasses.increment();
+            return Optional.empty();
+        }
+
+        hits.increment();
+        return Optional.of(current.rank(totalPoints));
+    }
+
+    @Override
+    public Optional<Long> countUsers() {
+        Table current = table;
+        return current == null ? Optional.empty() : Optional.of((long) current.users());
+    }
+
+    /**
+     * Снимок таблицы
+     *
+     * @param points Различные значения очков по возрастанию
+     * @param users  Количество пользователей
+     */
+    private record Table(int[] points, int users) {
+
+        /**
+         * Ранг = количество различных значений больше {@code totalPoints} + 1
+         */
+        long rank(int totalPoints) {
+            int low = 0;
+            int high = points.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (points[mid] <= totalPoints) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return points.length - low + 1L;
+        }
+    }
+}
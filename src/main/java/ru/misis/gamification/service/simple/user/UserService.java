@@ -5,7 +5,12 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import ru.misis.gamification.entity.User;
 import ru.misis.gamification.exception.UserNotFoundException;
+import ru.misis.gamification.model.UserPointsView;
+import ru.misis.gamification.model.UserSummary;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -35,6 +40,9 @@ public interface UserService {
 
     /**
      * Получить пользователя по идентификатору из LMS
+     * <p>
+     * Если UUID пользователя уже в кэше, пользователь читается по первичному ключу.
+     * </p>
      *
      * @param userId Идентификатор пользователя из LMS
      * @return Пользователь
@@ -66,6 +74,10 @@ public interface UserService {
 
     /**
      * Получить UUID пользователя по идентификатору пользователя из LMS
+     * <p>
+     * UUID берётся из кэша; запрос в БД выполняется только при первом обращении к пользователю.
+     * Если нужен только UUID, используйте этот метод вместо {@link #getUserByExternalId(String)}.
+     * </p>
      *
      * @param userId Идентификатор пользователя из LMS
      * @return UUID пользователя
@@ -93,4 +105,127 @@ public interface UserService {
      * @throws ConstraintViolationException если userId == null или пустая строка
      */
     User getByUuid(UUID uuid) throws UserNotFoundException;
+
+    /**
+     * Получить ссылку на пользователя без загрузки из БД
+     * <p>
+     * Используется для установки связей (например, в транзакции), когда известен только UUID.
+     * </p>
+     *
+     * @param uuid UUID пользователя
+     * @return Ссылка на пользователя
+     */
+    User getReference(UUID uuid);
+
+    /**
+     * Атомарно начислить очки пользователю
+     * <p>
+     * Сумма увеличивается в БД одним запросом, который сразу возвращает новое значение.
+     * Уровень не изменяется и возвращается в состоянии до начисления.
+     * </p>
+     *
+     * @param uuid   UUID пользователя
+     * @param points Количество начисляемых очков
+     * @return Новая сумма очков и сохранённый уровень пользователя
+     * @throws UserNotFoundException если пользователь не найден
+     */
+    UserPointsView addPoints(UUID uuid, int points) throws UserNotFoundException;
+
+    /**
+     * Обновить уровень пользователя, если он изменился
+     *
+     * @param uuid  UUID пользователя
+     * @param level Новый уровень
+     * @return true — уровень записан, false — уровень уже был таким
+     */
+    boolean updateLevel(UUID uuid, int level);
+
+    /**
+     * Получить пользователей по идентификаторам из LMS
+     *
+     * @param userIds Идентификаторы пользователей из LMS
+     * @return Список найденных пользователей (отсутствующие пропускаются)
+     */
+    List<User> getUsersByExternalIds(Collection<String> userIds);
+
+    /**
+     * Атомарно начислить очки нескольким пользователям одним запросом к БД
+     *
+     * @param pointsByUserUuid Количество начисляемых очков по UUID пользователя
+     * @return Новые суммы очков и сохранённые уровни пользователей
+     */
+    List<UserPointsView> addPoints(Map<UUID, Integer> pointsByUserUuid);
+
+    /**
+     * Обновить уровни нескольких пользователей одним запросом к БД
+     *
+     * @param levelByUserUuid Новый уровень по UUID пользователя
+     * @return Количество пользователей, у которых уровень изменился
+     */
+    int updateLevels(Map<UUID, Integer> levelByUserUuid);
+
+    /**
+     * Получить страницу очков и уровней пользователей в порядке возрастания UUID
+     * <p>
+     * Постраничное чтение по ключу: следующая страница запрашивается с UUID последнего
+     * пользователя предыдущей, стоимость не зависит от номера страницы.
+     * </p>
+     *
+     * @param after UUID, после которого начинается страница
+     * @param limit Размер страницы
+     * @return Очки и уровни пользователей
+     */
+    List<UserPointsView> findPointsAfter(UUID after, int limit);
+
+    /**
+     * Получить строки глобального лидерборда, следующие за курсором (постраничное чтение по ключу)
+     * <p>
+     * Порядок — по убыванию общих очков, при равенстве по убыванию UUID пользователя.
+     * </p>
+     *
+     * @param totalPoints Очки последней строки предыдущей страницы
+     * @param userUuid    UUID пользователя последней строки предыдущей страницы
+     * @param limit       Максимальное количество строк
+     * @return Пользователи в порядке лидерборда
+     */
+    List<UserSummary> findGlobalLeaderboardAfter(int totalPoints, UUID userUuid, int limit);
+
+    /**
+     * Получить плотный глобальный ранг для количества очков
+     * <p>
+     * Ранг берётся из таблицы глобальных рангов в памяти, пока она не построена — из БД.
+     * </p>
+     *
+     * @param totalPoints Общие очки пользователя
+     * @return Ранг (1 = лидер)
+     */
+    long getGlobalRank(int totalPoints);
+
+    /**
+     * Получить количество пользователей (из таблицы глобальных рангов, если она построена)
+     *
+     * @return Количество пользователей
+     */
+    long countUsers();
+
+    /**
+     * Обновить уровни нескольких пользователей одним запросом, если их очки не изменились с момента чтения
+     * <p>
+     * Массивы передаются поэлементно. Пользователи, которым за это время начислены очки, пропускаются:
+     * начисление само пересчитывает уровень.
+     * </p>
+     *
+     * @param uuids       UUID пользователей
+     * @param totalPoints Очки, по которым рассчитан уровень
+     * @param levels      Новые уровни
+     * @return Количество пользователей, у которых уровень изменился
+     */
+    int updateLevelsIfPointsUnchanged(UUID[] uuids, int[] totalPoints, int[] levels);
+
+    /**
+     * Получить количество пользователей
+     *
+     * @return Количество пользователей
+     */
+    long count();
 }
@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -11,8 +12,14 @@ import org.springframework.transaction.annotation.Transactional;
 import ru.misis.gamification.entity.User;
 import ru.misis.gamification.events.UserCreatedEvent;
 import ru.misis.gamification.exception.UserNotFoundException;
+import ru.misis.gamification.model.UserPointsView;
+import ru.misis.gamification.model.UserSummary;
 import ru.misis.gamification.repository.UserRepository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
@@ -27,6 +34,16 @@ public class UserServiceImpl implements UserService {
 
     private final ApplicationEventPublisher eventPublisher;
 
+    /**
+     * Кэш UUID пользователей по идентификатору из LMS
+     */
+    private final UserUuidCache userUuidCache;
+
+    /**
+     * Таблица глобальных рангов в памяти
+     */
+    private final GlobalRankTable globalRankTable;
+
     @Value("${gamification.user.default.initial-points:0}")
     private int initialPoints;
 
@@ -84,14 +101,26 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public UUID getUserUuidByExternalId(String userId) {
-        return userRepository.findUuidByUserId(userId)
-                .orElseThrow(() -> new UserNotFoundException(userId));
+        return userUuidCache.get(userId).orElseGet(() -> {
+            UUID userUuid = userRepository.findUuidByUserId(userId)
+                    .orElseThrow(() -> new UserNotFoundException(userId));
+            userUuidCache.put(userId, userUuid);
+            return userUuid;
+        });
     }
 
     @Override
     public User getUserByExternalId(String userId) throws UserNotFoundException {
-        return userRepository.findByUserId(userId)
+        Optional<UUID> cachedUuid = userUuidCache.get(userId);
+        if (cachedUuid.isPresent()) {
+            return userRepository.findById(cachedUuid.get())
+                    .orElseThrow(() -> new UserNotFoundException(userId));
+        }
+
+        User user = userRepository.findByUserId(userId)
                 .orElseThrow(() -> new UserNotFoundException(userId));
+        userUuidCache.put(userId, user.getUuid());
+        return user;
     }
 
     @Override
@@ -103,6 +132,115 @@ public class UserServiceImpl implements UserService {
                 });
     }
 
+    @Override
+    public User getReference(UUID uuid) {
+        return userRepository.getReferenceById(uuid);
+    }
+
+    @Override
+    public UserPointsView addPoints(UUID uuid, int points) throws UserNotFoundException {
+        UserPointsView updated = userRepository.addPoints(uuid, points)
+                .orElseThrow(() -> new UserNotFoundException("Пользователь с UUID " + uuid + " не найден"));
+        log.debug("Начислены очки: uuid={}, points={}, totalPoints={}", uuid, points, updated.getTotalPoints());
+        return updated;
+    }
+
+    @Override
+    public boolean updateLevel(UUID uuid, int level) {
+        boolean changed = userRepository.updateLevel(uuid, level) > 0;
+        if (changed) {
+            log.debug("Уровень обновлён: uuid={}, level={}", uuid, level);
+        }
+        return changed;
+    }
+
+    @Override
+    public List<User> getUsersByExternalIds(Collection<String> userIds) {
+        if (userIds.isEmpty()) {
+            return List.of();
+        }
+        List<User> users = userRepository.findAllByUserIdIn(userIds);
+        users.forEach(user -> userUuidCache.put(user.getUserId(), user.getUuid()));
+        return users;
+    }
+
+    @Override
+    public List<UserPointsView> addPoints(Map<UUID, Integer> pointsByUserUuid) {
+        if (pointsByUserUuid.isEmpty()) {
+            return List.of();
+        }
+
+        UUID[] uuids = new UUID[pointsByUserUuid.size()];
+        int[] points = new int[pointsByUserUuid.size()];
+        int i = 0;
+        for (Map.Entry<UUID, Integer> entry : pointsByUserUuid.entrySet()) {
+            uuids[i] = entry.getKey();
+            points[i++] = entry.getValue();
+        }
+
+        List<UserPointsView> updated = userRepository.addPointsBatch(uuids, points);
+        log.debug("Начислены очки пакетом: пользователей={}", updated.size());
+        return updated;
+    }
+
+    @Override
+    public int updateLevels(Map<UUID, Integer> levelByUserUuid) {
+        if (levelByUserUuid.isEmpty()) {
+            return 0;
+        }
+
+        UUID[] uuids = new UUID[levelByUserUuid.size()];
+        int[] levels = new int[levelByUserUuid.size()];
+        int i = 0;
+        for (Map.Entry<UUID, Integer> entry : levelByUserUuid.entrySet()) {
+            uuids[i] = entry.getKey();
+            levels[i++] = entry.getValue();
+        }
+
+        int changed = userRepository.updateLevelsBatch(uuids, levels);
+        log.debug("Обновлены уровни пакетом: изменено={}", changed);
+        return changed;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserPointsView> findPointsAfter(UUID after, int limit) {
+        return userRepository.findPointsAfter(after, limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserSummary> findGlobalLeaderboardAfter(int totalPoints, UUID userUuid, int limit) {
+        return userRepository.findGlobalLeaderboardAfter(totalPoints, userUuid, Limit.of(limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long getGlobalRank(int totalPoints) {
+        return globalRankTable.findRank(totalPoints)
+                .orElseGet(() -> userRepository.countDistinctTotalPointsAbove(totalPoints) + 1);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long countUsers() {
+        return globalRankTable.countUsers().orElseGet(userRepository::count);
+    }
+
+    @Override
+    public int updateLevelsIfPointsUnchanged(UUID[] uuids, int[] totalPoints, int[] levels) {
+        if (uuids.length == 0) {
+            return 0;
+        }
+        return userRepository.updateLevelsIfPointsUnchanged(uuids, totalPoints, levels);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long count() {
+        return userRepository.count();
+    }
+
     private User createNewUser(String userId, String courseId, String groupId) {
         User newUser = User.builder()
                 .userId(userId)
@@ -111,6 +249,7 @@ public class UserServiceImpl implements UserService {
                 .build();
 
         User savedUser = userRepository.save(newUser);
+        userUuidCache.put(userId, savedUser.getUuid());
         eventPublisher.publishEvent(new UserCreatedEvent(userId, courseId, groupId));
 
         log.info("Создан новый пользователь: userId={}, uuid={}", userId, savedUser.getUuid());
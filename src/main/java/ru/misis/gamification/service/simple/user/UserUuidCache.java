@@ -0,0 +1,35 @@
+package ru.misis.gamification.service.simple.user;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Кэш соответствия идентификатора пользователя из LMS и внутреннего UUID
+ * <p>
+ * UUID назначается пользователю один раз и не меняется, поэтому записи не устаревают
+ * и кэш можно использовать на нескольких экземплярах приложения. Размер ограничен,
+ * вытесняются редко используемые записи.
+ * </p>
+ */
+public interface UserUuidCache {
+
+    /**
+     * Получить UUID пользователя из кэша
+     *
+     * @param userId Идентификатор пользователя из LMS
+     * @return UUID пользователя, либо пусто, если в кэше его нет
+     */
+    Optional<UUID> get(String userId);
+
+    /**
+     * Запомнить UUID пользователя
+     * <p>
+     * Внутри транзакции запись добавляется после её фиксации, чтобы откат создания
+     * пользователя не оставил в кэше несуществующий UUID.
+     * </p>
+     *
+     * @param userId   Идентификатор пользователя из LMS
+     * @param userUuid UUID пользователя
+     */
+    void put(String userId, UUID userUuid);
+}
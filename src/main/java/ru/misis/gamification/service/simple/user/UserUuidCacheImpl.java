@@ -0,0 +1,61 @@
+package ru.misis.gamification.service.simple.user;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Component
+public class UserUuidCacheImpl implements UserUuidCache {
+
+    private final boolean enabled;
+
+    /**
+     * UUID пользователей по идентификатору из LMS (вытеснение W-TinyLFU)
+     */
+    private final Cache<String, UUID> cache;
+
+    public UserUuidCacheImpl(MeterRegistry meterRegistry,
+                             @Value("${gamification.features.user-uuid-cache.enabled:true}") boolean enabled,
+                             @Value("${gamification.features.user-uuid-cache.max-entries:100000}") long maxEntries) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gamification.user.uuid");
+    }
+
+    @Override
+    public Optional<UUID> get(String userId) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(cache.getIfPresent(userId));
+    }
+
+    @Override
+    public void put(String userId, UUID userUuid) {
+        if (!enabled) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.put(userId, userUuid);
+                }
+            });
+        } else {
+            cache.put(userId, userUuid);
+        }
+    }
+}
@@ -90,7 +90,8 @@ class LeaderboardMapperTest {
                 45L,
                 3,
                 true,
-                false
+                false,
+                "bmV4dA"
         );
 
         GroupLeaderboardPageDto dto = mapper.toGroupLeaderboardPageDto(view);
@@ -108,6 +109,7 @@ class LeaderboardMapperTest {
         assertThat(dto.getTotalPages()).isEqualTo(3);
         assertThat(dto.isHasNext()).isTrue();
         assertThat(dto.isHasPrevious()).isFalse();
+        assertThat(dto.getNextCursor()).isEqualTo("bmV4dA");
     }
 
     @Test
@@ -119,7 +121,8 @@ class LeaderboardMapperTest {
                 0L,
                 0,
                 false,
-                true
+                true,
+                null
         );
 
         GroupLeaderboardPageDto dto = mapper.toGroupLeaderboardPageDto(view);
@@ -171,7 +174,8 @@ class LeaderboardMapperTest {
                 50L,
                 3,
                 true,
-                false
+                false,
+                null
         );
 
         UserCourseGroupLeaderboardDto dto = mapper.toUserCourseGroupLeaderboardDto(view);
@@ -218,7 +222,8 @@ class LeaderboardMapperTest {
                 30L,
                 2,
                 false,
-                true
+                true,
+                null
         );
 
         UserCourseGroupLeaderboardDto dto = mapper.toUserCourseGroupLeaderboardDto(view);
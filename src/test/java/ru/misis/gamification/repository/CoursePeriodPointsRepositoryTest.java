@@ -0,0 +1,158 @@
+package ru.misis.gamification.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.misis.gamification.entity.Course;
+import ru.misis.gamification.entity.CoursePeriodPoints;
+import ru.misis.gamification.entity.CoursePeriodPointsId;
+import ru.misis.gamification.entity.Group;
+import ru.misis.gamification.entity.LeaderboardPeriod;
+import ru.misis.gamification.entity.User;
+import ru.misis.gamification.entity.UserCourseEnrollment;
+import ru.misis.gamification.model.LeaderboardEntryView;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@ActiveProfiles("test")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class CoursePeriodPointsRepositoryTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private CoursePeriodPointsRepository repository;
+
+    private final LocalDate day = LocalDate.of(2025, 3, 12);
+    private final LocalDate weekStart = LeaderboardPeriod.WEEK.start(day);
+    private final LocalDate monthStart = LeaderboardPeriod.MONTH.start(day);
+
+    private Course course;
+    private Group group;
+    private User alice, bob, carol;
+
+    @BeforeEach
+    void setUp() {
+        course = em.persistAndFlush(Course.builder().courseId("PER-101").displayName("Периоды").build());
+        group = em.persistAndFlush(Group.builder().groupId("PER-G1").displayName("Группа").course(course).build());
+
+        alice = em.persist(User.builder().userId("alice").totalPoints(0).level(1).build());
+        bob = em.persist(User.builder().userId("bob").totalPoints(0).level(1).build());
+        carol = em.persist(User.builder().userId("carol").totalPoints(0).level(1).build());
+
+        em.persist(UserCourseEnrollment.builder().user(alice).course(course).group(group).totalPointsInCourse(0).build());
+        em.persist(UserCourseEnrollment.builder().user(bob).course(course).group(group).totalPointsInCourse(0).build());
+        em.persist(UserCourseEnrollment.builder().user(carol).course(course).totalPointsInCourse(0).build());
+        em.flush();
+    }
+
+    @Test
+    void addPoints_firstAndNextAward_createsThenIncrementsWeekAndMonth() {
+        int first = repository.addPoints(alice.getUuid(), course.getUuid(), 50, weekStart, monthStart);
+        repository.addPoints(alice.getUuid(), course.getUuid(), 30, weekStart, monthStart);
+        em.clear();
+
+        assertThat(first).isEqualTo(2);
+        assertThat(points(LeaderboardPeriod.WEEK, weekStart, alice)).isEqualTo(80);
+        assertThat(points(LeaderboardPeriod.MONTH, monthStart, alice)).isEqualTo(80);
+        assertThat(em.find(CoursePeriodPoints.class, id(LeaderboardPeriod.WEEK, weekStart, alice)).getGroupUuid())
+                .isEqualTo(group.getUuid());
+    }
+
+    @Test
+    void addPoints_notEnrolled_insertsNothing() {
+        User stranger = em.persistAndFlush(User.builder().userId("stranger").totalPoints(0).level(1).build());
+
+        assertThat(repository.addPoints(stranger.getUuid(), course.getUuid(), 50, weekStart, monthStart)).isZero();
+    }
+
+    @Test
+    void addPointsBatch_upsertsEachEnrollment() {
+        repository.addPoints(alice.getUuid(), course.getUuid(), 50, weekStart, monthStart);
+
+        int updated = repository.addPointsBatch(
+                new UUID[]{alice.getUuid(), bob.getUuid()},
+                new UUID[]{course.getUuid(), course.getUuid()},
+                new int[]{20, 40},
+                weekStart, monthStart);
+        em.clear();
+
+        assertThat(updated).isEqualTo(4);
+        assertThat(points(LeaderboardPeriod.WEEK, weekStart, alice)).isEqualTo(70);
+        assertThat(points(LeaderboardPeriod.MONTH, monthStart, bob)).isEqualTo(40);
+    }
+
+    @Test
+    void findLeaderboard_ranksWithinPeriodAndGroup() {
+        repository.addPoints(alice.getUuid(), course.getUuid(), 30, weekStart, monthStart);
+        repository.addPoints(bob.getUuid(), course.getUuid(), 70, weekStart, monthStart);
+        repository.addPoints(carol.getUuid(), course.getUuid(), 50, weekStart, monthStart);
+        // Прошлая неделя того же месяца не влияет на лидерборд недели
+        repository.addPoints(alice.getUuid(), course.getUuid(), 100, weekStart.minusWeeks(1), monthStart);
+
+        Page<LeaderboardEntryView> week = repository.findLeaderboard(
+                course.getUuid(), null, LeaderboardPeriod.WEEK, weekStart, PageRequest.of(0, 10));
+        Page<LeaderboardEntryView> month = repository.findLeaderboard(
+                course.getUuid(), null, LeaderboardPeriod.MONTH, monthStart, PageRequest.of(0, 10));
+        Page<LeaderboardEntryView> groupWeek = repository.findLeaderboard(
+                course.getUuid(), group.getUuid(), LeaderboardPeriod.WEEK, weekStart, PageRequest.of(0, 10));
+
+        assertThat(week.getTotalElements()).isEqualTo(3);
+        assertThat(week.getContent()).extracting(LeaderboardEntryView::getUserId, LeaderboardEntryView::getPointsInCourse,
+                        LeaderboardEntryView::getRank)
+                .containsExactly(tuple("bob", 70, 1L), tuple("carol", 50, 2L), tuple("alice", 30, 3L));
+        assertThat(month.getContent()).extracting(LeaderboardEntryView::getUserId).containsExactly("alice", "bob", "carol");
+        assertThat(groupWeek.getContent()).extracting(LeaderboardEntryView::getUserId).containsExactly("bob", "alice");
+    }
+
+    @Test
+    void findLeaderboardAfter_continuesFromCursor() {
+        repository.addPoints(alice.getUuid(), course.getUuid(), 30, weekStart, monthStart);
+        repository.addPoints(bob.getUuid(), course.getUuid(), 70, weekStart, monthStart);
+        repository.addPoints(carol.getUuid(), course.getUuid(), 50, weekStart, monthStart);
+
+        List<LeaderboardEntryView> courseRows = repository.findLeaderboardAfter(
+                course.getUuid(), LeaderboardPeriod.WEEK, weekStart, 70, bob.getUuid(), Limit.of(10));
+        List<LeaderboardEntryView> groupRows = repository.findGroupLeaderboardAfter(
+                course.getUuid(), group.getUuid(), LeaderboardPeriod.WEEK, weekStart, 70, bob.getUuid(), Limit.of(10));
+
+        assertThat(courseRows).extracting(LeaderboardEntryView::getUserId).containsExactly("carol", "alice");
+        assertThat(groupRows).extracting(LeaderboardEntryView::getUserId).containsExactly("alice");
+    }
+
+    @Test
+    void deleteByPeriodStartBefore_removesOnlyOlderPeriods() {
+        LocalDate oldDay = day.minusYears(2);
+        repository.addPoints(alice.getUuid(), course.getUuid(), 30,
+                LeaderboardPeriod.WEEK.start(oldDay), LeaderboardPeriod.MONTH.start(oldDay));
+        repository.addPoints(alice.getUuid(), course.getUuid(), 50, weekStart, monthStart);
+
+        int deleted = repository.deleteByPeriodStartBefore(day.minusDays(400));
+        em.clear();
+
+        assertThat(deleted).isEqualTo(2);
+        assertThat(repository.count()).isEqualTo(2);
+    }
+
+    private int points(LeaderboardPeriod period, LocalDate periodStart, User user) {
+        return em.find(CoursePeriodPoints.class, id(period, periodStart, user)).getPoints();
+    }
+
+    private CoursePeriodPointsId id(LeaderboardPeriod period, LocalDate periodStart, User user) {
+        return new CoursePeriodPointsId(course.getUuid(), period, periodStart, user.getUuid());
+    }
+}
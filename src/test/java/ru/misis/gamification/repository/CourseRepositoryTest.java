@@ -184,4 +184,19 @@ class CourseRepositoryTest {
                 courseRepository.saveAndFlush(Course.builder().courseId("DUPL-999").build())
         ).isInstanceOf(org.springframework.dao.DataIntegrityViolationException.class);
     }
-}
\ No newline at end of file
+
+    @Test
+    void findByNaturalId_existing_returnsCourse() {
+        Course saved = courseRepository.saveAndFlush(Course.builder().courseId("CHEM-303").displayName("Химия").build());
+
+        Optional<Course> found = courseRepository.findByNaturalId("CHEM-303");
+
+        assertThat(found).isPresent();
+        assertThat(found.get().getUuid()).isEqualTo(saved.getUuid());
+    }
+
+    @Test
+    void findByNaturalId_nonExisting_returnsEmpty() {
+        assertThat(courseRepository.findByNaturalId("UNKNOWN-000")).isEmpty();
+    }
+}
@@ -0,0 +1,82 @@
+package ru.misis.gamification.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import ru.misis.gamification.model.DailyPointsSumView;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("test")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class DailyPointsUsageRepositoryTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private DailyPointsUsageRepository repository;
+
+    private final UUID userUuid = UUID.randomUUID();
+    private final UUID eventTypeUuid = UUID.randomUUID();
+    private final LocalDate today = LocalDate.now();
+
+    @Test
+    void addPoints_firstAndNextAward_createsThenIncrements() {
+        int first = repository.addPoints(userUuid, eventTypeUuid, today, 50);
+        int second = repository.addPoints(userUuid, eventTypeUuid, today, 30);
+
+        assertThat(first).isEqualTo(50);
+        assertThat(second).isEqualTo(80);
+        assertThat(repository.findPoints(userUuid, eventTypeUuid, today)).contains(80);
+    }
+
+    @Test
+    void findPoints_otherDayOrType_returnsEmpty() {
+        repository.addPoints(userUuid, eventTypeUuid, today, 50);
+
+        assertThat(repository.findPoints(userUuid, eventTypeUuid, today.minusDays(1))).isEmpty();
+        assertThat(repository.findPoints(userUuid, UUID.randomUUID(), today)).isEmpty();
+    }
+
+    @Test
+    void addPointsBatch_upsertsEachPair() {
+        UUID otherUser = UUID.randomUUID();
+        repository.addPoints(userUuid, eventTypeUuid, today, 50);
+
+        int updated = repository.addPointsBatch(
+                new UUID[]{userUuid, otherUser},
+                new UUID[]{eventTypeUuid, eventTypeUuid},
+                new int[]{20, 40},
+                today);
+
+        assertThat(updated).isEqualTo(2);
+
+        List<DailyPointsSumView> sums = repository.findPointsByUsersAndEventTypes(
+                List.of(userUuid, otherUser), List.of(eventTypeUuid), today);
+        assertThat(sums).containsExactlyInAnyOrder(
+                new DailyPointsSumView(userUuid, eventTypeUuid, 70L),
+                new DailyPointsSumView(otherUser, eventTypeUuid, 40L));
+    }
+
+    @Test
+    void deleteByDayBefore_removesOnlyOlderDays() {
+        repository.addPoints(userUuid, eventTypeUuid, today.minusDays(10), 50);
+        repository.addPoints(userUuid, eventTypeUuid, today, 30);
+
+        int deleted = repository.deleteByDayBefore(today.minusDays(7));
+        em.clear();
+
+        assertThat(deleted).isEqualTo(1);
+        assertThat(repository.findPoints(userUuid, eventTypeUuid, today.minusDays(10))).isEmpty();
+        assertThat(repository.findPoints(userUuid, eventTypeUuid, today)).contains(30);
+    }
+}
@@ -260,4 +260,32 @@ class GroupRepositoryTest {
         assertThat(groupRepository.findUuidByGroupIdAndCourseCourseId("", "MATH-101")).isEmpty();
         assertThat(groupRepository.findUuidByGroupIdAndCourseCourseId("PM-21-1", "")).isEmpty();
     }
-}
\ No newline at end of file
+
+    @Test
+    void findByNaturalId_existingGroup_returnsGroupOfThatCourse() {
+        Course math = Course.builder().courseId("MATH-101").displayName("Математика").build();
+        Course phys = Course.builder().courseId("PHYS-202").displayName("Физика").build();
+        em.persistAndFlush(math);
+        em.persistAndFlush(phys);
+        Group mathGroup = Group.builder().groupId("PM-21-1").displayName("Поток ПМ-21-1").course(math).build();
+        Group physGroup = Group.builder().groupId("PM-21-1").displayName("Поток ПМ-21-1").course(phys).build();
+        em.persistAndFlush(mathGroup);
+        em.persistAndFlush(physGroup);
+        em.clear();
+
+        Optional<Group> found = groupRepository.findByNaturalId("PM-21-1", "PHYS-202");
+
+        assertThat(found).isPresent();
+        assertThat(found.get().getUuid()).isEqualTo(physGroup.getUuid());
+    }
+
+    @Test
+    void findByNaturalId_unknownGroupOrCourse_returnsEmpty() {
+        Course math = Course.builder().courseId("MATH-101").displayName("Математика").build();
+        em.persistAndFlush(math);
+        em.persistAndFlush(Group.builder().groupId("PM-21-1").displayName("Поток ПМ-21-1").course(math).build());
+
+        assertThat(groupRepository.findByNaturalId("PM-21-2", "MATH-101")).isEmpty();
+        assertThat(groupRepository.findByNaturalId("PM-21-1", "UNKNOWN-000")).isEmpty();
+    }
+}
@@ -0,0 +1,85 @@
+package ru.misis.gamification.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import ru.misis.gamification.entity.LevelRecalculationJob;
+import ru.misis.gamification.entity.LevelRecalculationJobStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("test")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class LevelRecalculationJobRepositoryTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private LevelRecalculationJobRepository repository;
+
+    @Test
+    void checkpoint_accumulatesProgress() {
+        LevelRecalculationJob job = em.persistAndFlush(LevelRecalculationJob.builder()
+                .formula("TRIANGULAR(base=500)").totalUsers(3L).build());
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        repository.checkpoint(job.getUuid(), first, 2, 1, LocalDateTime.now());
+        repository.checkpoint(job.getUuid(), second, 1, 1, LocalDateTime.now());
+        em.clear();
+
+        LevelRecalculationJob saved = repository.findById(job.getUuid()).orElseThrow();
+        assertThat(saved.getProcessed()).isEqualTo(3);
+        assertThat(saved.getChanged()).isEqualTo(2);
+        assertThat(saved.getLastUserUuid()).isEqualTo(second);
+    }
+
+    @Test
+    void checkpoint_afterCancel_returnsZero() {
+        LevelRecalculationJob job = em.persistAndFlush(LevelRecalculationJob.builder()
+                .formula("TRIANGULAR(base=500)").build());
+
+        int cancelled = repository.finish(job.getUuid(), LevelRecalculationJobStatus.CANCELLED, null, LocalDateTime.now());
+        int saved = repository.checkpoint(job.getUuid(), UUID.randomUUID(), 10, 5, LocalDateTime.now());
+        em.clear();
+
+        assertThat(cancelled).isEqualTo(1);
+        assertThat(saved).isZero();
+        assertThat(repository.findById(job.getUuid()).orElseThrow().getProcessed()).isZero();
+    }
+
+    @Test
+    void claim_onlyStaleJob() {
+        LocalDateTime now = LocalDateTime.now();
+        LevelRecalculationJob job = em.persistAndFlush(LevelRecalculationJob.builder()
+                .formula("TRIANGULAR(base=500)").heartbeatAt(now.minusMinutes(10)).build());
+
+        assertThat(repository.findStale(now.minusMinutes(2))).extracting(LevelRecalculationJob::getUuid)
+                .containsExactly(job.getUuid());
+        assertThat(repository.claim(job.getUuid(), now.minusMinutes(2), now)).isEqualTo(1);
+        assertThat(repository.claim(job.getUuid(), now.minusMinutes(2), now)).isZero();
+    }
+
+    @Test
+    void restart_resetsProgress() {
+        LevelRecalculationJob job = em.persistAndFlush(LevelRecalculationJob.builder()
+                .formula("TRIANGULAR(base=500)").lastUserUuid(UUID.randomUUID()).processed(100L).changed(7L).build());
+
+        repository.restart(job.getUuid(), "QUADRATIC(base=100)", LocalDateTime.now());
+        em.clear();
+
+        LevelRecalculationJob saved = repository.findById(job.getUuid()).orElseThrow();
+        assertThat(saved.getFormula()).isEqualTo("QUADRATIC(base=100)");
+        assertThat(saved.getLastUserUuid()).isNull();
+        assertThat(saved.getProcessed()).isZero();
+        assertThat(saved.getChanged()).isZero();
+    }
+}
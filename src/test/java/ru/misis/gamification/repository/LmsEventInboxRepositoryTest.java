@@ -0,0 +1,125 @@
+package ru.misis.gamification.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import ru.misis.gamification.entity.LmsEventInbox;
+import ru.misis.gamification.entity.LmsEventInboxStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("test")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class LmsEventInboxRepositoryTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private LmsEventInboxRepository repository;
+
+    @Test
+    void insertIfAbsent_sameEventIdTwice_insertsOnce() {
+        LocalDateTime now = LocalDateTime.now();
+
+        int first = repository.insertIfAbsent("evt-inbox-1", "user-1", "quiz", "MATH-101", "G-1", now);
+        int second = repository.insertIfAbsent("evt-inbox-1", "user-1", "quiz", "MATH-101", "G-1", now);
+
+        assertThat(first).isEqualTo(1);
+        assertThat(second).isZero();
+
+        LmsEventInbox saved = repository.findByEventId("evt-inbox-1").orElseThrow();
+        assertThat(saved.getStatus()).isEqualTo(LmsEventInboxStatus.PENDING);
+        assertThat(saved.getAttempts()).isZero();
+        assertThat(saved.getCourseId()).isEqualTo("MATH-101");
+    }
+
+    @Test
+    void claimBatch_takesOnlyDuePendingEventsAndMarksProcessing() {
+        LocalDateTime now = LocalDateTime.now();
+        repository.insertIfAbsent("evt-due-1", "user-1", "quiz", null, null, now.minusSeconds(2));
+        repository.insertIfAbsent("evt-due-2", "user-2", "quiz", null, null, now.minusSeconds(1));
+        repository.insertIfAbsent("evt-later", "user-3", "quiz", null, null, now.plusMinutes(5));
+
+        List<LmsEventInbox> claimed = repository.claimBatch(now, 10);
+        em.clear();
+
+        assertThat(claimed).extracting(LmsEventInbox::getEventId).containsExactlyInAnyOrder("evt-due-1", "evt-due-2");
+        assertThat(repository.findByEventId("evt-due-1").orElseThrow().getStatus())
+                .isEqualTo(LmsEventInboxStatus.PROCESSING);
+        assertThat(repository.findByEventId("evt-due-1").orElseThrow().getAttempts()).isEqualTo(1);
+        assertThat(repository.findByEventId("evt-later").orElseThrow().getStatus())
+                .isEqualTo(LmsEventInboxStatus.PENDING);
+
+        assertThat(repository.claimBatch(now, 10)).isEmpty();
+    }
+
+    @Test
+    void claimBatch_respectsLimit() {
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 5; i++) {
+            repository.insertIfAbsent("evt-limit-" + i, "user-" + i, "quiz", null, null, now.minusSeconds(1));
+        }
+
+        assertThat(repository.claimBatch(now, 3)).hasSize(3);
+        assertThat(repository.claimBatch(now, 3)).hasSize(2);
+    }
+
+    @Test
+    void completeAndFail_updateStatus() {
+        LocalDateTime now = LocalDateTime.now();
+        repository.insertIfAbsent("evt-done", "user-1", "quiz", null, null, now);
+        repository.insertIfAbsent("evt-parked", "user-1", "quiz", null, null, now);
+        LmsEventInbox done = repository.findByEventId("evt-done").orElseThrow();
+        LmsEventInbox parked = repository.findByEventId("evt-parked").orElseThrow();
+
+        repository.complete(done.getUuid(), LmsEventInboxStatus.PROCESSED, "success", "Начислено 80 очков", now);
+        repository.fail(parked.getUuid(), LmsEventInboxStatus.PARKED, "boom", now, now);
+        em.clear();
+
+        LmsEventInbox reloadedDone = repository.findByEventId("evt-done").orElseThrow();
+        assertThat(reloadedDone.getStatus()).isEqualTo(LmsEventInboxStatus.PROCESSED);
+        assertThat(reloadedDone.getResultStatus()).isEqualTo("success");
+        assertThat(reloadedDone.getProcessedAt()).isNotNull();
+
+        LmsEventInbox reloadedParked = repository.findByEventId("evt-parked").orElseThrow();
+        assertThat(reloadedParked.getStatus()).isEqualTo(LmsEventInboxStatus.PARKED);
+        assertThat(reloadedParked.getLastError()).isEqualTo("boom");
+    }
+
+    @Test
+    void releaseStale_returnsOldProcessingEventsToPending() {
+        LocalDateTime now = LocalDateTime.now();
+        repository.insertIfAbsent("evt-stale", "user-1", "quiz", null, null, now.minusMinutes(10));
+        repository.claimBatch(now.minusMinutes(10), 10);
+
+        int released = repository.releaseStale(now.minusMinutes(1), now);
+        em.clear();
+
+        assertThat(released).isEqualTo(1);
+        assertThat(repository.findByEventId("evt-stale").orElseThrow().getStatus())
+                .isEqualTo(LmsEventInboxStatus.PENDING);
+    }
+
+    @Test
+    void requeue_returnsClaimedEventsToPendingWithoutCountingAttempt() {
+        LocalDateTime now = LocalDateTime.now();
+        repository.insertIfAbsent("evt-requeue", "user-1", "quiz", null, null, now.minusSeconds(1));
+        LmsEventInbox claimed = repository.claimBatch(now, 10).get(0);
+
+        int requeued = repository.requeue(List.of(claimed.getUuid()), now);
+        em.clear();
+
+        assertThat(requeued).isEqualTo(1);
+        LmsEventInbox reloaded = repository.findByEventId("evt-requeue").orElseThrow();
+        assertThat(reloaded.getStatus()).isEqualTo(LmsEventInboxStatus.PENDING);
+        assertThat(reloaded.getAttempts()).isZero();
+    }
+}
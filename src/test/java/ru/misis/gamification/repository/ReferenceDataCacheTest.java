@@ -0,0 +1,122 @@
+package ru.misis.gamification.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.misis.gamification.config.HibernateCacheConfig;
+import ru.misis.gamification.entity.Course;
+import ru.misis.gamification.entity.Group;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Кэш второго уровня для курсов и групп: данные фиксируются, поэтому тест работает вне транзакции теста
+ */
+@ActiveProfiles("test")
+@DataJpaTest(properties = "gamification.features.second-level-cache.enabled=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(HibernateCacheConfig.class)
+class ReferenceDataCacheTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private DailyPointsUsageRepository dailyPointsUsageRepository;
+
+    private Statistics statistics;
+
+    private Course course;
+
+    private Group group;
+
+    @BeforeEach
+    void setUp() {
+        course = courseRepository.save(Course.builder().courseId("CACHE-101").displayName("Кэш").build());
+        group = groupRepository.save(Group.builder().groupId("CG-1").displayName("Группа").course(course).build());
+
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        dailyPointsUsageRepository.deleteAll();
+        groupRepository.deleteAll();
+        courseRepository.deleteAll();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void findByNaturalId_repeatedLookup_servedFromCache() {
+        assertThat(courseRepository.findByNaturalId("CACHE-101")).isPresent();
+        long statementsAfterFirstLookup = statistics.getPrepareStatementCount();
+
+        assertThat(courseRepository.findByNaturalId("CACHE-101")).isPresent();
+        assertThat(courseRepository.findById(course.getUuid())).isPresent();
+
+        assertThat(statementsAfterFirstLookup).isPositive();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statementsAfterFirstLookup);
+        assertThat(statistics.getNaturalIdCacheHitCount()).isPositive();
+        assertThat(statistics.getSecondLevelCacheHitCount()).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    void findGroupByNaturalId_repeatedLookup_servedFromCache() {
+        assertThat(groupRepository.findByNaturalId("CG-1", "CACHE-101")).get()
+                .extracting(Group::getUuid).isEqualTo(group.getUuid());
+        long statementsAfterFirstLookup = statistics.getPrepareStatementCount();
+        long hitsAfterFirstLookup = statistics.getNaturalIdCacheHitCount();
+
+        assertThat(groupRepository.findByNaturalId("CG-1", "CACHE-101")).isPresent();
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statementsAfterFirstLookup);
+        assertThat(statistics.getNaturalIdCacheHitCount()).isEqualTo(hitsAfterFirstLookup + 2);
+    }
+
+    @Test
+    void nativeUpdateOfOtherTable_keepsReferenceRegions() {
+        courseRepository.findByNaturalId("CACHE-101");
+
+        dailyPointsUsageRepository.addPointsBatch(new UUID[]{UUID.randomUUID()}, new UUID[]{UUID.randomUUID()},
+                new int[]{10}, LocalDate.now());
+        long statementsAfterUpdate = statistics.getPrepareStatementCount();
+
+        assertThat(entityManagerFactory.getCache().contains(Course.class, course.getUuid())).isTrue();
+        courseRepository.findByNaturalId("CACHE-101");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statementsAfterUpdate);
+    }
+
+    @Test
+    void update_refreshesCachedCourse() {
+        courseRepository.findByNaturalId("CACHE-101");
+
+        Course loaded = courseRepository.findById(course.getUuid()).orElseThrow();
+        loaded.setDisplayName("Кэш второго уровня");
+        courseRepository.save(loaded);
+
+        assertThat(courseRepository.findByNaturalId("CACHE-101")).get()
+                .extracting(Course::getDisplayName).isEqualTo("Кэш второго уровня");
+    }
+}
@@ -4,18 +4,28 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.test.context.ActiveProfiles;
+import ru.misis.gamification.entity.Course;
+import ru.misis.gamification.entity.CoursePeriodPoints;
+import ru.misis.gamification.entity.CoursePeriodPointsId;
 import ru.misis.gamification.entity.EventType;
+import ru.misis.gamification.entity.LeaderboardPeriod;
 import ru.misis.gamification.entity.Transaction;
 import ru.misis.gamification.entity.User;
+import ru.misis.gamification.entity.UserCourseEnrollment;
+import ru.misis.gamification.model.AwardStatementView;
+import ru.misis.gamification.model.TransactionKeyView;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -34,6 +44,18 @@ class TransactionRepositoryTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private UserCourseEnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private DailyPointsUsageRepository dailyPointsUsageRepository;
+
+    @Autowired
+    private TestEntityManager em;
+
     @Test
     void existsByEventId_existingEventId_shouldReturnTrue() {
         User user = userRepository.save(User.builder().userId("u-001").totalPoints(0).level(1).build());
@@ -241,4 +263,225 @@ class TransactionRepositoryTest {
         assertThat(wrongType).isZero();
         assertThat(wrongDate).isZero();
     }
-}
\ No newline at end of file
+
+    @Test
+    void findExistingEventIds_returnsOnlyPersisted() {
+        User user = userRepository.save(User.builder().userId("u-batch").totalPoints(0).level(1).build());
+        EventType type = eventTypeRepository.save(EventType.builder()
+                .typeCode("batch-type")
+                .displayName("Пакетный тип")
+                .points(10)
+                .active(true)
+                .build());
+
+        transactionRepository.save(Transaction.builder()
+                .user(user).eventId("evt-b-1").eventType(type).points(10).createdAt(LocalDateTime.now()).build());
+
+        Set<String> existing = transactionRepository.findExistingEventIds(List.of("evt-b-1", "evt-b-2"));
+
+        assertThat(existing).containsExactly("evt-b-1");
+    }
+
+    @Test
+    void insertIfAbsent_newEvent_insertsAndReturnsUuid() {
+        User user = userRepository.saveAndFlush(User.builder().userId("u-ins-1").totalPoints(0).level(1).build());
+        EventType type = eventTypeRepository.saveAndFlush(EventType.builder()
+                .typeCode("ins-type")
+                .displayName("Тип для вставки")
+                .points(10)
+                .active(true)
+                .build());
+
+        Optional<UUID> uuid = transactionRepository.insertIfAbsent(user.getUuid(), null, "evt-ins-1",
+                type.getUuid(), 10, "Начисление", LocalDateTime.now());
+
+        assertThat(uuid).isPresent();
+        assertThat(transactionRepository.existsByEventId("evt-ins-1")).isTrue();
+    }
+
+    @Test
+    void insertIfAbsent_duplicateEvent_returnsEmptyWithoutException() {
+        User user = userRepository.saveAndFlush(User.builder().userId("u-ins-2").totalPoints(0).level(1).build());
+        EventType type = eventTypeRepository.saveAndFlush(EventType.builder()
+                .typeCode("ins-type-dup")
+                .displayName("Тип для дубликата")
+                .points(10)
+                .active(true)
+                .build());
+
+        Optional<UUID> first = transactionRepository.insertIfAbsent(user.getUuid(), null, "evt-ins-dup",
+                type.getUuid(), 10, null, LocalDateTime.now());
+        Optional<UUID> second = transactionRepository.insertIfAbsent(user.getUuid(), null, "evt-ins-dup",
+                type.getUuid(), 10, null, LocalDateTime.now());
+
+        assertThat(first).isPresent();
+        assertThat(second).isEmpty();
+    }
+
+    @Test
+    void insertAllIfAbsent_skipsAlreadyProcessedEventsAndInsertsRest() {
+        User user = userRepository.saveAndFlush(User.builder().userId("u-ins-batch").totalPoints(0).level(1).build());
+        Course course = courseRepository.saveAndFlush(Course.builder().courseId("INS-101").displayName("Вставка").build());
+        EventType type = eventTypeRepository.saveAndFlush(EventType.builder()
+                .typeCode("ins-type-batch")
+                .displayName("Тип для пакета")
+                .points(10)
+                .active(true)
+                .build());
+        transactionRepository.insertIfAbsent(user.getUuid(), null, "evt-batch-2", type.getUuid(), 10, null,
+                LocalDateTime.now());
+        LocalDateTime createdAt = LocalDateTime.now().withNano(0);
+
+        List<TransactionKeyView> inserted = transactionRepository.insertAllIfAbsent(
+                new UUID[]{user.getUuid(), user.getUuid(), user.getUuid()},
+                new UUID[]{course.getUuid(), null, null},
+                new String[]{"evt-batch-1", "evt-batch-2", "evt-batch-3"},
+                new UUID[]{type.getUuid(), type.getUuid(), type.getUuid()},
+                new int[]{10, 10, 10},
+                new String[]{"Начисление", null, null},
+                new LocalDateTime[]{createdAt, createdAt, createdAt});
+
+        assertThat(inserted).extracting(TransactionKeyView::getEventId)
+                .containsExactlyInAnyOrder("evt-batch-1", "evt-batch-3");
+        assertThat(inserted).allSatisfy(key -> assertThat(key.getUuid()).isNotNull());
+        assertThat(transactionRepository.findExistingEventIds(List.of("evt-batch-1", "evt-batch-2", "evt-batch-3")))
+                .hasSize(3);
+    }
+
+    @Test
+    void findEventIdsAfter_pagesInEventIdOrder() {
+        User user = userRepository.save(User.builder().userId("u-page").totalPoints(0).level(1).build());
+        EventType type = eventTypeRepository.save(EventType.builder()
+                .typeCode("page-type")
+                .displayName("Тип для страниц")
+                .points(10)
+                .active(true)
+                .build());
+        for (String eventId : List.of("evt-p-3", "evt-p-1", "evt-p-2")) {
+            transactionRepository.save(Transaction.builder()
+                    .user(user).eventId(eventId).eventType(type).points(10).createdAt(LocalDateTime.now()).build());
+        }
+        transactionRepository.flush();
+
+        assertThat(transactionRepository.findEventIdsAfter("evt-p-", 2)).containsExactly("evt-p-1", "evt-p-2");
+        assertThat(transactionRepository.findEventIdsAfter("evt-p-2", 2)).containsExactly("evt-p-3");
+    }
+
+    @Test
+    void awardInSingleStatement_success_updatesAllCounters() {
+        User user = userRepository.save(User.builder().userId("u-cte-1").totalPoints(100).level(1).build());
+        EventType type = eventTypeRepository.save(EventType.builder()
+                .typeCode("cte-type").displayName("Тип CTE").points(40).maxDailyPoints(100).active(true).build());
+        Course course = courseRepository.save(Course.builder().courseId("CTE-101").build());
+        enrollmentRepository.save(UserCourseEnrollment.builder().user(user).course(course).totalPointsInCourse(5).build());
+        LocalDateTime now = LocalDateTime.now();
+
+        AwardStatementView result = transactionRepository.awardInSingleStatement(
+                "u-cte-1", "evt-cte-1", "cte-type", "CTE-101", true, now.toLocalDate(),
+                LeaderboardPeriod.WEEK.start(now.toLocalDate()), LeaderboardPeriod.MONTH.start(now.toLocalDate()), now);
+        em.clear();
+
+        assertThat(result.getTransactionId()).isNotNull();
+        assertThat(result.getDisplayName()).isEqualTo("Тип CTE");
+        assertThat(result.getPoints()).isEqualTo(40);
+        assertThat(result.getTotalPoints()).isEqualTo(140);
+        assertThat(result.getLevel()).isEqualTo(1);
+        assertThat(result.getUserUuid()).isEqualTo(user.getUuid());
+        assertThat(result.getEventTypeUuid()).isEqualTo(type.getUuid());
+
+        assertThat(em.find(Transaction.class, result.getTransactionId()).getCourse().getUuid())
+                .isEqualTo(course.getUuid());
+        assertThat(userRepository.findById(user.getUuid()).orElseThrow().getTotalPoints()).isEqualTo(140);
+        assertThat(enrollmentRepository.findAll().getFirst().getTotalPointsInCourse()).isEqualTo(45);
+        assertThat(dailyPointsUsageRepository.findPoints(user.getUuid(), type.getUuid(), now.toLocalDate())).contains(40);
+        assertThat(em.find(CoursePeriodPoints.class, new CoursePeriodPointsId(course.getUuid(), LeaderboardPeriod.WEEK,
+                LeaderboardPeriod.WEEK.start(now.toLocalDate()), user.getUuid())).getPoints()).isEqualTo(40);
+    }
+
+    @Test
+    void awardInSingleStatement_duplicateAndDailyLimit_changeNothing() {
+        userRepository.save(User.builder().userId("u-cte-2").totalPoints(0).level(1).build());
+        eventTypeRepository.save(EventType.builder()
+                .typeCode("cte-capped").displayName("Лимитированный").points(60).maxDailyPoints(100).active(true).build());
+        LocalDateTime now = LocalDateTime.now();
+
+        AwardStatementView first = transactionRepository.awardInSingleStatement(
+                "u-cte-2", "evt-cte-2", "cte-capped", null, true, now.toLocalDate(),
+                LeaderboardPeriod.WEEK.start(now.toLocalDate()), LeaderboardPeriod.MONTH.start(now.toLocalDate()), now);
+        AwardStatementView repeated = transactionRepository.awardInSingleStatement(
+                "u-cte-2", "evt-cte-2", "cte-capped", null, true, now.toLocalDate(),
+                LeaderboardPeriod.WEEK.start(now.toLocalDate()), LeaderboardPeriod.MONTH.start(now.toLocalDate()), now);
+        AwardStatementView overLimit = transactionRepository.awardInSingleStatement(
+                "u-cte-2", "evt-cte-3", "cte-capped", null, true, now.toLocalDate(),
+                LeaderboardPeriod.WEEK.start(now.toLocalDate()), LeaderboardPeriod.MONTH.start(now.toLocalDate()), now);
+        em.clear();
+
+        assertThat(first.getTransactionId()).isNotNull();
+        assertThat(repeated.getTransactionId()).isNull();
+        assertThat(repeated.getDuplicate()).isTrue();
+        assertThat(overLimit.getTransactionId()).isNull();
+        assertThat(overLimit.getDuplicate()).isFalse();
+        assertThat(overLimit.getWithinLimit()).isFalse();
+        assertThat(userRepository.findByUserId("u-cte-2").orElseThrow().getTotalPoints()).isEqualTo(60);
+    }
+
+    @Test
+    void awardInSingleStatement_unknownReferences_reportFlags() {
+        userRepository.save(User.builder().userId("u-cte-3").totalPoints(0).level(1).build());
+        eventTypeRepository.save(EventType.builder()
+                .typeCode("cte-open").displayName("Без лимита").points(10).active(true).build());
+        LocalDateTime now = LocalDateTime.now();
+
+        AwardStatementView unknownType = transactionRepository.awardInSingleStatement(
+                "u-cte-3", "evt-cte-4", "missing-type", null, true, now.toLocalDate(),
+                LeaderboardPeriod.WEEK.start(now.toLocalDate()), LeaderboardPeriod.MONTH.start(now.toLocalDate()), now);
+        AwardStatementView unknownUser = transactionRepository.awardInSingleStatement(
+                "missing-user", "evt-cte-5", "cte-open", null, true, now.toLocalDate(),
+                LeaderboardPeriod.WEEK.start(now.toLocalDate()), LeaderboardPeriod.MONTH.start(now.toLocalDate()), now);
+        AwardStatementView notEnrolled = transactionRepository.awardInSingleStatement(
+                "u-cte-3", "evt-cte-6", "cte-open", "MISSING-COURSE", true, now.toLocalDate(),
+                LeaderboardPeriod.WEEK.start(now.toLocalDate()), LeaderboardPeriod.MONTH.start(now.toLocalDate()), now);
+
+        assertThat(unknownType.getEventTypeFound()).isFalse();
+        assertThat(unknownType.getTransactionId()).isNull();
+        assertThat(unknownUser.getUserFound()).isFalse();
+        assertThat(unknownUser.getTransactionId()).isNull();
+        assertThat(notEnrolled.getCourseFound()).isFalse();
+        assertThat(notEnrolled.getEnrolled()).isFalse();
+        assertThat(notEnrolled.getWithinLimit()).isTrue();
+        assertThat(notEnrolled.getTransactionId()).isNull();
+    }
+
+    @Test
+    void awardInSingleStatement_coursesDisabled_skipsEnrollmentCheckAndCourseCounters() {
+        User enrolled = userRepository.save(User.builder().userId("u-cte-4").totalPoints(0).level(1).build());
+        userRepository.save(User.builder().userId("u-cte-5").totalPoints(0).level(1).build());
+        eventTypeRepository.save(EventType.builder()
+                .typeCode("cte-nocourse").displayName("Без курсов").points(20).active(true).build());
+        Course course = courseRepository.save(Course.builder().courseId("CTE-202").build());
+        enrollmentRepository.save(UserCourseEnrollment.builder().user(enrolled).course(course).totalPointsInCourse(5).build());
+        LocalDateTime now = LocalDateTime.now();
+
+        AwardStatementView notEnrolled = transactionRepository.awardInSingleStatement(
+                "u-cte-5", "evt-cte-7", "cte-nocourse", "CTE-202", false, now.toLocalDate(),
+                LeaderboardPeriod.WEEK.start(now.toLocalDate()), LeaderboardPeriod.MONTH.start(now.toLocalDate()), now);
+        AwardStatementView enrolledAward = transactionRepository.awardInSingleStatement(
+                "u-cte-4", "evt-cte-8", "cte-nocourse", "CTE-202", false, now.toLocalDate(),
+                LeaderboardPeriod.WEEK.start(now.toLocalDate()), LeaderboardPeriod.MONTH.start(now.toLocalDate()), now);
+        AwardStatementView unknownCourse = transactionRepository.awardInSingleStatement(
+                "u-cte-4", "evt-cte-9", "cte-nocourse", "MISSING-COURSE", false, now.toLocalDate(),
+                LeaderboardPeriod.WEEK.start(now.toLocalDate()), LeaderboardPeriod.MONTH.start(now.toLocalDate()), now);
+        em.clear();
+
+        assertThat(notEnrolled.getEnrolled()).isTrue();
+        assertThat(notEnrolled.getTransactionId()).isNotNull();
+        assertThat(notEnrolled.getTotalPoints()).isEqualTo(20);
+        assertThat(enrolledAward.getTransactionId()).isNotNull();
+        assertThat(enrolledAward.getCourseUuid()).isNull();
+        assertThat(enrollmentRepository.findAll().getFirst().getTotalPointsInCourse()).isEqualTo(5);
+        assertThat(em.find(CoursePeriodPoints.class, new CoursePeriodPointsId(course.getUuid(), LeaderboardPeriod.WEEK,
+                LeaderboardPeriod.WEEK.start(now.toLocalDate()), enrolled.getUuid()))).isNull();
+        assertThat(unknownCourse.getCourseFound()).isFalse();
+        assertThat(unknownCourse.getTransactionId()).isNull();
+    }
+}
@@ -6,6 +6,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -15,11 +17,26 @@ import ru.misis.gamification.entity.Course;
 import ru.misis.gamification.entity.Group;
 import ru.misis.gamification.entity.User;
 import ru.misis.gamification.entity.UserCourseEnrollment;
+import ru.misis.gamification.model.CoursePointsCountView;
+import ru.misis.gamification.model.EnrollmentKeyView;
+import ru.misis.gamification.model.EnrollmentPointsView;
+import ru.misis.gamification.model.LeaderboardCursor;
 import ru.misis.gamification.model.LeaderboardEntryView;
-
+import ru.misis.gamification.model.LeaderboardRankRowView;
+import ru.misis.gamification.model.PersonalLeaderboardRowView;
+import ru.misis.gamification.model.LeaderboardRowView;
+import ru.misis.gamification.model.LeaderboardSnapshotRowView;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 @ActiveProfiles("test")
 @DataJpaTest
@@ -90,6 +107,20 @@ class UserCourseEnrollmentRepositoryTest {
                 .build());
     }
 
+    /**
+     * Создать снимок рангов из схемы: тестовая БД создаётся Hibernate, материализованных представлений в ней нет.
+     * DDL откатывается вместе с транзакцией теста
+     */
+    private void createRankSnapshot() throws IOException {
+        String schema = new ClassPathResource("test-schema.sql").getContentAsString(StandardCharsets.UTF_8);
+        for (String statement : schema.split(";")) {
+            String sql = statement.lines().filter(line -> !line.startsWith("--")).collect(Collectors.joining("\n")).strip();
+            if (sql.startsWith("CREATE") && sql.contains("enrollment_rank_snapshots")) {
+                em.getEntityManager().createNativeQuery(sql).executeUpdate();
+            }
+        }
+    }
+
     @Test
     void existsByUserAndCourse_existing_returnsTrue() {
         assertThat(repository.existsByUserAndCourse(alice, mathCourse)).isTrue();
@@ -229,4 +260,206 @@ class UserCourseEnrollmentRepositoryTest {
         assertThat(page.getTotalElements()).isZero();
         assertThat(page.getContent()).isEmpty();
     }
-}
\ No newline at end of file
+
+    @Test
+    void findEnrollmentKeys_returnsOnlyExistingPairs() {
+        UUID stranger = UUID.randomUUID();
+
+        List<EnrollmentKeyView> keys = repository.findEnrollmentKeys(
+                List.of(alice.getUuid(), bob.getUuid(), stranger), List.of(mathCourse.getUuid()));
+
+        assertThat(keys).containsExactlyInAnyOrder(
+                new EnrollmentKeyView(alice.getUuid(), mathCourse.getUuid()),
+                new EnrollmentKeyView(bob.getUuid(), mathCourse.getUuid()));
+    }
+
+    @Test
+    void addPointsInCourseBatch_incrementsEachEnrollment() {
+        List<EnrollmentPointsView> updated = repository.addPointsInCourseBatch(
+                new UUID[]{alice.getUuid(), bob.getUuid()},
+                new UUID[]{mathCourse.getUuid(), mathCourse.getUuid()},
+                new int[]{50, 30});
+        em.clear();
+
+        assertThat(updated).extracting(EnrollmentPointsView::getUserUuid, EnrollmentPointsView::getTotalPointsInCourse)
+                .containsExactlyInAnyOrder(tuple(alice.getUuid(), 900), tuple(bob.getUuid(), 650));
+        assertThat(repository.findByUserAndCourse(alice, mathCourse).orElseThrow().getTotalPointsInCourse()).isEqualTo(900);
+        assertThat(repository.findByUserAndCourse(bob, mathCourse).orElseThrow().getTotalPointsInCourse()).isEqualTo(650);
+    }
+
+    @Test
+    void findPointsAfter_pagesAllEnrollmentsWithGroup() {
+        List<EnrollmentPointsView> first = repository.findPointsAfter(new UUID(0L, 0L), 3);
+        List<EnrollmentPointsView> rest = repository.findPointsAfter(first.getLast().getUuid(), 3);
+
+        assertThat(first).hasSize(3);
+        assertThat(rest).hasSize(2);
+        assertThat(rest).extracting(EnrollmentPointsView::getUuid)
+                .doesNotContainAnyElementsOf(first.stream().map(EnrollmentPointsView::getUuid).toList());
+        assertThat(first.stream().filter(e -> e.getUserUuid().equals(david.getUuid())).findFirst()
+                .or(() -> rest.stream().filter(e -> e.getUserUuid().equals(david.getUuid())).findFirst()))
+                .hasValueSatisfying(e -> assertThat(e.getGroupUuid()).isNull());
+    }
+
+    @Test
+    void findLeaderboardEntriesByUsers_returnsRequestedUsersOnly() {
+        List<LeaderboardEntryView> entries = repository.findLeaderboardEntriesByUsers(mathCourse.getUuid(),
+                List.of(alice.getUuid(), eve.getUuid()));
+
+        assertThat(entries).extracting(LeaderboardEntryView::getUserId, LeaderboardEntryView::getPointsInCourse)
+                .containsExactlyInAnyOrder(tuple("alice", 850), tuple("eve", 150));
+    }
+
+    @Test
+    void findLeaderboardAfter_seeksFromCursor() {
+        List<LeaderboardEntryView> first = repository.findLeaderboardAfter(mathCourse.getUuid(),
+                LeaderboardCursor.FIRST.pointsInCourse(), LeaderboardCursor.FIRST.userUuid(), Limit.of(2));
+        List<LeaderboardEntryView> rest = repository.findLeaderboardAfter(mathCourse.getUuid(),
+                620, bob.getUuid(), Limit.of(10));
+
+        assertThat(first).extracting(LeaderboardEntryView::getUserId).containsExactly("alice", "bob");
+        assertThat(rest).extracting(LeaderboardEntryView::getUserId).containsExactly("carol", "eve", "david");
+    }
+
+    @Test
+    void findLeaderboardAfter_ties_matchesOffsetOrder() {
+        User frank = User.builder().userId("frank").totalPoints(620).level(4).build();
+        User grace = User.builder().userId("grace").totalPoints(620).level(4).build();
+        em.persist(frank);
+        em.persist(grace);
+        createEnrollment(frank, 620);
+        createEnrollment(grace, 620);
+
+        List<String> expected = repository.findLeaderboardByCourseAndGroup(mathCourse.getUuid(), pmGroup.getUuid(),
+                        PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "totalPointsInCourse", "user.uuid")))
+                .map(LeaderboardEntryView::getUserId).getContent();
+
+        List<String> actual = new ArrayList<>();
+        LeaderboardCursor cursor = LeaderboardCursor.FIRST;
+        List<LeaderboardEntryView> page;
+        do {
+            page = repository.findGroupLeaderboardAfter(mathCourse.getUuid(), pmGroup.getUuid(),
+                    cursor.pointsInCourse(), cursor.userUuid(), Limit.of(2));
+            page.forEach(entry -> actual.add(entry.getUserId()));
+            if (!page.isEmpty()) {
+                LeaderboardEntryView last = page.getLast();
+                cursor = new LeaderboardCursor(last.getPointsInCourse(), last.getUserUuid(), 0);
+            }
+        } while (page.size() == 2);
+
+        assertThat(actual).hasSize(6).doesNotContain("david").containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void findLeaderboardAround_returnsNeighboursInLeaderboardOrder() {
+        List<LeaderboardRowView> middle = repository.findLeaderboardAround(mathCourse.getUuid(), carol.getUuid(), 1);
+        List<LeaderboardRowView> top = repository.findLeaderboardAround(mathCourse.getUuid(), alice.getUuid(), 2);
+
+        assertThat(middle).extracting(LeaderboardRowView::getUserId).containsExactly("bob", "carol", "eve");
+        assertThat(middle).extracting(LeaderboardRowView::getPointsInCourse).containsExactly(620, 300, 150);
+        assertThat(top).extracting(LeaderboardRowView::getUserId).containsExactly("alice", "bob", "carol");
+    }
+
+    @Test
+    void findGroupLeaderboardAround_excludesOtherGroupsAndUnknownUser() {
+        List<LeaderboardRowView> bottom = repository.findGroupLeaderboardAround(mathCourse.getUuid(), pmGroup.getUuid(),
+                eve.getUuid(), 2);
+
+        assertThat(bottom).extracting(LeaderboardRowView::getUserId).containsExactly("bob", "carol", "eve");
+        assertThat(repository.findGroupLeaderboardAround(mathCourse.getUuid(), pmGroup.getUuid(), david.getUuid(), 2))
+                .isEmpty();
+    }
+
+    @Test
+    void rankSnapshot_afterRefresh_returnsRanksAndPagesByPosition() throws IOException {
+        createRankSnapshot();
+        User frank = User.builder().userId("frank").totalPoints(620).level(4).build();
+        em.persist(frank);
+        createEnrollment(frank, 620);
+
+        assertThat(repository.findSnapshotCourseRank(mathCourse.getUuid(), frank.getUuid())).isNull();
+
+        repository.refreshRankSnapshot();
+
+        assertThat(repository.findSnapshotCourseRank(mathCourse.getUuid(), frank.getUuid())).isEqualTo(2L);
+        assertThat(repository.findSnapshotCourseRank(mathCourse.getUuid(), david.getUuid())).isEqualTo(5L);
+        assertThat(repository.findSnapshotGroupRank(mathCourse.getUuid(), pmGroup.getUuid(), eve.getUuid())).isEqualTo(4L);
+        assertThat(repository.findSnapshotGroupRank(mathCourse.getUuid(), pmGroup.getUuid(), david.getUuid())).isNull();
+
+        List<String> expected = repository.findLeaderboardByCourseAndGroup(mathCourse.getUuid(), null,
+                        PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "totalPointsInCourse", "user.uuid")))
+                .map(LeaderboardEntryView::getUserId).getContent();
+        List<LeaderboardSnapshotRowView> page = repository.findSnapshotLeaderboard(mathCourse.getUuid(), 2, 2);
+
+        assertThat(page).extracting(LeaderboardSnapshotRowView::getUserId).containsExactlyElementsOf(expected.subList(2, 4));
+        assertThat(page).extracting(LeaderboardSnapshotRowView::getRank).containsExactly(3L, 4L);
+        assertThat(repository.countSnapshotLeaderboard(mathCourse.getUuid())).isEqualTo(6);
+        assertThat(repository.findSnapshotGroupLeaderboard(mathCourse.getUuid(), pmGroup.getUuid(), 4, 10))
+                .extracting(LeaderboardSnapshotRowView::getUserId).containsExactly("eve");
+        assertThat(repository.countSnapshotGroupLeaderboard(mathCourse.getUuid(), pmGroup.getUuid())).isEqualTo(5);
+    }
+
+    @Test
+    void addPointsInCourse_incrementsAndReturnsNewTotal() {
+        Optional<Integer> total = repository.addPointsInCourse(alice.getUuid(), mathCourse.getUuid(), 50);
+        em.clear();
+
+        assertThat(total).contains(900);
+        assertThat(repository.findByUserAndCourse(alice, mathCourse).orElseThrow().getTotalPointsInCourse()).isEqualTo(900);
+    }
+
+    @Test
+    void countByCourseUuidAndPointsAbove_countsStrictlyGreater() {
+        assertThat(repository.countByCourseUuidAndPointsAbove(mathCourse.getUuid(), 620)).isEqualTo(1);
+        assertThat(repository.countByCourseUuidAndPointsAbove(mathCourse.getUuid(), 99)).isEqualTo(5);
+        assertThat(repository.countByCourseUuid(mathCourse.getUuid())).isEqualTo(5);
+    }
+
+    @Test
+    void findPointsDistribution_groupsByCourseAndPoints() {
+        User frank = em.persistAndFlush(User.builder().userId("frank").totalPoints(0).level(1).build());
+        createEnrollment(frank, 300);
+
+        assertThat(repository.findPointsDistribution())
+                .filteredOn(row -> row.getCourseUuid().equals(mathCourse.getUuid()))
+                .extracting(CoursePointsCountView::getPointsInCourse, CoursePointsCountView::getEnrollments)
+                .containsExactlyInAnyOrder(tuple(850, 1L), tuple(620, 1L), tuple(300, 2L), tuple(150, 1L), tuple(100, 1L));
+    }
+
+    @Test
+    void addPointsInCourse_notEnrolled_returnsEmpty() {
+        assertThat(repository.addPointsInCourse(UUID.randomUUID(), mathCourse.getUuid(), 50)).isEmpty();
+    }
+
+    @Test
+    void findRanksByUsers_courseAndGroup_returnsDenseRanksOfRequestedUsers() {
+        List<LeaderboardRankRowView> course = repository.findRanksByUsers(mathCourse.getUuid(), null,
+                new UUID[]{david.getUuid(), bob.getUuid(), alice.getUuid()});
+        List<LeaderboardRankRowView> group = repository.findRanksByUsers(mathCourse.getUuid(), pmGroup.getUuid(),
+                new UUID[]{david.getUuid(), eve.getUuid()});
+
+        assertThat(course).extracting(LeaderboardRankRowView::getUserId, LeaderboardRankRowView::getPointsInCourse,
+                        LeaderboardRankRowView::getRank)
+                .containsExactly(tuple("alice", 850, 1L), tuple("bob", 620, 2L), tuple("david", 100, 5L));
+        assertThat(group).extracting(LeaderboardRankRowView::getUserId, LeaderboardRankRowView::getRank)
+                .containsExactly(tuple("eve", 4L));
+    }
+
+    @Test
+    void findLeaderboardForUser_returnsPageRowsAndUserRowWithTotal() {
+        List<PersonalLeaderboardRowView> course = repository.findLeaderboardForUser(mathCourse.getUuid(), null,
+                david.getUuid(), 0, 2);
+        List<PersonalLeaderboardRowView> group = repository.findLeaderboardForUser(mathCourse.getUuid(),
+                pmGroup.getUuid(), david.getUuid(), 0, 2);
+        List<PersonalLeaderboardRowView> pastEnd = repository.findLeaderboardForUser(mathCourse.getUuid(), null,
+                eve.getUuid(), 10, 2);
+
+        assertThat(course).extracting(PersonalLeaderboardRowView::getUserId, PersonalLeaderboardRowView::getPosition,
+                        PersonalLeaderboardRowView::getRank, PersonalLeaderboardRowView::getTotal)
+                .containsExactly(tuple("alice", 1L, 1L, 5L), tuple("bob", 2L, 2L, 5L), tuple("david", 5L, 5L, 5L));
+        assertThat(group).extracting(PersonalLeaderboardRowView::getUserId, PersonalLeaderboardRowView::getTotal)
+                .containsExactly(tuple("alice", 4L), tuple("bob", 4L));
+        assertThat(pastEnd).extracting(PersonalLeaderboardRowView::getUserId, PersonalLeaderboardRowView::getRank)
+                .containsExactly(tuple("eve", 4L));
+    }
+}
@@ -5,6 +5,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -14,8 +15,11 @@ import ru.misis.gamification.entity.Course;
 import ru.misis.gamification.entity.Group;
 import ru.misis.gamification.entity.User;
 import ru.misis.gamification.entity.UserCourseEnrollment;
+import ru.misis.gamification.model.UserPointsView;
+import ru.misis.gamification.model.UserSummary;
 
 import java.time.temporal.ChronoUnit;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -315,4 +319,132 @@ class UserRepositoryTest {
                 .build();
         return em.persistAndFlush(enrollment);
     }
-}
\ No newline at end of file
+
+    @Test
+    void findAllByUserIdIn_returnsOnlyExisting() {
+        em.persist(User.builder().userId("batch-a").totalPoints(0).level(1).build());
+        em.persist(User.builder().userId("batch-b").totalPoints(0).level(1).build());
+        em.flush();
+
+        List<User> found = userRepository.findAllByUserIdIn(List.of("batch-a", "batch-b", "batch-missing"));
+
+        assertThat(found).extracting(User::getUserId).containsExactlyInAnyOrder("batch-a", "batch-b");
+    }
+
+    @Test
+    void addPointsBatch_incrementsAndReturnsNewTotals() {
+        User first = em.persistAndFlush(User.builder().userId("batch-1").totalPoints(100).level(2).build());
+        User second = em.persistAndFlush(User.builder().userId("batch-2").totalPoints(0).level(1).build());
+
+        List<UserPointsView> totals = userRepository.addPointsBatch(
+                new UUID[]{first.getUuid(), second.getUuid()}, new int[]{50, 80});
+        em.clear();
+
+        assertThat(totals).hasSize(2);
+        assertThat(totals).filteredOn(v -> v.getUuid().equals(first.getUuid()))
+                .singleElement()
+                .satisfies(v -> {
+                    assertThat(v.getTotalPoints()).isEqualTo(150);
+                    assertThat(v.getLevel()).isEqualTo(2);
+                });
+        assertThat(userRepository.findByUserId("batch-2").orElseThrow().getTotalPoints()).isEqualTo(80);
+    }
+
+    @Test
+    void updateLevelsBatch_writesOnlyChangedLevels() {
+        User first = em.persistAndFlush(User.builder().userId("level-1").totalPoints(0).level(2).build());
+        User second = em.persistAndFlush(User.builder().userId("level-2").totalPoints(0).level(3).build());
+
+        int updated = userRepository.updateLevelsBatch(
+                new UUID[]{first.getUuid(), second.getUuid()}, new int[]{4, 3});
+        em.clear();
+
+        assertThat(updated).isEqualTo(1);
+        assertThat(userRepository.findByUserId("level-1").orElseThrow().getLevel()).isEqualTo(4);
+        assertThat(userRepository.findByUserId("level-2").orElseThrow().getLevel()).isEqualTo(3);
+    }
+
+    @Test
+    void findPointsAfter_pagesByUuid() {
+        em.persistAndFlush(User.builder().userId("page-1").totalPoints(10).level(1).build());
+        em.persistAndFlush(User.builder().userId("page-2").totalPoints(20).level(1).build());
+        em.persistAndFlush(User.builder().userId("page-3").totalPoints(30).level(1).build());
+
+        List<UserPointsView> first = userRepository.findPointsAfter(new UUID(0L, 0L), 2);
+        List<UserPointsView> second = userRepository.findPointsAfter(first.getLast().getUuid(), 2);
+
+        assertThat(first).hasSize(2);
+        assertThat(second).hasSize(1);
+        assertThat(first).extracting(UserPointsView::getUuid).doesNotContain(second.getFirst().getUuid());
+        assertThat(userRepository.findPointsAfter(second.getFirst().getUuid(), 2)).isEmpty();
+    }
+
+    @Test
+    void findGlobalLeaderboardAfter_pagesByPointsThenUuidDescending() {
+        em.persistAndFlush(User.builder().userId("global-1").totalPoints(900).level(5).build());
+        em.persistAndFlush(User.builder().userId("global-2").totalPoints(500).level(3).build());
+        em.persistAndFlush(User.builder().userId("global-3").totalPoints(500).level(3).build());
+        em.persistAndFlush(User.builder().userId("global-4").totalPoints(100).level(1).build());
+
+        List<UserSummary> first = userRepository.findGlobalLeaderboardAfter(Integer.MAX_VALUE, new UUID(-1L, -1L), Limit.of(2));
+        UserSummary last = first.getLast();
+        List<UserSummary> rest = userRepository.findGlobalLeaderboardAfter(last.totalPoints(), last.uuid(), Limit.of(10));
+
+        assertThat(first).extracting(UserSummary::totalPoints).containsExactly(900, 500);
+        assertThat(rest).extracting(UserSummary::totalPoints).containsExactly(500, 100);
+        assertThat(rest.getFirst().uuid()).isNotEqualTo(last.uuid());
+    }
+
+    @Test
+    void countDistinctTotalPointsAbove_countsTiesOnce() {
+        em.persistAndFlush(User.builder().userId("distinct-1").totalPoints(900).level(5).build());
+        em.persistAndFlush(User.builder().userId("distinct-2").totalPoints(500).level(3).build());
+        em.persistAndFlush(User.builder().userId("distinct-3").totalPoints(500).level(3).build());
+
+        assertThat(userRepository.countDistinctTotalPointsAbove(100)).isEqualTo(2);
+        assertThat(userRepository.countDistinctTotalPointsAbove(500)).isEqualTo(1);
+        assertThat(userRepository.countDistinctTotalPointsAbove(900)).isZero();
+    }
+
+    @Test
+    void updateLevelsIfPointsUnchanged_skipsUsersWithNewPoints() {
+        User unchanged = em.persistAndFlush(User.builder().userId("recalc-1").totalPoints(600).level(1).build());
+        User awarded = em.persistAndFlush(User.builder().userId("recalc-2").totalPoints(700).level(1).build());
+
+        int updated = userRepository.updateLevelsIfPointsUnchanged(
+                new UUID[]{unchanged.getUuid(), awarded.getUuid()}, new int[]{600, 650}, new int[]{2, 2});
+        em.clear();
+
+        assertThat(updated).isEqualTo(1);
+        assertThat(userRepository.findByUserId("recalc-1").orElseThrow().getLevel()).isEqualTo(2);
+        assertThat(userRepository.findByUserId("recalc-2").orElseThrow().getLevel()).isEqualTo(1);
+    }
+
+    @Test
+    void addPoints_incrementsAndReturnsNewTotal() {
+        User user = em.persistAndFlush(User.builder().userId("single-1").totalPoints(100).level(2).build());
+
+        UserPointsView view = userRepository.addPoints(user.getUuid(), 50).orElseThrow();
+        em.clear();
+
+        assertThat(view.getTotalPoints()).isEqualTo(150);
+        assertThat(view.getLevel()).isEqualTo(2);
+        assertThat(userRepository.findByUserId("single-1").orElseThrow().getTotalPoints()).isEqualTo(150);
+    }
+
+    @Test
+    void addPoints_unknownUser_returnsEmpty() {
+        assertThat(userRepository.addPoints(UUID.randomUUID(), 50)).isEmpty();
+    }
+
+    @Test
+    void updateLevel_sameLevel_doesNotUpdate() {
+        User user = em.persistAndFlush(User.builder().userId("single-2").totalPoints(0).level(3).build());
+
+        assertThat(userRepository.updateLevel(user.getUuid(), 3)).isZero();
+        assertThat(userRepository.updateLevel(user.getUuid(), 4)).isEqualTo(1);
+        em.clear();
+
+        assertThat(userRepository.findByUserId("single-2").orElseThrow().getLevel()).isEqualTo(4);
+    }
+}
@@ -0,0 +1,99 @@
+package ru.misis.gamification.service.application.awarding;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.misis.gamification.model.AwardRequest;
+import ru.misis.gamification.model.AwardResultView;
+import ru.misis.gamification.model.AwardResultViews;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AwardBatchDispatcherUnitTest {
+
+    @Mock
+    private AwardingOrchestratorApplicationService awardingOrchestrator;
+
+    @Mock
+    private AwardLaneExecutor awardLaneExecutor;
+
+    @InjectMocks
+    private AwardBatchDispatcherImpl dispatcher;
+
+    private final AwardRequest first = new AwardRequest("user-1", "evt-1", "quiz", "MATH-101", "G-1");
+    private final AwardRequest second = new AwardRequest("user-2", "evt-2", "quiz", null, null);
+    private final AwardRequest third = new AwardRequest("user-1", "evt-3", "lab", null, null);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(dispatcher, "retryDelayMs", 1L);
+        lenient().when(awardLaneExecutor.submit(anyString(), any()))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(invocation.<Supplier<?>>getArgument(1).get()));
+        lenient().when(awardLaneExecutor.laneOf("user-1")).thenReturn(0);
+        lenient().when(awardLaneExecutor.laneOf("user-2")).thenReturn(1);
+    }
+
+    @Test
+    void award_splitsBatchByUserLaneAndKeepsOrder() {
+        when(awardingOrchestrator.awardPointsBatch(List.of(first, third)))
+                .thenReturn(List.of(AwardResultViews.duplicate(), AwardResultViews.rejected("Лимит")));
+        when(awardingOrchestrator.awardPointsBatch(List.of(second)))
+                .thenReturn(List.of(AwardResultViews.duplicate()));
+
+        List<AwardResultView> results = dispatcher.award(List.of(first, second, third));
+
+        assertThat(results).extracting(AwardResultView::duplicate).containsExactly(true, true, false);
+        assertThat(results.get(2).rejectionReason()).isEqualTo("Лимит");
+        verify(awardLaneExecutor).submit(eq("user-1"), any());
+        verify(awardLaneExecutor).submit(eq("user-2"), any());
+    }
+
+    @Test
+    void award_laneQueueFull_rejectsOnlyThatLane() {
+        when(awardLaneExecutor.submit(eq("user-2"), any())).thenThrow(new RejectedExecutionException());
+        when(awardingOrchestrator.awardPointsBatch(List.of(first)))
+                .thenReturn(List.of(AwardResultViews.duplicate()));
+
+        List<AwardResultView> results = dispatcher.award(List.of(first, second));
+
+        assertThat(results.get(0).duplicate()).isTrue();
+        assertThat(results.get(1).rejectionReason()).isEqualTo("Очередь полосы начисления переполнена");
+        verify(awardingOrchestrator).awardPointsBatch(any());
+        verifyNoMoreInteractions(awardingOrchestrator);
+    }
+
+    @Test
+    void awardAwaitingCapacity_laneQueueFull_retriesUntilAccepted() {
+        when(awardLaneExecutor.submit(eq("user-2"), any()))
+                .thenThrow(new RejectedExecutionException())
+                .thenThrow(new RejectedExecutionException())
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(invocation.<Supplier<?>>getArgument(1).get()));
+        when(awardingOrchestrator.awardPointsBatch(List.of(first)))
+                .thenReturn(List.of(AwardResultViews.duplicate()));
+        when(awardingOrchestrator.awardPointsBatch(List.of(second)))
+                .thenReturn(List.of(AwardResultViews.duplicate()));
+
+        List<AwardResultView> results = dispatcher.awardAwaitingCapacity(List.of(first, second));
+
+        assertThat(results).extracting(AwardResultView::duplicate).containsExactly(true, true);
+        verify(awardLaneExecutor, times(3)).submit(eq("user-2"), any());
+    }
+}
@@ -0,0 +1,109 @@
+package ru.misis.gamification.service.application.awarding;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AwardLaneExecutorUnitTest {
+
+    private AwardLaneExecutorImpl executor;
+
+    @AfterEach
+    void tearDown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void laneOf_sameUser_sameLane() {
+        executor = new AwardLaneExecutorImpl(4, 100);
+
+        assertThat(executor.laneCount()).isEqualTo(4);
+        assertThat(executor.laneOf("user-1")).isEqualTo(executor.laneOf("user-1"));
+        assertThat(executor.laneOf("user-1")).isBetween(0, 3);
+        assertThat(executor.laneOf(null)).isZero();
+    }
+
+    @Test
+    void laneCount_zero_usesAvailableProcessors() {
+        executor = new AwardLaneExecutorImpl(0, 100);
+
+        assertThat(executor.laneCount()).isEqualTo(Runtime.getRuntime().availableProcessors());
+    }
+
+    @Test
+    void submit_sameUser_executesInOrder() {
+        executor = new AwardLaneExecutorImpl(4, 1000);
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            int n = i;
+            futures.add(executor.submit("user-1", () -> {
+                order.add(n);
+                return null;
+            }));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+        assertThat(order).hasSize(200).isSorted();
+    }
+
+    @Test
+    void execute_returnsResultAndRethrowsRuntimeException() {
+        executor = new AwardLaneExecutorImpl(2, 100);
+
+        assertThat(executor.execute("user-1", () -> 42)).isEqualTo(42);
+        assertThatThrownBy(() -> executor.execute("user-1", () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class).hasMessage("boom");
+    }
+
+    @Test
+    void execute_nestedOnSameLane_runsInline() {
+        executor = new AwardLaneExecutorImpl(1, 100);
+
+        Integer result = executor.execute("user-1", () -> executor.execute("user-2", () -> 7));
+
+        assertThat(result).isEqualTo(7);
+    }
+
+    @Test
+    void submit_queueFull_rejected() throws InterruptedException {
+        executor = new AwardLaneExecutorImpl(1, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        executor.submit("user-1", () -> {
+            started.countDown();
+            await(release);
+            return null;
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        executor.submit("user-1", () -> null);
+
+        assertThatThrownBy(() -> executor.submit("user-1", () -> null))
+                .isInstanceOf(RejectedExecutionException.class);
+
+        release.countDown();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -8,29 +8,52 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
 import ru.misis.gamification.entity.Course;
 import ru.misis.gamification.entity.EventType;
 import ru.misis.gamification.entity.Transaction;
 import ru.misis.gamification.entity.User;
+import ru.misis.gamification.exception.UserCourseEnrollmentNotFoundException;
+import ru.misis.gamification.exception.UserNotFoundException;
+import ru.misis.gamification.model.AwardEngineType;
+import ru.misis.gamification.model.AwardRequest;
 import ru.misis.gamification.model.AwardResultView;
+import ru.misis.gamification.model.AwardStatementView;
+import ru.misis.gamification.model.DailyUsageKey;
+import ru.misis.gamification.model.EnrollmentKeyView;
+import ru.misis.gamification.model.UserPointsView;
 import ru.misis.gamification.service.application.enrollment.EnrollmentApplicationService;
 import ru.misis.gamification.service.simple.course.CourseService;
 import ru.misis.gamification.service.simple.eventtype.EventTypeService;
+import ru.misis.gamification.service.simple.period.CoursePeriodPointsService;
 import ru.misis.gamification.service.simple.progress.LevelCalculatorService;
+import ru.misis.gamification.service.simple.quota.DailyPointsUsageService;
 import ru.misis.gamification.service.simple.transaction.TransactionService;
 import ru.misis.gamification.service.simple.user.UserService;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.Mockito.anyInt;
 import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
-import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
 
 @ExtendWith(MockitoExtension.class)
 class AwardingOrchestratorApplicationServiceUnitTest {
@@ -53,15 +76,18 @@ class AwardingOrchestratorApplicationServiceUnitTest {
     @Mock
     private EnrollmentApplicationService enrollmentApplicationService;
 
+    @Mock
+    private DailyPointsUsageService dailyPointsUsageService;
+
+    @Mock
+    private CoursePeriodPointsService coursePeriodPointsService;
+
     @InjectMocks
     private AwardingOrchestratorApplicationServiceImpl service;
 
     @Captor
     private ArgumentCaptor<Transaction> transactionCaptor;
 
-    @Captor
-    private ArgumentCaptor<User> userCaptor;
-
     private User user;
     private EventType eventType;
     private Course course;
@@ -103,16 +129,33 @@ class AwardingOrchestratorApplicationServiceUnitTest {
 
     @Test
     void awardPoints_duplicateEventId_returnsDuplicate() {
-        when(transactionService.isExistsByEventId("evt-001")).thenReturn(true);
+        when(eventTypeService.getActiveByCode("quiz")).thenReturn(eventType);
+        when(userService.getUserUuidByExternalId("user-123")).thenReturn(user.getUuid());
+        when(dailyPointsUsageService.getPoints(any(UUID.class), any(UUID.class), any())).thenReturn(0L);
+        when(transactionService.insertIfAbsent(any())).thenReturn(Optional.empty());
 
-        AwardResultView result = service.awardPoints("user-123", "evt-001", "quiz", "MATH-101", "G-1");
+        AwardResultView result = service.awardPoints("user-123", "evt-001", "quiz", null, null);
 
         assertThat(result.success()).isFalse();
         assertThat(result.duplicate()).isTrue();
         assertThat(result.rejectionReason()).isNull();
 
-        verify(transactionService).isExistsByEventId("evt-001");
-        verifyNoMoreInteractions(transactionService);
+        verify(transactionService, never()).isExistsByEventId(any());
+        verify(userService, never()).addPoints(any(), anyInt());
+        verifyNoInteractions(levelCalculator, enrollmentApplicationService);
+    }
+
+    @Test
+    void awardPoints_duplicateOverDailyLimit_returnsDuplicate() {
+        when(eventTypeService.getActiveByCode("quiz")).thenReturn(eventType);
+        when(userService.getUserUuidByExternalId("user-123")).thenReturn(user.getUuid());
+        when(dailyPointsUsageService.getPoints(any(UUID.class), any(UUID.class), any())).thenReturn(250L);
+        when(transactionService.isExistsByEventId("evt-001")).thenReturn(true);
+
+        AwardResultView result = service.awardPoints("user-123", "evt-001", "quiz", null, null);
+
+        assertThat(result.duplicate()).isTrue();
+        verify(transactionService, never()).insertIfAbsent(any());
     }
 
     @Test
@@ -127,14 +170,15 @@ class AwardingOrchestratorApplicationServiceUnitTest {
         assertThat(result.rejectionReason()).contains("Неизвестный или отключённый тип события: quiz");
 
         verify(eventTypeService).getActiveByCode("quiz");
+        verify(transactionService).isExistsByEventId("evt-001");
     }
 
     @Test
     void awardPoints_dailyLimitExceeded_returnsRejected() {
         when(eventTypeService.getActiveByCode("quiz")).thenReturn(eventType);
-        when(userService.getUserByExternalId("user-123")).thenReturn(user);
+        when(userService.getUserUuidByExternalId("user-123")).thenReturn(user.getUuid());
         when(transactionService.isExistsByEventId(any())).thenReturn(false);
-        when(transactionService.sumPointsByUserAndEventTypeAndDate(
+        when(dailyPointsUsageService.getPoints(
                 eq(user.getUuid()), eq(eventType.getUuid()), eq(LocalDate.now())))
                 .thenReturn(250L);  // 250 + 80 = 330 > 300
 
@@ -143,16 +187,18 @@ class AwardingOrchestratorApplicationServiceUnitTest {
         assertThat(result.success()).isFalse();
         assertThat(result.rejectionReason()).contains("Превышен дневной лимит");
 
-        verify(transactionService).sumPointsByUserAndEventTypeAndDate(any(), any(), eq(LocalDate.now()));
+        verify(dailyPointsUsageService).getPoints(any(UUID.class), any(UUID.class), eq(LocalDate.now()));
     }
 
     @Test
     void awardPoints_successNoCourse_levelUp() {
         // подготовка моков
         when(eventTypeService.getActiveByCode("quiz")).thenReturn(eventType);
-        when(userService.getUserByExternalId("user-123")).thenReturn(user);
-        when(transactionService.isExistsByEventId("evt-001")).thenReturn(false);
-        when(transactionService.sumPointsByUserAndEventTypeAndDate(any(), any(), any())).thenReturn(100L);
+        when(userService.getUserUuidByExternalId("user-123")).thenReturn(user.getUuid());
+        when(dailyPointsUsageService.getPoints(any(UUID.class), any(UUID.class), any())).thenReturn(100L);
+        when(userService.getReference(user.getUuid())).thenReturn(user);
+        when(transactionService.insertIfAbsent(any())).thenAnswer(invocation -> Optional.of(invocation.getArgument(0)));
+        when(userService.addPoints(user.getUuid(), 80)).thenReturn(pointsView(user.getUuid(), 580, 3));
         when(levelCalculator.calculateLevel(500 + 80)).thenReturn(4);
         when(levelCalculator.pointsToNextLevel(4)).thenReturn(200L);
 
@@ -167,20 +213,22 @@ class AwardingOrchestratorApplicationServiceUnitTest {
         assertThat(result.newLevel()).isEqualTo(4);
         assertThat(result.pointsToNextLevel()).isEqualTo(200L);
         assertThat(result.progressPercent()).isEqualTo(100.0);  // т.к. 580 > 200 → min(..., 100)
+        assertThat(result.displayName()).isEqualTo("Квиз");
 
         // проверка сохранения транзакции
-        verify(transactionService).saveIfNotExists(transactionCaptor.capture());
+        verify(transactionService).insertIfAbsent(transactionCaptor.capture());
         Transaction tx = transactionCaptor.getValue();
         assertThat(tx.getUser()).isEqualTo(user);
         assertThat(tx.getCourse()).isNull();
         assertThat(tx.getPoints()).isEqualTo(80);
         assertThat(tx.getDescription()).isEqualTo("Начисление за Квиз");
 
-        // проверка обновления пользователя
-        verify(userService).update(userCaptor.capture());
-        User updated = userCaptor.getValue();
-        assertThat(updated.getTotalPoints()).isEqualTo(580);
-        assertThat(updated.getLevel()).isEqualTo(4);
+        verify(dailyPointsUsageService).addPoints(user.getUuid(), eventType.getUuid(), LocalDate.now(), 80);
+
+        // очки увеличены атомарно, уровень записан только потому, что изменился
+        verify(userService).addPoints(user.getUuid(), 80);
+        verify(userService).updateLevel(user.getUuid(), 4);
+        verify(userService, never()).update(any());
 
         // курс не запрашивался
         verifyNoInteractions(courseService, enrollmentApplicationService);
@@ -189,10 +237,11 @@ class AwardingOrchestratorApplicationServiceUnitTest {
     @Test
     void awardPoints_successWithCourse_callsAddPoints() {
         when(eventTypeService.getActiveByCode("quiz")).thenReturn(eventType);
-        when(userService.getUserByExternalId("user-123")).thenReturn(user);
+        when(userService.getUserUuidByExternalId("user-123")).thenReturn(user.getUuid());
         when(courseService.findByCourseId("MATH-101")).thenReturn(course);
-        when(transactionService.isExistsByEventId("evt-001")).thenReturn(false);
-        when(transactionService.sumPointsByUserAndEventTypeAndDate(any(), any(), any())).thenReturn(0L);
+        when(dailyPointsUsageService.getPoints(any(UUID.class), any(UUID.class), any())).thenReturn(0L);
+        when(transactionService.insertIfAbsent(any())).thenAnswer(invocation -> Optional.of(invocation.getArgument(0)));
+        when(userService.addPoints(user.getUuid(), 80)).thenReturn(pointsView(user.getUuid(), 580, 3));
         when(levelCalculator.calculateLevel(anyInt())).thenReturn(3);
         when(levelCalculator.pointsToNextLevel(anyInt())).thenReturn(300L);
 
@@ -200,21 +249,58 @@ class AwardingOrchestratorApplicationServiceUnitTest {
 
         assertThat(result.success()).isTrue();
         assertThat(result.pointsEarned()).isEqualTo(80);
+        assertThat(result.levelUp()).isFalse();
 
         verify(courseService).findByCourseId("MATH-101");
-        verify(enrollmentApplicationService).addPointsToCourse("user-123", course.getUuid(), 80);
+        verify(enrollmentApplicationService).addPointsToCourse("user-123", user.getUuid(), course, 80);
+        verify(coursePeriodPointsService).addPoints(user.getUuid(), course.getUuid(), LocalDate.now(), 80);
+        verify(userService, never()).updateLevel(any(), anyInt());
+    }
+
+    @Test
+    void awardPoints_coursesDisabled_skipsCourseAndPeriodPoints() {
+        ReflectionTestUtils.setField(service, "coursesEnabled", false);
+        when(eventTypeService.getActiveByCode("quiz")).thenReturn(eventType);
+        when(userService.getUserUuidByExternalId("user-123")).thenReturn(user.getUuid());
+        when(courseService.findByCourseId("MATH-101")).thenReturn(course);
+        when(dailyPointsUsageService.getPoints(any(UUID.class), any(UUID.class), any())).thenReturn(0L);
+        when(transactionService.insertIfAbsent(any())).thenAnswer(invocation -> Optional.of(invocation.getArgument(0)));
+        when(userService.addPoints(user.getUuid(), 80)).thenReturn(pointsView(user.getUuid(), 580, 3));
+        when(levelCalculator.calculateLevel(anyInt())).thenReturn(3);
+        when(levelCalculator.pointsToNextLevel(anyInt())).thenReturn(300L);
+
+        AwardResultView result = service.awardPoints("user-123", "evt-001", "quiz", "MATH-101", "G-1");
+
+        assertThat(result.success()).isTrue();
+        verifyNoInteractions(enrollmentApplicationService, coursePeriodPointsService);
+    }
+
+    @Test
+    void awardPoints_singleStatement_coursesDisabled_passedToStatement() {
+        ReflectionTestUtils.setField(service, "awardEngine", AwardEngineType.SINGLE_STATEMENT);
+        ReflectionTestUtils.setField(service, "coursesEnabled", false);
+        AwardStatementView statement = statementView(true, true, true, true, true, false, UUID.randomUUID(), 580, 3);
+        when(transactionService.awardInSingleStatement(eq("user-123"), eq("evt-001"), eq("quiz"), eq("MATH-101"), eq(false), any()))
+                .thenReturn(statement);
+        when(levelCalculator.calculateLevel(580)).thenReturn(3);
+
+        AwardResultView result = service.awardPoints("user-123", "evt-001", "quiz", "MATH-101", null);
+
+        assertThat(result.success()).isTrue();
     }
 
     @Test
     void awardPoints_success_transactionSavedCorrectly() {
         when(eventTypeService.getActiveByCode("quiz")).thenReturn(eventType);
-        when(userService.getUserByExternalId("user-123")).thenReturn(user);
-        when(transactionService.isExistsByEventId(any())).thenReturn(false);
-        when(transactionService.sumPointsByUserAndEventTypeAndDate(any(), any(), any())).thenReturn(0L);
+        when(userService.getUserUuidByExternalId("user-123")).thenReturn(user.getUuid());
+        when(dailyPointsUsageService.getPoints(any(UUID.class), any(UUID.class), any())).thenReturn(0L);
+        when(userService.getReference(user.getUuid())).thenReturn(user);
+        when(transactionService.insertIfAbsent(any())).thenAnswer(invocation -> Optional.of(invocation.getArgument(0)));
+        when(userService.addPoints(user.getUuid(), 80)).thenReturn(pointsView(user.getUuid(), 580, 3));
 
         service.awardPoints("user-123", "evt-001", "quiz", null, null);
 
-        verify(transactionService).saveIfNotExists(transactionCaptor.capture());
+        verify(transactionService).insertIfAbsent(transactionCaptor.capture());
         Transaction tx = transactionCaptor.getValue();
 
         assertThat(tx.getUser()).isEqualTo(user);
@@ -223,4 +309,308 @@ class AwardingOrchestratorApplicationServiceUnitTest {
         assertThat(tx.getDescription()).isEqualTo("Начисление за Квиз");
         assertThat(tx.getCreatedAt()).isNotNull();
     }
+
+    @Test
+    void awardPoints_singleStatement_successUpdatesLevelOnlyWhenChanged() {
+        ReflectionTestUtils.setField(service, "awardEngine", AwardEngineType.SINGLE_STATEMENT);
+        UUID transactionId = UUID.randomUUID();
+        AwardStatementView statement = statementView(true, true, true, true, true, false, transactionId, 580, 3);
+        when(transactionService.awardInSingleStatement(eq("user-123"), eq("evt-001"), eq("quiz"), eq("MATH-101"), eq(true), any()))
+                .thenReturn(statement);
+        when(levelCalculator.calculateLevel(580)).thenReturn(4);
+        when(levelCalculator.pointsToNextLevel(4)).thenReturn(200L);
+
+        AwardResultView result = service.awardPoints("user-123", "evt-001", "quiz", "MATH-101", "G-1");
+
+        assertThat(result.success()).isTrue();
+        assertThat(result.pointsEarned()).isEqualTo(80);
+        assertThat(result.totalPointsAfter()).isEqualTo(580);
+        assertThat(result.levelUp()).isTrue();
+        assertThat(result.displayName()).isEqualTo("Квиз");
+        assertThat(result.transactionId()).isEqualTo(transactionId);
+
+        verify(userService).updateLevel(user.getUuid(), 4);
+        verify(dailyPointsUsageService).recordAward(user.getUuid(), eventType.getUuid(), LocalDate.now(), 80);
+        verifyNoInteractions(eventTypeService, courseService, enrollmentApplicationService);
+        verify(transactionService, never()).insertIfAbsent(any());
+    }
+
+    @Test
+    void awardPoints_singleStatement_blankCourseIdPassedAsNull() {
+        ReflectionTestUtils.setField(service, "awardEngine", AwardEngineType.SINGLE_STATEMENT);
+        AwardStatementView statement = statementView(true, true, true, true, true, false, UUID.randomUUID(), 580, 3);
+        when(transactionService.awardInSingleStatement(eq("user-123"), eq("evt-001"), eq("quiz"), eq(null), eq(true), any()))
+                .thenReturn(statement);
+        when(levelCalculator.calculateLevel(580)).thenReturn(3);
+
+        AwardResultView result = service.awardPoints("user-123", "evt-001", "quiz", " ", null);
+
+        assertThat(result.success()).isTrue();
+        verify(userService, never()).updateLevel(any(), anyInt());
+    }
+
+    @Test
+    void awardPoints_singleStatement_overDailyLimit_returnsRejected() {
+        ReflectionTestUtils.setField(service, "awardEngine", AwardEngineType.SINGLE_STATEMENT);
+        AwardStatementView statement = statementView(true, true, true, true, false, false, null, null, null);
+        when(transactionService.awardInSingleStatement(any(), any(), any(), any(), anyBoolean(), any())).thenReturn(statement);
+
+        AwardResultView result = service.awardPoints("user-123", "evt-001", "quiz", null, null);
+
+        assertThat(result.success()).isFalse();
+        assertThat(result.rejectionReason()).isEqualTo("Превышен дневной лимит по типу Квиз");
+        verifyNoInteractions(levelCalculator, dailyPointsUsageService);
+    }
+
+    @Test
+    void awardPoints_singleStatement_duplicateOfUnknownType_returnsDuplicate() {
+        ReflectionTestUtils.setField(service, "awardEngine", AwardEngineType.SINGLE_STATEMENT);
+        AwardStatementView statement = statementView(false, true, true, true, false, true, null, null, null);
+        when(transactionService.awardInSingleStatement(any(), any(), any(), any(), anyBoolean(), any())).thenReturn(statement);
+
+        AwardResultView result = service.awardPoints("user-123", "evt-001", "quiz", null, null);
+
+        assertThat(result.duplicate()).isTrue();
+    }
+
+    @Test
+    void awardPoints_singleStatement_concurrentInsert_returnsDuplicate() {
+        ReflectionTestUtils.setField(service, "awardEngine", AwardEngineType.SINGLE_STATEMENT);
+        AwardStatementView statement = statementView(true, true, true, true, true, false, null, null, null);
+        when(transactionService.awardInSingleStatement(any(), any(), any(), any(), anyBoolean(), any())).thenReturn(statement);
+
+        AwardResultView result = service.awardPoints("user-123", "evt-001", "quiz", null, null);
+
+        assertThat(result.duplicate()).isTrue();
+    }
+
+    @Test
+    void awardPoints_singleStatement_unknownUser_throws() {
+        ReflectionTestUtils.setField(service, "awardEngine", AwardEngineType.SINGLE_STATEMENT);
+        AwardStatementView statement = statementView(true, false, true, false, false, false, null, null, null);
+        when(transactionService.awardInSingleStatement(any(), any(), any(), any(), anyBoolean(), any())).thenReturn(statement);
+
+        assertThatThrownBy(() -> service.awardPoints("user-123", "evt-001", "quiz", null, null))
+                .isInstanceOf(UserNotFoundException.class);
+    }
+
+    @Test
+    void awardPoints_singleStatement_notEnrolled_throws() {
+        ReflectionTestUtils.setField(service, "awardEngine", AwardEngineType.SINGLE_STATEMENT);
+        AwardStatementView statement = statementView(true, true, true, false, true, false, null, null, null);
+        when(transactionService.awardInSingleStatement(any(), any(), any(), any(), anyBoolean(), any())).thenReturn(statement);
+
+        assertThatThrownBy(() -> service.awardPoints("user-123", "evt-001", "quiz", "MATH-101", null))
+                .isInstanceOf(UserCourseEnrollmentNotFoundException.class);
+    }
+
+    @Test
+    void awardPointsBatch_emptyList_returnsEmpty() {
+        List<AwardResultView> results = service.awardPointsBatch(List.of());
+
+        assertThat(results).isEmpty();
+        verifyNoInteractions(transactionService, eventTypeService, userService, levelCalculator, courseService, enrollmentApplicationService);
+    }
+
+    @Test
+    void awardPointsBatch_mixedEvents_resultsInRequestOrder() {
+        stubBatchLookups(Set.of("evt-old"), 0L, List.of(), Set.of());
+        when(transactionService.insertAllIfAbsent(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(userService.addPoints(Map.of(user.getUuid(), 160)))
+                .thenReturn(List.of(pointsView(user.getUuid(), 660, 3)));
+        when(levelCalculator.calculateLevel(580)).thenReturn(3);
+        when(levelCalculator.calculateLevel(660)).thenReturn(4);
+        when(levelCalculator.pointsToNextLevel(anyInt())).thenReturn(1000L);
+
+        List<AwardResultView> results = service.awardPointsBatch(List.of(
+                new AwardRequest("user-123", "evt-1", "quiz", null, null),
+                new AwardRequest("user-123", "evt-old", "quiz", null, null),
+                new AwardRequest("user-123", "evt-1", "quiz", null, null),
+                new AwardRequest("user-123", "evt-2", "unknown", null, null),
+                new AwardRequest(" ", "evt-3", "quiz", null, null),
+                new AwardRequest("user-123", "evt-4", "quiz", null, null)
+        ));
+
+        assertThat(results).hasSize(6);
+        assertThat(results.get(0).success()).isTrue();
+        assertThat(results.get(0).totalPointsAfter()).isEqualTo(580);
+        assertThat(results.get(0).levelUp()).isFalse();
+        assertThat(results.get(1).duplicate()).isTrue();
+        assertThat(results.get(2).duplicate()).isTrue();
+        assertThat(results.get(3).rejectionReason()).isEqualTo("Неизвестный или отключённый тип события: unknown");
+        assertThat(results.get(4).rejectionReason()).isEqualTo("Отсутствует идентификатор пользователя");
+        assertThat(results.get(5).success()).isTrue();
+        assertThat(results.get(5).totalPointsAfter()).isEqualTo(660);
+        assertThat(results.get(5).levelUp()).isTrue();
+        assertThat(results.get(5).newLevel()).isEqualTo(4);
+
+        verify(transactionService).insertAllIfAbsent(any());
+        verify(dailyPointsUsageService).addPoints(Map.of(new DailyUsageKey(user.getUuid(), eventType.getUuid()), 160),
+                LocalDate.now());
+        verify(userService).updateLevels(Map.of(user.getUuid(), 4));
+        verify(enrollmentApplicationService).addPointsToCourses(Map.of());
+    }
+
+    @Test
+    void awardPointsBatch_dailyLimitAccumulatesWithinBatch() {
+        stubBatchLookups(Set.of(), 200L, List.of(), Set.of());
+        when(transactionService.insertAllIfAbsent(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(userService.addPoints(Map.of(user.getUuid(), 80)))
+                .thenReturn(List.of(pointsView(user.getUuid(), 580, 3)));
+        when(levelCalculator.calculateLevel(580)).thenReturn(3);
+        when(levelCalculator.pointsToNextLevel(3)).thenReturn(1000L);
+
+        List<AwardResultView> results = service.awardPointsBatch(List.of(
+                new AwardRequest("user-123", "evt-1", "quiz", null, null),  // 200 + 80 = 280 <= 300
+                new AwardRequest("user-123", "evt-2", "quiz", null, null)   // 280 + 80 = 360 > 300
+        ));
+
+        assertThat(results.get(0).success()).isTrue();
+        assertThat(results.get(1).rejectionReason()).isEqualTo("Превышен дневной лимит по типу Квиз");
+
+        verify(userService).updateLevels(Map.of());
+    }
+
+    @Test
+    void awardPointsBatch_occurredAt_datesTransactionAndChecksLimitForThatDay() {
+        LocalDateTime occurredAt = LocalDateTime.now().minusDays(3).withNano(0);
+        LocalDate eventDay = occurredAt.toLocalDate();
+        when(transactionService.findExistingEventIds(anyCollection())).thenReturn(Set.of());
+        when(eventTypeService.getActiveByCodes(anyCollection())).thenReturn(List.of(eventType));
+        when(userService.getUsersByExternalIds(anyCollection())).thenReturn(List.of(user));
+        when(courseService.findAllByCourseIds(anyCollection())).thenReturn(List.of());
+        when(dailyPointsUsageService.getPoints(anyCollection(), anyCollection(), eq(eventDay)))
+                .thenReturn(Map.of(new DailyUsageKey(user.getUuid(), eventType.getUuid()), 250L));
+        when(dailyPointsUsageService.getPoints(anyCollection(), anyCollection(), eq(LocalDate.now())))
+                .thenReturn(Map.of());
+        when(enrollmentApplicationService.findMissingEnrollments(anyCollection())).thenReturn(Set.of());
+        when(transactionService.insertAllIfAbsent(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(userService.addPoints(Map.of(user.getUuid(), 80)))
+                .thenReturn(List.of(pointsView(user.getUuid(), 580, 3)));
+        when(levelCalculator.calculateLevel(580)).thenReturn(3);
+        when(levelCalculator.pointsToNextLevel(3)).thenReturn(1000L);
+
+        List<AwardResultView> results = service.awardPointsBatch(List.of(
+                new AwardRequest("user-123", "evt-old", "quiz", null, null, occurredAt),  // 250 + 80 > 300 в тот день
+                new AwardRequest("user-123", "evt-new", "quiz", null, null)               // сегодня лимит свободен
+        ));
+
+        assertThat(results.get(0).rejectionReason()).isEqualTo("Превышен дневной лимит по типу Квиз");
+        assertThat(results.get(1).success()).isTrue();
+        verify(dailyPointsUsageService).addPoints(Map.of(new DailyUsageKey(user.getUuid(), eventType.getUuid()), 80),
+                LocalDate.now());
+        verify(dailyPointsUsageService, never()).addPoints(anyMap(), eq(eventDay));
+    }
+
+    @Test
+    void awardPointsBatch_occurredAtInPast_usedAsTransactionTime() {
+        LocalDateTime occurredAt = LocalDateTime.now().minusDays(30).withNano(0);
+        stubBatchLookups(Set.of(), 0L, List.of(), Set.of());
+        when(dailyPointsUsageService.getPoints(anyCollection(), anyCollection(), eq(occurredAt.toLocalDate())))
+                .thenReturn(Map.of());
+        when(transactionService.insertAllIfAbsent(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(userService.addPoints(Map.of(user.getUuid(), 160)))
+                .thenReturn(List.of(pointsView(user.getUuid(), 660, 3)));
+        when(levelCalculator.calculateLevel(anyInt())).thenReturn(3);
+
+        service.awardPointsBatch(List.of(
+                new AwardRequest("user-123", "evt-old", "quiz", null, null, occurredAt),
+                new AwardRequest("user-123", "evt-future", "quiz", null, null, LocalDateTime.now().plusDays(1))));
+
+        verify(transactionService).insertAllIfAbsent(org.mockito.ArgumentMatchers.argThat(transactions ->
+                transactions.get(0).getCreatedAt().equals(occurredAt)
+                        && transactions.get(1).getCreatedAt().isBefore(LocalDateTime.now().plusSeconds(1))));
+    }
+
+    @Test
+    void awardPointsBatch_eventInsertedConcurrently_reportedAsDuplicate() {
+        stubBatchLookups(Set.of(), 0L, List.of(), Set.of());
+        when(transactionService.insertAllIfAbsent(any()))
+                .thenAnswer(invocation -> List.of(invocation.<List<Transaction>>getArgument(0).get(0)));
+        when(userService.addPoints(Map.of(user.getUuid(), 80)))
+                .thenReturn(List.of(pointsView(user.getUuid(), 580, 3)));
+        when(levelCalculator.calculateLevel(580)).thenReturn(3);
+        when(levelCalculator.pointsToNextLevel(anyInt())).thenReturn(1000L);
+
+        List<AwardResultView> results = service.awardPointsBatch(List.of(
+                new AwardRequest("user-123", "evt-1", "quiz", null, null),
+                new AwardRequest("user-123", "evt-raced", "quiz", null, null)
+        ));
+
+        assertThat(results.get(0).success()).isTrue();
+        assertThat(results.get(1).duplicate()).isTrue();
+        verify(dailyPointsUsageService).addPoints(Map.of(new DailyUsageKey(user.getUuid(), eventType.getUuid()), 80),
+                LocalDate.now());
+    }
+
+    @Test
+    void awardPointsBatch_notEnrolled_rejectsAndSkipsWrites() {
+        EnrollmentKeyView key = new EnrollmentKeyView(user.getUuid(), course.getUuid());
+        stubBatchLookups(Set.of(), 0L, List.of(course), Set.of(key));
+
+        List<AwardResultView> results = service.awardPointsBatch(List.of(
+                new AwardRequest("user-123", "evt-1", "quiz", "MATH-101", "G-1")
+        ));
+
+        assertThat(results.get(0).success()).isFalse();
+        assertThat(results.get(0).rejectionReason()).isNotBlank();
+
+        verify(transactionService, never()).insertAllIfAbsent(any());
+        verify(userService, never()).addPoints(anyMap());
+        verify(enrollmentApplicationService, never()).addPointsToCourses(anyMap());
+    }
+
+    private void stubBatchLookups(Set<String> existingEventIds, long todaySum,
+                                  List<Course> courses, Set<EnrollmentKeyView> missingEnrollments) {
+        when(transactionService.findExistingEventIds(anyCollection())).thenReturn(existingEventIds);
+        when(eventTypeService.getActiveByCodes(anyCollection())).thenReturn(List.of(eventType));
+        when(userService.getUsersByExternalIds(anyCollection())).thenReturn(List.of(user));
+        when(courseService.findAllByCourseIds(anyCollection())).thenReturn(courses);
+        when(dailyPointsUsageService.getPoints(anyCollection(), anyCollection(), eq(LocalDate.now())))
+                .thenReturn(todaySum > 0
+                        ? Map.of(new DailyUsageKey(user.getUuid(), eventType.getUuid()), todaySum)
+                        : Map.of());
+        when(enrollmentApplicationService.findMissingEnrollments(anyCollection())).thenReturn(missingEnrollments);
+    }
+
+    private AwardStatementView statementView(boolean eventTypeFound, boolean userFound, boolean courseFound,
+                                             boolean enrolled, boolean withinLimit, boolean duplicate,
+                                             UUID transactionId, Integer totalPoints, Integer level) {
+        AwardStatementView view = mock(AwardStatementView.class, withSettings().strictness(Strictness.LENIENT));
+        when(view.getEventTypeFound()).thenReturn(eventTypeFound);
+        when(view.getUserFound()).thenReturn(userFound);
+        when(view.getCourseFound()).thenReturn(courseFound);
+        when(view.getEnrolled()).thenReturn(enrolled);
+        when(view.getWithinLimit()).thenReturn(withinLimit);
+        when(view.getDuplicate()).thenReturn(duplicate);
+        when(view.getDisplayName()).thenReturn(eventTypeFound ? eventType.getDisplayName() : null);
+        when(view.getTransactionId()).thenReturn(transactionId);
+        if (transactionId != null) {
+            when(view.getUserUuid()).thenReturn(user.getUuid());
+            when(view.getEventTypeUuid()).thenReturn(eventType.getUuid());
+            when(view.getPoints()).thenReturn(eventType.getPoints());
+            when(view.getTotalPoints()).thenReturn(totalPoints);
+            when(view.getLevel()).thenReturn(level);
+        }
+        return view;
+    }
+
+    private static UserPointsView pointsView(UUID uuid, int totalPoints, int level) {
+        return new UserPointsView() {
+            @Override
+            public UUID getUuid() {
+                return uuid;
+            }
+
+            @Override
+            public Integer getTotalPoints() {
+                return totalPoints;
+            }
+
+            @Override
+            public Integer getLevel() {
+                return level;
+            }
+        };
+    }
 }
\ No newline at end of file
@@ -8,14 +8,18 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.misis.gamification.dto.lms.request.LmsEventRequestDto;
 import ru.misis.gamification.dto.lms.response.LmsEventResponseDto;
-import ru.misis.gamification.entity.EventType;
+import ru.misis.gamification.model.AwardRequest;
 import ru.misis.gamification.model.AwardResultView;
-import ru.misis.gamification.service.simple.eventtype.EventTypeService;
+import ru.misis.gamification.model.AwardResultViews;
 
+import java.util.List;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -29,16 +33,22 @@ class LmsEventProcessorApplicationServiceUnitTest {
     private AwardingOrchestratorApplicationService awardingOrchestrator;
 
     @Mock
-    private EventTypeService eventTypeService;
+    private AwardLaneExecutor awardLaneExecutor;
+
+    @Mock
+    private AwardBatchDispatcher awardBatchDispatcher;
 
     @InjectMocks
     private LmsEventProcessorApplicationServiceImpl processor;
 
     private LmsEventRequestDto request;
-    private EventType eventType;
+    private final UUID transactionId = UUID.randomUUID();
 
     @BeforeEach
     void setUp() {
+        lenient().when(awardLaneExecutor.execute(anyString(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+
         request = LmsEventRequestDto.builder()
                 .userId("user-12345")
                 .eventId("evt-uuid-001")
@@ -46,13 +56,6 @@ class LmsEventProcessorApplicationServiceUnitTest {
                 .courseId("MATH-101")
                 .groupId("G-1")
                 .build();
-
-        eventType = EventType.builder()
-                .uuid(UUID.randomUUID())
-                .typeCode("quiz")
-                .displayName("Квиз / Тест")
-                .points(80)
-                .build();
     }
 
     @Test
@@ -65,6 +68,8 @@ class LmsEventProcessorApplicationServiceUnitTest {
                 7,
                 150L,
                 83.33,
+                "Квиз / Тест",
+                transactionId,
                 null,
                 false
         );
@@ -74,8 +79,6 @@ class LmsEventProcessorApplicationServiceUnitTest {
                 eq("MATH-101"), eq("G-1")))
                 .thenReturn(successResult);
 
-        when(eventTypeService.getActiveByCode("quiz")).thenReturn(eventType);
-
         LmsEventResponseDto response = processor.process(request);
 
         assertThat(response.isSuccess()).isTrue();
@@ -89,17 +92,17 @@ class LmsEventProcessorApplicationServiceUnitTest {
         assertThat(response.getNewLevel()).isEqualTo(7);
         assertThat(response.getPointsToNextLevel()).isEqualTo(150L);
         assertThat(response.getProgressPercent()).isEqualTo(83.33);
+        assertThat(response.getTransactionId()).isEqualTo(transactionId);
         assertThat(response.getProcessedAt()).isNotNull();
 
         verify(awardingOrchestrator).awardPoints(anyString(), anyString(), anyString(), anyString(), anyString());
-        verify(eventTypeService).getActiveByCode("quiz");
-        verifyNoMoreInteractions(awardingOrchestrator, eventTypeService);
+        verifyNoMoreInteractions(awardingOrchestrator);
     }
 
     @Test
     void process_duplicate_returnsDuplicateResponse() {
         AwardResultView duplicateResult = new AwardResultView(
-                false, 0, 0, false, 0, 0L, 0.0, null, true
+                false, 0, 0, false, 0, 0L, 0.0, null, null, null, true
         );
 
         when(awardingOrchestrator.awardPoints(anyString(), anyString(), anyString(), anyString(), anyString()))
@@ -112,14 +115,12 @@ class LmsEventProcessorApplicationServiceUnitTest {
         assertThat(response.getEventId()).isEqualTo("evt-uuid-001");
         assertThat(response.getMessage()).contains("Событие с ID evt-uuid-001 уже обработано ранее");
         assertThat(response.getProcessedAt()).isNotNull();
-
-        verifyNoInteractions(eventTypeService);
     }
 
     @Test
     void process_rejected_returnsErrorResponse() {
         AwardResultView rejectedResult = new AwardResultView(
-                false, 0, 0, false, 0, 0L, 0.0,
+                false, 0, 0, false, 0, 0L, 0.0, null, null,
                 "Превышен дневной лимит по типу Квиз", false
         );
 
@@ -132,14 +133,12 @@ class LmsEventProcessorApplicationServiceUnitTest {
         assertThat(response.getStatus()).isEqualTo("error");
         assertThat(response.getMessage()).isEqualTo("Превышен дневной лимит по типу Квиз");
         assertThat(response.getProcessedAt()).isNotNull();
-
-        verifyNoInteractions(eventTypeService);
     }
 
     @Test
     void process_rejectedWithoutReason_returnsErrorWithDefaultMessage() {
         AwardResultView rejected = new AwardResultView(
-                false, 0, 0, false, 0, 0L, 0.0, null, false
+                false, 0, 0, false, 0, 0L, 0.0, null, null, null, false
         );
 
         when(awardingOrchestrator.awardPoints(anyString(), anyString(), anyString(), anyString(), anyString()))
@@ -152,30 +151,88 @@ class LmsEventProcessorApplicationServiceUnitTest {
     }
 
     @Test
-    void process_success_callsEventTypeService() {
+    void process_success_takesDisplayNameFromAwardResult() {
         AwardResultView success = new AwardResultView(
-                true, 50, 1000, false, 5, 200L, 50.0, null, false
+                true, 50, 1000, false, 5, 200L, 50.0, "Лабораторная", null, null, false
         );
 
         when(awardingOrchestrator.awardPoints(anyString(), anyString(), anyString(), anyString(), anyString()))
                 .thenReturn(success);
-        when(eventTypeService.getActiveByCode("quiz")).thenReturn(eventType);
 
-        processor.process(request);
+        LmsEventResponseDto response = processor.process(request);
 
-        verify(eventTypeService).getActiveByCode("quiz");
+        assertThat(response.getDisplayName()).isEqualTo("Лабораторная");
     }
 
     @Test
     void process_logsDebugMessage() {
-        AwardResultView success = new AwardResultView(true, 10, 100, false, 1, 90L, 11.11, null, false);
+        AwardResultView success = new AwardResultView(true, 10, 100, false, 1, 90L, 11.11, "Квиз / Тест", null,
+                null, false);
 
         when(awardingOrchestrator.awardPoints(anyString(), anyString(), anyString(), anyString(), anyString()))
                 .thenReturn(success);
-        when(eventTypeService.getActiveByCode(anyString())).thenReturn(eventType);
 
         processor.process(request);
 
         verify(awardingOrchestrator).awardPoints(eq("user-12345"), eq("evt-uuid-001"), eq("quiz"), eq("MATH-101"), eq("G-1"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void processBatch_mapsResultsInOrder() {
+        LmsEventRequestDto second = LmsEventRequestDto.builder()
+                .userId("user-777")
+                .eventId("evt-uuid-002")
+                .eventType("quiz")
+                .build();
+        LmsEventRequestDto third = LmsEventRequestDto.builder()
+                .userId("user-888")
+                .eventId("evt-uuid-003")
+                .eventType("lab")
+                .build();
+
+        when(awardBatchDispatcher.award(List.of(
+                new AwardRequest("user-12345", "evt-uuid-001", "quiz", "MATH-101", "G-1"),
+                new AwardRequest("user-777", "evt-uuid-002", "quiz", null, null),
+                new AwardRequest("user-888", "evt-uuid-003", "lab", null, null))))
+                .thenReturn(List.of(
+                        AwardResultViews.success(80, 1250, false, 7, 150L, 83.33, "Квиз / Тест", transactionId),
+                        AwardResultViews.duplicate(),
+                        AwardResultViews.rejected("Неизвестный или отключённый тип события: lab")));
+
+        List<LmsEventResponseDto> responses = processor.processBatch(List.of(request, second, third));
+
+        assertThat(responses).hasSize(3);
+        assertThat(responses.get(0).isSuccess()).isTrue();
+        assertThat(responses.get(0).getDisplayName()).isEqualTo("Квиз / Тест");
+        assertThat(responses.get(0).getTransactionId()).isEqualTo(transactionId);
+        assertThat(responses.get(1).isDuplicate()).isTrue();
+        assertThat(responses.get(1).getEventId()).isEqualTo("evt-uuid-002");
+        assertThat(responses.get(2).isError()).isTrue();
+        assertThat(responses.get(2).getEventId()).isEqualTo("evt-uuid-003");
+        assertThat(responses.get(2).getUserId()).isEqualTo("user-888");
+
+        verify(awardBatchDispatcher).award(any());
+        verifyNoInteractions(awardingOrchestrator);
+    }
+
+    @Test
+    void processBatch_noSuccess_skipsDisplayNameLookup() {
+        when(awardBatchDispatcher.award(List.of(
+                new AwardRequest("user-12345", "evt-uuid-001", "quiz", "MATH-101", "G-1"))))
+                .thenReturn(List.of(AwardResultViews.duplicate()));
+
+        List<LmsEventResponseDto> responses = processor.processBatch(List.of(request));
+
+        assertThat(responses).hasSize(1);
+        assertThat(responses.get(0).isDuplicate()).isTrue();    }
+
+    @Test
+    void process_dispatchesAwardToUserLane() {
+        when(awardingOrchestrator.awardPoints(anyString(), anyString(), anyString(), anyString(), anyString()))
+                .thenReturn(AwardResultViews.duplicate());
+
+        processor.process(request);
+
+        verify(awardLaneExecutor).execute(eq("user-12345"), any());
+    }
+}
@@ -0,0 +1,135 @@
+package ru.misis.gamification.service.application.context;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+import ru.misis.gamification.entity.Course;
+import ru.misis.gamification.entity.User;
+import ru.misis.gamification.exception.UserNotFoundException;
+import ru.misis.gamification.service.simple.course.CourseService;
+import ru.misis.gamification.service.simple.group.GroupService;
+import ru.misis.gamification.service.simple.user.UserService;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RequestLookupContextUnitTest {
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private CourseService courseService;
+
+    @Mock
+    private GroupService groupService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private RequestLookupContextImpl context;
+
+    private final User user = User.builder().uuid(UUID.randomUUID()).userId("student-1").build();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        context = new RequestLookupContextImpl(userService, courseService, groupService, meterRegistry, true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void getUser_sameRequest_loadedOnce() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v1/users/{userId}");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        when(userService.getUserByExternalId("student-1")).thenReturn(user);
+
+        assertThat(context.getUser("student-1")).isSameAs(user);
+        assertThat(context.getUser("student-1")).isSameAs(user);
+
+        verify(userService, times(1)).getUserByExternalId("student-1");
+        assertThat(meterRegistry.get("gamification.lookup.context.saved")
+                .tag("entity", "user")
+                .tag("endpoint", "/api/v1/users/{userId}")
+                .counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void getUser_differentRequests_loadedAgain() {
+        when(userService.getUserByExternalId("student-1")).thenReturn(user);
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        context.getUser("student-1");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        context.getUser("student-1");
+
+        verify(userService, times(2)).getUserByExternalId("student-1");
+    }
+
+    @Test
+    void getUser_outsideRequest_alwaysLoads() {
+        when(userService.getUserByExternalId("student-1")).thenReturn(user);
+
+        context.getUser("student-1");
+        context.getUser("student-1");
+
+        verify(userService, times(2)).getUserByExternalId("student-1");
+    }
+
+    @Test
+    void getUser_notFound_notRemembered() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        when(userService.getUserByExternalId("missing")).thenThrow(new UserNotFoundException("missing"));
+
+        assertThatThrownBy(() -> context.getUser("missing")).isInstanceOf(UserNotFoundException.class);
+        assertThatThrownBy(() -> context.getUser("missing")).isInstanceOf(UserNotFoundException.class);
+
+        verify(userService, times(2)).getUserByExternalId("missing");
+    }
+
+    @Test
+    void getGroupUuid_keyedByGroupAndCourse() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        when(groupService.getGroupUuidByExternalIdAndCourseId("G-1", "CS-101")).thenReturn(first);
+        when(groupService.getGroupUuidByExternalIdAndCourseId("G-1", "MATH-101")).thenReturn(second);
+
+        assertThat(context.getGroupUuid("G-1", "CS-101")).isEqualTo(first);
+        assertThat(context.getGroupUuid("G-1", "MATH-101")).isEqualTo(second);
+        assertThat(context.getGroupUuid("G-1", "CS-101")).isEqualTo(first);
+
+        verify(groupService, times(1)).getGroupUuidByExternalIdAndCourseId("G-1", "CS-101");
+    }
+
+    @Test
+    void disabled_alwaysLoads() {
+        context = new RequestLookupContextImpl(userService, courseService, groupService, meterRegistry, false);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        Course course = Course.builder().uuid(UUID.randomUUID()).courseId("CS-101").build();
+        when(courseService.findByCourseId("CS-101")).thenReturn(course);
+
+        context.getCourse("CS-101");
+        context.getCourse("CS-101");
+
+        verify(courseService, times(2)).findByCourseId("CS-101");
+    }
+}
@@ -14,6 +14,7 @@ import ru.misis.gamification.entity.Course;
 import ru.misis.gamification.entity.Group;
 import ru.misis.gamification.entity.User;
 import ru.misis.gamification.entity.UserCourseEnrollment;
+import ru.misis.gamification.exception.UserCourseEnrollmentNotFoundException;
 import ru.misis.gamification.exception.UserNotEnrolledInCourseException;
 import ru.misis.gamification.model.CourseEnrollmentSummary;
 import ru.misis.gamification.service.simple.course.CourseService;
@@ -21,10 +22,13 @@ import ru.misis.gamification.service.simple.enrollment.EnrollmentService;
 import ru.misis.gamification.service.simple.group.GroupService;
 import ru.misis.gamification.service.simple.user.UserService;
 
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -95,7 +99,8 @@ class EnrollmentApplicationServiceUnitTest {
 
     @Test
     void enrollIfNeeded_alreadyEnrolled_skipsAndLogs() {
-        when(userService.getUserByExternalId("user-123")).thenReturn(user);
+        when(userService.getUserUuidByExternalId("user-123")).thenReturn(user.getUuid());
+        when(userService.getReference(user.getUuid())).thenReturn(user);
         when(courseService.findByCourseId("CS-101")).thenReturn(course);
         when(enrollmentService.isUserEnrolledInCourse(user, course)).thenReturn(true);
 
@@ -107,7 +112,8 @@ class EnrollmentApplicationServiceUnitTest {
 
     @Test
     void enrollIfNeeded_noGroupId_createsEnrollmentWithoutGroup() {
-        when(userService.getUserByExternalId("user-123")).thenReturn(user);
+        when(userService.getUserUuidByExternalId("user-123")).thenReturn(user.getUuid());
+        when(userService.getReference(user.getUuid())).thenReturn(user);
         when(courseService.findByCourseId("CS-101")).thenReturn(course);
         when(enrollmentService.isUserEnrolledInCourse(user, course)).thenReturn(false);
 
@@ -124,7 +130,8 @@ class EnrollmentApplicationServiceUnitTest {
 
     @Test
     void enrollIfNeeded_withGroupId_createsEnrollmentWithGroup() {
-        when(userService.getUserByExternalId("user-123")).thenReturn(user);
+        when(userService.getUserUuidByExternalId("user-123")).thenReturn(user.getUuid());
+        when(userService.getReference(user.getUuid())).thenReturn(user);
         when(courseService.findByCourseId("CS-101")).thenReturn(course);
         when(enrollmentService.isUserEnrolledInCourse(user, course)).thenReturn(false);
         when(groupService.getGroupUuidByExternalIdAndCourseId("G-14", "CS-101")).thenReturn(group.getUuid());
@@ -141,31 +148,37 @@ class EnrollmentApplicationServiceUnitTest {
 
     @Test
     void addPointsToCourse_pointsNonPositive_doesNothing() {
-        service.addPointsToCourse("user-123", UUID.randomUUID(), 0);
-        service.addPointsToCourse("user-123", UUID.randomUUID(), -10);
+        service.addPointsToCourse("user-123", user.getUuid(), course, 0);
+        service.addPointsToCourse("user-123", user.getUuid(), course, -10);
 
         verifyNoInteractions(userService, courseService, enrollmentService);
     }
 
     @Test
-    void addPointsToCourse_valid_increasesPointsAndSaves() {
-        UUID courseUuid = UUID.randomUUID();
+    void addPointsToCourse_valid_incrementsPointsAtomically() {
+        when(enrollmentService.addPointsInCourse(user.getUuid(), course.getUuid(), 150))
+                .thenReturn(Optional.of(500 + 150));
 
-        when(userService.getUserByExternalId("user-123")).thenReturn(user);
-        when(courseService.findById(courseUuid)).thenReturn(course);
-        when(enrollmentService.findByUserAndCourse(user, course)).thenReturn(existingEnrollment);
+        service.addPointsToCourse("user-123", user.getUuid(), course, 150);
 
-        service.addPointsToCourse("user-123", courseUuid, 150);
+        verify(enrollmentService).addPointsInCourse(user.getUuid(), course.getUuid(), 150);
+        verify(enrollmentService, never()).save(any());
+        verifyNoInteractions(userService, courseService);
+    }
 
-        verify(enrollmentService).save(enrollmentCaptor.capture());
+    @Test
+    void addPointsToCourse_notEnrolled_throwsException() {
+        when(enrollmentService.addPointsInCourse(user.getUuid(), course.getUuid(), 150))
+                .thenReturn(Optional.empty());
 
-        UserCourseEnrollment saved = enrollmentCaptor.getValue();
-        assertThat(saved.getTotalPointsInCourse()).isEqualTo(500 + 150);
+        assertThatThrownBy(() -> service.addPointsToCourse("user-123", user.getUuid(), course, 150))
+                .isInstanceOf(UserCourseEnrollmentNotFoundException.class);
     }
 
     @Test
     void getEnrollmentSummary_notEnrolled_throwsException() {
-        when(userService.getUserByExternalId("user-123")).thenReturn(user);
+        when(userService.getUserUuidByExternalId("user-123")).thenReturn(user.getUuid());
+        when(userService.getReference(user.getUuid())).thenReturn(user);
         when(courseService.findByCourseId("CS-101")).thenReturn(course);
         when(enrollmentService.isUserEnrolledInCourse(user, course)).thenReturn(false);
 
@@ -176,7 +189,8 @@ class EnrollmentApplicationServiceUnitTest {
 
     @Test
     void getEnrollmentSummary_withGroup_returnsFullSummary() {
-        when(userService.getUserByExternalId("user-123")).thenReturn(user);
+        when(userService.getUserUuidByExternalId("user-123")).thenReturn(user.getUuid());
+        when(userService.getReference(user.getUuid())).thenReturn(user);
         when(courseService.findByCourseId("CS-101")).thenReturn(course);
         when(enrollmentService.isUserEnrolledInCourse(user, course)).thenReturn(true);
         when(enrollmentService.findByUserAndCourse(user, course)).thenReturn(existingEnrollment);
@@ -196,7 +210,8 @@ class EnrollmentApplicationServiceUnitTest {
     void getEnrollmentSummary_withoutGroup_returnsSummaryWithoutGroup() {
         existingEnrollment.setGroup(null);
 
-        when(userService.getUserByExternalId("user-123")).thenReturn(user);
+        when(userService.getUserUuidByExternalId("user-123")).thenReturn(user.getUuid());
+        when(userService.getReference(user.getUuid())).thenReturn(user);
         when(courseService.findByCourseId("CS-101")).thenReturn(course);
         when(enrollmentService.isUserEnrolledInCourse(user, course)).thenReturn(true);
         when(enrollmentService.findByUserAndCourse(user, course)).thenReturn(existingEnrollment);
@@ -0,0 +1,120 @@
+package ru.misis.gamification.service.application.ingestion;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.misis.gamification.dto.admin.response.EventImportResultDto;
+import ru.misis.gamification.model.AwardRequest;
+import ru.misis.gamification.model.AwardResultViews;
+import ru.misis.gamification.service.application.awarding.AwardBatchDispatcher;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LmsEventImportApplicationServiceUnitTest {
+
+    @Mock
+    private AwardBatchDispatcher awardBatchDispatcher;
+
+    private LmsEventImportApplicationServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new LmsEventImportApplicationServiceImpl(awardBatchDispatcher, new ObjectMapper().findAndRegisterModules());
+        ReflectionTestUtils.setField(service, "chunkSize", 2);
+        ReflectionTestUtils.setField(service, "maxReportedErrors", 10);
+        ReflectionTestUtils.setField(service, "progressLogInterval", 1000L);
+    }
+
+    @Test
+    void importEvents_awardsInChunksAndCountsOutcomes() {
+        when(awardBatchDispatcher.awardAwaitingCapacity(List.of(
+                new AwardRequest("u1", "e1", "quiz", null, null, LocalDateTime.of(2025, 9, 1, 10, 0)),
+                new AwardRequest("u1", "e2", "quiz", "MATH", "G1", null))))
+                .thenReturn(List.of(
+                        AwardResultViews.success(50, 50, false, 1, 500L, 10.0, "Квиз", null),
+                        AwardResultViews.duplicate()));
+        when(awardBatchDispatcher.awardAwaitingCapacity(List.of(new AwardRequest("u2", "e3", "lab", null, null, null))))
+                .thenReturn(List.of(AwardResultViews.rejected("Неизвестный или отключённый тип события: lab")));
+
+        EventImportResultDto result = service.importEvents(ndjson("""
+                {"userId":"u1","eventId":"e1","eventType":"quiz","occurredAt":"2025-09-01T10:00:00"}
+                {"userId":"u1","eventId":"e2","eventType":"quiz","courseId":"MATH","groupId":"G1"}
+
+                {"userId":"u2","eventId":"e3","eventType":"lab"}
+                """));
+
+        assertThat(result.isCompleted()).isTrue();
+        assertThat(result.getLines()).isEqualTo(3);
+        assertThat(result.getAwarded()).isEqualTo(1);
+        assertThat(result.getDuplicates()).isEqualTo(1);
+        assertThat(result.getRejected()).isEqualTo(1);
+        assertThat(result.getPointsAwarded()).isEqualTo(50);
+        assertThat(result.getErrors()).containsExactly("строка 4 (e3): Неизвестный или отключённый тип события: lab");
+        verify(awardBatchDispatcher, times(2)).awardAwaitingCapacity(any());
+    }
+
+    @Test
+    void importEvents_malformedLines_skippedAndReported() {
+        EventImportResultDto result = service.importEvents(ndjson("""
+                not json
+                {"userId":"u1","eventType":"quiz"}
+                """));
+
+        assertThat(result.isCompleted()).isTrue();
+        assertThat(result.getLines()).isEqualTo(2);
+        assertThat(result.getMalformed()).isEqualTo(2);
+        assertThat(result.getErrors()).hasSize(2);
+        assertThat(result.getErrors().get(0)).startsWith("строка 1: некорректный JSON");
+        assertThat(result.getErrors().get(1)).isEqualTo("строка 2: обязательны userId, eventId и eventType");
+        verifyNoInteractions(awardBatchDispatcher);
+    }
+
+    @Test
+    void importEvents_chunkFailure_stopsAndReportsFirstLineOfChunk() {
+        when(awardBatchDispatcher.awardAwaitingCapacity(any()))
+                .thenReturn(List.of(AwardResultViews.duplicate(), AwardResultViews.duplicate()))
+                .thenThrow(new IllegalStateException("connection reset"));
+
+        EventImportResultDto result = service.importEvents(ndjson("""
+                {"userId":"u1","eventId":"e1","eventType":"quiz"}
+                {"userId":"u1","eventId":"e2","eventType":"quiz"}
+                {"userId":"u1","eventId":"e3","eventType":"quiz"}
+                {"userId":"u1","eventId":"e4","eventType":"quiz"}
+                {"userId":"u1","eventId":"e5","eventType":"quiz"}
+                """));
+
+        assertThat(result.isCompleted()).isFalse();
+        assertThat(result.getDuplicates()).isEqualTo(2);
+        assertThat(result.getMessage()).isEqualTo("Ошибка начисления пачки, начиная со строки 3: connection reset");
+        verify(awardBatchDispatcher, times(2)).awardAwaitingCapacity(any());
+    }
+
+    @Test
+    void importEvents_emptyStream_returnsZeroTotals() {
+        EventImportResultDto result = service.importEvents(ndjson(""));
+
+        assertThat(result.isCompleted()).isTrue();
+        assertThat(result.getLines()).isZero();
+        verifyNoInteractions(awardBatchDispatcher);
+    }
+
+    private static InputStream ndjson(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
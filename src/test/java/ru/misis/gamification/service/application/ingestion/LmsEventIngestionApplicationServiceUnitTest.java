@@ -0,0 +1,151 @@
+package ru.misis.gamification.service.application.ingestion;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.misis.gamification.dto.lms.request.LmsEventRequestDto;
+import ru.misis.gamification.dto.lms.response.LmsEventResponseDto;
+import ru.misis.gamification.entity.LmsEventInbox;
+import ru.misis.gamification.exception.UserNotFoundException;
+import ru.misis.gamification.mapper.LmsEventInboxMapper;
+import ru.misis.gamification.model.AwardRequest;
+import ru.misis.gamification.service.application.awarding.AwardLaneExecutor;
+import ru.misis.gamification.service.application.awarding.LmsEventProcessorApplicationService;
+import ru.misis.gamification.service.simple.inbox.LmsEventInboxService;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LmsEventIngestionApplicationServiceUnitTest {
+
+    @Mock
+    private LmsEventInboxService inboxService;
+
+    @Mock
+    private LmsEventProcessorApplicationService lmsEventProcessor;
+
+    @Mock
+    private LmsEventInboxMapper inboxMapper;
+
+    @Mock
+    private AwardLaneExecutor awardLaneExecutor;
+
+    @InjectMocks
+    private LmsEventIngestionApplicationServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "batchSize", 50);
+        lenient().when(awardLaneExecutor.submit(anyString(), any()))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(
+                        invocation.<Supplier<?>>getArgument(1).get()));
+    }
+
+    @Test
+    void accept_enqueuesAndReturnsAccepted() {
+        LmsEventRequestDto request = LmsEventRequestDto.builder()
+                .userId("user-1").eventId("evt-1").eventType("quiz").build();
+
+        LmsEventResponseDto response = service.accept(request);
+
+        assertThat(response.isAccepted()).isTrue();
+        assertThat(response.getEventId()).isEqualTo("evt-1");
+        verify(inboxService).enqueue(new AwardRequest("user-1", "evt-1", "quiz", null, null));
+        verifyNoInteractions(lmsEventProcessor);
+    }
+
+    @Test
+    void drainBatch_emptyQueue_returnsZero() {
+        when(inboxService.claimBatch(50)).thenReturn(List.of());
+
+        assertThat(service.drainBatch()).isZero();
+        verifyNoInteractions(lmsEventProcessor);
+    }
+
+    @Test
+    void drainBatch_successAndBusinessError_markedCompleted() {
+        LmsEventInbox ok = inbox("evt-ok", "user-1");
+        LmsEventInbox unknownUser = inbox("evt-unknown", "user-2");
+        LmsEventRequestDto okDto = LmsEventRequestDto.builder().eventId("evt-ok").build();
+        LmsEventRequestDto unknownDto = LmsEventRequestDto.builder().eventId("evt-unknown").build();
+
+        when(inboxService.claimBatch(50)).thenReturn(List.of(ok, unknownUser));
+        when(inboxMapper.toRequestDto(ok)).thenReturn(okDto);
+        when(inboxMapper.toRequestDto(unknownUser)).thenReturn(unknownDto);
+        when(lmsEventProcessor.process(okDto)).thenReturn(LmsEventResponseDto.builder()
+                .status("success").pointsEarned(80).build());
+        when(lmsEventProcessor.process(unknownDto)).thenThrow(new UserNotFoundException("user-2"));
+
+        assertThat(service.drainBatch()).isEqualTo(2);
+
+        verify(inboxService).markCompleted(ok.getUuid(), "success", "Начислено 80 очков");
+        verify(inboxService).markCompleted(unknownUser.getUuid(), "error", new UserNotFoundException("user-2").getMessage());
+        verify(inboxService, never()).markFailed(any(), any());
+    }
+
+    @Test
+    void drainBatch_unexpectedError_markedFailed() {
+        LmsEventInbox event = inbox("evt-fail", "user-1");
+        LmsEventRequestDto dto = LmsEventRequestDto.builder().eventId("evt-fail").build();
+
+        when(inboxService.claimBatch(anyInt())).thenReturn(List.of(event));
+        when(inboxMapper.toRequestDto(event)).thenReturn(dto);
+        when(lmsEventProcessor.process(dto)).thenThrow(new IllegalStateException("connection reset"));
+
+        service.drainBatch();
+
+        verify(inboxService).markFailed(event, "connection reset");
+        verify(inboxService, never()).markCompleted(any(), any(), any());
+    }
+
+    @Test
+    void drainBatch_laneQueueFull_requeuesRemainingEventsOfThatUser() {
+        LmsEventInbox rejected = inbox("evt-1", "user-1");
+        LmsEventInbox other = inbox("evt-2", "user-2");
+        LmsEventInbox laterOfRejectedUser = inbox("evt-3", "user-1");
+        LmsEventRequestDto otherDto = LmsEventRequestDto.builder().eventId("evt-2").build();
+
+        when(inboxService.claimBatch(50)).thenReturn(List.of(rejected, other, laterOfRejectedUser));
+        when(awardLaneExecutor.submit(eq("user-1"), any())).thenThrow(new RejectedExecutionException());
+        when(inboxMapper.toRequestDto(other)).thenReturn(otherDto);
+        when(lmsEventProcessor.process(otherDto)).thenReturn(LmsEventResponseDto.builder()
+                .status("success").pointsEarned(10).build());
+
+        service.drainBatch();
+
+        verify(inboxService).requeue(List.of(rejected, laterOfRejectedUser));
+        verify(inboxService).markCompleted(other.getUuid(), "success", "Начислено 10 очков");
+        verify(awardLaneExecutor, times(1)).submit(eq("user-1"), any());
+        verify(inboxService, never()).markFailed(any(), any());
+    }
+
+    private static LmsEventInbox inbox(String eventId, String userId) {
+        return LmsEventInbox.builder()
+                .uuid(UUID.randomUUID())
+                .eventId(eventId)
+                .userId(userId)
+                .eventType("quiz")
+                .attempts(1)
+                .build();
+    }
+}
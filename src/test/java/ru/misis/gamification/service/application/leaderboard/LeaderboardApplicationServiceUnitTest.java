@@ -1,5 +1,7 @@
 package ru.misis.gamification.service.application.leaderboard;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -9,21 +11,40 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.test.util.ReflectionTestUtils;
 import ru.misis.gamification.entity.Course;
+import ru.misis.gamification.entity.LeaderboardPeriod;
 import ru.misis.gamification.entity.User;
-import ru.misis.gamification.entity.UserCourseEnrollment;
 import ru.misis.gamification.exception.CourseNotFoundException;
+import ru.misis.gamification.exception.InvalidLeaderboardCursorException;
+import ru.misis.gamification.exception.UserNotEnrolledInCourseException;
 import ru.misis.gamification.exception.UserNotFoundException;
+import ru.misis.gamification.model.CoursePercentileView;
+import ru.misis.gamification.model.CoursePositionView;
+import ru.misis.gamification.model.CourseRanksView;
+import ru.misis.gamification.model.GlobalLeaderboardEntryView;
+import ru.misis.gamification.model.GlobalLeaderboardPageView;
+import ru.misis.gamification.model.GlobalRankView;
+import ru.misis.gamification.model.LeaderboardCursor;
 import ru.misis.gamification.model.LeaderboardEntryView;
 import ru.misis.gamification.model.LeaderboardPageView;
+import ru.misis.gamification.model.LeaderboardWindowView;
+import ru.misis.gamification.model.PersonalLeaderboardView;
 import ru.misis.gamification.model.UserCourseGroupLeaderboardView;
+import ru.misis.gamification.model.UserSummary;
+import ru.misis.gamification.service.application.context.RequestLookupContextImpl;
 import ru.misis.gamification.service.simple.course.CourseService;
 import ru.misis.gamification.service.simple.enrollment.EnrollmentService;
 import ru.misis.gamification.service.simple.group.GroupService;
+import ru.misis.gamification.service.simple.period.CoursePeriodPointsService;
 import ru.misis.gamification.service.simple.user.UserService;
 
+import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -31,6 +52,9 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.isNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -48,13 +72,22 @@ class LeaderboardApplicationServiceUnitTest {
     @Mock
     private EnrollmentService enrollmentService;
 
+    @Mock
+    private CoursePeriodPointsService periodPointsService;
+
     @InjectMocks
     private LeaderboardApplicationServiceImpl service;
 
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "lookupContext",
+                new RequestLookupContextImpl(userService, courseService, groupService, new SimpleMeterRegistry(), true));
+    }
+
     @Test
     void getGroupLeaderboard_courseOnly_returnsPage() {
         UUID courseUuid = UUID.randomUUID();
-        when(courseService.getCourseUuidByExternalId("CS-101")).thenReturn(courseUuid);
+        when(courseService.findByCourseId("CS-101")).thenReturn(Course.builder().uuid(courseUuid).build());
 
         LeaderboardEntryView entry = new LeaderboardEntryView(UUID.randomUUID(), "u1", 500, 5, 1L, false);
         Page<LeaderboardEntryView> page = new PageImpl<>(List.of(entry), PageRequest.of(0, 10), 1);
@@ -74,7 +107,7 @@ class LeaderboardApplicationServiceUnitTest {
     void getGroupLeaderboard_withGroup_returnsPage() {
         UUID courseUuid = UUID.randomUUID();
         UUID groupUuid = UUID.randomUUID();
-        when(courseService.getCourseUuidByExternalId("CS-101")).thenReturn(courseUuid);
+        when(courseService.findByCourseId("CS-101")).thenReturn(Course.builder().uuid(courseUuid).build());
         when(groupService.getGroupUuidByExternalIdAndCourseId("G-1", "CS-101")).thenReturn(groupUuid);
 
         Page<LeaderboardEntryView> page = new PageImpl<>(Collections.emptyList(), PageRequest.of(1, 20), 0);
@@ -88,29 +121,323 @@ class LeaderboardApplicationServiceUnitTest {
     }
 
     @Test
-    void getCourseLeaderboardForUser_userEnrolled_returnsWithCurrentUser() {
+    void getGroupLeaderboard_hasNext_returnsCursorAfterLastRow() {
+        UUID courseUuid = UUID.randomUUID();
+        when(courseService.findByCourseId("CS-101")).thenReturn(Course.builder().uuid(courseUuid).build());
+
+        LeaderboardEntryView last = new LeaderboardEntryView(UUID.randomUUID(), "u2", 400, 4, 2L, false);
+        Page<LeaderboardEntryView> page = new PageImpl<>(List.of(
+                new LeaderboardEntryView(UUID.randomUUID(), "u1", 500, 5, 1L, false), last), PageRequest.of(0, 2), 5);
+        when(enrollmentService.findLeaderboardByCourseAndGroup(eq(courseUuid), isNull(), any(Pageable.class))).thenReturn(page);
+
+        LeaderboardPageView result = service.getGroupLeaderboard("CS-101", null, 0, 2);
+
+        assertThat(LeaderboardCursor.decode(result.nextCursor()))
+                .isEqualTo(new LeaderboardCursor(400, last.getUserUuid(), 2L));
+    }
+
+    @Test
+    void getGroupLeaderboardAfter_continuesFromCursorWithoutTotals() {
+        UUID courseUuid = UUID.randomUUID();
+        UUID groupUuid = UUID.randomUUID();
+        when(courseService.findByCourseId("CS-101")).thenReturn(Course.builder().uuid(courseUuid).build());
+        when(groupService.getGroupUuidByExternalIdAndCourseId("G-1", "CS-101")).thenReturn(groupUuid);
+
+        LeaderboardCursor cursor = new LeaderboardCursor(400, UUID.randomUUID(), 50L);
+        LeaderboardEntryView last = new LeaderboardEntryView(UUID.randomUUID(), "u52", 300, 3, 52L, false);
+        Slice<LeaderboardEntryView> slice = new SliceImpl<>(List.of(
+                new LeaderboardEntryView(UUID.randomUUID(), "u51", 350, 3, 51L, false), last), PageRequest.ofSize(2), true);
+        when(enrollmentService.findLeaderboardAfter(courseUuid, groupUuid, cursor, 2)).thenReturn(slice);
+
+        LeaderboardPageView result = service.getGroupLeaderboardAfter("CS-101", "G-1", cursor.encode(), 2);
+
+        assertThat(result.content()).extracting(LeaderboardEntryView::getRank).containsExactly(51L, 52L);
+        assertThat(result.pageNumber()).isNull();
+        assertThat(result.totalElements()).isNull();
+        assertThat(result.totalPages()).isNull();
+        assertThat(result.hasNext()).isTrue();
+        assertThat(result.hasPrevious()).isTrue();
+        assertThat(LeaderboardCursor.decode(result.nextCursor()))
+                .isEqualTo(new LeaderboardCursor(300, last.getUserUuid(), 52L));
+    }
+
+    @Test
+    void getGroupLeaderboardAfter_invalidCursor_throws() {
+        assertThatThrownBy(() -> service.getGroupLeaderboardAfter("CS-101", null, "not-a-cursor", 10))
+                .isInstanceOf(InvalidLeaderboardCursorException.class);
+
+        verifyNoInteractions(courseService, enrollmentService);
+    }
+
+    @Test
+    void getRanks_reportsMissingUsersInRequestOrder() {
+        UUID courseUuid = UUID.randomUUID();
+        User known = User.builder().uuid(UUID.randomUUID()).userId("u1").build();
+        User notEnrolled = User.builder().uuid(UUID.randomUUID()).userId("u2").build();
+        when(courseService.findByCourseId("CS-101")).thenReturn(Course.builder().uuid(courseUuid).build());
+        when(userService.getUsersByExternalIds(List.of("u3", "u1", "u2", "u1")))
+                .thenReturn(List.of(known, notEnrolled));
+        LeaderboardEntryView entry = new LeaderboardEntryView(known.getUuid(), "u1", 700, 4, 2L);
+        when(enrollmentService.findRanksByUsers(courseUuid, null, List.of(known.getUuid(), notEnrolled.getUuid())))
+                .thenReturn(List.of(entry));
+
+        CourseRanksView result = service.getRanks("CS-101", null, List.of("u3", "u1", "u2", "u1"));
+
+        assertThat(result.entries()).containsExactly(entry);
+        assertThat(result.missingUserIds()).containsExactly("u3", "u2");
+    }
+
+    @Test
+    void getPeriodLeaderboard_defaultDate_readsCurrentPeriod() {
+        UUID courseUuid = UUID.randomUUID();
+        UUID userUuid = UUID.randomUUID();
+        when(courseService.findByCourseId("CS-101")).thenReturn(Course.builder().uuid(courseUuid).build());
+        when(userService.getUserUuidByExternalId("u1")).thenReturn(userUuid);
+        when(enrollmentService.findPointsInCourse(userUuid, courseUuid)).thenReturn(Optional.of(90));
+
+        LeaderboardEntryView entry = new LeaderboardEntryView(UUID.randomUUID(), "u1", 90, 2, 1L, false);
+        when(periodPointsService.findLeaderboard(courseUuid, null, LeaderboardPeriod.WEEK, LocalDate.now(), PageRequest.of(0, 10)))
+                .thenReturn(new PageImpl<>(List.of(entry), PageRequest.of(0, 10), 1));
+
+        LeaderboardPageView result = service.getPeriodLeaderboard("CS-101", null, LeaderboardPeriod.WEEK, null, 0, 10, "u1");
+
+        assertThat(result.content()).containsExactly(entry);
+        assertThat(result.totalElements()).isOne();
+        assertThat(result.nextCursor()).isNull();
+    }
+
+    @Test
+    void getPeriodLeaderboard_notEnrolled_throws() {
         UUID courseUuid = UUID.randomUUID();
         UUID userUuid = UUID.randomUUID();
-        when(courseService.getCourseUuidByExternalId("CS-101")).thenReturn(courseUuid);
-        when(userService.getUserByExternalId("u-123")).thenReturn(User.builder().uuid(userUuid).userId("u-123").level(4).build());
+        when(courseService.findByCourseId("CS-101")).thenReturn(Course.builder().uuid(courseUuid).build());
+        when(userService.getUserUuidByExternalId("u9")).thenReturn(userUuid);
+        when(enrollmentService.findPointsInCourse(userUuid, courseUuid)).thenReturn(Optional.empty());
 
+        assertThatThrownBy(() -> service.getPeriodLeaderboard("CS-101", null, LeaderboardPeriod.WEEK, null, 0, 10, "u9"))
+                .isInstanceOf(UserNotEnrolledInCourseException.class);
+        verifyNoInteractions(periodPointsService);
+    }
+
+    @Test
+    void getPeriodLeaderboardAfter_continuesFromCursor() {
+        UUID courseUuid = UUID.randomUUID();
+        UUID groupUuid = UUID.randomUUID();
+        LocalDate date = LocalDate.of(2025, 3, 12);
+        when(courseService.findByCourseId("CS-101")).thenReturn(Course.builder().uuid(courseUuid).build());
+        when(groupService.getGroupUuidByExternalIdAndCourseId("G-1", "CS-101")).thenReturn(groupUuid);
+        UUID userUuid = UUID.randomUUID();
+        when(userService.getUserUuidByExternalId("u1")).thenReturn(userUuid);
+        when(enrollmentService.findPointsInCourse(userUuid, courseUuid)).thenReturn(Optional.of(120));
+
+        LeaderboardCursor cursor = new LeaderboardCursor(40, UUID.randomUUID(), 10L);
+        LeaderboardEntryView last = new LeaderboardEntryView(UUID.randomUUID(), "u11", 35, 2, 11L, false);
+        when(periodPointsService.findLeaderboardAfter(courseUuid, groupUuid, LeaderboardPeriod.MONTH, date, cursor, 1))
+                .thenReturn(new SliceImpl<>(List.of(last), PageRequest.ofSize(1), true));
+
+        LeaderboardPageView result = service.getPeriodLeaderboardAfter("CS-101", "G-1", LeaderboardPeriod.MONTH, date,
+                cursor.encode(), 1, "u1");
+
+        assertThat(result.totalElements()).isNull();
+        assertThat(result.hasPrevious()).isTrue();
+        assertThat(LeaderboardCursor.decode(result.nextCursor()))
+                .isEqualTo(new LeaderboardCursor(35, last.getUserUuid(), 11L));
+    }
+
+    @Test
+    void getCourseLeaderboardForUserAfter_lastPage_noNextCursor() {
+        UUID courseUuid = UUID.randomUUID();
         Course course = Course.builder().uuid(courseUuid).build();
         when(courseService.findByCourseId("CS-101")).thenReturn(course);
+        when(userService.getUserUuidByExternalId("u-123")).thenThrow(new UserNotFoundException("missing"));
+
+        LeaderboardCursor cursor = new LeaderboardCursor(100, UUID.randomUUID(), 10L);
+        when(enrollmentService.findLeaderboardAfter(courseUuid, null, cursor, 10)).thenReturn(new SliceImpl<>(
+                List.of(new LeaderboardEntryView(UUID.randomUUID(), "u11", 90, 2, 11L, false)), PageRequest.ofSize(10), false));
+
+        UserCourseGroupLeaderboardView result = service.getCourseLeaderboardForUserAfter(
+                "CS-101", null, cursor.encode(), 10, "u-123");
+
+        assertThat(result.topEntries()).hasSize(1);
+        assertThat(result.currentUserEntry()).isNull();
+        assertThat(result.hasNext()).isFalse();
+        assertThat(result.nextCursor()).isNull();
+    }
+
+    @Test
+    void getCourseLeaderboardForUserAfter_userInGroup_returnsGroupRank() {
+        UUID courseUuid = UUID.randomUUID();
+        UUID groupUuid = UUID.randomUUID();
+        UUID userUuid = UUID.randomUUID();
+        when(courseService.findByCourseId("CS-101")).thenReturn(Course.builder().uuid(courseUuid).build());
+        when(groupService.getGroupUuidByExternalIdAndCourseId("G-1", "CS-101")).thenReturn(groupUuid);
+        when(userService.getUserUuidByExternalId("u-123")).thenReturn(userUuid);
+
+        LeaderboardCursor cursor = new LeaderboardCursor(100, UUID.randomUUID(), 10L);
+        when(enrollmentService.findLeaderboardAfter(courseUuid, groupUuid, cursor, 10))
+                .thenReturn(new SliceImpl<>(List.of(), PageRequest.ofSize(10), false));
+        when(enrollmentService.findRanksByUsers(courseUuid, groupUuid, List.of(userUuid)))
+                .thenReturn(List.of(new LeaderboardEntryView(userUuid, "u-123", 450, 4, 3L)));
+
+        UserCourseGroupLeaderboardView result = service.getCourseLeaderboardForUserAfter(
+                "CS-101", "G-1", cursor.encode(), 10, "u-123");
+
+        assertThat(result.currentUserEntry().getIsCurrentUser()).isTrue();
+        assertThat(result.currentUserRank()).isEqualTo(3L);
+        assertThat(result.currentUserPoints()).isEqualTo(450);
+    }
+
+    @Test
+    void getCourseLeaderboardForUserAfter_userOutsideGroup_currentUserNull() {
+        UUID courseUuid = UUID.randomUUID();
+        UUID groupUuid = UUID.randomUUID();
+        UUID userUuid = UUID.randomUUID();
+        when(courseService.findByCourseId("CS-101")).thenReturn(Course.builder().uuid(courseUuid).build());
+        when(groupService.getGroupUuidByExternalIdAndCourseId("G-1", "CS-101")).thenReturn(groupUuid);
+        when(userService.getUserUuidByExternalId("u-123")).thenReturn(userUuid);
+
+        LeaderboardCursor cursor = new LeaderboardCursor(100, UUID.randomUUID(), 10L);
+        when(enrollmentService.findLeaderboardAfter(courseUuid, groupUuid, cursor, 10))
+                .thenReturn(new SliceImpl<>(List.of(), PageRequest.ofSize(10), false));
+        when(enrollmentService.findRanksByUsers(courseUuid, groupUuid, List.of(userUuid))).thenReturn(List.of());
+
+        UserCourseGroupLeaderboardView result = service.getCourseLeaderboardForUserAfter(
+                "CS-101", "G-1", cursor.encode(), 10, "u-123");
+
+        assertThat(result.currentUserEntry()).isNull();
+        assertThat(result.currentUserRank()).isNull();
+    }
+
+    @Test
+    void getLeaderboardAroundUser_marksCurrentUser() {
+        UUID courseUuid = UUID.randomUUID();
+        UUID userUuid = UUID.randomUUID();
+        when(courseService.findByCourseId("CS-101")).thenReturn(Course.builder().uuid(courseUuid).build());
+        when(userService.getUserUuidByExternalId("u-123")).thenReturn(userUuid);
+
+        LeaderboardEntryView above = new LeaderboardEntryView(UUID.randomUUID(), "u1", 500, 3, 4L, false);
+        LeaderboardEntryView me = new LeaderboardEntryView(userUuid, "u-123", 450, 3, 5L, false);
+        when(enrollmentService.findLeaderboardAround(courseUuid, null, userUuid, 1)).thenReturn(List.of(above, me));
+
+        LeaderboardWindowView result = service.getLeaderboardAroundUser("CS-101", null, 1, "u-123");
+
+        assertThat(result.entries()).extracting(LeaderboardEntryView::getIsCurrentUser).containsExactly(false, true);
+        assertThat(result.currentUserRank()).isEqualTo(5L);
+        assertThat(result.currentUserPoints()).isEqualTo(450);
+    }
+
+    @Test
+    void getLeaderboardAroundUser_userNotFound_returnsEmptyWindow() {
+        when(courseService.findByCourseId("CS-101")).thenReturn(Course.builder().uuid(UUID.randomUUID()).build());
+        when(userService.getUserUuidByExternalId("u-missing")).thenThrow(new UserNotFoundException("missing"));
+
+        LeaderboardWindowView result = service.getLeaderboardAroundUser("CS-101", null, 5, "u-missing");
+
+        assertThat(result.entries()).isEmpty();
+        assertThat(result.currentUserRank()).isNull();
+        verifyNoInteractions(enrollmentService);
+    }
+
+    @Test
+    void getGlobalLeaderboard_firstPage_ranksRowsAndReturnsCursor() {
+        UserSummary first = new UserSummary(UUID.randomUUID(), "u1", 900, 5);
+        UserSummary second = new UserSummary(UUID.randomUUID(), "u2", 500, 3);
+        UserSummary extra = new UserSummary(UUID.randomUUID(), "u3", 400, 3);
+        when(userService.findGlobalLeaderboardAfter(Integer.MAX_VALUE, LeaderboardCursor.FIRST.userUuid(), 3))
+                .thenReturn(List.of(first, second, extra));
+
+        GlobalLeaderboardPageView result = service.getGlobalLeaderboard(null, 2);
+
+        assertThat(result.content()).extracting(GlobalLeaderboardEntryView::userId).containsExactly("u1", "u2");
+        assertThat(result.content()).extracting(GlobalLeaderboardEntryView::rank).containsExactly(1L, 2L);
+        assertThat(result.hasNext()).isTrue();
+        assertThat(LeaderboardCursor.decode(result.nextCursor())).isEqualTo(new LeaderboardCursor(500, second.uuid(), 2L));
+    }
+
+    @Test
+    void getGlobalLeaderboard_tiedPoints_shareDenseRankAcrossPages() {
+        LeaderboardCursor cursor = new LeaderboardCursor(500, UUID.randomUUID(), 7L);
+        UserSummary tied = new UserSummary(UUID.randomUUID(), "u9", 500, 3);
+        UserSummary next = new UserSummary(UUID.randomUUID(), "u10", 450, 3);
+        UserSummary nextTied = new UserSummary(UUID.randomUUID(), "u11", 450, 3);
+        when(userService.findGlobalLeaderboardAfter(500, cursor.userUuid(), 4)).thenReturn(List.of(tied, next, nextTied));
+
+        GlobalLeaderboardPageView result = service.getGlobalLeaderboard(cursor.encode(), 3);
+
+        assertThat(result.content()).extracting(GlobalLeaderboardEntryView::rank).containsExactly(7L, 8L, 8L);
+        assertThat(result.hasNext()).isFalse();
+    }
+
+    @Test
+    void getGlobalLeaderboard_lastPage_continuesRanksWithoutCursor() {
+        LeaderboardCursor cursor = new LeaderboardCursor(500, UUID.randomUUID(), 40L);
+        when(userService.findGlobalLeaderboardAfter(500, cursor.userUuid(), 11))
+                .thenReturn(List.of(new UserSummary(UUID.randomUUID(), "u41", 450, 3)));
+
+        GlobalLeaderboardPageView result = service.getGlobalLeaderboard(cursor.encode(), 10);
+
+        assertThat(result.content()).extracting(GlobalLeaderboardEntryView::rank).containsExactly(41L);
+        assertThat(result.hasNext()).isFalse();
+        assertThat(result.nextCursor()).isNull();
+    }
 
-        when(enrollmentService.isUserEnrolledInCourse(any(), eq(course))).thenReturn(true);
+    @Test
+    void getGlobalRank_returnsRankAndUserCount() {
+        when(userService.getUserByExternalId("u-123"))
+                .thenReturn(User.builder().uuid(UUID.randomUUID()).userId("u-123").totalPoints(750).level(4).build());
+        when(userService.getGlobalRank(750)).thenReturn(17L);
+        when(userService.countUsers()).thenReturn(200000L);
+
+        GlobalRankView result = service.getGlobalRank("u-123");
+
+        assertThat(result).isEqualTo(new GlobalRankView("u-123", 750, 4, 17L, 200000L));
+    }
+
+    @Test
+    void getCoursePercentile_roundsTopPercentUp() {
+        UUID courseUuid = UUID.randomUUID();
+        UUID userUuid = UUID.randomUUID();
+        when(courseService.findByCourseId("CS-101")).thenReturn(Course.builder().uuid(courseUuid).build());
+        when(userService.getUserUuidByExternalId("u-123")).thenReturn(userUuid);
+        when(enrollmentService.findPointsInCourse(userUuid, courseUuid)).thenReturn(Optional.of(800));
+        when(enrollmentService.getPositionInCourse(courseUuid, 800)).thenReturn(new CoursePositionView(3121, 104000, true));
 
-        UserCourseEnrollment enrollment = UserCourseEnrollment.builder().totalPointsInCourse(750).build();
-        when(enrollmentService.findByUserAndCourse(any(), eq(course))).thenReturn(enrollment);
+        CoursePercentileView result = service.getCoursePercentile("CS-101", "u-123");
 
-        when(enrollmentService.getRankByPointsInCourse(eq(courseUuid), isNull(), eq(userUuid))).thenReturn(3L);
+        assertThat(result).isEqualTo(new CoursePercentileView("u-123", "CS-101", 800, 3121L, 104000L, 3.01, true));
+    }
+
+    @Test
+    void getCoursePercentile_notEnrolled_throws() {
+        UUID courseUuid = UUID.randomUUID();
+        UUID userUuid = UUID.randomUUID();
+        when(courseService.findByCourseId("CS-101")).thenReturn(Course.builder().uuid(courseUuid).build());
+        when(userService.getUserUuidByExternalId("u-123")).thenReturn(userUuid);
+        when(enrollmentService.findPointsInCourse(userUuid, courseUuid)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.getCoursePercentile("CS-101", "u-123"))
+                .isInstanceOf(UserNotEnrolledInCourseException.class);
+    }
+
+    @Test
+    void getCourseLeaderboardForUser_userEnrolled_returnsWithCurrentUser() {
+        UUID courseUuid = UUID.randomUUID();
+        UUID userUuid = UUID.randomUUID();
+        when(userService.getUserUuidByExternalId("u-123")).thenReturn(userUuid);
+
+        Course course = Course.builder().uuid(courseUuid).build();
+        when(courseService.findByCourseId("CS-101")).thenReturn(course);
 
         LeaderboardEntryView top1 = new LeaderboardEntryView(UUID.randomUUID(), "top1", 1200, 6, 1L, false);
+        LeaderboardEntryView current = new LeaderboardEntryView(userUuid, "u-123", 750, 4, 3L, true);
         Page<LeaderboardEntryView> topPage = new PageImpl<>(List.of(top1), PageRequest.of(0, 5), 10);
-        when(enrollmentService.findLeaderboardByCourseAndGroup(eq(courseUuid), isNull(), any(Pageable.class))).thenReturn(topPage);
+        when(enrollmentService.findLeaderboardForUser(eq(courseUuid), isNull(), eq(userUuid), any(Pageable.class)))
+                .thenReturn(new PersonalLeaderboardView(topPage, current));
 
         UserCourseGroupLeaderboardView result = service.getCourseLeaderboardForUser("CS-101", null, 0, 5, "u-123");
 
         assertThat(result.topEntries()).hasSize(1);
+        assertThat(result.totalElements()).isEqualTo(10);
         assertThat(result.currentUserEntry().getIsCurrentUser()).isTrue();
         assertThat(result.currentUserRank()).isEqualTo(3L);
         assertThat(result.currentUserPoints()).isEqualTo(750);
@@ -119,16 +446,15 @@ class LeaderboardApplicationServiceUnitTest {
     @Test
     void getCourseLeaderboardForUser_userNotEnrolled_currentUserNull() {
         UUID courseUuid = UUID.randomUUID();
-        when(courseService.getCourseUuidByExternalId("CS-101")).thenReturn(courseUuid);
-        when(userService.getUserByExternalId("u-999")).thenReturn(User.builder().uuid(UUID.randomUUID()).build());
+        UUID userUuid = UUID.randomUUID();
+        when(userService.getUserUuidByExternalId("u-999")).thenReturn(userUuid);
 
         Course course = Course.builder().uuid(courseUuid).build();
         when(courseService.findByCourseId("CS-101")).thenReturn(course);
 
-        when(enrollmentService.isUserEnrolledInCourse(any(), eq(course))).thenReturn(false);
-
         Page<LeaderboardEntryView> page = new PageImpl<>(Collections.emptyList());
-        when(enrollmentService.findLeaderboardByCourseAndGroup(any(), isNull(), any())).thenReturn(page);
+        when(enrollmentService.findLeaderboardForUser(eq(courseUuid), isNull(), eq(userUuid), any()))
+                .thenReturn(new PersonalLeaderboardView(page, null));
 
         UserCourseGroupLeaderboardView result = service.getCourseLeaderboardForUser("CS-101", null, 0, 10, "u-999");
 
@@ -139,10 +465,12 @@ class LeaderboardApplicationServiceUnitTest {
 
     @Test
     void getCourseLeaderboardForUser_userNotFound_currentUserNull() {
-        when(userService.getUserByExternalId("u-missing")).thenThrow(new UserNotFoundException("missing"));
+        when(courseService.findByCourseId("CS-101")).thenReturn(Course.builder().uuid(UUID.randomUUID()).build());
+        when(userService.getUserUuidByExternalId("u-missing")).thenThrow(new UserNotFoundException("missing"));
 
         Page<LeaderboardEntryView> emptyPage = new PageImpl<>(Collections.emptyList());
-        when(enrollmentService.findLeaderboardByCourseAndGroup(any(), any(), any())).thenReturn(emptyPage);
+        when(enrollmentService.findLeaderboardForUser(any(), isNull(), isNull(), any()))
+                .thenReturn(new PersonalLeaderboardView(emptyPage, null));
 
         UserCourseGroupLeaderboardView result = service.getCourseLeaderboardForUser("CS-101", null, 0, 10, "u-missing");
 
@@ -153,26 +481,33 @@ class LeaderboardApplicationServiceUnitTest {
     }
 
     @Test
-    void getCourseLeaderboardForUser_courseNotFound_currentUserNull() {
-        UUID courseUuid = UUID.randomUUID();
-        when(courseService.getCourseUuidByExternalId("CS-101")).thenReturn(courseUuid);
-        when(userService.getUserByExternalId("u-123")).thenReturn(User.builder().uuid(UUID.randomUUID()).build());
+    void getCourseLeaderboardForUser_courseNotFound_throws() {
         when(courseService.findByCourseId("CS-101")).thenThrow(new CourseNotFoundException("missing"));
 
-        Page<LeaderboardEntryView> emptyPage = new PageImpl<>(Collections.emptyList());
-        when(enrollmentService.findLeaderboardByCourseAndGroup(any(), any(), any())).thenReturn(emptyPage);
+        assertThatThrownBy(() -> service.getCourseLeaderboardForUser("CS-101", null, 0, 10, "u-123"))
+                .isInstanceOf(CourseNotFoundException.class);
+
+        verifyNoInteractions(userService, enrollmentService);
+    }
 
-        UserCourseGroupLeaderboardView result = service.getCourseLeaderboardForUser("CS-101", null, 0, 10, "u-123");
+    @Test
+    void getCourseLeaderboardForUser_courseResolvedOnce() {
+        UUID userUuid = UUID.randomUUID();
+        Course course = Course.builder().uuid(UUID.randomUUID()).build();
+        when(courseService.findByCourseId("CS-101")).thenReturn(course);
+        when(userService.getUserUuidByExternalId("u-123")).thenReturn(userUuid);
+        when(enrollmentService.findLeaderboardForUser(any(), isNull(), any(), any()))
+                .thenReturn(new PersonalLeaderboardView(new PageImpl<>(Collections.emptyList()), null));
 
-        assertThat(result.currentUserEntry()).isNull();
-        assertThat(result.currentUserRank()).isNull();
-        assertThat(result.currentUserPoints()).isNull();
-        assertThat(result.topEntries()).isEmpty();
+        service.getCourseLeaderboardForUser("CS-101", null, 0, 10, "u-123");
+
+        verify(courseService, times(1)).findByCourseId("CS-101");
+        verify(enrollmentService).findLeaderboardForUser(eq(course.getUuid()), isNull(), eq(userUuid), any());
     }
 
     @Test
     void getGroupLeaderboard_groupNotFound_throws() {
-        when(courseService.getCourseUuidByExternalId("CS-101")).thenReturn(UUID.randomUUID());
+        when(courseService.findByCourseId("CS-101")).thenReturn(Course.builder().uuid(UUID.randomUUID()).build());
         when(groupService.getGroupUuidByExternalIdAndCourseId("G-missing", "CS-101"))
                 .thenThrow(new RuntimeException("group not found"));
 
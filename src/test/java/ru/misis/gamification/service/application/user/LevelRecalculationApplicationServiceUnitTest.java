@@ -0,0 +1,188 @@
+package ru.misis.gamification.service.application.user;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.misis.gamification.entity.LevelRecalculationJob;
+import ru.misis.gamification.mapper.LevelRecalculationJobMapper;
+import ru.misis.gamification.model.UserPointsView;
+import ru.misis.gamification.service.application.awarding.AwardLaneExecutor;
+import ru.misis.gamification.service.simple.progress.LevelCalculatorService;
+import ru.misis.gamification.service.simple.progress.LevelRecalculationJobService;
+import ru.misis.gamification.service.simple.user.UserService;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LevelRecalculationApplicationServiceUnitTest {
+
+    @Mock
+    private LevelRecalculationJobService jobService;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private LevelCalculatorService levelCalculatorService;
+
+    @Mock
+    private AwardLaneExecutor awardLaneExecutor;
+
+    @Mock
+    private LevelRecalculationJobMapper jobMapper;
+
+    private LevelRecalculationApplicationServiceImpl service;
+
+    private final UUID jobUuid = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        service = new LevelRecalculationApplicationServiceImpl(jobService, userService, levelCalculatorService,
+                awardLaneExecutor, jobMapper, new SimpleMeterRegistry(), 2, 2, 0, 100, 1, 120000, 100000);
+        lenient().when(levelCalculatorService.getCurveSignature()).thenReturn("TRIANGULAR(base=500)");
+        // Уровень = очки / 100 + 1
+        lenient().when(levelCalculatorService.calculateLevels(any())).thenAnswer(invocation ->
+                Arrays.stream(invocation.<int[]>getArgument(0)).map(points -> points / 100 + 1).toArray());
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void run_writesOnlyChangedLevelsAndCompletes() {
+        UserPointsView same = view(150, 2);
+        UserPointsView changed = view(350, 2);
+        UserPointsView last = view(0, 1);
+        when(userService.findPointsAfter(LevelRecalculationApplicationServiceImpl.FIRST_USER, 4))
+                .thenReturn(List.of(same, changed, last));
+        when(userService.updateLevelsIfPointsUnchanged(any(), any(), any())).thenReturn(1);
+        when(jobService.checkpoint(jobUuid, last.getUuid(), 3, 1)).thenReturn(true);
+
+        service.run(jobUuid, null);
+
+        ArgumentCaptor<UUID[]> uuids = ArgumentCaptor.forClass(UUID[].class);
+        ArgumentCaptor<int[]> points = ArgumentCaptor.forClass(int[].class);
+        ArgumentCaptor<int[]> levels = ArgumentCaptor.forClass(int[].class);
+        verify(userService).updateLevelsIfPointsUnchanged(uuids.capture(), points.capture(), levels.capture());
+        assertThat(uuids.getValue()).containsExactly(changed.getUuid());
+        assertThat(points.getValue()).containsExactly(350);
+        assertThat(levels.getValue()).containsExactly(4);
+        verify(jobService).complete(jobUuid);
+    }
+
+    @Test
+    void run_resumesFromCheckpoint() {
+        UUID after = UUID.randomUUID();
+        when(userService.findPointsAfter(after, 4)).thenReturn(List.of());
+
+        service.run(jobUuid, after);
+
+        verify(userService).findPointsAfter(after, 4);
+        verify(jobService).complete(jobUuid);
+    }
+
+    @Test
+    void run_cancelled_stopsAfterCurrentPage() {
+        List<UserPointsView> page = List.of(view(0, 1), view(0, 1), view(0, 1), view(0, 1));
+        when(userService.findPointsAfter(LevelRecalculationApplicationServiceImpl.FIRST_USER, 4)).thenReturn(page);
+        when(jobService.checkpoint(eq(jobUuid), any(), anyLong(), anyLong())).thenReturn(false);
+
+        service.run(jobUuid, null);
+
+        verify(userService, times(1)).findPointsAfter(any(), anyInt());
+        verify(userService, never()).updateLevelsIfPointsUnchanged(any(), any(), any());
+        verify(jobService, never()).complete(any());
+    }
+
+    @Test
+    void run_awardBacklog_waitsWithHeartbeat() {
+        when(awardLaneExecutor.queuedTasks()).thenReturn(500, 500, 0);
+        when(jobService.heartbeat(jobUuid)).thenReturn(true);
+        when(userService.findPointsAfter(any(), anyInt())).thenReturn(List.of());
+
+        service.run(jobUuid, null);
+
+        verify(jobService).heartbeat(jobUuid);
+        verify(jobService).complete(jobUuid);
+    }
+
+    @Test
+    void run_error_marksFailed() {
+        when(userService.findPointsAfter(any(), anyInt())).thenThrow(new IllegalStateException("db down"));
+
+        service.run(jobUuid, null);
+
+        verify(jobService).fail(jobUuid, "db down");
+        verify(jobService, never()).complete(any());
+    }
+
+    @Test
+    void start_alreadyRunning_doesNotCreateJob() {
+        LevelRecalculationJob running = LevelRecalculationJob.builder().uuid(jobUuid).formula("TRIANGULAR(base=500)").build();
+        when(jobService.findRunning()).thenReturn(Optional.of(running));
+        when(jobService.getById(jobUuid)).thenReturn(running);
+
+        service.start();
+
+        verify(jobService, never()).create(anyString(), anyLong());
+        verify(jobMapper).toDto(running);
+    }
+
+    @Test
+    void resumeStale_formulaChanged_restartsFromFirstUser() {
+        LevelRecalculationJob stale = LevelRecalculationJob.builder()
+                .uuid(jobUuid).formula("QUADRATIC(base=100)").lastUserUuid(UUID.randomUUID()).processed(50L).build();
+        when(jobService.findStale(Duration.ofMillis(120000))).thenReturn(List.of(stale));
+        when(jobService.claim(jobUuid, Duration.ofMillis(120000))).thenReturn(true);
+
+        service.resumeStale();
+
+        verify(jobService).restart(jobUuid, "TRIANGULAR(base=500)");
+        verify(userService, timeout(1000)).findPointsAfter(LevelRecalculationApplicationServiceImpl.FIRST_USER, 4);
+        verify(jobService, timeout(1000)).complete(jobUuid);
+    }
+
+    private static UserPointsView view(int totalPoints, int level) {
+        UUID uuid = UUID.randomUUID();
+        return new UserPointsView() {
+            @Override
+            public UUID getUuid() {
+                return uuid;
+            }
+
+            @Override
+            public Integer getTotalPoints() {
+                return totalPoints;
+            }
+
+            @Override
+            public Integer getLevel() {
+                return level;
+            }
+        };
+    }
+}
@@ -1,5 +1,7 @@
 package ru.misis.gamification.service.application.user;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -9,9 +11,13 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
 import ru.misis.gamification.entity.User;
 import ru.misis.gamification.model.UserAdminView;
 import ru.misis.gamification.model.UserProgressView;
+import ru.misis.gamification.service.application.context.RequestLookupContextImpl;
+import ru.misis.gamification.service.simple.course.CourseService;
+import ru.misis.gamification.service.simple.group.GroupService;
 import ru.misis.gamification.service.simple.user.UserService;
 
 import java.time.LocalDateTime;
@@ -31,12 +37,24 @@ class UserAdminApplicationServiceUnitTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private CourseService courseService;
+
+    @Mock
+    private GroupService groupService;
+
     @Mock
     private UserProgressApplicationService progressApplicationService;
 
     @InjectMocks
     private UserAdminApplicationServiceImpl service;
 
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "lookupContext",
+                new RequestLookupContextImpl(userService, courseService, groupService, new SimpleMeterRegistry(), true));
+    }
+
     @Test
     void findByUserId_returnsMappedView() {
         String userId = "user-123";
@@ -59,7 +77,7 @@ class UserAdminApplicationServiceUnitTest {
         );
 
         when(userService.getUserByExternalId(userId)).thenReturn(user);
-        when(progressApplicationService.getProgress(userId)).thenReturn(progress);
+        when(progressApplicationService.getProgress(user)).thenReturn(progress);
 
         UserAdminView result = service.findByUserId(userId);
 
@@ -73,7 +91,7 @@ class UserAdminApplicationServiceUnitTest {
         assertThat(result.updatedAt()).isEqualTo(user.getUpdatedAt());
 
         verify(userService).getUserByExternalId(userId);
-        verify(progressApplicationService).getProgress(userId);
+        verify(progressApplicationService).getProgress(user);
     }
 
     @Test
@@ -92,8 +110,7 @@ class UserAdminApplicationServiceUnitTest {
         UserProgressView p2 = new UserProgressView("u2", 2000, 10, 150L, 90.0);
 
         when(userService.findAll("MATH-101", "GROUP-A", pageable)).thenReturn(userPage);
-        when(progressApplicationService.getProgress("u1")).thenReturn(p1);
-        when(progressApplicationService.getProgress("u2")).thenReturn(p2);
+        when(progressApplicationService.getProgress(List.of(user1, user2))).thenReturn(List.of(p1, p2));
 
         Page<UserAdminView> result = service.findAll("MATH-101", "GROUP-A", pageable);
 
@@ -103,21 +120,20 @@ class UserAdminApplicationServiceUnitTest {
         assertThat(result.getSize()).isEqualTo(10);
 
         verify(userService).findAll("MATH-101", "GROUP-A", pageable);
-        verify(progressApplicationService).getProgress("u1");
-        verify(progressApplicationService).getProgress("u2");
+        assertThat(result.getContent().get(1).pointsToNextLevel()).isEqualTo(150L);
+        verify(progressApplicationService).getProgress(List.of(user1, user2));
     }
 
     @Test
     void findAll_withoutFilters_mapsPageCorrectly() {
         Pageable pageable = PageRequest.of(0, 10);
-        Page<User> userPage = new PageImpl<>(List.of(
-                User.builder().uuid(UUID.randomUUID()).userId("u1").totalPoints(1000).level(5).build()
-        ));
+        User user1 = User.builder().uuid(UUID.randomUUID()).userId("u1").totalPoints(1000).level(5).build();
+        Page<User> userPage = new PageImpl<>(List.of(user1));
 
         UserProgressView progress = new UserProgressView("u1", 1000, 5, 300L, 60.0);
 
         when(userService.findAll(null, null, pageable)).thenReturn(userPage);
-        when(progressApplicationService.getProgress("u1")).thenReturn(progress);
+        when(progressApplicationService.getProgress(List.of(user1))).thenReturn(List.of(progress));
 
         Page<UserAdminView> result = service.findAll(null, null, pageable);
 
@@ -1,22 +1,29 @@
 package ru.misis.gamification.service.application.user;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 import ru.misis.gamification.entity.User;
 import ru.misis.gamification.model.UserProgressView;
+import ru.misis.gamification.service.application.context.RequestLookupContextImpl;
+import ru.misis.gamification.service.simple.course.CourseService;
+import ru.misis.gamification.service.simple.group.GroupService;
 import ru.misis.gamification.service.simple.progress.LevelCalculatorService;
 import ru.misis.gamification.service.simple.user.UserService;
 
 import java.lang.reflect.Field;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
@@ -27,6 +34,12 @@ class UserProgressApplicationServiceUnitTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private CourseService courseService;
+
+    @Mock
+    private GroupService groupService;
+
     @Mock
     private LevelCalculatorService levelCalculator;
 
@@ -47,6 +60,9 @@ class UserProgressApplicationServiceUnitTest {
         Field maxProgressField = UserProgressApplicationServiceImpl.class.getDeclaredField("maxProgress");
         maxProgressField.setAccessible(true);
         maxProgressField.set(service, 100.0);
+
+        ReflectionTestUtils.setField(service, "lookupContext",
+                new RequestLookupContextImpl(userService, courseService, groupService, new SimpleMeterRegistry(), true));
     }
 
     @Test
@@ -148,4 +164,24 @@ class UserProgressApplicationServiceUnitTest {
         verify(userService).getUserByExternalId(userId);
         verifyNoInteractions(levelCalculator);
     }
-}
\ No newline at end of file
+
+    @Test
+    void getProgress_users_computedInOneBulkCall() {
+        User first = User.builder().userId("u1").totalPoints(150).level(2).build();
+        User second = User.builder().userId("u2").totalPoints(null).level(null).build();
+
+        when(levelCalculator.pointsToNextLevels(new int[]{2, 1})).thenReturn(new long[]{300L, 1000L});
+
+        List<UserProgressView> result = service.getProgress(List.of(first, second));
+
+        assertThat(result).hasSize(2);
+        assertThat(result.get(0).userId()).isEqualTo("u1");
+        assertThat(result.get(0).pointsToNextLevel()).isEqualTo(300L);
+        assertThat(result.get(0).progressPercent()).isEqualTo(50.0);
+        assertThat(result.get(1).level()).isEqualTo(1);
+        assertThat(result.get(1).pointsToNextLevel()).isEqualTo(1000L);
+        assertThat(result.get(1).progressPercent()).isZero();
+
+        verify(levelCalculator, never()).pointsToNextLevel(anyInt());
+    }
+}
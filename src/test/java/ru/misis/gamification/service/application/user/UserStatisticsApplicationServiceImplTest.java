@@ -1,5 +1,7 @@
 package ru.misis.gamification.service.application.user;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -7,6 +9,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
 import ru.misis.gamification.entity.Course;
 import ru.misis.gamification.entity.Group;
 import ru.misis.gamification.entity.User;
@@ -16,6 +19,7 @@ import ru.misis.gamification.exception.UserNotEnrolledInCourseException;
 import ru.misis.gamification.model.UserCoursesView;
 import ru.misis.gamification.model.UserProgressView;
 import ru.misis.gamification.model.UserStatisticsView;
+import ru.misis.gamification.service.application.context.RequestLookupContextImpl;
 import ru.misis.gamification.service.simple.course.CourseService;
 import ru.misis.gamification.service.simple.enrollment.EnrollmentService;
 import ru.misis.gamification.service.simple.group.GroupService;
@@ -47,6 +51,12 @@ class UserStatisticsApplicationServiceImplTest {
     @InjectMocks
     private UserStatisticsApplicationServiceImpl service;
 
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "lookupContext",
+                new RequestLookupContextImpl(userService, courseService, groupService, new SimpleMeterRegistry(), true));
+    }
+
     @Test
     void getUserStatistics_withGroup() {
         String userId = "u1";
@@ -69,7 +79,7 @@ class UserStatisticsApplicationServiceImplTest {
         when(enrollmentService.findByUserAndCourse(user, course)).thenReturn(enrollment);
         when(enrollmentService.getRankByPointsInCourse(courseUuid, null, userUuid)).thenReturn(10L);
         when(enrollmentService.getRankByPointsInCourse(courseUuid, groupUuid, userUuid)).thenReturn(2L);
-        when(progressApplicationService.getProgress(userId)).thenReturn(progress);
+        when(progressApplicationService.getProgress(user)).thenReturn(progress);
 
         UserStatisticsView result = service.getUserStatistics(userId, courseId, groupId);
 
@@ -97,7 +107,7 @@ class UserStatisticsApplicationServiceImplTest {
         when(enrollmentService.isUserEnrolledInCourse(user, course)).thenReturn(true);
         when(enrollmentService.findByUserAndCourse(user, course)).thenReturn(enrollment);
         when(enrollmentService.getRankByPointsInCourse(courseUuid, null, userUuid)).thenReturn(1L);
-        when(progressApplicationService.getProgress(userId)).thenReturn(progress);
+        when(progressApplicationService.getProgress(user)).thenReturn(progress);
 
         UserStatisticsView result = service.getUserStatistics(userId, courseId, null);
 
@@ -164,7 +174,7 @@ class UserStatisticsApplicationServiceImplTest {
         UserProgressView progress = new UserProgressView(userId, 100, 2, 10L, 60.0);
 
         when(userService.getUserByExternalId(userId)).thenReturn(user);
-        when(progressApplicationService.getProgress(userId)).thenReturn(progress);
+        when(progressApplicationService.getProgress(user)).thenReturn(progress);
         when(enrollmentService.findAllByUser(user)).thenReturn(List.of(e1, e2));
 
         when(courseService.findById(courseUuid)).thenReturn(course);
@@ -185,7 +195,7 @@ class UserStatisticsApplicationServiceImplTest {
         UserProgressView progress = new UserProgressView(userId, 0, 0, 0L, 0.0);
 
         when(userService.getUserByExternalId(userId)).thenReturn(user);
-        when(progressApplicationService.getProgress(userId)).thenReturn(progress);
+        when(progressApplicationService.getProgress(user)).thenReturn(progress);
         when(enrollmentService.findAllByUser(user)).thenReturn(List.of());
 
         UserCoursesView result = service.getUserCourses(userId);
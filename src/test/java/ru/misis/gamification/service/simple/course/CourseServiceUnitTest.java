@@ -30,24 +30,24 @@ class CourseServiceUnitTest {
     void existsByCourseId_existingCourse_returnsTrue() {
         String courseId = "MATH-101";
 
-        when(courseRepository.existsByCourseId(courseId)).thenReturn(true);
+        when(courseRepository.findByNaturalId(courseId)).thenReturn(Optional.of(Course.builder().courseId(courseId).build()));
 
         boolean result = courseService.existsByCourseId(courseId);
 
         assertThat(result).isTrue();
-        verify(courseRepository).existsByCourseId(courseId);
+        verify(courseRepository).findByNaturalId(courseId);
     }
 
     @Test
     void existsByCourseId_nonExistingCourse_returnsFalse() {
         String courseId = "PHYS-999";
 
-        when(courseRepository.existsByCourseId(courseId)).thenReturn(false);
+        when(courseRepository.findByNaturalId(courseId)).thenReturn(Optional.empty());
 
         boolean result = courseService.existsByCourseId(courseId);
 
         assertThat(result).isFalse();
-        verify(courseRepository).existsByCourseId(courseId);
+        verify(courseRepository).findByNaturalId(courseId);
     }
 
     @Test
@@ -55,25 +55,26 @@ class CourseServiceUnitTest {
         String courseId = "MATH-101";
         UUID expectedUuid = UUID.randomUUID();
 
-        when(courseRepository.findUuidByCourseId(courseId)).thenReturn(Optional.of(expectedUuid));
+        when(courseRepository.findByNaturalId(courseId))
+                .thenReturn(Optional.of(Course.builder().uuid(expectedUuid).courseId(courseId).build()));
 
         UUID result = courseService.getCourseUuidByExternalId(courseId);
 
         assertThat(result).isEqualTo(expectedUuid);
-        verify(courseRepository).findUuidByCourseId(courseId);
+        verify(courseRepository).findByNaturalId(courseId);
     }
 
     @Test
     void getCourseUuidByExternalId_nonExistingCourse_throwsCourseNotFoundException() {
         String courseId = "UNKNOWN-999";
 
-        when(courseRepository.findUuidByCourseId(courseId)).thenReturn(Optional.empty());
+        when(courseRepository.findByNaturalId(courseId)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> courseService.getCourseUuidByExternalId(courseId))
                 .isInstanceOf(CourseNotFoundException.class)
                 .hasMessageContaining(courseId);
 
-        verify(courseRepository).findUuidByCourseId(courseId);
+        verify(courseRepository).findByNaturalId(courseId);
     }
 
     @Test
@@ -81,26 +82,26 @@ class CourseServiceUnitTest {
         String courseId = "MATH-101";
         Course expectedCourse = Course.builder().courseId(courseId).displayName("Математика").build();
 
-        when(courseRepository.findByCourseId(courseId)).thenReturn(Optional.of(expectedCourse));
+        when(courseRepository.findByNaturalId(courseId)).thenReturn(Optional.of(expectedCourse));
 
         Course result = courseService.findByCourseId(courseId);
 
         assertThat(result.getCourseId()).isEqualTo(courseId);
         assertThat(result.getDisplayName()).isEqualTo("Математика");
-        verify(courseRepository).findByCourseId(courseId);
+        verify(courseRepository).findByNaturalId(courseId);
     }
 
     @Test
     void findByCourseId_nonExistingCourse_throwsCourseNotFoundException() {
         String courseId = "UNKNOWN-999";
 
-        when(courseRepository.findByCourseId(courseId)).thenReturn(Optional.empty());
+        when(courseRepository.findByNaturalId(courseId)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> courseService.findByCourseId(courseId))
                 .isInstanceOf(CourseNotFoundException.class)
                 .hasMessageContaining(courseId);
 
-        verify(courseRepository).findByCourseId(courseId);
+        verify(courseRepository).findByNaturalId(courseId);
     }
 
     @Test
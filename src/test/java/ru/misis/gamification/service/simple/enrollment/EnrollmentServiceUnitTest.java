@@ -5,23 +5,42 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import ru.misis.gamification.entity.Course;
 import ru.misis.gamification.entity.User;
 import ru.misis.gamification.entity.UserCourseEnrollment;
 import ru.misis.gamification.exception.UserCourseEnrollmentNotFoundException;
+import ru.misis.gamification.model.CoursePositionView;
+import ru.misis.gamification.model.LeaderboardCursor;
 import ru.misis.gamification.model.LeaderboardEntryView;
+import ru.misis.gamification.model.LeaderboardPositionView;
+import ru.misis.gamification.model.LeaderboardRankRowView;
+import ru.misis.gamification.model.LeaderboardRowView;
+import ru.misis.gamification.model.PersonalLeaderboardRowView;
+import ru.misis.gamification.model.PersonalLeaderboardView;
 import ru.misis.gamification.repository.UserCourseEnrollmentRepository;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -31,6 +50,15 @@ class EnrollmentServiceUnitTest {
     @Mock
     private UserCourseEnrollmentRepository repository;
 
+    @Mock
+    private LeaderboardIndex leaderboardIndex;
+
+    @Mock
+    private LeaderboardSnapshot leaderboardSnapshot;
+
+    @Mock
+    private PointsHistogram pointsHistogram;
+
     @InjectMocks
     private EnrollmentServiceImpl service;
 
@@ -122,10 +150,273 @@ class EnrollmentServiceUnitTest {
         verify(repository).findRankByPointsInCourse(courseUuid, groupUuid, userUuid);
     }
 
+    @Test
+    void getRankByPointsInCourse_indexReady_skipsRepository() {
+        UUID courseUuid = UUID.randomUUID();
+        UUID userUuid = UUID.randomUUID();
+
+        when(leaderboardIndex.findRank(courseUuid, null, userUuid)).thenReturn(Optional.of(3L));
+
+        assertThat(service.getRankByPointsInCourse(courseUuid, null, userUuid)).isEqualTo(3L);
+        verify(repository, never()).findRankByPointsInCourse(any(), any(), any());
+    }
+
+    @Test
+    void getRankByPointsInCourse_freshSnapshot_skipsRepository() {
+        UUID courseUuid = UUID.randomUUID();
+        UUID groupUuid = UUID.randomUUID();
+        UUID userUuid = UUID.randomUUID();
+
+        when(leaderboardIndex.findRank(courseUuid, groupUuid, userUuid)).thenReturn(Optional.empty());
+        when(leaderboardSnapshot.findRank(courseUuid, groupUuid, userUuid)).thenReturn(Optional.of(5L));
+
+        assertThat(service.getRankByPointsInCourse(courseUuid, groupUuid, userUuid)).isEqualTo(5L);
+        verify(repository, never()).findRankByPointsInCourse(any(), any(), any());
+    }
+
+    @Test
+    void findRanksByUsers_indexReady_loadsUsersAndSortsByRank() {
+        UUID courseUuid = UUID.randomUUID();
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        when(leaderboardIndex.findRanks(courseUuid, null, List.of(first, second)))
+                .thenReturn(Optional.of(Map.of(first, 1L, second, 4L)));
+        when(repository.findLeaderboardEntriesByUsers(eq(courseUuid), anyCollection())).thenReturn(List.of(
+                new LeaderboardEntryView(second, "second", 100, 2, 0L),
+                new LeaderboardEntryView(first, "first", 900, 5, 0L)));
+
+        List<LeaderboardEntryView> ranks = service.findRanksByUsers(courseUuid, null, List.of(first, second));
+
+        assertThat(ranks).extracting(LeaderboardEntryView::getUserId, LeaderboardEntryView::getRank)
+                .containsExactly(tuple("first", 1L), tuple("second", 4L));
+        verify(repository, never()).findRanksByUsers(any(), any(), any());
+    }
+
+    @Test
+    void findRanksByUsers_indexNotReady_usesSingleRankedQuery() {
+        UUID courseUuid = UUID.randomUUID();
+        UUID groupUuid = UUID.randomUUID();
+        UUID userUuid = UUID.randomUUID();
+        LeaderboardRankRowView row = mock(LeaderboardRankRowView.class);
+        when(row.getUserUuid()).thenReturn(userUuid);
+        when(row.getUserId()).thenReturn("u1");
+        when(row.getPointsInCourse()).thenReturn(300);
+        when(row.getGlobalLevel()).thenReturn(3);
+        when(row.getRank()).thenReturn(7L);
+        when(leaderboardIndex.findRanks(courseUuid, groupUuid, List.of(userUuid))).thenReturn(Optional.empty());
+        when(repository.findRanksByUsers(courseUuid, groupUuid, new UUID[]{userUuid})).thenReturn(List.of(row));
+
+        List<LeaderboardEntryView> ranks = service.findRanksByUsers(courseUuid, groupUuid, List.of(userUuid));
+
+        assertThat(ranks).extracting(LeaderboardEntryView::getUserId, LeaderboardEntryView::getPointsInCourse,
+                LeaderboardEntryView::getRank).containsExactly(tuple("u1", 300, 7L));
+        verify(repository, never()).findLeaderboardEntriesByUsers(any(), any());
+    }
+
+    @Test
+    void findLeaderboardByCourseAndGroup_freshSnapshot_skipsLiveQuery() {
+        UUID courseUuid = UUID.randomUUID();
+        Pageable pageable = PageRequest.of(3, 10);
+        Page<LeaderboardEntryView> snapshotPage = new PageImpl<>(
+                List.of(new LeaderboardEntryView(UUID.randomUUID(), "u31", 120, 2, 31L)), pageable, 31);
+
+        when(leaderboardIndex.findPage(courseUuid, null, pageable)).thenReturn(Optional.empty());
+        when(leaderboardSnapshot.findPage(courseUuid, null, pageable)).thenReturn(Optional.of(snapshotPage));
+
+        assertThat(service.findLeaderboardByCourseAndGroup(courseUuid, null, pageable)).isSameAs(snapshotPage);
+        verify(repository, never()).findLeaderboardByCourseAndGroup(any(), any(), any());
+    }
+
+    @Test
+    void findLeaderboardByCourseAndGroup_indexReady_loadsOnlyPageRowsInIndexOrder() {
+        UUID courseUuid = UUID.randomUUID();
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        Pageable pageable = PageRequest.of(1, 2);
+
+        Page<LeaderboardPositionView> positions = new PageImpl<>(
+                List.of(new LeaderboardPositionView(first, 300), new LeaderboardPositionView(second, 200)), pageable, 10);
+        when(leaderboardIndex.findPage(courseUuid, null, pageable)).thenReturn(Optional.of(positions));
+        when(repository.findLeaderboardEntriesByUsers(courseUuid, List.of(first, second))).thenReturn(List.of(
+                new LeaderboardEntryView(second, "user-2", 200, 2, 0L),
+                new LeaderboardEntryView(first, "user-1", 300, 3, 0L)));
+
+        Page<LeaderboardEntryView> result = service.findLeaderboardByCourseAndGroup(courseUuid, null, pageable);
+
+        assertThat(result.getTotalElements()).isEqualTo(10);
+        assertThat(result.getContent()).extracting(LeaderboardEntryView::getUserId).containsExactly("user-1", "user-2");
+        assertThat(result.getContent()).extracting(LeaderboardEntryView::getRank).containsExactly(3L, 4L);
+        verify(repository, never()).findLeaderboardByCourseAndGroup(any(), any(), any());
+    }
+
+    @Test
+    void findLeaderboardForUser_indexReady_loadsPageAndUserRowsTogether() {
+        UUID courseUuid = UUID.randomUUID();
+        UUID first = UUID.randomUUID();
+        UUID userUuid = UUID.randomUUID();
+        Pageable pageable = PageRequest.of(0, 1);
+
+        Page<LeaderboardPositionView> positions = new PageImpl<>(
+                List.of(new LeaderboardPositionView(first, 300)), pageable, 8);
+        when(leaderboardIndex.findPage(courseUuid, null, pageable)).thenReturn(Optional.of(positions));
+        when(leaderboardIndex.findRank(courseUuid, null, userUuid)).thenReturn(Optional.of(5L));
+        when(repository.findLeaderboardEntriesByUsers(courseUuid, List.of(first, userUuid))).thenReturn(List.of(
+                new LeaderboardEntryView(userUuid, "me", 90, 2, 0L),
+                new LeaderboardEntryView(first, "leader", 300, 4, 0L)));
+
+        PersonalLeaderboardView result = service.findLeaderboardForUser(courseUuid, null, userUuid, pageable);
+
+        assertThat(result.page().getTotalElements()).isEqualTo(8);
+        assertThat(result.page().getContent()).extracting(LeaderboardEntryView::getUserId, LeaderboardEntryView::getRank)
+                .containsExactly(tuple("leader", 1L));
+        assertThat(result.currentUserEntry()).extracting(LeaderboardEntryView::getUserId,
+                        LeaderboardEntryView::getPointsInCourse, LeaderboardEntryView::getRank,
+                        LeaderboardEntryView::getIsCurrentUser)
+                .containsExactly("me", 90, 5L, true);
+        verify(repository, never()).findLeaderboardForUser(any(), any(), any(), anyLong(), anyInt());
+    }
+
+    @Test
+    void findLeaderboardForUser_indexNotReady_splitsSingleQueryRows() {
+        UUID courseUuid = UUID.randomUUID();
+        UUID userUuid = UUID.randomUUID();
+        Pageable pageable = PageRequest.of(1, 2);
+        PersonalLeaderboardRowView third = personalRow(UUID.randomUUID(), "third", 500, 3L, 3L);
+        PersonalLeaderboardRowView fourth = personalRow(UUID.randomUUID(), "fourth", 400, 4L, 4L);
+        PersonalLeaderboardRowView me = personalRow(userUuid, "me", 100, 6L, 9L);
+
+        when(leaderboardIndex.findPage(courseUuid, null, pageable)).thenReturn(Optional.empty());
+        when(repository.findLeaderboardForUser(courseUuid, null, userUuid, 2L, 2))
+                .thenReturn(List.of(third, fourth, me));
+
+        PersonalLeaderboardView result = service.findLeaderboardForUser(courseUuid, null, userUuid, pageable);
+
+        assertThat(result.page().getTotalElements()).isEqualTo(12);
+        assertThat(result.page().getContent()).extracting(LeaderboardEntryView::getUserId, LeaderboardEntryView::getRank)
+                .containsExactly(tuple("third", 3L), tuple("fourth", 4L));
+        assertThat(result.currentUserEntry().getRank()).isEqualTo(6L);
+        assertThat(result.currentUserEntry().getIsCurrentUser()).isTrue();
+        verify(repository, never()).findLeaderboardByCourseAndGroup(any(), any(), any());
+    }
+
+    @Test
+    void findLeaderboardAfter_extraRow_setsHasNextAndContinuesRanks() {
+        UUID courseUuid = UUID.randomUUID();
+        UUID groupUuid = UUID.randomUUID();
+        LeaderboardCursor cursor = new LeaderboardCursor(500, UUID.randomUUID(), 20L);
+        when(repository.findGroupLeaderboardAfter(courseUuid, groupUuid, 500, cursor.userUuid(), Limit.of(3)))
+                .thenReturn(List.of(
+                        new LeaderboardEntryView(UUID.randomUUID(), "u1", 450, 3, 0L),
+                        new LeaderboardEntryView(UUID.randomUUID(), "u2", 400, 3, 0L),
+                        new LeaderboardEntryView(UUID.randomUUID(), "u3", 350, 2, 0L)));
+
+        Slice<LeaderboardEntryView> result = service.findLeaderboardAfter(courseUuid, groupUuid, cursor, 2);
+
+        assertThat(result.getContent()).extracting(LeaderboardEntryView::getUserId).containsExactly("u1", "u2");
+        assertThat(result.getContent()).extracting(LeaderboardEntryView::getRank).containsExactly(21L, 22L);
+        assertThat(result.hasNext()).isTrue();
+    }
+
+    @Test
+    void findLeaderboardAfter_courseLastPage_hasNoNext() {
+        UUID courseUuid = UUID.randomUUID();
+        when(repository.findLeaderboardAfter(courseUuid, Integer.MAX_VALUE, LeaderboardCursor.FIRST.userUuid(), Limit.of(11)))
+                .thenReturn(List.of(new LeaderboardEntryView(UUID.randomUUID(), "u1", 450, 3, 0L)));
+
+        Slice<LeaderboardEntryView> result = service.findLeaderboardAfter(courseUuid, null, LeaderboardCursor.FIRST, 10);
+
+        assertThat(result.getContent()).extracting(LeaderboardEntryView::getRank).containsExactly(1L);
+        assertThat(result.hasNext()).isFalse();
+    }
+
+    @Test
+    void findLeaderboardAround_database_assignsDenseRanksFromUserRank() {
+        UUID courseUuid = UUID.randomUUID();
+        UUID userUuid = UUID.randomUUID();
+        when(leaderboardIndex.findWindow(courseUuid, null, userUuid, 2)).thenReturn(Optional.empty());
+        when(repository.findLeaderboardAround(courseUuid, userUuid, 2)).thenReturn(List.of(
+                row(UUID.randomUUID(), "u1", 500),
+                row(UUID.randomUUID(), "u2", 400),
+                row(userUuid, "me", 400),
+                row(UUID.randomUUID(), "u4", 300),
+                row(UUID.randomUUID(), "u5", 100)));
+        when(leaderboardIndex.findRank(courseUuid, null, userUuid)).thenReturn(Optional.empty());
+        when(repository.findRankByPointsInCourse(courseUuid, null, userUuid)).thenReturn(7L);
+
+        List<LeaderboardEntryView> result = service.findLeaderboardAround(courseUuid, null, userUuid, 2);
+
+        assertThat(result).extracting(LeaderboardEntryView::getUserId).containsExactly("u1", "u2", "me", "u4", "u5");
+        assertThat(result).extracting(LeaderboardEntryView::getRank).containsExactly(6L, 7L, 7L, 8L, 9L);
+    }
+
+    @Test
+    void findLeaderboardAround_indexReady_loadsWindowRowsInIndexOrder() {
+        UUID courseUuid = UUID.randomUUID();
+        UUID groupUuid = UUID.randomUUID();
+        UUID userUuid = UUID.randomUUID();
+        UUID above = UUID.randomUUID();
+        when(leaderboardIndex.findWindow(courseUuid, groupUuid, userUuid, 1)).thenReturn(Optional.of(List.of(
+                new LeaderboardPositionView(above, 300), new LeaderboardPositionView(userUuid, 200))));
+        when(repository.findLeaderboardEntriesByUsers(courseUuid, List.of(above, userUuid))).thenReturn(List.of(
+                new LeaderboardEntryView(userUuid, "me", 200, 2, 0L),
+                new LeaderboardEntryView(above, "u1", 300, 3, 0L)));
+        when(leaderboardIndex.findRank(courseUuid, groupUuid, userUuid)).thenReturn(Optional.of(2L));
+
+        List<LeaderboardEntryView> result = service.findLeaderboardAround(courseUuid, groupUuid, userUuid, 1);
+
+        assertThat(result).extracting(LeaderboardEntryView::getUserId).containsExactly("u1", "me");
+        assertThat(result).extracting(LeaderboardEntryView::getRank).containsExactly(1L, 2L);
+        verify(repository, never()).findGroupLeaderboardAround(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void findLeaderboardAround_notEnrolled_returnsEmpty() {
+        UUID courseUuid = UUID.randomUUID();
+        UUID userUuid = UUID.randomUUID();
+        when(leaderboardIndex.findWindow(courseUuid, null, userUuid, 3)).thenReturn(Optional.empty());
+        when(repository.findLeaderboardAround(courseUuid, userUuid, 3)).thenReturn(List.of());
+
+        assertThat(service.findLeaderboardAround(courseUuid, null, userUuid, 3)).isEmpty();
+        verify(repository, never()).findRankByPointsInCourse(any(), any(), any());
+    }
+
+    @Test
+    void addPointsInCourse_recordsNewTotalInIndex() {
+        UUID courseUuid = UUID.randomUUID();
+        UUID userUuid = UUID.randomUUID();
+
+        when(repository.addPointsInCourse(userUuid, courseUuid, 50)).thenReturn(Optional.of(150));
+
+        assertThat(service.addPointsInCourse(userUuid, courseUuid, 50)).contains(150);
+        verify(leaderboardIndex).recordPoints(courseUuid, userUuid, 150);
+        verify(pointsHistogram).recordPoints(courseUuid, 50, 150);
+    }
+
+    @Test
+    void getPositionInCourse_histogramEstimate_skipsDatabase() {
+        UUID courseUuid = UUID.randomUUID();
+        when(pointsHistogram.estimate(courseUuid, 800)).thenReturn(Optional.of(new CoursePositionView(3120, 104000, true)));
+
+        assertThat(service.getPositionInCourse(courseUuid, 800)).isEqualTo(new CoursePositionView(3120, 104000, true));
+        verify(repository, never()).countByCourseUuidAndPointsAbove(any(), anyInt());
+    }
+
+    @Test
+    void getPositionInCourse_noEstimate_countsInDatabase() {
+        UUID courseUuid = UUID.randomUUID();
+        when(pointsHistogram.estimate(courseUuid, 800)).thenReturn(Optional.empty());
+        when(repository.countByCourseUuidAndPointsAbove(courseUuid, 800)).thenReturn(4L);
+        when(repository.countByCourseUuid(courseUuid)).thenReturn(120L);
+
+        assertThat(service.getPositionInCourse(courseUuid, 800)).isEqualTo(new CoursePositionView(5, 120, false));
+    }
+
     @Test
     void save_callsRepositoryAndReturnsSavedEntity() {
         UserCourseEnrollment enrollment = new UserCourseEnrollment();
-        UserCourseEnrollment saved = new UserCourseEnrollment();
+        User user = User.builder().uuid(UUID.randomUUID()).build();
+        Course course = Course.builder().uuid(UUID.randomUUID()).build();
+        UserCourseEnrollment saved = UserCourseEnrollment.builder().user(user).course(course).totalPointsInCourse(0).build();
 
         when(repository.save(enrollment)).thenReturn(saved);
 
@@ -133,6 +424,7 @@ class EnrollmentServiceUnitTest {
 
         assertThat(result).isSameAs(saved);
         verify(repository).save(enrollment);
+        verify(leaderboardIndex).recordEnrollment(course.getUuid(), null, user.getUuid(), 0);
     }
 
     @Test
@@ -183,4 +475,42 @@ class EnrollmentServiceUnitTest {
         assertThat(result).isEmpty();
         verify(repository).findAllByUser(null);
     }
+
+    private static LeaderboardRowView row(UUID userUuid, String userId, int points) {
+        return new LeaderboardRowView() {
+            @Override
+            public UUID getUserUuid() {
+                return userUuid;
+            }
+
+            @Override
+            public String getUserId() {
+                return userId;
+            }
+
+            @Override
+            public Integer getPointsInCourse() {
+                return points;
+            }
+
+            @Override
+            public Integer getGlobalLevel() {
+                return 1;
+            }
+        };
+    }
+
+    private static PersonalLeaderboardRowView personalRow(UUID userUuid, String userId, int points, long rank,
+                                                          long position) {
+        PersonalLeaderboardRowView row = mock(PersonalLeaderboardRowView.class);
+        when(row.getUserUuid()).thenReturn(userUuid);
+        when(row.getUserId()).thenReturn(userId);
+        when(row.getPointsInCourse()).thenReturn(points);
+        when(row.getGlobalLevel()).thenReturn(1);
+        // Ранг читается только у строки пользователя
+        lenient().when(row.getRank()).thenReturn(rank);
+        when(row.getPosition()).thenReturn(position);
+        when(row.getTotal()).thenReturn(12L);
+        return row;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,253 @@
+package ru.misis.gamification.service.simple.enrollment;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.misis.gamification.model.EnrollmentPointsView;
+import ru.misis.gamification.model.LeaderboardPositionView;
+import ru.misis.gamification.repository.UserCourseEnrollmentRepository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LeaderboardIndexUnitTest {
+
+    @Mock
+    private UserCourseEnrollmentRepository repository;
+
+    private final UUID course = UUID.randomUUID();
+    private final UUID group = UUID.randomUUID();
+    private final UUID alice = UUID.randomUUID();
+    private final UUID bob = UUID.randomUUID();
+    private final UUID carol = UUID.randomUUID();
+    private final UUID david = UUID.randomUUID();
+
+    private LeaderboardIndexImpl index;
+
+    @BeforeEach
+    void setUp() {
+        index = new LeaderboardIndexImpl(repository, new SimpleMeterRegistry(), true, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void findRank_beforeWarmUp_returnsEmpty() {
+        index.recordEnrollment(course, null, alice, 100);
+
+        assertThat(index.findRank(course, null, alice)).isEmpty();
+        assertThat(index.findPage(course, null, PageRequest.of(0, 10))).isEmpty();
+    }
+
+    @Test
+    void findRank_denseRankInCourseAndGroup() {
+        warmUp(enrollment(alice, group, 850), enrollment(bob, group, 620), enrollment(carol, null, 850),
+                enrollment(david, group, 300));
+
+        assertThat(index.findRank(course, null, alice)).contains(1L);
+        assertThat(index.findRank(course, null, carol)).contains(1L);
+        assertThat(index.findRank(course, null, bob)).contains(2L);
+        assertThat(index.findRank(course, null, david)).contains(3L);
+        assertThat(index.findRank(course, group, david)).contains(3L);
+        assertThat(index.findRank(course, group, carol)).isEmpty();
+    }
+
+    @Test
+    void findRanks_returnsRanksOfEnrolledUsersOnly() {
+        warmUp(enrollment(alice, group, 850), enrollment(bob, group, 620), enrollment(carol, null, 850));
+
+        assertThat(index.findRanks(course, null, List.of(alice, bob, carol, david)).orElseThrow())
+                .containsExactlyInAnyOrderEntriesOf(Map.of(alice, 1L, carol, 1L, bob, 2L));
+        assertThat(index.findRanks(course, group, List.of(bob, carol)).orElseThrow())
+                .containsExactlyInAnyOrderEntriesOf(Map.of(bob, 2L));
+        assertThat(index.findRanks(UUID.randomUUID(), null, List.of(alice)).orElseThrow()).isEmpty();
+    }
+
+    @Test
+    void findPage_returnsPositionsByPointsDescending() {
+        warmUp(enrollment(alice, group, 850), enrollment(bob, group, 620), enrollment(carol, null, 900),
+                enrollment(david, group, 300));
+
+        Page<LeaderboardPositionView> page = index.findPage(course, null, PageRequest.of(1, 2)).orElseThrow();
+        Page<LeaderboardPositionView> groupPage = index.findPage(course, group, PageRequest.of(0, 10)).orElseThrow();
+
+        assertThat(page.getTotalElements()).isEqualTo(4);
+        assertThat(page.getContent()).extracting(LeaderboardPositionView::userUuid).containsExactly(bob, david);
+        assertThat(groupPage.getContent()).extracting(LeaderboardPositionView::userUuid).containsExactly(alice, bob, david);
+    }
+
+    @Test
+    void findPage_tiesOrderedByUuidDescendingLikePostgres() {
+        // PostgreSQL сравнивает UUID без знака: 8000... больше 0000..., а UUID.compareTo считает наоборот
+        UUID low = new UUID(0x0000000000000001L, 1L);
+        UUID high = new UUID(0x8000000000000000L, 1L);
+        warmUp(enrollment(low, null, 500), enrollment(high, null, 500), enrollment(alice, null, 600));
+
+        List<LeaderboardPositionView> page = index.findPage(course, null, PageRequest.of(0, 10)).orElseThrow().getContent();
+
+        assertThat(page).extracting(LeaderboardPositionView::userUuid).containsExactly(alice, high, low);
+    }
+
+    @Test
+    void findWindow_returnsNeighboursClippedAtEdges() {
+        warmUp(enrollment(alice, group, 900), enrollment(bob, group, 800), enrollment(carol, null, 700),
+                enrollment(david, group, 600));
+
+        assertThat(index.findWindow(course, null, carol, 1).orElseThrow())
+                .extracting(LeaderboardPositionView::userUuid).containsExactly(bob, carol, david);
+        assertThat(index.findWindow(course, null, alice, 2).orElseThrow())
+                .extracting(LeaderboardPositionView::userUuid).containsExactly(alice, bob, carol);
+        assertThat(index.findWindow(course, group, david, 5).orElseThrow())
+                .extracting(LeaderboardPositionView::userUuid).containsExactly(alice, bob, david);
+        assertThat(index.findWindow(course, group, carol, 1).orElseThrow()).isEmpty();
+    }
+
+    @Test
+    void findWindow_beforeWarmUp_returnsEmpty() {
+        assertThat(index.findWindow(course, null, alice, 3)).isEmpty();
+    }
+
+    @Test
+    void recordPoints_afterCommit_movesUserInCourseAndGroup() {
+        warmUp(enrollment(alice, group, 850), enrollment(bob, group, 620));
+        TransactionSynchronizationManager.initSynchronization();
+
+        index.recordPoints(course, bob, 1000);
+
+        assertThat(index.findRank(course, group, bob)).contains(2L);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertThat(index.findRank(course, group, bob)).contains(1L);
+        assertThat(index.findRank(course, null, alice)).contains(2L);
+    }
+
+    @Test
+    void recordPoints_staleTotal_ignored() {
+        warmUp(enrollment(alice, null, 850), enrollment(bob, null, 620));
+
+        index.recordPoints(course, bob, 900);
+        index.recordPoints(course, bob, 700);
+
+        assertThat(index.findRank(course, null, bob)).contains(1L);
+    }
+
+    @Test
+    void recordEnrollment_newUserAppearsWithZeroPoints() {
+        warmUp(enrollment(alice, group, 850));
+
+        index.recordEnrollment(course, group, bob, 0);
+
+        assertThat(index.findRank(course, group, bob)).contains(2L);
+        assertThat(index.findPage(course, group, PageRequest.of(0, 10)).orElseThrow().getTotalElements()).isEqualTo(2);
+    }
+
+    @Test
+    void recordEnrollment_groupChanged_movesUserToNewGroup() {
+        UUID otherGroup = UUID.randomUUID();
+        warmUp(enrollment(alice, group, 850), enrollment(bob, group, 620), enrollment(carol, otherGroup, 700));
+
+        index.recordEnrollment(course, otherGroup, alice, 850);
+
+        assertThat(index.findRank(course, group, alice)).isEmpty();
+        assertThat(index.findRank(course, group, bob)).contains(1L);
+        assertThat(index.findPage(course, group, PageRequest.of(0, 10)).orElseThrow().getTotalElements()).isEqualTo(1);
+        assertThat(index.findRank(course, otherGroup, alice)).contains(1L);
+        assertThat(index.findRank(course, otherGroup, carol)).contains(2L);
+
+        index.recordPoints(course, alice, 900);
+
+        assertThat(index.findRank(course, otherGroup, alice)).contains(1L);
+        assertThat(index.findRank(course, group, alice)).isEmpty();
+    }
+
+    @Test
+    void recordEnrollment_groupRemoved_removesUserFromGroupOnly() {
+        warmUp(enrollment(alice, group, 850), enrollment(bob, group, 620));
+
+        index.recordEnrollment(course, null, alice, 850);
+
+        assertThat(index.findRank(course, group, alice)).isEmpty();
+        assertThat(index.findRank(course, group, bob)).contains(1L);
+        assertThat(index.findRank(course, null, alice)).contains(1L);
+    }
+
+    @Test
+    void findRank_matchesDenseRankComputedBySorting() {
+        Random random = new Random(42);
+        List<EnrollmentPointsView> enrollments = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            enrollments.add(enrollment(UUID.randomUUID(), null, random.nextInt(50)));
+        }
+        warmUp(enrollments.toArray(EnrollmentPointsView[]::new));
+
+        List<Integer> distinct = enrollments.stream().map(EnrollmentPointsView::getTotalPointsInCourse)
+                .distinct().sorted(Comparator.reverseOrder()).toList();
+        for (EnrollmentPointsView enrollment : enrollments) {
+            long expected = distinct.indexOf(enrollment.getTotalPointsInCourse()) + 1L;
+            assertThat(index.findRank(course, null, enrollment.getUserUuid())).contains(expected);
+        }
+
+        List<LeaderboardPositionView> all = index.findPage(course, null, PageRequest.of(0, 500)).orElseThrow().getContent();
+        assertThat(all).extracting(LeaderboardPositionView::pointsInCourse)
+                .isSortedAccordingTo(Comparator.reverseOrder());
+    }
+
+    private void warmUp(EnrollmentPointsView... enrollments) {
+        when(repository.findPointsAfter(any(), anyInt())).thenReturn(List.of(enrollments));
+        index.warmUp();
+    }
+
+    private EnrollmentPointsView enrollment(UUID userUuid, UUID groupUuid, int points) {
+        UUID uuid = UUID.randomUUID();
+        return new EnrollmentPointsView() {
+            @Override
+            public UUID getUuid() {
+                return uuid;
+            }
+
+            @Override
+            public UUID getUserUuid() {
+                return userUuid;
+            }
+
+            @Override
+            public UUID getCourseUuid() {
+                return course;
+            }
+
+            @Override
+            public UUID getGroupUuid() {
+                return groupUuid;
+            }
+
+            @Override
+            public Integer getTotalPointsInCourse() {
+                return points;
+            }
+        };
+    }
+}
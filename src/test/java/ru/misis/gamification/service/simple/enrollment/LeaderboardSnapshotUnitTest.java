@@ -0,0 +1,126 @@
+package ru.misis.gamification.service.simple.enrollment;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import ru.misis.gamification.model.LeaderboardEntryView;
+import ru.misis.gamification.model.LeaderboardSnapshotRowView;
+import ru.misis.gamification.repository.UserCourseEnrollmentRepository;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LeaderboardSnapshotUnitTest {
+
+    @Mock
+    private UserCourseEnrollmentRepository repository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final UUID course = UUID.randomUUID();
+    private final UUID group = UUID.randomUUID();
+    private final UUID user = UUID.randomUUID();
+
+    @Test
+    void disabled_neverRefreshesOrReads() {
+        LeaderboardSnapshotImpl snapshot = new LeaderboardSnapshotImpl(repository, meterRegistry, false, 30000);
+
+        snapshot.refresh();
+
+        assertThat(snapshot.findRank(course, null, user)).isEmpty();
+        assertThat(snapshot.findPage(course, null, PageRequest.of(0, 10))).isEmpty();
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void findRank_beforeFirstRefresh_returnsEmpty() {
+        LeaderboardSnapshotImpl snapshot = new LeaderboardSnapshotImpl(repository, meterRegistry, true, 30000);
+
+        assertThat(snapshot.findRank(course, null, user)).isEmpty();
+        verify(repository, never()).findSnapshotCourseRank(course, user);
+        assertThat(meterRegistry.get("gamification.leaderboard.snapshot.lookups").tag("result", "stale").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void findRank_afterRefresh_readsCourseOrGroupRank() {
+        LeaderboardSnapshotImpl snapshot = new LeaderboardSnapshotImpl(repository, meterRegistry, true, 30000);
+        when(repository.findSnapshotCourseRank(course, user)).thenReturn(7L);
+        when(repository.findSnapshotGroupRank(course, group, user)).thenReturn(2L);
+
+        snapshot.refresh();
+
+        assertThat(snapshot.findRank(course, null, user)).contains(7L);
+        assertThat(snapshot.findRank(course, group, user)).contains(2L);
+        assertThat(meterRegistry.get("gamification.leaderboard.snapshot.refresh").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("gamification.leaderboard.snapshot.lag").gauge().value()).isLessThan(30);
+    }
+
+    @Test
+    void findPage_afterRefresh_usesSnapshotPositionsAsRanks() {
+        LeaderboardSnapshotImpl snapshot = new LeaderboardSnapshotImpl(repository, meterRegistry, true, 30000);
+        when(repository.findSnapshotGroupLeaderboard(course, group, 20, 10))
+                .thenReturn(List.of(row("u21", 400, 21L), row("u22", 350, 22L)));
+        when(repository.countSnapshotGroupLeaderboard(course, group)).thenReturn(22L);
+
+        snapshot.refresh();
+        Page<LeaderboardEntryView> page = snapshot.findPage(course, group, PageRequest.of(2, 10)).orElseThrow();
+
+        assertThat(page.getTotalElements()).isEqualTo(22);
+        assertThat(page.getContent()).extracting(LeaderboardEntryView::getUserId).containsExactly("u21", "u22");
+        assertThat(page.getContent()).extracting(LeaderboardEntryView::getRank).containsExactly(21L, 22L);
+    }
+
+    @Test
+    void refresh_failure_keepsSnapshotUnused() {
+        LeaderboardSnapshotImpl snapshot = new LeaderboardSnapshotImpl(repository, meterRegistry, true, 30000);
+        doThrow(new IllegalStateException("lock timeout")).when(repository).refreshRankSnapshot();
+
+        snapshot.refresh();
+
+        assertThat(snapshot.findRank(course, null, user)).isEmpty();
+        assertThat(meterRegistry.get("gamification.leaderboard.snapshot.lag").gauge().value()).isNaN();
+    }
+
+    private static LeaderboardSnapshotRowView row(String userId, int points, long rank) {
+        UUID userUuid = UUID.randomUUID();
+        return new LeaderboardSnapshotRowView() {
+            @Override
+            public Long getRank() {
+                return rank;
+            }
+
+            @Override
+            public UUID getUserUuid() {
+                return userUuid;
+            }
+
+            @Override
+            public String getUserId() {
+                return userId;
+            }
+
+            @Override
+            public Integer getPointsInCourse() {
+                return points;
+            }
+
+            @Override
+            public Integer getGlobalLevel() {
+                return 1;
+            }
+        };
+    }
+}
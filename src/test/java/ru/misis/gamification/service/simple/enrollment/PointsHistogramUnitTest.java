@@ -0,0 +1,126 @@
+package ru.misis.gamification.service.simple.enrollment;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.misis.gamification.model.CoursePointsCountView;
+import ru.misis.gamification.model.CoursePositionView;
+import ru.misis.gamification.repository.UserCourseEnrollmentRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PointsHistogramUnitTest {
+
+    @Mock
+    private UserCourseEnrollmentRepository repository;
+
+    private final UUID course = UUID.randomUUID();
+
+    @Test
+    void disabled_neverReadsDatabase() {
+        PointsHistogramImpl histogram = histogram(false, 0, 0);
+
+        histogram.scheduledRebuild();
+        histogram.recordEnrollment(course, 0);
+
+        assertThat(histogram.estimate(course, 100)).isEmpty();
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void estimate_beforeRebuild_returnsEmpty() {
+        assertThat(histogram(true, 0, 0).estimate(course, 100)).isEmpty();
+    }
+
+    @Test
+    void estimate_smallCourseOrTopN_returnsEmpty() {
+        when(repository.findPointsDistribution()).thenReturn(List.of(row(1000, 1), row(10, 99)));
+
+        PointsHistogramImpl smallCourse = histogram(true, 101, 0);
+        smallCourse.rebuild();
+        assertThat(smallCourse.estimate(course, 10)).isEmpty();
+
+        PointsHistogramImpl topN = histogram(true, 0, 1);
+        topN.rebuild();
+        assertThat(topN.estimate(course, 1000)).isEmpty();
+        assertThat(topN.estimate(course, 10)).isPresent();
+    }
+
+    @Test
+    void estimate_rankErrorLimitedToStudentsWithinRelativeError() {
+        double relativeError = 0.02;
+        Random random = new Random(11);
+        TreeMap<Integer, Long> distribution = new TreeMap<>();
+        for (int i = 0; i < 50000; i++) {
+            distribution.merge((int) Math.abs(random.nextGaussian() * 2000), 1L, Long::sum);
+        }
+        List<CoursePointsCountView> rows = new ArrayList<>();
+        distribution.forEach((points, count) -> rows.add(row(points, count)));
+        when(repository.findPointsDistribution()).thenReturn(rows);
+
+        PointsHistogramImpl histogram = new PointsHistogramImpl(repository, new SimpleMeterRegistry(),
+                true, relativeError, 0, 0);
+        histogram.rebuild();
+
+        for (int points : List.of(0, 1, 57, 800, 2000, 4100, 7000)) {
+            long above = distribution.tailMap(points, false).values().stream().mapToLong(Long::longValue).sum();
+            long near = distribution.subMap((int) (points * (1 - 3 * relativeError)), true,
+                    (int) Math.ceil(points * (1 + 3 * relativeError)), true).values().stream().mapToLong(Long::longValue).sum();
+
+            CoursePositionView position = histogram.estimate(course, points).orElseThrow();
+
+            assertThat(position.approximate()).isTrue();
+            assertThat(position.enrollments()).isEqualTo(50000);
+            assertThat(Math.abs(position.rank() - (above + 1))).isLessThanOrEqualTo(near);
+        }
+    }
+
+    @Test
+    void recordPoints_movesEnrollmentBetweenBuckets() {
+        when(repository.findPointsDistribution()).thenReturn(List.of(row(100, 3), row(10, 3)));
+        PointsHistogramImpl histogram = histogram(true, 0, 0);
+        histogram.rebuild();
+        assertThat(histogram.estimate(course, 50).orElseThrow().rank()).isEqualTo(4);
+
+        histogram.recordPoints(course, 90, 100);
+        histogram.recordEnrollment(course, 0);
+
+        CoursePositionView position = histogram.estimate(course, 50).orElseThrow();
+        assertThat(position.rank()).isEqualTo(5);
+        assertThat(position.enrollments()).isEqualTo(7);
+    }
+
+    private PointsHistogramImpl histogram(boolean enabled, long minEnrollments, long exactTopN) {
+        return new PointsHistogramImpl(repository, new SimpleMeterRegistry(), enabled, 0.01, minEnrollments, exactTopN);
+    }
+
+    private CoursePointsCountView row(int points, long enrollments) {
+        return new CoursePointsCountView() {
+            @Override
+            public UUID getCourseUuid() {
+                return course;
+            }
+
+            @Override
+            public Integer getPointsInCourse() {
+                return points;
+            }
+
+            @Override
+            public Long getEnrollments() {
+                return enrollments;
+            }
+        };
+    }
+}
@@ -8,11 +8,13 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import ru.misis.gamification.entity.EventType;
+import ru.misis.gamification.events.EventTypeChangedEvent;
 import ru.misis.gamification.exception.DuplicateEventTypeException;
 import ru.misis.gamification.exception.EventTypeNotFoundException;
 import ru.misis.gamification.repository.EventTypeRepository;
@@ -27,6 +29,7 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,6 +38,9 @@ class EventTypeAdminServiceUnitTest {
     @Mock
     private EventTypeRepository repository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private EventTypeAdminServiceImpl service;
 
@@ -66,6 +72,7 @@ class EventTypeAdminServiceUnitTest {
         verify(repository).existsByTypeCode("quiz");
         verify(repository).save(eventTypeCaptor.capture());
         assertThat(eventTypeCaptor.getValue()).isEqualTo(testType);
+        verify(eventPublisher).publishEvent(new EventTypeChangedEvent("quiz"));
     }
 
     @Test
@@ -78,6 +85,7 @@ class EventTypeAdminServiceUnitTest {
 
         verify(repository).existsByTypeCode("quiz");
         verify(repository, never()).save(any());
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
@@ -130,6 +138,7 @@ class EventTypeAdminServiceUnitTest {
         assertThat(captured.getDisplayName()).isEqualTo("Новый квиз");
         assertThat(captured.getPoints()).isEqualTo(120);
         assertThat(captured.isActive()).isFalse();
+        verify(eventPublisher).publishEvent(new EventTypeChangedEvent("quiz"));
     }
 
     @Test
@@ -156,6 +165,7 @@ class EventTypeAdminServiceUnitTest {
         verify(repository).findById(id);
         verify(repository).save(eventTypeCaptor.capture());
         assertThat(eventTypeCaptor.getValue().isActive()).isFalse();
+        verify(eventPublisher).publishEvent(new EventTypeChangedEvent("quiz"));
     }
 
     @Test
@@ -0,0 +1,118 @@
+package ru.misis.gamification.service.simple.event;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.misis.gamification.entity.EventType;
+import ru.misis.gamification.events.EventTypeChangedEvent;
+import ru.misis.gamification.repository.EventTypeRepository;
+import ru.misis.gamification.service.simple.eventtype.EventTypeRegistryImpl;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EventTypeRegistryUnitTest {
+
+    @Mock
+    private EventTypeRepository repository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private EventType quiz;
+    private EventType lab;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        quiz = EventType.builder().uuid(UUID.randomUUID()).typeCode("quiz").displayName("Квиз").points(50).build();
+        lab = EventType.builder().uuid(UUID.randomUUID()).typeCode("lab").displayName("Лабораторная").points(100).build();
+    }
+
+    @Test
+    void findActive_loadsSnapshotOnceAndServesFromMemory() {
+        when(repository.findAllByActiveTrue()).thenReturn(List.of(quiz, lab));
+        EventTypeRegistryImpl registry = registry(true);
+
+        assertThat(registry.findActive("quiz")).contains(quiz);
+        assertThat(registry.findActive("essay")).isEmpty();
+        assertThat(registry.findAllActive(List.of("lab", "essay", "quiz"))).containsExactly(lab, quiz);
+
+        verify(repository, times(1)).findAllByActiveTrue();
+        verify(repository, never()).findByTypeCodeAndActiveTrue("quiz");
+        assertThat(registry.getVersion()).isEqualTo(1);
+    }
+
+    @Test
+    void onEventTypeChanged_swapsSnapshotAndIncrementsVersion() {
+        EventType deactivatedLab = EventType.builder().uuid(lab.getUuid()).typeCode("lab").displayName("Лабораторная")
+                .points(100).active(false).build();
+        when(repository.findAllByActiveTrue())
+                .thenReturn(List.of(quiz, lab))
+                .thenReturn(List.of(quiz));
+        EventTypeRegistryImpl registry = registry(true);
+        registry.onApplicationReady();
+        assertThat(registry.findActive("lab")).contains(lab);
+
+        registry.onEventTypeChanged(new EventTypeChangedEvent(deactivatedLab.getTypeCode()));
+
+        assertThat(registry.findActive("lab")).isEmpty();
+        assertThat(registry.getVersion()).isEqualTo(2);
+        assertThat(meterRegistry.get("gamification.event.type.registry.version").gauge().value()).isEqualTo(2.0);
+        assertThat(meterRegistry.get("gamification.event.type.registry.size").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void scheduledRefresh_unchangedTypes_keepsVersion() {
+        when(repository.findAllByActiveTrue()).thenReturn(List.of(quiz, lab));
+        EventTypeRegistryImpl registry = registry(true);
+        registry.onApplicationReady();
+
+        registry.scheduledRefresh();
+
+        assertThat(registry.getVersion()).isEqualTo(1);
+    }
+
+    @Test
+    void scheduledRefresh_databaseError_keepsPreviousSnapshot() {
+        when(repository.findAllByActiveTrue())
+                .thenReturn(List.of(quiz))
+                .thenThrow(new IllegalStateException("connection refused"));
+        EventTypeRegistryImpl registry = registry(true);
+        registry.onApplicationReady();
+
+        registry.scheduledRefresh();
+
+        assertThat(registry.findActive("quiz")).contains(quiz);
+        assertThat(registry.getVersion()).isEqualTo(1);
+    }
+
+    @Test
+    void disabled_readsFromRepository() {
+        when(repository.findByTypeCodeAndActiveTrue("quiz")).thenReturn(Optional.of(quiz));
+        when(repository.findAllByTypeCodeInAndActiveTrue(anyCollection())).thenReturn(List.of(lab));
+        EventTypeRegistryImpl registry = registry(false);
+        registry.onApplicationReady();
+        registry.onEventTypeChanged(new EventTypeChangedEvent("quiz"));
+
+        assertThat(registry.findActive("quiz")).contains(quiz);
+        assertThat(registry.findAllActive(List.of("lab"))).containsExactly(lab);
+        verify(repository, never()).findAllByActiveTrue();
+        assertThat(registry.getVersion()).isZero();
+    }
+
+    private EventTypeRegistryImpl registry(boolean enabled) {
+        return new EventTypeRegistryImpl(repository, meterRegistry, enabled);
+    }
+}
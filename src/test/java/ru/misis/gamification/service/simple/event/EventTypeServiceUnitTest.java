@@ -8,8 +8,9 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.misis.gamification.entity.EventType;
 import ru.misis.gamification.exception.EventTypeNotFoundException;
-import ru.misis.gamification.repository.EventTypeRepository;
+import ru.misis.gamification.service.simple.eventtype.EventTypeRegistry;
 import ru.misis.gamification.service.simple.eventtype.EventTypeServiceImpl;
+import ru.misis.gamification.service.simple.quota.DailyPointsUsageService;
 import ru.misis.gamification.service.simple.user.UserService;
 
 import java.time.LocalDate;
@@ -25,11 +26,14 @@ import static org.mockito.Mockito.when;
 class EventTypeServiceUnitTest {
 
     @Mock
-    private EventTypeRepository eventTypeRepository;
+    private EventTypeRegistry eventTypeRegistry;
 
     @Mock
     private UserService userService;
 
+    @Mock
+    private DailyPointsUsageService dailyPointsUsageService;
+
     @InjectMocks
     private EventTypeServiceImpl service;
 
@@ -56,59 +60,59 @@ class EventTypeServiceUnitTest {
 
     @Test
     void getActiveByCode_existingActive_returnsType() {
-        when(eventTypeRepository.findByTypeCodeAndActiveTrue("quiz"))
+        when(eventTypeRegistry.findActive("quiz"))
                 .thenReturn(Optional.of(testType));
 
         EventType result = service.getActiveByCode("quiz");
 
         assertThat(result).isEqualTo(testType);
-        verify(eventTypeRepository).findByTypeCodeAndActiveTrue("quiz");
+        verify(eventTypeRegistry).findActive("quiz");
     }
 
     @Test
     void getActiveByCode_inactiveOrNotFound_throwsEventTypeNotFoundException() {
-        when(eventTypeRepository.findByTypeCodeAndActiveTrue("quiz"))
+        when(eventTypeRegistry.findActive("quiz"))
                 .thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> service.getActiveByCode("quiz"))
                 .isInstanceOf(EventTypeNotFoundException.class)
                 .hasMessageContaining("quiz");
 
-        verify(eventTypeRepository).findByTypeCodeAndActiveTrue("quiz");
+        verify(eventTypeRegistry).findActive("quiz");
     }
 
     @Test
     void canAwardPoints_noMaxLimit_returnsTrue() {
         testType.setMaxDailyPoints(null);
-        when(eventTypeRepository.findByTypeCodeAndActiveTrue("quiz"))
+        when(eventTypeRegistry.findActive("quiz"))
                 .thenReturn(Optional.of(testType));
 
         boolean canAward = service.canAwardPoints("user-123", "quiz", 500, today);
 
         assertThat(canAward).isTrue();
-        verify(eventTypeRepository).findByTypeCodeAndActiveTrue("quiz");
+        verify(eventTypeRegistry).findActive("quiz");
     }
 
     @Test
     void canAwardPoints_withinLimit_returnsTrue() {
-        when(eventTypeRepository.findByTypeCodeAndActiveTrue("quiz"))
+        when(eventTypeRegistry.findActive("quiz"))
                 .thenReturn(Optional.of(testType));
         when(userService.getUserUuidByExternalId("user-123")).thenReturn(userUuid);
-        when(eventTypeRepository.calculateDailyPointsSumForUserAndType(userUuid, eventTypeUuid, today))
+        when(dailyPointsUsageService.getPoints(userUuid, eventTypeUuid, today))
                 .thenReturn(150L);
 
         boolean canAward = service.canAwardPoints("user-123", "quiz", 100, today);
 
         assertThat(canAward).isTrue(); // 150 + 100 = 250 ≤ 300
-        verify(eventTypeRepository).calculateDailyPointsSumForUserAndType(userUuid, eventTypeUuid, today);
+        verify(dailyPointsUsageService).getPoints(userUuid, eventTypeUuid, today);
     }
 
     @Test
     void canAwardPoints_exceedsLimit_returnsFalse() {
-        when(eventTypeRepository.findByTypeCodeAndActiveTrue("quiz"))
+        when(eventTypeRegistry.findActive("quiz"))
                 .thenReturn(Optional.of(testType));
         when(userService.getUserUuidByExternalId("user-123")).thenReturn(userUuid);
-        when(eventTypeRepository.calculateDailyPointsSumForUserAndType(userUuid, eventTypeUuid, today))
+        when(dailyPointsUsageService.getPoints(userUuid, eventTypeUuid, today))
                 .thenReturn(250L);
 
         boolean canAward = service.canAwardPoints("user-123", "quiz", 100, today);
@@ -118,7 +122,7 @@ class EventTypeServiceUnitTest {
 
     @Test
     void canAwardPoints_typeNotFound_throwsEventTypeNotFoundException() {
-        when(eventTypeRepository.findByTypeCodeAndActiveTrue("quiz"))
+        when(eventTypeRegistry.findActive("quiz"))
                 .thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> service.canAwardPoints("user-123", "quiz", 100, today))
@@ -128,24 +132,24 @@ class EventTypeServiceUnitTest {
 
     @Test
     void getDailyPointsSum_returnsCorrectSum() {
-        when(eventTypeRepository.findByTypeCodeAndActiveTrue("quiz"))
+        when(eventTypeRegistry.findActive("quiz"))
                 .thenReturn(Optional.of(testType));
         when(userService.getUserUuidByExternalId("user-123")).thenReturn(userUuid);
-        when(eventTypeRepository.calculateDailyPointsSumForUserAndType(userUuid, eventTypeUuid, today))
+        when(dailyPointsUsageService.getPoints(userUuid, eventTypeUuid, today))
                 .thenReturn(180L);
 
         long sum = service.getDailyPointsSum("user-123", "quiz", today);
 
         assertThat(sum).isEqualTo(180L);
-        verify(eventTypeRepository).calculateDailyPointsSumForUserAndType(userUuid, eventTypeUuid, today);
+        verify(dailyPointsUsageService).getPoints(userUuid, eventTypeUuid, today);
     }
 
     @Test
     void getDailyPointsSum_noRecords_returnsZero() {
-        when(eventTypeRepository.findByTypeCodeAndActiveTrue("quiz"))
+        when(eventTypeRegistry.findActive("quiz"))
                 .thenReturn(Optional.of(testType));
         when(userService.getUserUuidByExternalId("user-123")).thenReturn(userUuid);
-        when(eventTypeRepository.calculateDailyPointsSumForUserAndType(userUuid, eventTypeUuid, today))
+        when(dailyPointsUsageService.getPoints(userUuid, eventTypeUuid, today))
                 .thenReturn(0L);
 
         long sum = service.getDailyPointsSum("user-123", "quiz", today);
@@ -155,7 +159,7 @@ class EventTypeServiceUnitTest {
 
     @Test
     void getDailyPointsSum_typeNotFound_throwsEventTypeNotFoundException() {
-        when(eventTypeRepository.findByTypeCodeAndActiveTrue("quiz"))
+        when(eventTypeRegistry.findActive("quiz"))
                 .thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> service.getDailyPointsSum("user-123", "quiz", today))
@@ -34,40 +34,40 @@ class GroupServiceUnitTest {
 
     @Test
     void existsByGroupIdAndCourseId_existingGroup_returnsTrue() {
-        when(groupRepository.existsByGroupIdAndCourseCourseId(groupId, courseId))
-                .thenReturn(true);
+        when(groupRepository.findByNaturalId(groupId, courseId))
+                .thenReturn(Optional.of(Group.builder().uuid(groupUuid).groupId(groupId).build()));
 
         boolean result = groupService.existsByGroupIdAndCourseId(groupId, courseId);
 
         assertThat(result).isTrue();
-        verify(groupRepository).existsByGroupIdAndCourseCourseId(groupId, courseId);
+        verify(groupRepository).findByNaturalId(groupId, courseId);
     }
 
     @Test
     void existsByGroupIdAndCourseId_nonExistingGroup_returnsFalse() {
-        when(groupRepository.existsByGroupIdAndCourseCourseId(groupId, courseId))
-                .thenReturn(false);
+        when(groupRepository.findByNaturalId(groupId, courseId))
+                .thenReturn(Optional.empty());
 
         boolean result = groupService.existsByGroupIdAndCourseId(groupId, courseId);
 
         assertThat(result).isFalse();
-        verify(groupRepository).existsByGroupIdAndCourseCourseId(groupId, courseId);
+        verify(groupRepository).findByNaturalId(groupId, courseId);
     }
 
     @Test
     void getGroupUuidByExternalIdAndCourseId_existingGroup_returnsUuid() {
-        when(groupRepository.findUuidByGroupIdAndCourseCourseId(groupId, courseId))
-                .thenReturn(Optional.of(groupUuid));
+        when(groupRepository.findByNaturalId(groupId, courseId))
+                .thenReturn(Optional.of(Group.builder().uuid(groupUuid).groupId(groupId).build()));
 
         UUID result = groupService.getGroupUuidByExternalIdAndCourseId(groupId, courseId);
 
         assertThat(result).isEqualTo(groupUuid);
-        verify(groupRepository).findUuidByGroupIdAndCourseCourseId(groupId, courseId);
+        verify(groupRepository).findByNaturalId(groupId, courseId);
     }
 
     @Test
     void getGroupUuidByExternalIdAndCourseId_nonExistingGroup_throwsGroupNotFoundException() {
-        when(groupRepository.findUuidByGroupIdAndCourseCourseId(groupId, courseId))
+        when(groupRepository.findByNaturalId(groupId, courseId))
                 .thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> groupService.getGroupUuidByExternalIdAndCourseId(groupId, courseId))
@@ -75,7 +75,7 @@ class GroupServiceUnitTest {
                 .hasMessageContaining(groupId)
                 .hasMessageContaining(courseId);
 
-        verify(groupRepository).findUuidByGroupIdAndCourseCourseId(groupId, courseId);
+        verify(groupRepository).findByNaturalId(groupId, courseId);
     }
 
     @Test
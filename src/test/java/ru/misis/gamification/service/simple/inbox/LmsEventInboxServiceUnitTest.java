@@ -0,0 +1,109 @@
+package ru.misis.gamification.service.simple.inbox;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.misis.gamification.entity.LmsEventInbox;
+import ru.misis.gamification.entity.LmsEventInboxStatus;
+import ru.misis.gamification.exception.LmsEventInboxNotFoundException;
+import ru.misis.gamification.model.AwardRequest;
+import ru.misis.gamification.repository.LmsEventInboxRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LmsEventInboxServiceUnitTest {
+
+    @Mock
+    private LmsEventInboxRepository inboxRepository;
+
+    @InjectMocks
+    private LmsEventInboxServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "maxAttempts", 3);
+        ReflectionTestUtils.setField(service, "retryBackoffMs", 1000L);
+    }
+
+    @Test
+    void enqueue_newEvent_returnsTrue() {
+        when(inboxRepository.insertIfAbsent(eq("evt-1"), eq("user-1"), eq("quiz"), eq(null), eq(null), any()))
+                .thenReturn(1);
+
+        assertThat(service.enqueue(new AwardRequest("user-1", "evt-1", "quiz", null, null))).isTrue();
+    }
+
+    @Test
+    void enqueue_alreadyQueued_returnsFalse() {
+        when(inboxRepository.insertIfAbsent(any(), any(), any(), any(), any(), any())).thenReturn(0);
+
+        assertThat(service.enqueue(new AwardRequest("user-1", "evt-1", "quiz", null, null))).isFalse();
+    }
+
+    @Test
+    void getByEventId_missing_throws() {
+        when(inboxRepository.findByEventId("evt-x")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.getByEventId("evt-x"))
+                .isInstanceOf(LmsEventInboxNotFoundException.class)
+                .hasMessageContaining("evt-x");
+    }
+
+    @Test
+    void claimBatch_returnsEventsInArrivalOrder() {
+        LocalDateTime now = LocalDateTime.now();
+        LmsEventInbox first = LmsEventInbox.builder().uuid(UUID.randomUUID()).eventId("evt-1").createdAt(now.minusSeconds(2)).build();
+        LmsEventInbox second = LmsEventInbox.builder().uuid(UUID.randomUUID()).eventId("evt-2").createdAt(now.minusSeconds(1)).build();
+        LmsEventInbox third = LmsEventInbox.builder().uuid(UUID.randomUUID()).eventId("evt-3").createdAt(now).build();
+        when(inboxRepository.claimBatch(any(), eq(10))).thenReturn(List.of(third, first, second));
+
+        assertThat(service.claimBatch(10)).containsExactly(first, second, third);
+    }
+
+    @Test
+    void markFailed_attemptsLeft_reschedulesWithBackoff() {
+        LmsEventInbox event = LmsEventInbox.builder().uuid(UUID.randomUUID()).eventId("evt-1").attempts(2).build();
+        LocalDateTime before = LocalDateTime.now();
+
+        service.markFailed(event, "timeout");
+
+        // вторая попытка → задержка 1000 << 1 = 2 секунды
+        verify(inboxRepository).fail(eq(event.getUuid()), eq(LmsEventInboxStatus.PENDING), eq("timeout"),
+                argThat(next -> !next.isBefore(before.plusSeconds(2))), any());
+    }
+
+    @Test
+    void markFailed_attemptsExhausted_parksEvent() {
+        LmsEventInbox event = LmsEventInbox.builder().uuid(UUID.randomUUID()).eventId("evt-1").attempts(3).build();
+
+        service.markFailed(event, "boom");
+
+        verify(inboxRepository).fail(eq(event.getUuid()), eq(LmsEventInboxStatus.PARKED), eq("boom"), any(), any());
+    }
+
+    @Test
+    void markFailed_longError_truncated() {
+        LmsEventInbox event = LmsEventInbox.builder().uuid(UUID.randomUUID()).eventId("evt-1").attempts(3).build();
+
+        service.markFailed(event, "x".repeat(5000));
+
+        verify(inboxRepository).fail(eq(event.getUuid()), eq(LmsEventInboxStatus.PARKED),
+                argThat(error -> error.length() == 1000), any(), any());
+    }
+}
@@ -0,0 +1,100 @@
+package ru.misis.gamification.service.simple.period;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Slice;
+import ru.misis.gamification.entity.LeaderboardPeriod;
+import ru.misis.gamification.model.EnrollmentKeyView;
+import ru.misis.gamification.model.LeaderboardCursor;
+import ru.misis.gamification.model.LeaderboardEntryView;
+import ru.misis.gamification.repository.CoursePeriodPointsRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CoursePeriodPointsServiceUnitTest {
+
+    @Mock
+    private CoursePeriodPointsRepository periodPointsRepository;
+
+    @InjectMocks
+    private CoursePeriodPointsServiceImpl service;
+
+    private final UUID userUuid = UUID.randomUUID();
+    private final UUID courseUuid = UUID.randomUUID();
+
+    /**
+     * Воскресенье: неделя началась в понедельник 9 марта, месяц — 1 марта
+     */
+    private final LocalDate day = LocalDate.of(2025, 3, 16);
+
+    @Test
+    void addPoints_writesWeekAndMonthOfDay() {
+        service.addPoints(userUuid, courseUuid, day, 40);
+
+        verify(periodPointsRepository).addPoints(userUuid, courseUuid, 40,
+                LocalDate.of(2025, 3, 10), LocalDate.of(2025, 3, 1));
+    }
+
+    @Test
+    void addPoints_batch_passesPairedArrays() {
+        service.addPoints(Map.of(new EnrollmentKeyView(userUuid, courseUuid), 25), day);
+
+        ArgumentCaptor<UUID[]> users = ArgumentCaptor.forClass(UUID[].class);
+        ArgumentCaptor<UUID[]> courses = ArgumentCaptor.forClass(UUID[].class);
+        ArgumentCaptor<int[]> points = ArgumentCaptor.forClass(int[].class);
+        verify(periodPointsRepository).addPointsBatch(users.capture(), courses.capture(), points.capture(),
+                eq(LocalDate.of(2025, 3, 10)), eq(LocalDate.of(2025, 3, 1)));
+        assertThat(users.getValue()).containsExactly(userUuid);
+        assertThat(courses.getValue()).containsExactly(courseUuid);
+        assertThat(points.getValue()).containsExactly(25);
+    }
+
+    @Test
+    void addPoints_emptyBatch_skipsRepository() {
+        service.addPoints(Map.of(), day);
+
+        verifyNoInteractions(periodPointsRepository);
+    }
+
+    @Test
+    void findLeaderboardAfter_ranksContinueFromCursor() {
+        LeaderboardCursor cursor = new LeaderboardCursor(50, UUID.randomUUID(), 20L);
+        when(periodPointsRepository.findLeaderboardAfter(eq(courseUuid), eq(LeaderboardPeriod.MONTH),
+                eq(LocalDate.of(2025, 3, 1)), eq(50), eq(cursor.userUuid()), any(Limit.class)))
+                .thenReturn(List.of(entry("u21", 45), entry("u22", 40), entry("u23", 30)));
+
+        Slice<LeaderboardEntryView> slice = service.findLeaderboardAfter(courseUuid, null, LeaderboardPeriod.MONTH, day,
+                cursor, 2);
+
+        assertThat(slice.hasNext()).isTrue();
+        assertThat(slice.getContent()).extracting(LeaderboardEntryView::getUserId).containsExactly("u21", "u22");
+        assertThat(slice.getContent()).extracting(LeaderboardEntryView::getRank).containsExactly(21L, 22L);
+    }
+
+    @Test
+    void purgeBefore_deletesOlderPeriods() {
+        when(periodPointsRepository.deleteByPeriodStartBefore(day)).thenReturn(6);
+
+        assertThat(service.purgeBefore(day)).isEqualTo(6);
+    }
+
+    private static LeaderboardEntryView entry(String userId, int points) {
+        return new LeaderboardEntryView(UUID.randomUUID(), userId, points, 1, 0L, false);
+    }
+}
@@ -6,45 +6,49 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.ValueSource;
 
-import java.lang.reflect.Field;
-
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class LevelCalculatorServiceUnitTest {
 
     private LevelCalculatorServiceImpl service;
 
+    private String formula;
+    private int base;
+    private int increment;
+    private long fallbackIncrement;
+
     @BeforeEach
-    void setUp() throws Exception {
-        service = new LevelCalculatorServiceImpl();
-        setFormula("TRIANGULAR");
-        setBase(500);
-        setIncrement(200);
-        setFallbackIncrement(1000L);
+    void setUp() {
+        formula = "TRIANGULAR";
+        base = 500;
+        increment = 200;
+        fallbackIncrement = 1000L;
+        rebuild();
+    }
+
+    private void rebuild() {
+        service = new LevelCalculatorServiceImpl(formula, base, increment, fallbackIncrement);
     }
 
-    private void setFormula(String formula) throws Exception {
-        Field field = LevelCalculatorServiceImpl.class.getDeclaredField("formula");
-        field.setAccessible(true);
-        field.set(service, formula);
+    private void setFormula(String formula) {
+        this.formula = formula;
+        rebuild();
     }
 
-    private void setBase(int base) throws Exception {
-        Field field = LevelCalculatorServiceImpl.class.getDeclaredField("base");
-        field.setAccessible(true);
-        field.set(service, base);
+    private void setBase(int base) {
+        this.base = base;
+        rebuild();
     }
 
-    private void setIncrement(int increment) throws Exception {
-        Field field = LevelCalculatorServiceImpl.class.getDeclaredField("increment");
-        field.setAccessible(true);
-        field.set(service, increment);
+    private void setIncrement(int increment) {
+        this.increment = increment;
+        rebuild();
     }
 
-    private void setFallbackIncrement(long value) throws Exception {
-        Field field = LevelCalculatorServiceImpl.class.getDeclaredField("fallbackIncrement");
-        field.setAccessible(true);
-        field.set(service, value);
+    private void setFallbackIncrement(long value) {
+        this.fallbackIncrement = value;
+        rebuild();
     }
 
     @ParameterizedTest
@@ -68,7 +72,7 @@ class LevelCalculatorServiceUnitTest {
             "CUSTOM_FORMULA, 1000, 2",
             "CUSTOM_FORMULA, 2000, 3"
     })
-    void calculateLevel_returnsCorrectLevel(String formula, int points, int expected) throws Exception {
+    void calculateLevel_returnsCorrectLevel(String formula, int points, int expected) {
         setFormula(formula);
         if ("LINEAR".equalsIgnoreCase(formula)) {
             setIncrement(200);
@@ -77,7 +81,7 @@ class LevelCalculatorServiceUnitTest {
     }
 
     @Test
-    void calculateLevel_negativePoints_returns1() throws Exception {
+    void calculateLevel_negativePoints_returns1() {
         setFormula("TRIANGULAR");
         assertThat(service.calculateLevel(-100)).isEqualTo(1);
     }
@@ -95,7 +99,7 @@ class LevelCalculatorServiceUnitTest {
             "LINEAR, 3, 1100",
             "CUSTOM, 1, 1000"
     })
-    void pointsToNextLevel_returnsCorrectValue(String formula, int level, long expected) throws Exception {
+    void pointsToNextLevel_returnsCorrectValue(String formula, int level, long expected) {
         setFormula(formula);
         if ("LINEAR".equalsIgnoreCase(formula)) {
             setIncrement(200);
@@ -104,14 +108,14 @@ class LevelCalculatorServiceUnitTest {
     }
 
     @Test
-    void pointsToNextLevel_levelZeroOrNegative_returns1000() throws Exception {
+    void pointsToNextLevel_levelZeroOrNegative_returns1000() {
         setFormula("TRIANGULAR");
         assertThat(service.pointsToNextLevel(0)).isEqualTo(1000L);
         assertThat(service.pointsToNextLevel(-5)).isEqualTo(1000L);
     }
 
     @Test
-    void triangular_edgeCases() throws Exception {
+    void triangular_edgeCases() {
         setFormula("TRIANGULAR");
         assertThat(service.calculateLevel(0)).isEqualTo(1);
         assertThat(service.calculateLevel(499)).isEqualTo(1);
@@ -123,7 +127,7 @@ class LevelCalculatorServiceUnitTest {
     }
 
     @Test
-    void quadratic_edgeCases() throws Exception {
+    void quadratic_edgeCases() {
         setFormula("QUADRATIC");
         assertThat(service.calculateLevel(0)).isEqualTo(1);
         assertThat(service.calculateLevel(499)).isEqualTo(1);
@@ -134,7 +138,7 @@ class LevelCalculatorServiceUnitTest {
     }
 
     @Test
-    void linear_edgeCases() throws Exception {
+    void linear_edgeCases() {
         setFormula("LINEAR");
         setIncrement(200);
         assertThat(service.calculateLevel(0)).isEqualTo(1);
@@ -146,7 +150,7 @@ class LevelCalculatorServiceUnitTest {
     }
 
     @Test
-    void linear_customBaseAndIncrement() throws Exception {
+    void linear_customBaseAndIncrement() {
         setFormula("LINEAR");
         setBase(1000);
         setIncrement(300);
@@ -159,7 +163,7 @@ class LevelCalculatorServiceUnitTest {
 
     @ParameterizedTest
     @ValueSource(strings = {"TRIANGULAR", "QUADRATIC", "LINEAR", "UNKNOWN", "triangular", "quadratic", "linear", "unknown"})
-    void differentFormulas_switchCorrectly(String formula) throws Exception {
+    void differentFormulas_switchCorrectly(String formula) {
         setFormula(formula);
         setBase(500);
         setIncrement(200);
@@ -188,4 +192,104 @@ class LevelCalculatorServiceUnitTest {
             }
         }
     }
-}
\ No newline at end of file
+
+    @ParameterizedTest
+    @ValueSource(strings = {"TRIANGULAR", "QUADRATIC", "LINEAR"})
+    void compiledTable_matchesClosedForm(String formula) {
+        setFormula(formula);
+        setBase(37);
+        setIncrement(11);
+
+        for (int points = 0; points <= 200_000; points += 7) {
+            assertThat(service.calculateLevel(points)).isEqualTo(referenceLevel(formula, points));
+        }
+        assertThat(service.calculateLevel(Integer.MAX_VALUE)).isEqualTo(referenceLevel(formula, Integer.MAX_VALUE));
+    }
+
+    @Test
+    void linear_zeroIncrement_uniformSteps() {
+        setFormula("LINEAR");
+        setBase(500);
+        setIncrement(0);
+
+        assertThat(service.calculateLevel(499)).isEqualTo(1);
+        assertThat(service.calculateLevel(500)).isEqualTo(2);
+        assertThat(service.calculateLevel(1_000_000)).isEqualTo(2001);
+        assertThat(service.pointsToNextLevel(7)).isEqualTo(500L);
+    }
+
+    @Test
+    void fallback_zeroIncrement_alwaysLevel1() {
+        setFormula("UNKNOWN");
+        setFallbackIncrement(0);
+
+        assertThat(service.calculateLevel(1_000_000)).isEqualTo(1);
+        assertThat(service.pointsToNextLevel(1)).isEqualTo(1000L);
+    }
+
+    @Test
+    void pointsToNextLevel_beyondTable_usesFormula() {
+        assertThat(service.pointsToNextLevel(1_000_000)).isEqualTo(500L * 1_000_001);
+    }
+
+    @Test
+    void calculateLevels_bulk_matchesSingleCalls() {
+        int[] points = {-5, 0, 499, 500, 1500, 3000, 5000, Integer.MAX_VALUE};
+
+        int[] levels = service.calculateLevels(points);
+
+        for (int i = 0; i < points.length; i++) {
+            assertThat(levels[i]).isEqualTo(service.calculateLevel(points[i]));
+        }
+    }
+
+    @Test
+    void pointsToNextLevels_bulk_matchesSingleCalls() {
+        int[] levels = {-1, 0, 1, 2, 3, 50};
+
+        long[] result = service.pointsToNextLevels(levels);
+
+        for (int i = 0; i < levels.length; i++) {
+            assertThat(result[i]).isEqualTo(service.pointsToNextLevel(levels[i]));
+        }
+    }
+
+    @Test
+    void nonPositiveBase_rejectedAtStartup() {
+        assertThatThrownBy(() -> new LevelCalculatorServiceImpl("TRIANGULAR", 0, 200, 1000L))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void curveSignature_includesOnlyParametersOfFormula() {
+        assertThat(service.getCurveSignature()).isEqualTo("TRIANGULAR(base=500)");
+
+        setIncrement(300);
+        assertThat(service.getCurveSignature()).isEqualTo("TRIANGULAR(base=500)");
+
+        setFormula("linear");
+        assertThat(service.getCurveSignature()).isEqualTo("LINEAR(base=500, increment=300)");
+    }
+
+    /**
+     * Уровень по прежним формулам расчёта без таблицы
+     */
+    private int referenceLevel(String formula, int total) {
+        if (total <= 0) {
+            return 1;
+        }
+        return switch (formula) {
+            case "TRIANGULAR" -> (int) Math.floor((-1 + Math.sqrt(1 + 8.0 * total / base)) / 2) + 1;
+            case "QUADRATIC" -> (int) Math.floor(Math.sqrt(total / (double) base)) + 1;
+            default -> {
+                int level = 1;
+                long sum = 0;
+                while (sum <= total) {
+                    sum += base + (long) increment * (level - 1);
+                    level++;
+                }
+                yield level - 1;
+            }
+        };
+    }
+}
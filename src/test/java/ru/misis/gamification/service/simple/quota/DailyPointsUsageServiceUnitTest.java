@@ -0,0 +1,93 @@
+package ru.misis.gamification.service.simple.quota;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.misis.gamification.model.DailyPointsSumView;
+import ru.misis.gamification.model.DailyUsageKey;
+import ru.misis.gamification.repository.DailyPointsUsageRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DailyPointsUsageServiceUnitTest {
+
+    @Mock
+    private DailyPointsUsageRepository usageRepository;
+
+    @Mock
+    private DailyQuotaCache quotaCache;
+
+    @InjectMocks
+    private DailyPointsUsageServiceImpl service;
+
+    private final UUID userUuid = UUID.randomUUID();
+    private final UUID eventTypeUuid = UUID.randomUUID();
+    private final LocalDate today = LocalDate.now();
+
+    @Test
+    void getPoints_readsThroughCache() {
+        when(quotaCache.getPoints(userUuid, eventTypeUuid, today)).thenReturn(120L);
+
+        assertThat(service.getPoints(userUuid, eventTypeUuid, today)).isEqualTo(120L);
+        verifyNoInteractions(usageRepository);
+    }
+
+    @Test
+    void addPoints_updatesCounterAndCache() {
+        when(usageRepository.addPoints(userUuid, eventTypeUuid, today, 50)).thenReturn(150);
+
+        assertThat(service.addPoints(userUuid, eventTypeUuid, today, 50)).isEqualTo(150L);
+        verify(quotaCache).add(userUuid, eventTypeUuid, today, 50);
+    }
+
+    @Test
+    void getPoints_batch_mapsByKey() {
+        when(usageRepository.findPointsByUsersAndEventTypes(List.of(userUuid), List.of(eventTypeUuid), today))
+                .thenReturn(List.of(new DailyPointsSumView(userUuid, eventTypeUuid, 90L)));
+
+        Map<DailyUsageKey, Long> points = service.getPoints(List.of(userUuid), List.of(eventTypeUuid), today);
+
+        assertThat(points).containsExactly(Map.entry(new DailyUsageKey(userUuid, eventTypeUuid), 90L));
+    }
+
+    @Test
+    void getPoints_batchEmptyInput_skipsQuery() {
+        assertThat(service.getPoints(List.of(), List.of(eventTypeUuid), today)).isEmpty();
+
+        verifyNoInteractions(usageRepository);
+    }
+
+    @Test
+    void addPoints_batch_passesParallelArrays() {
+        service.addPoints(Map.of(new DailyUsageKey(userUuid, eventTypeUuid), 40), today);
+
+        verify(usageRepository).addPointsBatch(new UUID[]{userUuid}, new UUID[]{eventTypeUuid}, new int[]{40}, today);
+        verify(quotaCache).add(userUuid, eventTypeUuid, today, 40);
+    }
+
+    @Test
+    void addPoints_batchEmpty_skipsQuery() {
+        service.addPoints(Map.of(), today);
+
+        verifyNoInteractions(usageRepository);
+    }
+
+    @Test
+    void purgeBefore_delegatesToRepository() {
+        when(usageRepository.deleteByDayBefore(any())).thenReturn(3);
+
+        assertThat(service.purgeBefore(today)).isEqualTo(3);
+    }
+}
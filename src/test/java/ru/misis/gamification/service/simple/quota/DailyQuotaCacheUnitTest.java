@@ -0,0 +1,145 @@
+package ru.misis.gamification.service.simple.quota;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.misis.gamification.repository.DailyPointsUsageRepository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DailyQuotaCacheUnitTest {
+
+    @Mock
+    private DailyPointsUsageRepository usageRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private DailyQuotaCacheImpl cache;
+
+    private final UUID userUuid = UUID.randomUUID();
+    private final UUID eventTypeUuid = UUID.randomUUID();
+    private final LocalDate today = LocalDate.now();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new DailyQuotaCacheImpl(usageRepository, meterRegistry, true, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void getPoints_secondLookup_servedFromMemory() {
+        when(usageRepository.findPoints(userUuid, eventTypeUuid, today)).thenReturn(Optional.of(100));
+
+        assertThat(cache.getPoints(userUuid, eventTypeUuid, today)).isEqualTo(100L);
+        assertThat(cache.getPoints(userUuid, eventTypeUuid, today)).isEqualTo(100L);
+
+        verify(usageRepository, times(1)).findPoints(userUuid, eventTypeUuid, today);
+        assertThat(meterRegistry.get("gamification.daily.quota.cache.lookups").tag("result", "hit").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void add_loadedKey_incrementsCounter() {
+        when(usageRepository.findPoints(userUuid, eventTypeUuid, today)).thenReturn(Optional.of(100));
+        cache.getPoints(userUuid, eventTypeUuid, today);
+
+        cache.add(userUuid, eventTypeUuid, today, 50);
+
+        assertThat(cache.getPoints(userUuid, eventTypeUuid, today)).isEqualTo(150L);
+    }
+
+    @Test
+    void add_notLoadedKey_isSkipped() {
+        cache.add(userUuid, eventTypeUuid, today, 50);
+        when(usageRepository.findPoints(userUuid, eventTypeUuid, today)).thenReturn(Optional.of(50));
+
+        assertThat(cache.getPoints(userUuid, eventTypeUuid, today)).isEqualTo(50L);
+    }
+
+    @Test
+    void add_insideTransaction_appliedOnlyAfterCommit() {
+        when(usageRepository.findPoints(userUuid, eventTypeUuid, today)).thenReturn(Optional.of(0));
+        cache.getPoints(userUuid, eventTypeUuid, today);
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.add(userUuid, eventTypeUuid, today, 50);
+        assertThat(cache.getPoints(userUuid, eventTypeUuid, today)).isZero();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(cache.getPoints(userUuid, eventTypeUuid, today)).isEqualTo(50L);
+    }
+
+    @Test
+    void getPoints_nextDay_startsFromDatabase() {
+        LocalDate tomorrow = today.plusDays(1);
+        when(usageRepository.findPoints(userUuid, eventTypeUuid, today)).thenReturn(Optional.of(100));
+        when(usageRepository.findPoints(userUuid, eventTypeUuid, tomorrow)).thenReturn(Optional.empty());
+        cache.getPoints(userUuid, eventTypeUuid, today);
+
+        assertThat(cache.getPoints(userUuid, eventTypeUuid, tomorrow)).isZero();
+        assertThat(meterRegistry.get("gamification.daily.quota.cache.entries").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void getPoints_pastDay_bypassesCache() {
+        LocalDate yesterday = today.minusDays(1);
+        when(usageRepository.findPoints(userUuid, eventTypeUuid, yesterday)).thenReturn(Optional.of(70));
+
+        assertThat(cache.getPoints(userUuid, eventTypeUuid, yesterday)).isEqualTo(70L);
+        assertThat(cache.getPoints(userUuid, eventTypeUuid, yesterday)).isEqualTo(70L);
+
+        verify(usageRepository, times(2)).findPoints(userUuid, eventTypeUuid, yesterday);
+    }
+
+    @Test
+    void disabled_alwaysReadsDatabase() {
+        DailyQuotaCacheImpl disabled = new DailyQuotaCacheImpl(usageRepository, new SimpleMeterRegistry(), false, 100);
+        when(usageRepository.findPoints(userUuid, eventTypeUuid, today)).thenReturn(Optional.of(30));
+
+        disabled.getPoints(userUuid, eventTypeUuid, today);
+        disabled.add(userUuid, eventTypeUuid, today, 50);
+
+        assertThat(disabled.getPoints(userUuid, eventTypeUuid, today)).isEqualTo(30L);
+        verify(usageRepository, times(2)).findPoints(userUuid, eventTypeUuid, today);
+    }
+
+    @Test
+    void getPoints_fullCache_readsDatabaseWithoutCaching() {
+        DailyQuotaCacheImpl small = new DailyQuotaCacheImpl(usageRepository, new SimpleMeterRegistry(), true, 0);
+
+        when(usageRepository.findPoints(userUuid, eventTypeUuid, today)).thenReturn(Optional.of(10));
+        small.getPoints(userUuid, eventTypeUuid, today);
+        small.getPoints(userUuid, eventTypeUuid, today);
+
+        verify(usageRepository, times(2)).findPoints(userUuid, eventTypeUuid, today);
+    }
+
+    @Test
+    void add_beforeAnyLookup_doesNotTouchDatabase() {
+        cache.add(userUuid, eventTypeUuid, today, 10);
+
+        verifyNoInteractions(usageRepository);
+    }
+}
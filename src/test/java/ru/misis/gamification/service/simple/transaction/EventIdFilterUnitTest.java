@@ -0,0 +1,107 @@
+package ru.misis.gamification.service.simple.transaction;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.misis.gamification.repository.TransactionRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EventIdFilterUnitTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void mightContain_beforeWarmUp_alwaysTrue() {
+        EventIdFilterImpl filter = create(true);
+
+        assertThat(filter.isReady()).isFalse();
+        assertThat(filter.mightContain("evt-1")).isTrue();
+    }
+
+    @Test
+    void warmUp_loadsAllPagesAndBecomesReady() {
+        when(transactionRepository.findEventIdsAfter("", 2)).thenReturn(List.of("evt-1", "evt-2"));
+        when(transactionRepository.findEventIdsAfter("evt-2", 2)).thenReturn(List.of("evt-3"));
+        EventIdFilterImpl filter = create(true);
+
+        filter.warmUp();
+
+        assertThat(filter.isReady()).isTrue();
+        assertThat(filter.mightContain("evt-1")).isTrue();
+        assertThat(filter.mightContain("evt-3")).isTrue();
+        assertThat(filter.mightContain("evt-new")).isFalse();
+        assertThat(meterRegistry.get("gamification.dedup.filter.lookups").tag("result", "absent").counter().count())
+                .isEqualTo(1.0);
+        assertThat(meterRegistry.get("gamification.dedup.filter.lookups").tag("result", "maybe-present").counter().count())
+                .isEqualTo(2.0);
+        assertThat(meterRegistry.get("gamification.dedup.filter.entries").gauge().value()).isEqualTo(3.0);
+    }
+
+    @Test
+    void put_afterWarmUp_makesEventVisible() {
+        when(transactionRepository.findEventIdsAfter("", 2)).thenReturn(List.of());
+        EventIdFilterImpl filter = create(true);
+        filter.warmUp();
+
+        filter.put("evt-9");
+
+        assertThat(filter.mightContain("evt-9")).isTrue();
+    }
+
+    @Test
+    void recordFalsePositives_incrementsCounter() {
+        when(transactionRepository.findEventIdsAfter("", 2)).thenReturn(List.of());
+        EventIdFilterImpl filter = create(true);
+        filter.warmUp();
+
+        filter.recordFalsePositives(3);
+
+        assertThat(meterRegistry.get("gamification.dedup.filter.false.positives").counter().count()).isEqualTo(3.0);
+    }
+
+    @Test
+    void warmUp_failure_staysNotReady() {
+        when(transactionRepository.findEventIdsAfter(anyString(), anyInt())).thenThrow(new RuntimeException("db down"));
+        EventIdFilterImpl filter = create(true);
+
+        filter.warmUp();
+
+        assertThat(filter.isReady()).isFalse();
+        assertThat(filter.mightContain("evt-1")).isTrue();
+    }
+
+    @Test
+    void disabled_neverWarmsUpAndAlwaysTrue() {
+        EventIdFilterImpl filter = create(false);
+
+        filter.warmUp();
+        filter.put("evt-1");
+
+        assertThat(filter.isReady()).isFalse();
+        assertThat(filter.mightContain("evt-2")).isTrue();
+        verifyNoInteractions(transactionRepository);
+    }
+
+    private EventIdFilterImpl create(boolean enabled) {
+        return new EventIdFilterImpl(transactionRepository, meterRegistry, enabled, 1_000, 0.01, 2);
+    }
+}
@@ -0,0 +1,48 @@
+package ru.misis.gamification.service.simple.transaction;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ScalableBloomFilterUnitTest {
+
+    @Test
+    void put_thenMightContain_noFalseNegatives() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, 0.01);
+
+        IntStream.range(0, 5_000).forEach(i -> filter.put("evt-" + i));
+
+        assertThat(IntStream.range(0, 5_000).allMatch(i -> filter.mightContain("evt-" + i))).isTrue();
+        assertThat(filter.size()).isBetween(4_900L, 5_000L);
+    }
+
+    @Test
+    void mightContain_unknownValues_falsePositiveRateWithinBound() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.put("evt-" + i));
+
+        long falsePositives = IntStream.range(0, 100_000)
+                .filter(i -> filter.mightContain("other-" + i))
+                .count();
+
+        assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+        assertThat(filter.expectedFalsePositiveRate()).isLessThan(0.02);
+    }
+
+    @Test
+    void mightContain_empty_returnsFalse() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(100, 0.01);
+
+        assertThat(filter.mightContain("evt-1")).isFalse();
+        assertThat(filter.size()).isZero();
+    }
+
+    @Test
+    void constructor_invalidArguments_throws() {
+        assertThatThrownBy(() -> new ScalableBloomFilter(0, 0.01)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ScalableBloomFilter(100, 1.0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -1,18 +1,18 @@
 package ru.misis.gamification.service.simple.transaction;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
-import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import ru.misis.gamification.entity.Course;
+import ru.misis.gamification.entity.EventType;
 import ru.misis.gamification.entity.Transaction;
 import ru.misis.gamification.entity.User;
 import ru.misis.gamification.exception.DuplicateEventException;
@@ -22,11 +22,17 @@ import ru.misis.gamification.service.simple.user.UserService;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -40,11 +46,16 @@ class TransactionServiceUnitTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private EventIdFilter eventIdFilter;
+
     @InjectMocks
     private TransactionServiceImpl service;
 
-    @Captor
-    private ArgumentCaptor<Transaction> txCaptor;
+    @BeforeEach
+    void setUp() {
+        lenient().when(eventIdFilter.mightContain(any())).thenReturn(true);
+    }
 
     private Transaction createValidTransaction() {
         User user = User.builder()
@@ -52,9 +63,16 @@ class TransactionServiceUnitTest {
                 .userId("user-123")
                 .build();
 
+        EventType eventType = EventType.builder()
+                .uuid(UUID.randomUUID())
+                .typeCode("quiz")
+                .build();
+
         return Transaction.builder()
                 .eventId("evt-unique-001")
                 .user(user)
+                .eventType(eventType)
+                .description("Начисление за Квиз")
                 .points(150)
                 .createdAt(LocalDateTime.now())
                 .build();
@@ -80,59 +98,118 @@ class TransactionServiceUnitTest {
         verify(transactionRepository).existsByEventId("evt-new");
     }
 
+    @Test
+    void isExistsByEventId_filterSaysAbsent_skipsQuery() {
+        when(eventIdFilter.mightContain("evt-new")).thenReturn(false);
+
+        boolean exists = service.isExistsByEventId("evt-new");
+
+        assertThat(exists).isFalse();
+        verify(transactionRepository, never()).existsByEventId(any());
+    }
+
+    @Test
+    void isExistsByEventId_filterFalsePositive_recordsIt() {
+        when(transactionRepository.existsByEventId("evt-fp")).thenReturn(false);
+
+        assertThat(service.isExistsByEventId("evt-fp")).isFalse();
+
+        verify(eventIdFilter).recordFalsePositives(1);
+    }
+
+    @Test
+    void findExistingEventIds_queriesOnlyFilterCandidates() {
+        when(eventIdFilter.mightContain("evt-new")).thenReturn(false);
+        when(transactionRepository.findExistingEventIds(List.of("evt-old", "evt-fp"))).thenReturn(Set.of("evt-old"));
+
+        Set<String> existing = service.findExistingEventIds(List.of("evt-old", "evt-new", "evt-fp"));
+
+        assertThat(existing).containsExactly("evt-old");
+        verify(eventIdFilter).recordFalsePositives(1);
+    }
+
+    @Test
+    void findExistingEventIds_allAbsentInFilter_skipsQuery() {
+        when(eventIdFilter.mightContain(any())).thenReturn(false);
+
+        assertThat(service.findExistingEventIds(List.of("evt-1", "evt-2"))).isEmpty();
+
+        verify(transactionRepository, never()).findExistingEventIds(any());
+    }
+
     @Test
     void saveIfNotExists_uniqueEvent_savesAndReturns() {
         Transaction tx = createValidTransaction();
+        UUID uuid = UUID.randomUUID();
 
-        when(transactionRepository.existsByEventId(tx.getEventId())).thenReturn(false);
-
-        when(transactionRepository.save(tx)).thenAnswer(invocation -> {
-            Transaction argument = invocation.getArgument(0);
-            argument.setUuid(UUID.randomUUID());
-            return argument;
-        });
+        when(transactionRepository.insertIfAbsent(any(), any(), any(), any(), anyInt(), any(), any()))
+                .thenReturn(Optional.of(uuid));
 
         Transaction saved = service.saveIfNotExists(tx);
 
-        assertThat(saved.getEventId()).isEqualTo(tx.getEventId());
-        assertThat(saved.getUuid()).isNotNull();
-
-        verify(transactionRepository).existsByEventId(tx.getEventId());
-        verify(transactionRepository).save(txCaptor.capture());
+        assertThat(saved).isSameAs(tx);
+        assertThat(saved.getUuid()).isEqualTo(uuid);
+        verify(eventIdFilter).put(tx.getEventId());
 
-        assertThat(txCaptor.getValue()).isSameAs(tx);
+        verify(transactionRepository, never()).existsByEventId(any());
+        verify(transactionRepository, never()).save(any());
     }
 
     @Test
-    void saveIfNotExists_duplicateByCheck_throwsDuplicateEventException() {
+    void saveIfNotExists_duplicate_throwsDuplicateEventException() {
         Transaction tx = createValidTransaction();
         tx.setEventId("evt-dup");
 
-        when(transactionRepository.existsByEventId("evt-dup")).thenReturn(true);
+        when(transactionRepository.insertIfAbsent(any(), any(), eq("evt-dup"), any(), anyInt(), any(), any()))
+                .thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> service.saveIfNotExists(tx))
                 .isInstanceOf(DuplicateEventException.class)
                 .hasMessageContaining("evt-dup");
 
-        verify(transactionRepository).existsByEventId("evt-dup");
-        verify(transactionRepository, never()).save(any());
+        verify(transactionRepository, never()).existsByEventId(any());
     }
 
     @Test
-    void saveIfNotExists_duplicateByConstraint_throwsDuplicateEventException() {
+    void insertIfAbsent_passesColumnsAndFillsUuid() {
         Transaction tx = createValidTransaction();
-        tx.setEventId("evt-constraint");
+        Course course = Course.builder().uuid(UUID.randomUUID()).courseId("MATH-101").build();
+        tx.setCourse(course);
+        UUID uuid = UUID.randomUUID();
 
-        when(transactionRepository.existsByEventId("evt-constraint")).thenReturn(false);
-        when(transactionRepository.save(any())).thenThrow(
-                new DataIntegrityViolationException("unique constraint violation"));
+        when(transactionRepository.insertIfAbsent(tx.getUser().getUuid(), course.getUuid(), "evt-unique-001",
+                tx.getEventType().getUuid(), 150, "Начисление за Квиз", tx.getCreatedAt()))
+                .thenReturn(Optional.of(uuid));
 
-        assertThatThrownBy(() -> service.saveIfNotExists(tx))
-                .isInstanceOf(DuplicateEventException.class)
-                .hasMessageContaining("evt-constraint");
+        Optional<Transaction> saved = service.insertIfAbsent(tx);
+
+        assertThat(saved).containsSame(tx);
+        assertThat(tx.getUuid()).isEqualTo(uuid);
+    }
 
-        verify(transactionRepository).existsByEventId("evt-constraint");
-        verify(transactionRepository).save(any());
+    @Test
+    void insertIfAbsent_withoutCourseAndCreatedAt_passesNullCourseAndSetsTime() {
+        Transaction tx = createValidTransaction();
+        tx.setCreatedAt(null);
+
+        when(transactionRepository.insertIfAbsent(any(), isNull(), any(), any(), anyInt(), any(), any()))
+                .thenReturn(Optional.empty());
+
+        Optional<Transaction> saved = service.insertIfAbsent(tx);
+
+        assertThat(saved).isEmpty();
+        assertThat(tx.getCreatedAt()).isNotNull();
+        assertThat(tx.getUuid()).isNull();
+    }
+
+    @Test
+    void insertIfAbsent_nullEventType_throwsIllegalArgument() {
+        Transaction invalid = createValidTransaction();
+        invalid.setEventType(null);
+
+        assertThatThrownBy(() -> service.insertIfAbsent(invalid))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Тип события или его UUID не может быть null");
     }
 
     @Test
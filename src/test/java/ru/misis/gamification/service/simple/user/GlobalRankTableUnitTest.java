@@ -0,0 +1,107 @@
+package ru.misis.gamification.service.simple.user;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.misis.gamification.model.UserPointsView;
+import ru.misis.gamification.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class GlobalRankTableUnitTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private GlobalRankTableImpl table;
+
+    @BeforeEach
+    void setUp() {
+        table = new GlobalRankTableImpl(userRepository, new SimpleMeterRegistry(), true, 2);
+    }
+
+    @Test
+    void findRank_beforeBuild_returnsEmpty() {
+        assertThat(table.findRank(100)).isEmpty();
+        assertThat(table.countUsers()).isEmpty();
+    }
+
+    @Test
+    void findRank_denseRankAcrossPages() {
+        UserPointsView a = view(900);
+        UserPointsView b = view(500);
+        UserPointsView c = view(500);
+        UserPointsView d = view(100);
+        when(userRepository.findPointsAfter(any(), eq(2)))
+                .thenReturn(List.of(a, b))
+                .thenReturn(List.of(c, d))
+                .thenReturn(List.of());
+
+        table.rebuild();
+
+        assertThat(table.countUsers()).contains(4L);
+        assertThat(table.findRank(900)).contains(1L);
+        assertThat(table.findRank(500)).contains(2L);
+        assertThat(table.findRank(100)).contains(3L);
+        // Очки, которых ещё нет в таблице (начисление после построения)
+        assertThat(table.findRank(1000)).contains(1L);
+        assertThat(table.findRank(700)).contains(2L);
+        assertThat(table.findRank(0)).contains(4L);
+    }
+
+    @Test
+    void findRank_matchesDenseRankComputedBySorting() {
+        Random random = new Random(7);
+        List<UserPointsView> users = new ArrayList<>();
+        for (int i = 0; i < 301; i++) {
+            users.add(view(random.nextInt(100)));
+        }
+        when(userRepository.findPointsAfter(any(), eq(2))).thenAnswer(invocation -> {
+            UUID after = invocation.getArgument(0);
+            int from = after.getMostSignificantBits() == 0L && after.getLeastSignificantBits() == 0L
+                    ? 0 : users.indexOf(users.stream().filter(u -> u.getUuid().equals(after)).findFirst().orElseThrow()) + 1;
+            return users.subList(from, Math.min(from + 2, users.size()));
+        });
+
+        table.rebuild();
+
+        List<Integer> distinct = users.stream().map(UserPointsView::getTotalPoints)
+                .distinct().sorted(Comparator.reverseOrder()).toList();
+        for (UserPointsView user : users) {
+            assertThat(table.findRank(user.getTotalPoints())).contains(distinct.indexOf(user.getTotalPoints()) + 1L);
+        }
+    }
+
+    private static UserPointsView view(int totalPoints) {
+        UUID uuid = UUID.randomUUID();
+        return new UserPointsView() {
+            @Override
+            public UUID getUuid() {
+                return uuid;
+            }
+
+            @Override
+            public Integer getTotalPoints() {
+                return totalPoints;
+            }
+
+            @Override
+            public Integer getLevel() {
+                return 1;
+            }
+        };
+    }
+}
@@ -28,6 +28,8 @@ import java.util.UUID;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -46,6 +48,12 @@ class UserServiceUnitTest {
     @Mock
     private ApplicationEventPublisher eventPublisher;
 
+    @Mock
+    private UserUuidCache userUuidCache;
+
+    @Mock
+    private GlobalRankTable globalRankTable;
+
     @Spy
     @InjectMocks
     private UserServiceImpl service;
@@ -262,6 +270,17 @@ class UserServiceUnitTest {
         UUID result = service.getUserUuidByExternalId("user-123");
 
         assertThat(result).isEqualTo(uuid);
+        verify(userUuidCache).put("user-123", uuid);
+    }
+
+    @Test
+    void getUserUuidByExternalId_cached_skipsRepository() {
+        when(userUuidCache.get("user-123")).thenReturn(Optional.of(uuid));
+
+        UUID result = service.getUserUuidByExternalId("user-123");
+
+        assertThat(result).isEqualTo(uuid);
+        verifyNoInteractions(userRepository);
     }
 
     @Test
@@ -280,6 +299,18 @@ class UserServiceUnitTest {
         User result = service.getUserByExternalId("user-123");
 
         assertThat(result).isSameAs(existingUser);
+        verify(userUuidCache).put("user-123", existingUser.getUuid());
+    }
+
+    @Test
+    void getUserByExternalId_cachedUuid_loadsByPrimaryKey() {
+        when(userUuidCache.get("user-123")).thenReturn(Optional.of(uuid));
+        when(userRepository.findById(uuid)).thenReturn(Optional.of(existingUser));
+
+        User result = service.getUserByExternalId("user-123");
+
+        assertThat(result).isSameAs(existingUser);
+        verify(userRepository, never()).findByUserId(any());
     }
 
     @Test
@@ -308,4 +339,20 @@ class UserServiceUnitTest {
                 .isInstanceOf(UserNotFoundException.class)
                 .hasMessageContaining(unknownUuid.toString());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getGlobalRank_tableBuilt_skipsRepository() {
+        when(globalRankTable.findRank(500)).thenReturn(Optional.of(12L));
+
+        assertThat(service.getGlobalRank(500)).isEqualTo(12L);
+        verify(userRepository, never()).countDistinctTotalPointsAbove(anyInt());
+    }
+
+    @Test
+    void getGlobalRank_tableNotBuilt_countsInDatabase() {
+        when(globalRankTable.findRank(500)).thenReturn(Optional.empty());
+        when(userRepository.countDistinctTotalPointsAbove(500)).thenReturn(11L);
+
+        assertThat(service.getGlobalRank(500)).isEqualTo(12L);
+    }
+}
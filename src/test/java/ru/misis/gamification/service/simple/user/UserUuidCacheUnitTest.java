@@ -0,0 +1,68 @@
+package ru.misis.gamification.service.simple.user;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserUuidCacheUnitTest {
+
+    private final UUID userUuid = UUID.randomUUID();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void put_outsideTransaction_storedImmediately() {
+        UserUuidCacheImpl cache = new UserUuidCacheImpl(new SimpleMeterRegistry(), true, 100);
+
+        cache.put("student-1", userUuid);
+
+        assertThat(cache.get("student-1")).contains(userUuid);
+        assertThat(cache.get("student-2")).isEmpty();
+    }
+
+    @Test
+    void put_insideTransaction_storedOnlyAfterCommit() {
+        UserUuidCacheImpl cache = new UserUuidCacheImpl(new SimpleMeterRegistry(), true, 100);
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.put("student-1", userUuid);
+
+        assertThat(cache.get("student-1")).isEmpty();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertThat(cache.get("student-1")).contains(userUuid);
+    }
+
+    @Test
+    void put_transactionRolledBack_notStored() {
+        UserUuidCacheImpl cache = new UserUuidCacheImpl(new SimpleMeterRegistry(), true, 100);
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.put("student-1", userUuid);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertThat(cache.get("student-1")).isEmpty();
+    }
+
+    @Test
+    void disabled_neverStores() {
+        UserUuidCacheImpl cache = new UserUuidCacheImpl(new SimpleMeterRegistry(), false, 100);
+
+        cache.put("student-1", userUuid);
+
+        assertThat(cache.get("student-1")).isEmpty();
+    }
+}
@@ -1,4 +1,9 @@
 -- Удаление существующих таблиц (для чистой установки)
+DROP MATERIALIZED VIEW IF EXISTS enrollment_rank_snapshots;
+DROP TABLE IF EXISTS level_recalculation_jobs CASCADE;
+DROP TABLE IF EXISTS course_period_points CASCADE;
+DROP TABLE IF EXISTS daily_points_usage CASCADE;
+DROP TABLE IF EXISTS lms_event_inbox CASCADE;
 DROP TABLE IF EXISTS user_course_enrollments CASCADE;
 DROP TABLE IF EXISTS groups CASCADE;
 DROP TABLE IF EXISTS courses CASCADE;
@@ -23,7 +28,8 @@ COMMENT ON COLUMN users.total_points IS 'Общее количество очк
 COMMENT ON COLUMN users.level IS 'Текущий уровень';
 
 CREATE INDEX idx_users_external_id ON users (user_id);
-CREATE INDEX idx_users_points ON users (total_points DESC);
+-- Глобальный лидерборд (очки, UUID по убыванию): страницы по курсору без OFFSET
+CREATE INDEX idx_users_points ON users (total_points DESC, uuid DESC);
 CREATE INDEX idx_users_level ON users (level DESC);
 
 -- Таблица типов событий
@@ -136,6 +142,137 @@ COMMENT ON COLUMN user_course_enrollments.group_uuid IS 'Группа/поток
 COMMENT ON COLUMN user_course_enrollments.total_points_in_course IS 'Сумма очков, заработанных именно на этом курсе';
 
 CREATE INDEX idx_enrollments_user_course ON user_course_enrollments (user_uuid, course_uuid);
-CREATE INDEX idx_enrollments_course_id ON user_course_enrollments (course_uuid);
+-- Порядок лидербордов (очки, UUID пользователя по убыванию): поиск страницы по курсору без OFFSET
+CREATE INDEX idx_enrollments_course_points
+    ON user_course_enrollments (course_uuid, total_points_in_course DESC, user_uuid DESC);
 CREATE INDEX idx_enrollments_course_group_points
-    ON user_course_enrollments (course_uuid, group_uuid, total_points_in_course DESC);
\ No newline at end of file
+    ON user_course_enrollments (course_uuid, group_uuid, total_points_in_course DESC, user_uuid DESC);
+
+-- Снимок рангов лидербордов: периодически обновляется REFRESH MATERIALIZED VIEW CONCURRENTLY,
+-- ранг и страница читаются по индексу без оконных функций по всей таблице зачислений
+CREATE MATERIALIZED VIEW enrollment_rank_snapshots AS
+SELECT course_uuid,
+       group_uuid,
+       user_uuid,
+       total_points_in_course,
+       DENSE_RANK() OVER (PARTITION BY course_uuid
+           ORDER BY total_points_in_course DESC)                             AS course_rank,
+       ROW_NUMBER() OVER (PARTITION BY course_uuid
+           ORDER BY total_points_in_course DESC, user_uuid DESC)             AS course_position,
+       DENSE_RANK() OVER (PARTITION BY course_uuid, group_uuid
+           ORDER BY total_points_in_course DESC)                             AS group_rank,
+       ROW_NUMBER() OVER (PARTITION BY course_uuid, group_uuid
+           ORDER BY total_points_in_course DESC, user_uuid DESC)             AS group_position
+FROM user_course_enrollments;
+
+COMMENT ON MATERIALIZED VIEW enrollment_rank_snapshots IS 'Снимок рангов студентов на курсах и в группах';
+COMMENT ON COLUMN enrollment_rank_snapshots.course_rank IS 'Плотный ранг на курсе (DENSE_RANK)';
+COMMENT ON COLUMN enrollment_rank_snapshots.course_position IS 'Позиция в лидерборде курса, начиная с 1';
+COMMENT ON COLUMN enrollment_rank_snapshots.group_rank IS 'Плотный ранг в группе курса';
+COMMENT ON COLUMN enrollment_rank_snapshots.group_position IS 'Позиция в лидерборде группы, начиная с 1';
+
+-- Уникальный индекс обязателен для REFRESH ... CONCURRENTLY
+CREATE UNIQUE INDEX idx_rank_snapshots_course_user ON enrollment_rank_snapshots (course_uuid, user_uuid);
+CREATE INDEX idx_rank_snapshots_course_position ON enrollment_rank_snapshots (course_uuid, course_position);
+CREATE INDEX idx_rank_snapshots_group_position
+    ON enrollment_rank_snapshots (course_uuid, group_uuid, group_position);
+
+-- Входящая очередь событий LMS (асинхронный режим приёма)
+CREATE TABLE lms_event_inbox
+(
+    uuid            UUID PRIMARY KEY      DEFAULT gen_random_uuid(),
+    event_id        VARCHAR(255) NOT NULL UNIQUE,
+    user_id         VARCHAR(100) NOT NULL,
+    event_type      VARCHAR(50)  NOT NULL,
+    course_id       VARCHAR(100),
+    group_id        VARCHAR(100),
+    status          VARCHAR(20)  NOT NULL DEFAULT 'PENDING'
+        CHECK (status IN ('PENDING', 'PROCESSING', 'PROCESSED', 'PARKED')),
+    attempts        INTEGER      NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP(6) NOT NULL DEFAULT NOW(),
+    last_error      VARCHAR(1000),
+    result_status   VARCHAR(20),
+    result_message  VARCHAR(500),
+    created_at      TIMESTAMP(6) NOT NULL DEFAULT NOW(),
+    updated_at      TIMESTAMP(6),
+    processed_at    TIMESTAMP(6)
+);
+
+COMMENT ON TABLE lms_event_inbox IS 'Входящая очередь событий LMS';
+COMMENT ON COLUMN lms_event_inbox.event_id IS 'Идентификатор события из LMS';
+COMMENT ON COLUMN lms_event_inbox.user_id IS 'Идентификатор пользователя из LMS';
+COMMENT ON COLUMN lms_event_inbox.event_type IS 'Код типа события';
+COMMENT ON COLUMN lms_event_inbox.status IS 'Статус обработки';
+COMMENT ON COLUMN lms_event_inbox.attempts IS 'Количество попыток обработки';
+COMMENT ON COLUMN lms_event_inbox.next_attempt_at IS 'Время следующей попытки обработки';
+COMMENT ON COLUMN lms_event_inbox.result_status IS 'Статус результата начисления';
+
+CREATE INDEX idx_lms_event_inbox_status_next_attempt ON lms_event_inbox (status, next_attempt_at);
+
+-- Дневные счётчики очков (проверка maxDailyPoints без суммирования транзакций)
+CREATE TABLE daily_points_usage
+(
+    user_uuid       UUID    NOT NULL REFERENCES users (uuid) ON DELETE CASCADE,
+    event_type_uuid UUID    NOT NULL REFERENCES event_types (uuid) ON DELETE CASCADE,
+    day             DATE    NOT NULL,
+    points          INTEGER NOT NULL DEFAULT 0,
+    PRIMARY KEY (user_uuid, event_type_uuid, day)
+);
+
+COMMENT ON TABLE daily_points_usage IS 'Дневные счётчики очков по типам событий';
+COMMENT ON COLUMN daily_points_usage.points IS 'Сумма очков, начисленных за день';
+
+CREATE INDEX idx_daily_points_usage_day ON daily_points_usage (day);
+
+-- Очки по курсу за неделю и месяц (лидерборды за период без суммирования транзакций)
+CREATE TABLE course_period_points
+(
+    course_uuid  UUID        NOT NULL REFERENCES courses (uuid) ON DELETE CASCADE,
+    period       VARCHAR(10) NOT NULL CHECK (period IN ('WEEK', 'MONTH')),
+    period_start DATE        NOT NULL,
+    user_uuid    UUID        NOT NULL REFERENCES users (uuid) ON DELETE CASCADE,
+    group_uuid   UUID REFERENCES groups (uuid) ON DELETE SET NULL,
+    points       INTEGER     NOT NULL DEFAULT 0,
+    PRIMARY KEY (course_uuid, period, period_start, user_uuid)
+);
+
+COMMENT ON TABLE course_period_points IS 'Очки студентов по курсу за неделю и месяц';
+COMMENT ON COLUMN course_period_points.period IS 'Период: WEEK — неделя, MONTH — месяц';
+COMMENT ON COLUMN course_period_points.period_start IS 'Первый день периода (понедельник или первое число)';
+COMMENT ON COLUMN course_period_points.group_uuid IS 'Группа студента на курсе при последнем начислении';
+COMMENT ON COLUMN course_period_points.points IS 'Сумма очков, начисленных по курсу за период';
+
+-- Порядок лидербордов за период (очки, UUID пользователя по убыванию): страницы и курсоры по индексу
+CREATE INDEX idx_course_period_points_leaderboard
+    ON course_period_points (course_uuid, period, period_start, points DESC, user_uuid DESC);
+CREATE INDEX idx_course_period_points_group_leaderboard
+    ON course_period_points (course_uuid, period, period_start, group_uuid, points DESC, user_uuid DESC);
+CREATE INDEX idx_course_period_points_period_start ON course_period_points (period_start);
+
+-- Задачи пересчёта уровней пользователей после смены формулы
+CREATE TABLE level_recalculation_jobs
+(
+    uuid           UUID PRIMARY KEY      DEFAULT gen_random_uuid(),
+    status         VARCHAR(20)  NOT NULL DEFAULT 'RUNNING'
+        CHECK (status IN ('RUNNING', 'COMPLETED', 'FAILED', 'CANCELLED')),
+    formula        VARCHAR(200) NOT NULL,
+    last_user_uuid UUID,
+    processed      BIGINT       NOT NULL DEFAULT 0,
+    changed        BIGINT       NOT NULL DEFAULT 0,
+    total_users    BIGINT       NOT NULL DEFAULT 0,
+    last_error     VARCHAR(1000),
+    started_at     TIMESTAMP(6) NOT NULL DEFAULT NOW(),
+    heartbeat_at   TIMESTAMP(6) NOT NULL DEFAULT NOW(),
+    finished_at    TIMESTAMP(6)
+);
+
+COMMENT ON TABLE level_recalculation_jobs IS 'Задачи пересчёта уровней пользователей';
+COMMENT ON COLUMN level_recalculation_jobs.formula IS 'Формула уровней, по которой выполняется пересчёт';
+COMMENT ON COLUMN level_recalculation_jobs.last_user_uuid IS 'UUID последнего обработанного пользователя (точка продолжения)';
+COMMENT ON COLUMN level_recalculation_jobs.processed IS 'Обработано пользователей';
+COMMENT ON COLUMN level_recalculation_jobs.changed IS 'Пользователей с изменённым уровнем';
+COMMENT ON COLUMN level_recalculation_jobs.total_users IS 'Пользователей на момент запуска';
+COMMENT ON COLUMN level_recalculation_jobs.heartbeat_at IS 'Время последней отметки выполняющего экземпляра';
+
+-- Одновременно выполняется не более одной задачи
+CREATE UNIQUE INDEX idx_level_recalculation_jobs_running ON level_recalculation_jobs (status) WHERE status = 'RUNNING';